@@ -92,6 +92,9 @@ public class OptimizingConfig {
   // self-optimizing.min-plan-interval
   private long minPlanInterval;
 
+  // self-optimizing.history.keep-days
+  private int historyKeepDays;
+
   public OptimizingConfig() {}
 
   public boolean isEnabled() {
@@ -121,6 +124,15 @@ public class OptimizingConfig {
     return this;
   }
 
+  public int getHistoryKeepDays() {
+    return historyKeepDays;
+  }
+
+  public OptimizingConfig setHistoryKeepDays(int historyKeepDays) {
+    this.historyKeepDays = historyKeepDays;
+    return this;
+  }
+
   public String getOptimizerGroup() {
     return optimizerGroup;
   }
@@ -300,6 +312,7 @@ public class OptimizingConfig {
         && baseHashBucket == that.baseHashBucket
         && baseRefreshInterval == that.baseRefreshInterval
         && hiveRefreshInterval == that.hiveRefreshInterval
+        && historyKeepDays == that.historyKeepDays
         && Objects.equal(optimizerGroup, that.optimizerGroup);
   }
 
@@ -324,7 +337,8 @@ public class OptimizingConfig {
         fullRewriteAllFiles,
         baseHashBucket,
         baseRefreshInterval,
-        hiveRefreshInterval);
+        hiveRefreshInterval,
+        historyKeepDays);
   }
 
   @Override
@@ -348,6 +362,7 @@ public class OptimizingConfig {
         .add("baseHashBucket", baseHashBucket)
         .add("baseRefreshInterval", baseRefreshInterval)
         .add("hiveRefreshInterval", hiveRefreshInterval)
+        .add("historyKeepDays", historyKeepDays)
         .toString();
   }
 
@@ -447,6 +462,11 @@ public class OptimizingConfig {
             PropertyUtil.propertyAsLong(
                 properties,
                 TableProperties.SELF_OPTIMIZING_MIN_PLAN_INTERVAL,
-                TableProperties.SELF_OPTIMIZING_MIN_PLAN_INTERVAL_DEFAULT));
+                TableProperties.SELF_OPTIMIZING_MIN_PLAN_INTERVAL_DEFAULT))
+        .setHistoryKeepDays(
+            PropertyUtil.propertyAsInt(
+                properties,
+                TableProperties.SELF_OPTIMIZING_HISTORY_KEEP_DAYS,
+                TableProperties.SELF_OPTIMIZING_HISTORY_KEEP_DAYS_DEFAULT));
   }
 }
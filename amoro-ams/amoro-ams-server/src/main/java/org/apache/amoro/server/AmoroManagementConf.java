@@ -228,6 +228,33 @@ public class AmoroManagementConf {
           .defaultValue("token")
           .withDescription("The authentication used by REST APIs, token (default) or basic.");
 
+  public static final ConfigOption<Long> TABLE_METADATA_CACHE_MAX_ENTRIES =
+      ConfigOptions.key("table-metadata-cache.max-entries")
+          .longType()
+          .defaultValue(1000L)
+          .withDescription(
+              "Max number of parsed iceberg metadata of internal tables to cache, 0 to disable.");
+
+  public static final ConfigOption<Duration> TABLE_METADATA_CACHE_TTL =
+      ConfigOptions.key("table-metadata-cache.ttl")
+          .durationType()
+          .defaultValue(Duration.ofMinutes(10))
+          .withDescription("Time to keep parsed metadata in cache after the last access.");
+
+  public static final ConfigOption<Long> TABLE_META_CACHE_MAX_ENTRIES =
+      ConfigOptions.key("table-meta-cache.max-entries")
+          .longType()
+          .defaultValue(10000L)
+          .withDescription(
+              "Max number of table identifiers and table metadata stored in AMS to cache, 0 to disable.");
+
+  public static final ConfigOption<Duration> TABLE_META_CACHE_TTL =
+      ConfigOptions.key("table-meta-cache.ttl")
+          .durationType()
+          .defaultValue(Duration.ofMinutes(1))
+          .withDescription(
+              "Time to keep table identifiers in cache after they are loaded, identifiers of tables dropped by other AMS nodes may be stale for this duration.");
+
   public static final ConfigOption<Integer> OPTIMIZING_COMMIT_THREAD_COUNT =
       ConfigOptions.key("self-optimizing.commit-thread-count")
           .intType()
@@ -248,6 +275,37 @@ public class AmoroManagementConf {
           .withDescription(
               "The number of hours that self-optimizing runtime data expire interval.");
 
+  public static final ConfigOption<Integer> OPTIMIZING_TASK_RUNTIME_KEEP_DAYS =
+      ConfigOptions.key("self-optimizing.task-runtime-keep-days")
+          .intType()
+          .defaultValue(30)
+          .withDescription(
+              "The number of days that self-optimizing task runtimes are kept, it can not exceed"
+                  + " the days that the optimizing processes are kept.");
+
+  public static final ConfigOption<Integer> OPTIMIZING_TASK_QUOTA_KEEP_DAYS =
+      ConfigOptions.key("self-optimizing.task-quota-keep-days")
+          .intType()
+          .defaultValue(30)
+          .withDescription(
+              "The number of days that self-optimizing task quotas are kept, it can not exceed"
+                  + " the days that the optimizing processes are kept.");
+
+  public static final ConfigOption<Integer> OPTIMIZING_RUNTIME_DATA_EXPIRE_BATCH_SIZE =
+      ConfigOptions.key("self-optimizing.runtime-data-expire-batch-size")
+          .intType()
+          .defaultValue(100)
+          .withDescription(
+              "The max number of optimizing processes whose runtime data are expired in one"
+                  + " transaction.");
+
+  public static final ConfigOption<Duration> OPTIMIZING_RUNTIME_DATA_EXPIRE_BATCH_INTERVAL =
+      ConfigOptions.key("self-optimizing.runtime-data-expire-batch-interval")
+          .durationType()
+          .defaultValue(Duration.ofMillis(100))
+          .withDescription(
+              "The time to pause between two batches when expiring self-optimizing runtime data.");
+
   public static final ConfigOption<String> DB_TYPE =
       ConfigOptions.key("database.type")
           .stringType()
@@ -296,6 +354,13 @@ public class AmoroManagementConf {
           .defaultValue(1000L)
           .withDescription("Max wait time before getting a connection timeout.");
 
+  public static final ConfigOption<Duration> DB_SLOW_STATEMENT_THRESHOLD =
+      ConfigOptions.key("database.slow-statement-threshold")
+          .durationType()
+          .defaultValue(Duration.ofSeconds(1))
+          .withDescription(
+              "Statements executed longer than this threshold are logged as slow statements, 0 to disable.");
+
   public static final ConfigOption<Long> OPTIMIZER_HB_TIMEOUT =
       ConfigOptions.key("optimizer.heart-beat-timeout")
           .longType()
@@ -343,6 +408,13 @@ public class AmoroManagementConf {
           .defaultValue(1000)
           .withDescription("Row limit of result-set");
 
+  public static final ConfigOption<Long> TERMINAL_RESULT_MEMORY_LIMIT =
+      ConfigOptions.key("terminal.result.memory-limit")
+          .longType()
+          .defaultValue(64 * 1024 * 1024L)
+          .withDescription(
+              "Max estimated size in bytes of result rows held by a session, rows beyond it are truncated.");
+
   public static final ConfigOption<Boolean> TERMINAL_STOP_ON_ERROR =
       ConfigOptions.key("terminal.stop-on-error")
           .booleanType()
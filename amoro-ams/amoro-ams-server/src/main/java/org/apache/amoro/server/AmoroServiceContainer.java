@@ -33,7 +33,9 @@ import org.apache.amoro.server.dashboard.utils.CommonUtil;
 import org.apache.amoro.server.exception.AmoroRuntimeException;
 import org.apache.amoro.server.manager.EventsManager;
 import org.apache.amoro.server.manager.MetricManager;
+import org.apache.amoro.server.persistence.PersistenceMetrics;
 import org.apache.amoro.server.persistence.SqlSessionFactoryProvider;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.resource.ContainerMetadata;
 import org.apache.amoro.server.resource.OptimizerManager;
 import org.apache.amoro.server.resource.ResourceContainers;
@@ -41,6 +43,7 @@ import org.apache.amoro.server.table.DefaultTableService;
 import org.apache.amoro.server.table.RuntimeHandlerChain;
 import org.apache.amoro.server.table.TableService;
 import org.apache.amoro.server.table.executor.AsyncTableExecutors;
+import org.apache.amoro.server.table.internal.InternalTableMetadataCache;
 import org.apache.amoro.server.terminal.TerminalManager;
 import org.apache.amoro.server.utils.ThriftServiceProxy;
 import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
@@ -130,6 +133,9 @@ public class AmoroServiceContainer {
   public void startService() throws Exception {
     EventsManager.getInstance();
     MetricManager.getInstance();
+    InternalTableMetadataCache.initialize(serviceConfig);
+    TableMetaCache.initialize(serviceConfig, MetricManager.getInstance().getGlobalRegistry());
+    PersistenceMetrics.initialize(serviceConfig, MetricManager.getInstance().getGlobalRegistry());
 
     tableService = new DefaultTableService(serviceConfig);
     optimizingService = new DefaultOptimizingService(serviceConfig, tableService);
@@ -189,7 +195,10 @@ public class AmoroServiceContainer {
     optimizingService = null;
 
     EventsManager.dispose();
+    TableMetaCache.dispose();
+    PersistenceMetrics.dispose();
     MetricManager.dispose();
+    InternalTableMetadataCache.dispose();
   }
 
   private void initConfig() throws IOException {
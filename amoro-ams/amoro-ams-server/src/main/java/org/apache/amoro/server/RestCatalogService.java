@@ -44,14 +44,17 @@ import org.apache.amoro.server.exception.ObjectNotExistsException;
 import org.apache.amoro.server.manager.EventsManager;
 import org.apache.amoro.server.persistence.PersistentBase;
 import org.apache.amoro.server.table.TableService;
+import org.apache.amoro.server.table.internal.IcebergInternalTableOperations;
 import org.apache.amoro.server.table.internal.InternalTableCreator;
 import org.apache.amoro.server.table.internal.InternalTableHandler;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.shade.guava32.com.google.common.hash.Hashing;
 import org.apache.amoro.utils.MixedCatalogUtil;
 import org.apache.amoro.utils.TablePropertyUtil;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.iceberg.TableMetadata;
 import org.apache.iceberg.TableOperations;
 import org.apache.iceberg.catalog.Namespace;
@@ -77,6 +80,7 @@ import org.apache.iceberg.rest.responses.LoadTableResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -99,6 +103,10 @@ public class RestCatalogService extends PersistentBase {
 
   private static final String ICEBERG_CATALOG_PREFIX_KEY = "prefix";
 
+  private static final String ETAG_HEADER = "ETag";
+
+  private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
   private static final Set<String> catalogPropertiesNotReturned = Collections.emptySet();
 
   private static final Set<String> catalogPropertiesOverwrite =
@@ -304,6 +312,16 @@ public class RestCatalogService extends PersistentBase {
         ctx,
         handler -> {
           TableOperations ops = handler.newTableOperator();
+          String metadataFileLocation = currentMetadataLocation(ops);
+          if (StringUtils.isNotBlank(metadataFileLocation)) {
+            String etag = etag(metadataFileLocation);
+            ctx.header(ETAG_HEADER, etag);
+            if (etagMatches(ctx, etag)) {
+              ctx.status(HttpCode.NOT_MODIFIED);
+              return null;
+            }
+          }
+
           TableMetadata tableMetadata = ops.current();
           if (tableMetadata == null) {
             throw new NoSuchTableException("failed to load table from metadata file.");
@@ -380,6 +398,43 @@ public class RestCatalogService extends PersistentBase {
         });
   }
 
+  private static String currentMetadataLocation(TableOperations ops) {
+    if (ops instanceof IcebergInternalTableOperations) {
+      // known without reading the metadata file
+      return ((IcebergInternalTableOperations) ops).currentMetadataLocation();
+    }
+    TableMetadata current = ops.current();
+    return current == null ? null : current.metadataFileLocation();
+  }
+
+  /**
+   * The metadata file of a table is never changed after committed, so the location of the current
+   * metadata file identifies the response of load table.
+   */
+  private static String etag(String metadataFileLocation) {
+    return "\""
+        + Hashing.sha256().hashString(metadataFileLocation, StandardCharsets.UTF_8).toString()
+        + "\"";
+  }
+
+  private static boolean etagMatches(Context ctx, String etag) {
+    String ifNoneMatch = ctx.header(IF_NONE_MATCH_HEADER);
+    if (StringUtils.isBlank(ifNoneMatch)) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String value = candidate.trim();
+      // weak comparison is used for If-None-Match
+      if (value.startsWith("W/")) {
+        value = value.substring(2);
+      }
+      if ("*".equals(value) || etag.equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private <T> T bodyAsClass(Context ctx, Class<T> clz) {
     return jsonMapper.fromJsonString(ctx.body(), clz);
   }
@@ -397,7 +452,7 @@ public class RestCatalogService extends PersistentBase {
     RESTResponse r = handler.apply(internalCatalog);
     if (r != null) {
       jsonResponse(ctx, r);
-    } else {
+    } else if (ctx.status() != HttpCode.NOT_MODIFIED.getStatus()) {
       ctx.status(HttpCode.NO_CONTENT);
     }
   }
@@ -26,6 +26,7 @@ import org.apache.amoro.UnifiedCatalog;
 import org.apache.amoro.api.CatalogMeta;
 import org.apache.amoro.api.ServerTableIdentifier;
 import org.apache.amoro.properties.CatalogMetaProperties;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.table.TableMetaStore;
@@ -58,6 +59,7 @@ public class ExternalCatalog extends ServerCatalog {
     ServerTableIdentifier tableIdentifier =
         ServerTableIdentifier.of(getMetadata().getCatalogName(), database, tableName, format);
     doAs(TableMetaMapper.class, mapper -> mapper.insertTable(tableIdentifier));
+    TableMetaCache.getInstance().invalidate(tableIdentifier);
   }
 
   public ServerTableIdentifier getServerTableIdentifier(String database, String tableName) {
@@ -71,6 +73,7 @@ public class ExternalCatalog extends ServerCatalog {
     doAs(
         TableMetaMapper.class,
         mapper -> mapper.deleteTableIdByName(getMetadata().getCatalogName(), database, tableName));
+    TableMetaCache.getInstance().invalidate(getMetadata().getCatalogName(), database, tableName);
   }
 
   @Override
@@ -26,6 +26,7 @@ import org.apache.amoro.api.TableIdentifier;
 import org.apache.amoro.server.exception.AlreadyExistsException;
 import org.apache.amoro.server.exception.IllegalMetadataException;
 import org.apache.amoro.server.exception.ObjectNotExistsException;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.persistence.mapper.CatalogMetaMapper;
 import org.apache.amoro.server.persistence.mapper.TableBlockerMapper;
 import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
@@ -135,6 +136,7 @@ public abstract class InternalCatalog extends ServerCatalog {
                 mapper -> mapper.incTableCount(1, name()),
                 () -> new ObjectNotExistsException(name())),
         () -> increaseDatabaseTableCount(tableIdentifier.getDatabase()));
+    TableMetaCache.getInstance().invalidate(tableIdentifier);
 
     return getAs(
         TableMetaMapper.class,
@@ -173,6 +175,7 @@ public abstract class InternalCatalog extends ServerCatalog {
                 mapper -> mapper.decTableCount(1, tableIdentifier.getCatalog()),
                 () -> new ObjectNotExistsException(name())),
         () -> decreaseDatabaseTableCount(tableIdentifier.getDatabase()));
+    TableMetaCache.getInstance().invalidate(tableIdentifier);
     return tableIdentifier;
   }
 
@@ -186,23 +189,12 @@ public abstract class InternalCatalog extends ServerCatalog {
 
   @Override
   public boolean tableExists(String database, String tableName) {
-    ServerTableIdentifier tableIdentifier =
-        getAs(
-            TableMetaMapper.class,
-            mapper ->
-                mapper.selectTableIdentifier(getMetadata().getCatalogName(), database, tableName));
-    return tableIdentifier != null
-        && getAs(
-                TableMetaMapper.class,
-                mapper -> mapper.selectTableMetaById(tableIdentifier.getId()))
-            != null;
+    return TableMetaCache.getInstance().getTableMetadata(name(), database, tableName) != null;
   }
 
   public TableMetadata loadTableMetadata(String database, String table) {
     return Optional.ofNullable(
-            getAs(
-                TableMetaMapper.class,
-                mapper -> mapper.selectTableMetaByName(name(), database, table)))
+            TableMetaCache.getInstance().getTableMetadata(name(), database, table))
         .orElseThrow(
             () ->
                 new ObjectNotExistsException(
@@ -26,7 +26,7 @@ import org.apache.amoro.api.CatalogMeta;
 import org.apache.amoro.api.config.Configurations;
 import org.apache.amoro.io.AuthenticatedFileIO;
 import org.apache.amoro.mixed.InternalMixedIcebergCatalog;
-import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.table.TableMetadata;
 import org.apache.amoro.server.table.internal.InternalMixedIcebergCreator;
 import org.apache.amoro.server.table.internal.InternalMixedIcebergHandler;
@@ -101,10 +101,8 @@ public class InternalMixedCatalogImpl extends InternalIcebergCatalogImpl {
     Preconditions.checkArgument(
         !isChangeStoreName(tableName), "table name is invalid for load table");
     TableMetadata tableMetadata =
-        getAs(
-            TableMetaMapper.class,
-            mapper ->
-                mapper.selectTableMetaByName(getMetadata().getCatalogName(), database, tableName));
+        TableMetaCache.getInstance()
+            .getTableMetadata(getMetadata().getCatalogName(), database, tableName);
     if (tableMetadata == null) {
       return null;
     }
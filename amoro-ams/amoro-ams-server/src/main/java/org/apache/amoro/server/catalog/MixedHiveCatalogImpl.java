@@ -25,7 +25,7 @@ import org.apache.amoro.formats.mixed.MixedTable;
 import org.apache.amoro.hive.CachedHiveClientPool;
 import org.apache.amoro.hive.HMSClient;
 import org.apache.amoro.hive.catalog.MixedHiveTables;
-import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.table.TableMetadata;
 import org.apache.amoro.server.table.internal.InternalTableCreator;
 import org.apache.amoro.server.table.internal.InternalTableHandler;
@@ -60,10 +60,8 @@ public class MixedHiveCatalogImpl extends InternalCatalog {
   @Override
   public AmoroTable<?> loadTable(String database, String tableName) {
     TableMetadata tableMetadata =
-        getAs(
-            TableMetaMapper.class,
-            mapper ->
-                mapper.selectTableMetaByName(getMetadata().getCatalogName(), database, tableName));
+        TableMetaCache.getInstance()
+            .getTableMetadata(getMetadata().getCatalogName(), database, tableName);
     if (tableMetadata == null) {
       return null;
     }
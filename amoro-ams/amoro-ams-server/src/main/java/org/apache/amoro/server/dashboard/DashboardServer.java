@@ -221,6 +221,9 @@ public class DashboardServer {
             get(
                 "/catalogs/{catalog}/dbs/{db}/tables/{table}/optimizing-processes/{processId}/tasks",
                 tableController::getOptimizingProcessTasks);
+            get(
+                "/catalogs/{catalog}/dbs/{db}/tables/{table}/optimizing-rollups",
+                tableController::getOptimizingProcessRollups);
             get(
                 "/catalogs/{catalog}/dbs/{db}/tables/{table}/snapshots",
                 tableController::getTableSnapshots);
@@ -43,9 +43,18 @@ public interface FormatTableDescriptor {
   /** Get the table metadata information of the {@link AmoroTable}. */
   ServerTableMeta getTableDetail(AmoroTable<?> amoroTable);
 
-  /** Get the snapshot information of the {@link AmoroTable}. */
-  List<AmoroSnapshotsOfTable> getSnapshots(
-      AmoroTable<?> amoroTable, String ref, OperationType operationType);
+  /**
+   * Get the paged snapshot information of the {@link AmoroTable} and total size, snapshots
+   * committed in the time range [startTime, endTime] are sorted by commit time in descending order.
+   */
+  Pair<List<AmoroSnapshotsOfTable>, Integer> getSnapshots(
+      AmoroTable<?> amoroTable,
+      String ref,
+      OperationType operationType,
+      long startTime,
+      long endTime,
+      int limit,
+      int offset);
 
   /** Get the snapshot detail information of the {@link AmoroTable}. */
   List<PartitionFileBaseInfo> getSnapshotDetail(AmoroTable<?> amoroTable, long snapshotId);
@@ -53,12 +62,16 @@ public interface FormatTableDescriptor {
   /** Get the DDL information of the {@link AmoroTable}. */
   List<DDLInfo> getTableOperations(AmoroTable<?> amoroTable);
 
-  /** Get the partition information of the {@link AmoroTable}. */
-  List<PartitionBaseInfo> getTablePartitions(AmoroTable<?> amoroTable);
+  /**
+   * Get the paged partition information of the {@link AmoroTable} and total size, partitions
+   * containing the filter are sorted by partition in descending order.
+   */
+  Pair<List<PartitionBaseInfo>, Integer> getTablePartitions(
+      AmoroTable<?> amoroTable, String filter, int limit, int offset);
 
-  /** Get the file information of the {@link AmoroTable}. */
-  List<PartitionFileBaseInfo> getTableFiles(
-      AmoroTable<?> amoroTable, String partition, Integer specId);
+  /** Get the paged file information of the {@link AmoroTable} and total size. */
+  Pair<List<PartitionFileBaseInfo>, Integer> getTableFiles(
+      AmoroTable<?> amoroTable, String partition, Integer specId, int limit, int offset);
 
   /** Get the paged optimizing process information of the {@link AmoroTable} and total size. */
   Pair<List<OptimizingProcessInfo>, Integer> getOptimizingProcessesInfo(
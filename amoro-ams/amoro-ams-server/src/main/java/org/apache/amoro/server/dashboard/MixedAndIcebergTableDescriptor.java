@@ -20,7 +20,6 @@ package org.apache.amoro.server.dashboard;
 
 import org.apache.amoro.AmoroTable;
 import org.apache.amoro.TableFormat;
-import org.apache.amoro.api.CommitMetaProducer;
 import org.apache.amoro.data.DataFileType;
 import org.apache.amoro.data.FileNameRules;
 import org.apache.amoro.server.dashboard.component.reverser.DDLReverser;
@@ -46,8 +45,8 @@ import org.apache.amoro.server.optimizing.OptimizingProcessMeta;
 import org.apache.amoro.server.optimizing.OptimizingTaskMeta;
 import org.apache.amoro.server.persistence.PersistentBase;
 import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.table.PartitionStatisticsManager;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
-import org.apache.amoro.shade.guava32.com.google.common.collect.Iterables;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.table.KeyedTable;
 import org.apache.amoro.table.MixedTable;
@@ -74,6 +73,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -90,8 +90,13 @@ public class MixedAndIcebergTableDescriptor extends PersistentBase
     implements FormatTableDescriptor {
 
   private static final Logger LOG = LoggerFactory.getLogger(MixedAndIcebergTableDescriptor.class);
+  private static final long SNAPSHOT_HISTORY_INDEX_MAX_SNAPSHOTS = 1_000_000L;
+  private static final Duration SNAPSHOT_HISTORY_INDEX_TTL = Duration.ofHours(1);
 
   private final ExecutorService executorService;
+  private final SnapshotHistoryIndex snapshotHistoryIndex =
+      new SnapshotHistoryIndex(SNAPSHOT_HISTORY_INDEX_MAX_SNAPSHOTS, SNAPSHOT_HISTORY_INDEX_TTL);
+  private final PartitionStatisticsManager partitionStatistics = new PartitionStatisticsManager();
 
   public MixedAndIcebergTableDescriptor(ExecutorService executorService) {
     this.executorService = executorService;
@@ -204,127 +209,126 @@ public class MixedAndIcebergTableDescriptor extends PersistentBase
     return totalRecords;
   }
 
-  private Long snapshotIdOfTableRef(Table table, String ref) {
-    if (ref == null) {
-      ref = SnapshotRef.MAIN_BRANCH;
-    }
-    Snapshot snapshot = table.snapshot(ref);
-    if (snapshot == null) {
-      return null;
-    }
-    return snapshot.snapshotId();
-  }
-
   @Override
-  public List<AmoroSnapshotsOfTable> getSnapshots(
-      AmoroTable<?> amoroTable, String ref, OperationType operationType) {
+  public Pair<List<AmoroSnapshotsOfTable>, Integer> getSnapshots(
+      AmoroTable<?> amoroTable,
+      String ref,
+      OperationType operationType,
+      long startTime,
+      long endTime,
+      int limit,
+      int offset) {
     MixedTable mixedTable = getTable(amoroTable);
+    List<Table> stores =
+        mixedTable.isKeyedTable()
+            ? Arrays.asList(
+                mixedTable.asKeyedTable().changeTable(), mixedTable.asKeyedTable().baseTable())
+            : Collections.singletonList(mixedTable.asUnkeyedTable());
+    List<List<SnapshotHistoryIndex.IndexedSnapshot>> histories =
+        stores.stream()
+            .map(store -> snapshotHistoryIndex.history(store, ref))
+            .collect(Collectors.toList());
+
+    // merge the histories from the newest to the oldest, only snapshots in the page are converted
+    int[] positions = histories.stream().mapToInt(List::size).toArray();
     List<AmoroSnapshotsOfTable> snapshotsOfTables = new ArrayList<>();
-    List<Pair<Table, Long>> tableAndSnapshotIdList = new ArrayList<>();
-    if (mixedTable.isKeyedTable()) {
-      tableAndSnapshotIdList.add(
-          Pair.of(
-              mixedTable.asKeyedTable().changeTable(),
-              snapshotIdOfTableRef(mixedTable.asKeyedTable().changeTable(), ref)));
-      tableAndSnapshotIdList.add(
-          Pair.of(
-              mixedTable.asKeyedTable().baseTable(),
-              snapshotIdOfTableRef(mixedTable.asKeyedTable().baseTable(), ref)));
-    } else {
-      tableAndSnapshotIdList.add(
-          Pair.of(
-              mixedTable.asUnkeyedTable(), snapshotIdOfTableRef(mixedTable.asUnkeyedTable(), ref)));
+    int total = 0;
+    while (true) {
+      int newest = -1;
+      for (int i = 0; i < histories.size(); i++) {
+        if (positions[i] > 0
+            && (newest < 0
+                || histories.get(i).get(positions[i] - 1).getCommitTime()
+                    > histories.get(newest).get(positions[newest] - 1).getCommitTime())) {
+          newest = i;
+        }
+      }
+      if (newest < 0) {
+        break;
+      }
+      SnapshotHistoryIndex.IndexedSnapshot indexedSnapshot =
+          histories.get(newest).get(--positions[newest]);
+      if (indexedSnapshot.getCommitTime() < startTime
+          || indexedSnapshot.getCommitTime() > endTime
+          || !validOperationType(indexedSnapshot.isOptimizing(), operationType)) {
+        continue;
+      }
+      if (total >= offset && snapshotsOfTables.size() < limit) {
+        Snapshot snapshot = stores.get(newest).snapshot(indexedSnapshot.getSnapshotId());
+        if (snapshot != null) {
+          snapshotsOfTables.add(buildSnapshotOfTable(snapshot));
+        }
+      }
+      total++;
     }
-    tableAndSnapshotIdList.forEach(
-        tableAndSnapshotId -> collectSnapshots(snapshotsOfTables, tableAndSnapshotId));
-    return snapshotsOfTables.stream()
-        .filter(s -> validOperationType(s, operationType))
-        .sorted((o1, o2) -> Long.compare(o2.getCommitTime(), o1.getCommitTime()))
-        .collect(Collectors.toList());
+    return Pair.of(snapshotsOfTables, total);
   }
 
-  private boolean validOperationType(AmoroSnapshotsOfTable snapshot, OperationType operationType) {
+  private boolean validOperationType(boolean optimizing, OperationType operationType) {
     switch (operationType) {
       case ALL:
         return true;
       case OPTIMIZING:
-        return CommitMetaProducer.OPTIMIZE.name().equals(snapshot.getProducer());
+        return optimizing;
       case NON_OPTIMIZING:
-        return !CommitMetaProducer.OPTIMIZE.name().equals(snapshot.getProducer());
+        return !optimizing;
       default:
         throw new IllegalArgumentException(
             "invalid operation: " + operationType + ", only support all/optimizing/non-optimizing");
     }
   }
 
-  private void collectSnapshots(
-      List<AmoroSnapshotsOfTable> snapshotsOfTables, Pair<Table, Long> tableAndSnapshotId) {
-    Table table = tableAndSnapshotId.first();
-    Long snapshotId = tableAndSnapshotId.second();
-    if (snapshotId != null) {
-      SnapshotUtil.ancestorsOf(snapshotId, table::snapshot)
-          .forEach(
-              snapshot -> {
-                Map<String, String> summary = snapshot.summary();
-                if (summary.containsKey(
-                    org.apache.amoro.op.SnapshotSummary.TRANSACTION_BEGIN_SIGNATURE)) {
-                  return;
-                }
-                AmoroSnapshotsOfTable amoroSnapshotsOfTable = new AmoroSnapshotsOfTable();
-                amoroSnapshotsOfTable.setSnapshotId(String.valueOf(snapshot.snapshotId()));
-                int fileCount =
-                    PropertyUtil.propertyAsInt(summary, SnapshotSummary.TOTAL_DELETE_FILES_PROP, 0)
-                        + PropertyUtil.propertyAsInt(
-                            summary, SnapshotSummary.TOTAL_DATA_FILES_PROP, 0);
-                amoroSnapshotsOfTable.setFileCount(fileCount);
-                amoroSnapshotsOfTable.setFileSize(
-                    PropertyUtil.propertyAsLong(summary, SnapshotSummary.ADDED_FILE_SIZE_PROP, 0L)
-                        + PropertyUtil.propertyAsLong(
-                            summary, SnapshotSummary.REMOVED_FILE_SIZE_PROP, 0L));
-                long totalRecords =
-                    PropertyUtil.propertyAsLong(summary, SnapshotSummary.TOTAL_RECORDS_PROP, 0L);
-                amoroSnapshotsOfTable.setRecords(totalRecords);
-                amoroSnapshotsOfTable.setCommitTime(snapshot.timestampMillis());
-                amoroSnapshotsOfTable.setOperation(snapshot.operation());
-                amoroSnapshotsOfTable.setProducer(
-                    PropertyUtil.propertyAsString(
-                        summary,
-                        org.apache.amoro.op.SnapshotSummary.SNAPSHOT_PRODUCER,
-                        org.apache.amoro.op.SnapshotSummary.SNAPSHOT_PRODUCER_DEFAULT));
-
-                // normalize summary
-                Map<String, String> normalizeSummary = Maps.newHashMap(summary);
-                normalizeSummary.computeIfPresent(
-                    SnapshotSummary.TOTAL_FILE_SIZE_PROP,
-                    (k, v) -> AmsUtil.byteToXB(Long.parseLong(summary.get(k))));
-                normalizeSummary.computeIfPresent(
-                    SnapshotSummary.ADDED_FILE_SIZE_PROP,
-                    (k, v) -> AmsUtil.byteToXB(Long.parseLong(summary.get(k))));
-                normalizeSummary.computeIfPresent(
-                    SnapshotSummary.REMOVED_FILE_SIZE_PROP,
-                    (k, v) -> AmsUtil.byteToXB(Long.parseLong(summary.get(k))));
-                amoroSnapshotsOfTable.setSummary(normalizeSummary);
-
-                // Metric in chart
-                Map<String, String> recordsSummaryForChat = new HashMap<>();
-                recordsSummaryForChat.put("total-records", totalRecords + "");
-                recordsSummaryForChat.put(
-                    "eq-delete-records", summary.get(SnapshotSummary.TOTAL_EQ_DELETES_PROP));
-                recordsSummaryForChat.put(
-                    "pos-delete-records", summary.get(SnapshotSummary.TOTAL_POS_DELETES_PROP));
-                amoroSnapshotsOfTable.setRecordsSummaryForChart(recordsSummaryForChat);
-
-                Map<String, String> filesSummaryForChat = new HashMap<>();
-                filesSummaryForChat.put(
-                    "data-files", summary.get(SnapshotSummary.TOTAL_DATA_FILES_PROP));
-                filesSummaryForChat.put(
-                    "delete-files", summary.get(SnapshotSummary.TOTAL_DELETE_FILES_PROP));
-                filesSummaryForChat.put("total-files", fileCount + "");
-                amoroSnapshotsOfTable.setFilesSummaryForChart(filesSummaryForChat);
-
-                snapshotsOfTables.add(amoroSnapshotsOfTable);
-              });
-    }
+  private AmoroSnapshotsOfTable buildSnapshotOfTable(Snapshot snapshot) {
+    Map<String, String> summary = snapshot.summary();
+    AmoroSnapshotsOfTable amoroSnapshotsOfTable = new AmoroSnapshotsOfTable();
+    amoroSnapshotsOfTable.setSnapshotId(String.valueOf(snapshot.snapshotId()));
+    int fileCount =
+        PropertyUtil.propertyAsInt(summary, SnapshotSummary.TOTAL_DELETE_FILES_PROP, 0)
+            + PropertyUtil.propertyAsInt(summary, SnapshotSummary.TOTAL_DATA_FILES_PROP, 0);
+    amoroSnapshotsOfTable.setFileCount(fileCount);
+    amoroSnapshotsOfTable.setFileSize(
+        PropertyUtil.propertyAsLong(summary, SnapshotSummary.ADDED_FILE_SIZE_PROP, 0L)
+            + PropertyUtil.propertyAsLong(summary, SnapshotSummary.REMOVED_FILE_SIZE_PROP, 0L));
+    long totalRecords =
+        PropertyUtil.propertyAsLong(summary, SnapshotSummary.TOTAL_RECORDS_PROP, 0L);
+    amoroSnapshotsOfTable.setRecords(totalRecords);
+    amoroSnapshotsOfTable.setCommitTime(snapshot.timestampMillis());
+    amoroSnapshotsOfTable.setOperation(snapshot.operation());
+    amoroSnapshotsOfTable.setProducer(
+        PropertyUtil.propertyAsString(
+            summary,
+            org.apache.amoro.op.SnapshotSummary.SNAPSHOT_PRODUCER,
+            org.apache.amoro.op.SnapshotSummary.SNAPSHOT_PRODUCER_DEFAULT));
+
+    // normalize summary
+    Map<String, String> normalizeSummary = Maps.newHashMap(summary);
+    normalizeSummary.computeIfPresent(
+        SnapshotSummary.TOTAL_FILE_SIZE_PROP,
+        (k, v) -> AmsUtil.byteToXB(Long.parseLong(summary.get(k))));
+    normalizeSummary.computeIfPresent(
+        SnapshotSummary.ADDED_FILE_SIZE_PROP,
+        (k, v) -> AmsUtil.byteToXB(Long.parseLong(summary.get(k))));
+    normalizeSummary.computeIfPresent(
+        SnapshotSummary.REMOVED_FILE_SIZE_PROP,
+        (k, v) -> AmsUtil.byteToXB(Long.parseLong(summary.get(k))));
+    amoroSnapshotsOfTable.setSummary(normalizeSummary);
+
+    // Metric in chart
+    Map<String, String> recordsSummaryForChat = new HashMap<>();
+    recordsSummaryForChat.put("total-records", totalRecords + "");
+    recordsSummaryForChat.put(
+        "eq-delete-records", summary.get(SnapshotSummary.TOTAL_EQ_DELETES_PROP));
+    recordsSummaryForChat.put(
+        "pos-delete-records", summary.get(SnapshotSummary.TOTAL_POS_DELETES_PROP));
+    amoroSnapshotsOfTable.setRecordsSummaryForChart(recordsSummaryForChat);
+
+    Map<String, String> filesSummaryForChat = new HashMap<>();
+    filesSummaryForChat.put("data-files", summary.get(SnapshotSummary.TOTAL_DATA_FILES_PROP));
+    filesSummaryForChat.put("delete-files", summary.get(SnapshotSummary.TOTAL_DELETE_FILES_PROP));
+    filesSummaryForChat.put("total-files", fileCount + "");
+    amoroSnapshotsOfTable.setFilesSummaryForChart(filesSummaryForChat);
+
+    return amoroSnapshotsOfTable;
   }
 
   @Override
@@ -421,17 +425,27 @@ public class MixedAndIcebergTableDescriptor extends PersistentBase
   }
 
   @Override
-  public List<PartitionBaseInfo> getTablePartitions(AmoroTable<?> amoroTable) {
+  public Pair<List<PartitionBaseInfo>, Integer> getTablePartitions(
+      AmoroTable<?> amoroTable, String filter, int limit, int offset) {
     MixedTable mixedTable = getTable(amoroTable);
     if (mixedTable.spec().isUnpartitioned()) {
-      return new ArrayList<>();
+      return Pair.of(Collections.emptyList(), 0);
+    }
+    Pair<List<PartitionBaseInfo>, Integer> collectedPartitions =
+        partitionStatistics.listPartitions(amoroTable.id(), filter, limit, offset);
+    if (collectedPartitions != null) {
+      return collectedPartitions;
     }
+    // statistics haven't been collected yet, only partitions matching the filter are aggregated
     Map<String, PartitionBaseInfo> partitionBaseInfoHashMap = new HashMap<>();
 
     CloseableIterable<PartitionFileBaseInfo> tableFiles =
         getTableFilesInternal(amoroTable, null, null);
     try {
       for (PartitionFileBaseInfo fileInfo : tableFiles) {
+        if (filter != null && !fileInfo.getPartition().contains(filter)) {
+          continue;
+        }
         if (!partitionBaseInfoHashMap.containsKey(fileInfo.getPartition())) {
           PartitionBaseInfo partitionBaseInfo = new PartitionBaseInfo();
           partitionBaseInfo.setPartition(fileInfo.getPartition());
@@ -454,18 +468,38 @@ public class MixedAndIcebergTableDescriptor extends PersistentBase
       }
     }
 
-    return new ArrayList<>(partitionBaseInfoHashMap.values());
+    List<PartitionBaseInfo> partitions =
+        partitionBaseInfoHashMap.values().stream()
+            .sorted(Comparator.comparing(PartitionBaseInfo::getPartition).reversed())
+            .skip(offset)
+            .limit(limit)
+            .collect(Collectors.toList());
+    return Pair.of(partitions, partitionBaseInfoHashMap.size());
   }
 
   @Override
-  public List<PartitionFileBaseInfo> getTableFiles(
-      AmoroTable<?> amoroTable, String partition, Integer specId) {
+  public Pair<List<PartitionFileBaseInfo>, Integer> getTableFiles(
+      AmoroTable<?> amoroTable, String partition, Integer specId, int limit, int offset) {
+    // the total is known from snapshot summaries without a partition or spec filter, so the scan
+    // stops after the requested page, otherwise all files are scanned to count them
+    Integer knownTotal =
+        partition == null && specId == null ? totalFileCount(getTable(amoroTable)) : null;
     CloseableIterable<PartitionFileBaseInfo> tableFilesIterable =
         getTableFilesInternal(amoroTable, partition, specId);
     try {
+      // only keep files of the requested page in memory
       List<PartitionFileBaseInfo> result = new ArrayList<>();
-      Iterables.addAll(result, tableFilesIterable);
-      return result;
+      int total = 0;
+      for (PartitionFileBaseInfo fileInfo : tableFilesIterable) {
+        if (total >= offset && result.size() < limit) {
+          result.add(fileInfo);
+        }
+        total++;
+        if (knownTotal != null && total >= offset + limit) {
+          break;
+        }
+      }
+      return Pair.of(result, knownTotal != null ? knownTotal : total);
     } finally {
       try {
         tableFilesIterable.close();
@@ -494,20 +528,30 @@ public class MixedAndIcebergTableDescriptor extends PersistentBase
   public Pair<List<OptimizingProcessInfo>, Integer> getOptimizingProcessesInfo(
       AmoroTable<?> amoroTable, int limit, int offset) {
     TableIdentifier tableIdentifier = amoroTable.id();
-    List<OptimizingProcessMeta> processMetaList =
+    int total =
         getAs(
             OptimizingMapper.class,
             mapper ->
-                mapper.selectOptimizingProcesses(
+                mapper.countOptimizingProcesses(
                     tableIdentifier.getCatalog(),
                     tableIdentifier.getDatabase(),
                     tableIdentifier.getTableName()));
-    int total = processMetaList.size();
-    processMetaList =
-        processMetaList.stream().skip(offset).limit(limit).collect(Collectors.toList());
-    if (CollectionUtils.isEmpty(processMetaList)) {
+    if (total == 0) {
       return Pair.of(Collections.emptyList(), 0);
     }
+    List<OptimizingProcessMeta> processMetaList =
+        getAs(
+            OptimizingMapper.class,
+            mapper ->
+                mapper.selectOptimizingProcessesByPage(
+                    tableIdentifier.getCatalog(),
+                    tableIdentifier.getDatabase(),
+                    tableIdentifier.getTableName(),
+                    limit,
+                    offset));
+    if (CollectionUtils.isEmpty(processMetaList)) {
+      return Pair.of(Collections.emptyList(), total);
+    }
     List<Long> processIds =
         processMetaList.stream()
             .map(OptimizingProcessMeta::getProcessId)
@@ -555,6 +599,33 @@ public class MixedAndIcebergTableDescriptor extends PersistentBase
         .collect(Collectors.toList());
   }
 
+  /**
+   * Get the number of live files of the table from summaries of the current snapshots.
+   *
+   * @return the number of files, or null if the summaries don't contain file totals
+   */
+  private Integer totalFileCount(MixedTable mixedTable) {
+    List<Table> stores =
+        mixedTable.isKeyedTable()
+            ? Arrays.asList(
+                mixedTable.asKeyedTable().changeTable(), mixedTable.asKeyedTable().baseTable())
+            : Collections.singletonList(mixedTable.asUnkeyedTable());
+    long total = 0;
+    for (Table store : stores) {
+      Snapshot snapshot = store.currentSnapshot();
+      if (snapshot == null) {
+        continue;
+      }
+      String dataFiles = snapshot.summary().get(SnapshotSummary.TOTAL_DATA_FILES_PROP);
+      String deleteFiles = snapshot.summary().get(SnapshotSummary.TOTAL_DELETE_FILES_PROP);
+      if (dataFiles == null || deleteFiles == null) {
+        return null;
+      }
+      total += Long.parseLong(dataFiles) + Long.parseLong(deleteFiles);
+    }
+    return (int) Math.min(total, Integer.MAX_VALUE);
+  }
+
   private CloseableIterable<PartitionFileBaseInfo> getTableFilesInternal(
       AmoroTable<?> amoroTable, String partition, Integer specId) {
     MixedTable mixedTable = getTable(amoroTable);
@@ -179,8 +179,14 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
   }
 
   @Override
-  public List<AmoroSnapshotsOfTable> getSnapshots(
-      AmoroTable<?> amoroTable, String ref, OperationType operationType) {
+  public Pair<List<AmoroSnapshotsOfTable>, Integer> getSnapshots(
+      AmoroTable<?> amoroTable,
+      String ref,
+      OperationType operationType,
+      long startTime,
+      long endTime,
+      int limit,
+      int offset) {
     FileStoreTable table = getTable(amoroTable);
     List<AmoroSnapshotsOfTable> snapshotsOfTables = new ArrayList<>();
     Iterator<Snapshot> snapshots;
@@ -202,14 +208,25 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
             : operationType == OperationType.OPTIMIZING
                 ? s -> s.commitKind() == Snapshot.CommitKind.COMPACT
                 : s -> s.commitKind() != Snapshot.CommitKind.COMPACT;
+    List<Snapshot> matchedSnapshots = new ArrayList<>();
     while (snapshots.hasNext()) {
       Snapshot snapshot = snapshots.next();
-      if (!predicate.test(snapshot)) {
-        continue;
+      if (predicate.test(snapshot)
+          && snapshot.timeMillis() >= startTime
+          && snapshot.timeMillis() <= endTime) {
+        matchedSnapshots.add(snapshot);
       }
-      futures.add(
-          CompletableFuture.supplyAsync(() -> getSnapshotsOfTable(store, snapshot), executor));
     }
+    // only snapshots in the page are read
+    matchedSnapshots.stream()
+        .sorted((o1, o2) -> Long.compare(o2.timeMillis(), o1.timeMillis()))
+        .skip(offset)
+        .limit(limit)
+        .forEach(
+            snapshot ->
+                futures.add(
+                    CompletableFuture.supplyAsync(
+                        () -> getSnapshotsOfTable(store, snapshot), executor)));
     for (CompletableFuture<AmoroSnapshotsOfTable> completableFuture : futures) {
       try {
         snapshotsOfTables.add(completableFuture.get());
@@ -219,9 +236,7 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
         throw new RuntimeException(e);
       }
     }
-    return snapshotsOfTables.stream()
-        .sorted((o1, o2) -> Long.compare(o2.getCommitTime(), o1.getCommitTime()))
-        .collect(Collectors.toList());
+    return Pair.of(snapshotsOfTables, matchedSnapshots.size());
   }
 
   @Override
@@ -263,7 +278,8 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
   }
 
   @Override
-  public List<PartitionBaseInfo> getTablePartitions(AmoroTable<?> amoroTable) {
+  public Pair<List<PartitionBaseInfo>, Integer> getTablePartitions(
+      AmoroTable<?> amoroTable, String filter, int limit, int offset) {
     FileStoreTable table = getTable(amoroTable);
     FileStore<?> store = table.store();
     FileStorePathFactory fileStorePathFactory = store.pathFactory();
@@ -278,6 +294,9 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
         String partitionSt =
             partitionString(
                 groupByPartitionEntry.getKey(), groupByBucketEntry.getKey(), fileStorePathFactory);
+        if (filter != null && !partitionSt.contains(filter)) {
+          continue;
+        }
         int fileCount = 0;
         long fileSize = 0;
         long lastCommitTime = 0;
@@ -290,12 +309,18 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
             new PartitionBaseInfo(partitionSt, 0, fileCount, fileSize, lastCommitTime));
       }
     }
-    return partitionBaseInfoList;
+    List<PartitionBaseInfo> partitions =
+        partitionBaseInfoList.stream()
+            .sorted(Comparator.comparing(PartitionBaseInfo::getPartition).reversed())
+            .skip(offset)
+            .limit(limit)
+            .collect(Collectors.toList());
+    return Pair.of(partitions, partitionBaseInfoList.size());
   }
 
   @Override
-  public List<PartitionFileBaseInfo> getTableFiles(
-      AmoroTable<?> amoroTable, String partition, Integer specId) {
+  public Pair<List<PartitionFileBaseInfo>, Integer> getTableFiles(
+      AmoroTable<?> amoroTable, String partition, Integer specId, int limit, int offset) {
     FileStoreTable table = getTable(amoroTable);
     FileStore<?> store = table.store();
 
@@ -339,12 +364,17 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
     FileStorePathFactory fileStorePathFactory = store.pathFactory();
     List<ManifestEntry> files = store.newScan().plan().files(FileKind.ADD);
     List<PartitionFileBaseInfo> partitionFileBases = new ArrayList<>();
+    int total = 0;
     for (ManifestEntry manifestEntry : files) {
       String partitionSt =
           partitionString(manifestEntry.partition(), manifestEntry.bucket(), fileStorePathFactory);
       if (partition != null && !table.partitionKeys().isEmpty() && !partition.equals(partitionSt)) {
         continue;
       }
+      total++;
+      if (total <= offset || partitionFileBases.size() >= limit) {
+        continue;
+      }
       Long snapshotId = fileSnapshotIdMap.get(manifestEntry.file());
       partitionFileBases.add(
           new PartitionFileBaseInfo(
@@ -357,7 +387,7 @@ public class PaimonTableDescriptor implements FormatTableDescriptor {
               manifestEntry.file().fileSize()));
     }
 
-    return partitionFileBases;
+    return Pair.of(partitionFileBases, total);
   }
 
   @Override
@@ -20,6 +20,7 @@ package org.apache.amoro.server.dashboard;
 
 import org.apache.amoro.AmoroTable;
 import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.ServerTableIdentifier;
 import org.apache.amoro.api.TableIdentifier;
 import org.apache.amoro.api.config.Configurations;
 import org.apache.amoro.server.catalog.ServerCatalog;
@@ -33,11 +34,15 @@ import org.apache.amoro.server.dashboard.model.PartitionBaseInfo;
 import org.apache.amoro.server.dashboard.model.PartitionFileBaseInfo;
 import org.apache.amoro.server.dashboard.model.ServerTableMeta;
 import org.apache.amoro.server.dashboard.model.TagOrBranchInfo;
+import org.apache.amoro.server.optimizing.OptimizingProcessRollup;
 import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.TableMetaCache;
+import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
 import org.apache.amoro.server.table.TableService;
 import org.apache.iceberg.util.Pair;
 import org.apache.iceberg.util.ThreadPools;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -73,11 +78,18 @@ public class ServerTableDescriptor extends PersistentBase {
     return formatTableDescriptor.getTableDetail(amoroTable);
   }
 
-  public List<AmoroSnapshotsOfTable> getSnapshots(
-      TableIdentifier tableIdentifier, String ref, OperationType operationType) {
+  public Pair<List<AmoroSnapshotsOfTable>, Integer> getSnapshots(
+      TableIdentifier tableIdentifier,
+      String ref,
+      OperationType operationType,
+      long startTime,
+      long endTime,
+      int limit,
+      int offset) {
     AmoroTable<?> amoroTable = loadTable(tableIdentifier);
     FormatTableDescriptor formatTableDescriptor = formatDescriptorMap.get(amoroTable.format());
-    return formatTableDescriptor.getSnapshots(amoroTable, ref, operationType);
+    return formatTableDescriptor.getSnapshots(
+        amoroTable, ref, operationType, startTime, endTime, limit, offset);
   }
 
   public List<PartitionFileBaseInfo> getSnapshotDetail(
@@ -93,17 +105,18 @@ public class ServerTableDescriptor extends PersistentBase {
     return formatTableDescriptor.getTableOperations(amoroTable);
   }
 
-  public List<PartitionBaseInfo> getTablePartition(TableIdentifier tableIdentifier) {
+  public Pair<List<PartitionBaseInfo>, Integer> getTablePartition(
+      TableIdentifier tableIdentifier, String filter, int limit, int offset) {
     AmoroTable<?> amoroTable = loadTable(tableIdentifier);
     FormatTableDescriptor formatTableDescriptor = formatDescriptorMap.get(amoroTable.format());
-    return formatTableDescriptor.getTablePartitions(amoroTable);
+    return formatTableDescriptor.getTablePartitions(amoroTable, filter, limit, offset);
   }
 
-  public List<PartitionFileBaseInfo> getTableFile(
-      TableIdentifier tableIdentifier, String partition, Integer specId) {
+  public Pair<List<PartitionFileBaseInfo>, Integer> getTableFile(
+      TableIdentifier tableIdentifier, String partition, Integer specId, int limit, int offset) {
     AmoroTable<?> amoroTable = loadTable(tableIdentifier);
     FormatTableDescriptor formatTableDescriptor = formatDescriptorMap.get(amoroTable.format());
-    return formatTableDescriptor.getTableFiles(amoroTable, partition, specId);
+    return formatTableDescriptor.getTableFiles(amoroTable, partition, specId, limit, offset);
   }
 
   public List<TagOrBranchInfo> getTableTags(TableIdentifier tableIdentifier) {
@@ -138,6 +151,33 @@ public class ServerTableDescriptor extends PersistentBase {
     return formatTableDescriptor.getOptimizingTaskInfos(amoroTable, processId);
   }
 
+  /**
+   * Get a page of the daily rollups of the expired optimizing processes of a table, latest first.
+   */
+  public Pair<List<OptimizingProcessRollup>, Integer> getOptimizingProcessRollups(
+      TableIdentifier tableIdentifier, int limit, int offset) {
+    ServerTableIdentifier serverTableIdentifier =
+        TableMetaCache.getInstance()
+            .getTableIdentifier(
+                tableIdentifier.getCatalog(),
+                tableIdentifier.getDatabase(),
+                tableIdentifier.getTableName());
+    if (serverTableIdentifier == null) {
+      return Pair.of(Collections.emptyList(), 0);
+    }
+    long tableId = serverTableIdentifier.getId();
+    int total =
+        getAs(OptimizingMapper.class, mapper -> mapper.countOptimizingProcessRollups(tableId));
+    if (total == 0) {
+      return Pair.of(Collections.emptyList(), 0);
+    }
+    List<OptimizingProcessRollup> rollups =
+        getAs(
+            OptimizingMapper.class,
+            mapper -> mapper.selectOptimizingProcessRollupsByPage(tableId, limit, offset));
+    return Pair.of(rollups, total);
+  }
+
   private AmoroTable<?> loadTable(TableIdentifier identifier) {
     ServerCatalog catalog = tableService.getServerCatalog(identifier.getCatalog());
     return catalog.loadTable(identifier.getDatabase(), identifier.getTableName());
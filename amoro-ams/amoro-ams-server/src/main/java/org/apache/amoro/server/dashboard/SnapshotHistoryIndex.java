@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.dashboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.amoro.api.CommitMetaProducer;
+import org.apache.amoro.op.SnapshotSummary;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.SnapshotRef;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.iceberg.util.SnapshotUtil;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the snapshot history of iceberg tables, used by the dashboard to page snapshots without
+ * converting all of them.
+ *
+ * <p>The history of a ref is the ancestors of its head snapshot, which never change once committed.
+ * So the indexed history is extended with the new snapshots when the head moves forward and the
+ * expired snapshots are trimmed, it is only indexed again if the head is not a descendant of the
+ * indexed head, e.g. after a rollback.
+ */
+public class SnapshotHistoryIndex {
+
+  private final Cache<String, History> histories;
+
+  /**
+   * @param maxSnapshots max number of indexed snapshots of all tables
+   * @param ttl indexed history of a table is discarded if it is not accessed for this duration
+   */
+  public SnapshotHistoryIndex(long maxSnapshots, Duration ttl) {
+    this.histories =
+        Caffeine.newBuilder()
+            .maximumWeight(maxSnapshots)
+            .weigher((String key, History history) -> history.snapshots.size() + 1)
+            .expireAfterAccess(ttl)
+            .executor(Runnable::run)
+            .build();
+  }
+
+  /**
+   * Get the history of a ref of the table, snapshots beginning a transaction of mixed-format tables
+   * are excluded.
+   *
+   * @param table table to get the history
+   * @param ref name of the branch or tag, null means the main branch
+   * @return snapshots of the history ordered from the oldest to the newest
+   */
+  public List<IndexedSnapshot> history(Table table, String ref) {
+    Snapshot head = table.snapshot(ref == null ? SnapshotRef.MAIN_BRANCH : ref);
+    if (head == null) {
+      return Collections.emptyList();
+    }
+    String key = table.location() + "@" + (ref == null ? SnapshotRef.MAIN_BRANCH : ref);
+    History indexed = histories.getIfPresent(key);
+    if (indexed != null && indexed.headSnapshotId == head.snapshotId()) {
+      History trimmed = indexed.trim(table);
+      if (trimmed != indexed) {
+        histories.put(key, trimmed);
+      }
+      return trimmed.snapshots;
+    }
+
+    // index snapshots newer than the indexed head, or all snapshots if the head is not an ancestor
+    List<IndexedSnapshot> newSnapshots = new ArrayList<>();
+    boolean extended = false;
+    for (Snapshot snapshot : SnapshotUtil.ancestorsOf(head.snapshotId(), table::snapshot)) {
+      if (indexed != null && snapshot.snapshotId() == indexed.headSnapshotId) {
+        extended = true;
+        break;
+      }
+      if (!snapshot.summary().containsKey(SnapshotSummary.TRANSACTION_BEGIN_SIGNATURE)) {
+        newSnapshots.add(new IndexedSnapshot(snapshot));
+      }
+    }
+    Collections.reverse(newSnapshots);
+
+    History history;
+    if (extended) {
+      List<IndexedSnapshot> snapshots =
+          new ArrayList<>(indexed.snapshots.size() + newSnapshots.size());
+      snapshots.addAll(indexed.snapshots);
+      snapshots.addAll(newSnapshots);
+      history = new History(head.snapshotId(), snapshots).trim(table);
+    } else {
+      history = new History(head.snapshotId(), newSnapshots);
+    }
+    histories.put(key, history);
+    return history.snapshots;
+  }
+
+  public void invalidateAll() {
+    histories.invalidateAll();
+  }
+
+  /** Number of indexed snapshots of all tables. */
+  public long indexedSnapshotCount() {
+    return histories.asMap().values().stream().mapToLong(h -> h.snapshots.size()).sum();
+  }
+
+  /** Indexed attributes of a snapshot used to filter and order the snapshots. */
+  public static class IndexedSnapshot {
+    private final long snapshotId;
+    private final long commitTime;
+    private final boolean optimizing;
+
+    private IndexedSnapshot(Snapshot snapshot) {
+      this.snapshotId = snapshot.snapshotId();
+      this.commitTime = snapshot.timestampMillis();
+      this.optimizing =
+          CommitMetaProducer.OPTIMIZE
+              .name()
+              .equals(
+                  PropertyUtil.propertyAsString(
+                      snapshot.summary(),
+                      SnapshotSummary.SNAPSHOT_PRODUCER,
+                      SnapshotSummary.SNAPSHOT_PRODUCER_DEFAULT));
+    }
+
+    public long getSnapshotId() {
+      return snapshotId;
+    }
+
+    public long getCommitTime() {
+      return commitTime;
+    }
+
+    public boolean isOptimizing() {
+      return optimizing;
+    }
+  }
+
+  private static class History {
+    private final long headSnapshotId;
+    private final List<IndexedSnapshot> snapshots;
+
+    private History(long headSnapshotId, List<IndexedSnapshot> snapshots) {
+      this.headSnapshotId = headSnapshotId;
+      this.snapshots = Collections.unmodifiableList(snapshots);
+    }
+
+    /** Remove the oldest snapshots that have been expired. */
+    private History trim(Table table) {
+      int expired = 0;
+      while (expired < snapshots.size()
+          && table.snapshot(snapshots.get(expired).snapshotId) == null) {
+        expired++;
+      }
+      if (expired == 0) {
+        return this;
+      }
+      return new History(
+          headSnapshotId, new ArrayList<>(snapshots.subList(expired, snapshots.size())));
+    }
+  }
+}
@@ -58,6 +58,7 @@ import org.apache.amoro.server.dashboard.response.OkResponse;
 import org.apache.amoro.server.dashboard.response.PageResult;
 import org.apache.amoro.server.dashboard.utils.AmsUtil;
 import org.apache.amoro.server.dashboard.utils.CommonUtil;
+import org.apache.amoro.server.optimizing.OptimizingProcessRollup;
 import org.apache.amoro.server.optimizing.OptimizingStatus;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.server.table.TableService;
@@ -77,7 +78,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -323,6 +323,33 @@ public class TableController {
     ctx.json(OkResponse.of(PageResult.of(result, total)));
   }
 
+  /**
+   * Get the daily rollups of expired optimizing processes.
+   *
+   * @param ctx - context for handling the request and response
+   */
+  public void getOptimizingProcessRollups(Context ctx) {
+    String catalog = ctx.pathParam("catalog");
+    String db = ctx.pathParam("db");
+    String table = ctx.pathParam("table");
+    Integer page = ctx.queryParamAsClass("page", Integer.class).getOrDefault(1);
+    Integer pageSize = ctx.queryParamAsClass("pageSize", Integer.class).getOrDefault(20);
+
+    int offset = (page - 1) * pageSize;
+    int limit = pageSize;
+    ServerCatalog serverCatalog = tableService.getServerCatalog(catalog);
+    Preconditions.checkArgument(offset >= 0, "offset[%s] must >= 0", offset);
+    Preconditions.checkArgument(limit >= 0, "limit[%s] must >= 0", limit);
+    Preconditions.checkState(serverCatalog.tableExists(db, table), "no such table");
+
+    TableIdentifier tableIdentifier = TableIdentifier.of(catalog, db, table);
+    Pair<List<OptimizingProcessRollup>, Integer> rollups =
+        tableDescriptor.getOptimizingProcessRollups(
+            tableIdentifier.buildTableIdentifier(), limit, offset);
+
+    ctx.json(OkResponse.of(PageResult.of(rollups.first(), rollups.second())));
+  }
+
   /**
    * Get tasks of optimizing process.
    *
@@ -369,15 +396,24 @@ public class TableController {
         ctx.queryParamAsClass("operation", String.class)
             .getOrDefault(OperationType.ALL.displayName());
     OperationType operationType = OperationType.of(operation);
+    // commit time range of snapshots in milliseconds
+    Long startTime = ctx.queryParamAsClass("startTime", Long.class).getOrDefault(0L);
+    Long endTime = ctx.queryParamAsClass("endTime", Long.class).getOrDefault(Long.MAX_VALUE);
 
-    List<AmoroSnapshotsOfTable> snapshotsOfTables =
+    int offset = (page - 1) * pageSize;
+    Preconditions.checkArgument(offset >= 0, "offset[%s] must >= 0", offset);
+    Preconditions.checkArgument(pageSize >= 0, "limit[%s] must >= 0", pageSize);
+    Pair<List<AmoroSnapshotsOfTable>, Integer> snapshotsOfTables =
         tableDescriptor.getSnapshots(
             TableIdentifier.of(catalog, database, tableName).buildTableIdentifier(),
             ref,
-            operationType);
-    int offset = (page - 1) * pageSize;
+            operationType,
+            startTime,
+            endTime,
+            pageSize,
+            offset);
     PageResult<AmoroSnapshotsOfTable> pageResult =
-        PageResult.of(snapshotsOfTables, offset, pageSize);
+        PageResult.of(snapshotsOfTables.first(), snapshotsOfTables.second());
     ctx.json(OkResponse.of(pageResult));
   }
 
@@ -416,17 +452,17 @@ public class TableController {
     Integer page = ctx.queryParamAsClass("page", Integer.class).getOrDefault(1);
     Integer pageSize = ctx.queryParamAsClass("pageSize", Integer.class).getOrDefault(20);
 
-    List<PartitionBaseInfo> partitionBaseInfos =
-        tableDescriptor.getTablePartition(
-            TableIdentifier.of(catalog, database, table).buildTableIdentifier());
-    partitionBaseInfos =
-        partitionBaseInfos.stream()
-            .filter(e -> e.getPartition().contains(filter))
-            .sorted(Comparator.comparing(PartitionBaseInfo::getPartition).reversed())
-            .collect(Collectors.toList());
     int offset = (page - 1) * pageSize;
+    Preconditions.checkArgument(offset >= 0, "offset[%s] must >= 0", offset);
+    Preconditions.checkArgument(pageSize >= 0, "limit[%s] must >= 0", pageSize);
+    Pair<List<PartitionBaseInfo>, Integer> partitionBaseInfos =
+        tableDescriptor.getTablePartition(
+            TableIdentifier.of(catalog, database, table).buildTableIdentifier(),
+            filter,
+            pageSize,
+            offset);
     PageResult<PartitionBaseInfo> amsPageResult =
-        PageResult.of(partitionBaseInfos, offset, pageSize);
+        PageResult.of(partitionBaseInfos.first(), partitionBaseInfos.second());
     ctx.json(OkResponse.of(amsPageResult));
   }
 
@@ -445,12 +481,18 @@ public class TableController {
     Integer page = ctx.queryParamAsClass("page", Integer.class).getOrDefault(1);
     Integer pageSize = ctx.queryParamAsClass("pageSize", Integer.class).getOrDefault(20);
 
-    List<PartitionFileBaseInfo> partitionFileBaseInfos =
-        tableDescriptor.getTableFile(
-            TableIdentifier.of(catalog, db, table).buildTableIdentifier(), partition, specId);
     int offset = (page - 1) * pageSize;
+    Preconditions.checkArgument(offset >= 0, "offset[%s] must >= 0", offset);
+    Preconditions.checkArgument(pageSize >= 0, "limit[%s] must >= 0", pageSize);
+    Pair<List<PartitionFileBaseInfo>, Integer> partitionFileBaseInfos =
+        tableDescriptor.getTableFile(
+            TableIdentifier.of(catalog, db, table).buildTableIdentifier(),
+            partition,
+            specId,
+            pageSize,
+            offset);
     PageResult<PartitionFileBaseInfo> amsPageResult =
-        PageResult.of(partitionFileBaseInfos, offset, pageSize);
+        PageResult.of(partitionFileBaseInfos.first(), partitionFileBaseInfos.second());
     ctx.json(OkResponse.of(amsPageResult));
   }
 
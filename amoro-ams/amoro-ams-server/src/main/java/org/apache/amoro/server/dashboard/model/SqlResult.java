@@ -26,6 +26,7 @@ public class SqlResult {
   private String status = SqlStatus.CREATED.name();
   private List<String> columns;
   private List<List<String>> rowData;
+  private boolean truncated;
 
   public String getId() {
     return id;
@@ -51,6 +52,14 @@ public class SqlResult {
     this.rowData = rowData;
   }
 
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  public void setTruncated(boolean truncated) {
+    this.truncated = truncated;
+  }
+
   public String getStatus() {
     return status;
   }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing;
+
+import org.apache.amoro.server.dashboard.model.FilesStatistics;
+
+/**
+ * Summary of the expired optimizing processes of a table planned in the same day, with the same
+ * optimizing type and status.
+ */
+public class OptimizingProcessRollup {
+
+  private long tableId;
+  private long periodStart;
+  private OptimizingType optimizingType;
+  private OptimizingProcess.Status status;
+  private long processCount;
+  private long totalDuration;
+  private long inputFileCount;
+  private long inputFileSize;
+  private long outputFileCount;
+  private long outputFileSize;
+
+  public OptimizingProcessRollup() {}
+
+  public OptimizingProcessRollup(
+      long tableId,
+      long periodStart,
+      OptimizingType optimizingType,
+      OptimizingProcess.Status status) {
+    this.tableId = tableId;
+    this.periodStart = periodStart;
+    this.optimizingType = optimizingType;
+    this.status = status;
+  }
+
+  /** Add the metrics of an optimizing process to this summary. */
+  public void add(OptimizingProcessMeta process) {
+    processCount++;
+    if (process.getEndTime() > process.getPlanTime()) {
+      totalDuration += process.getEndTime() - process.getPlanTime();
+    }
+    MetricsSummary summary = process.getSummary();
+    if (summary != null) {
+      FilesStatistics input = summary.getInputFilesStatistics();
+      FilesStatistics output = summary.getOutputFilesStatistics();
+      inputFileCount += input.getFileCnt();
+      inputFileSize += input.getTotalSize();
+      outputFileCount += output.getFileCnt();
+      outputFileSize += output.getTotalSize();
+    }
+  }
+
+  public long getTableId() {
+    return tableId;
+  }
+
+  public void setTableId(long tableId) {
+    this.tableId = tableId;
+  }
+
+  public long getPeriodStart() {
+    return periodStart;
+  }
+
+  public void setPeriodStart(long periodStart) {
+    this.periodStart = periodStart;
+  }
+
+  public OptimizingType getOptimizingType() {
+    return optimizingType;
+  }
+
+  public void setOptimizingType(OptimizingType optimizingType) {
+    this.optimizingType = optimizingType;
+  }
+
+  public OptimizingProcess.Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(OptimizingProcess.Status status) {
+    this.status = status;
+  }
+
+  public long getProcessCount() {
+    return processCount;
+  }
+
+  public void setProcessCount(long processCount) {
+    this.processCount = processCount;
+  }
+
+  public long getTotalDuration() {
+    return totalDuration;
+  }
+
+  public void setTotalDuration(long totalDuration) {
+    this.totalDuration = totalDuration;
+  }
+
+  public long getInputFileCount() {
+    return inputFileCount;
+  }
+
+  public void setInputFileCount(long inputFileCount) {
+    this.inputFileCount = inputFileCount;
+  }
+
+  public long getInputFileSize() {
+    return inputFileSize;
+  }
+
+  public void setInputFileSize(long inputFileSize) {
+    this.inputFileSize = inputFileSize;
+  }
+
+  public long getOutputFileCount() {
+    return outputFileCount;
+  }
+
+  public void setOutputFileCount(long outputFileCount) {
+    this.outputFileCount = outputFileCount;
+  }
+
+  public long getOutputFileSize() {
+    return outputFileSize;
+  }
+
+  public void setOutputFileSize(long outputFileSize) {
+    this.outputFileSize = outputFileSize;
+  }
+}
@@ -74,6 +74,9 @@ public class OptimizingQueue extends PersistentBase {
 
   private static final Logger LOG = LoggerFactory.getLogger(OptimizingQueue.class);
 
+  /** Max number of task runtimes inserted by one statement. */
+  private static final int TASK_INSERT_BATCH_SIZE = 200;
+
   private final QuotaProvider quotaProvider;
   private final Queue<TableOptimizingProcess> tableQueue = new LinkedTransferQueue<>();
   private final Queue<TaskRuntime> retryTaskQueue = new LinkedTransferQueue<>();
@@ -233,7 +236,8 @@ public class OptimizingQueue extends PersistentBase {
                 if (process != null) {
                   tableQueue.offer(process);
                   LOG.info(
-                      "Completed planning on table {} with {} tasks with a total cost of {} ms, skipping tables {}",
+                      "Completed planning on table {} with {} tasks with a total cost of {} ms, "
+                          + "skipping tables {}",
                       tableRuntime.getTableIdentifier(),
                       process.getTaskMap().size(),
                       currentTime - startTime,
@@ -634,7 +638,9 @@ public class OptimizingQueue extends PersistentBase {
           () ->
               doAs(
                   OptimizingMapper.class,
-                  mapper -> mapper.insertTaskRuntimes(Lists.newArrayList(taskMap.values()))),
+                  mapper ->
+                      Lists.partition(Lists.newArrayList(taskMap.values()), TASK_INSERT_BATCH_SIZE)
+                          .forEach(mapper::insertTaskRuntimes)),
           () -> TaskFilesPersistence.persistTaskInputs(processId, taskMap.values()),
           () -> tableRuntime.beginProcess(this));
     }
@@ -655,7 +661,10 @@ public class OptimizingQueue extends PersistentBase {
           () -> tableRuntime.completeProcess(success));
     }
 
-    /** The cancellation should be invoked outside the process lock to avoid deadlock. */
+    /**
+     * The cancellation should be invoked outside the process lock to avoid deadlock. Each task is
+     * canceled in its own transaction so its state is restored if persisting it fails.
+     */
     private void cancelTasks() {
       taskMap.values().forEach(TaskRuntime::tryCanceling);
     }
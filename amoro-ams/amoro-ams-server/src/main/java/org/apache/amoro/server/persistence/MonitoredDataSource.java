@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/** A connection pool which records the time spent waiting for connections. */
+class MonitoredDataSource extends BasicDataSource {
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    long start = System.currentTimeMillis();
+    boolean succeeded = false;
+    try {
+      Connection connection = super.getConnection();
+      succeeded = true;
+      return connection;
+    } finally {
+      PersistenceMetrics.getInstance()
+          .connectionBorrowed(System.currentTimeMillis() - start, succeeded);
+    }
+  }
+
+  /** @return number of threads waiting for a connection, 0 if the pool is not created yet. */
+  int getNumWaiters() {
+    GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+    return pool == null ? 0 : pool.getNumWaiters();
+  }
+}
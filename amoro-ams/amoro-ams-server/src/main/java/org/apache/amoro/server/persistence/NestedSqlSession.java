@@ -23,6 +23,8 @@ import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.ibatis.session.SqlSession;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 public final class NestedSqlSession implements Closeable {
@@ -34,6 +36,7 @@ public final class NestedSqlSession implements Closeable {
   private int nestCount = 0;
   private boolean isRollingback = false;
   private SqlSession sqlSession;
+  private final List<Runnable> rollbackHooks = new ArrayList<>();
 
   public static NestedSqlSession openSession(Supplier<SqlSession> sessionSupplier) {
     NestedSqlSession session = sessions.get();
@@ -45,6 +48,16 @@ public final class NestedSqlSession implements Closeable {
     }
   }
 
+  /** @return true if a session is opened by the current thread, e.g. within a transaction. */
+  static boolean isOpened() {
+    return sessions.get() != null;
+  }
+
+  /** @return the session opened by the current thread, or null if there is none. */
+  static NestedSqlSession current() {
+    return sessions.get();
+  }
+
   SqlSession getSqlSession() {
     return sqlSession;
   }
@@ -63,10 +76,20 @@ public final class NestedSqlSession implements Closeable {
     return this;
   }
 
+  /**
+   * Register a hook to be run if the outermost transaction of this session is rolled back, it's
+   * dropped once the outermost transaction is committed.
+   */
+  void onRollback(Runnable hook) {
+    checkState(true);
+    rollbackHooks.add(hook);
+  }
+
   public void commit() {
     checkState(true);
     if (nestCount == 0) {
       sqlSession.commit(true);
+      rollbackHooks.clear();
     }
   }
 
@@ -76,6 +99,8 @@ public final class NestedSqlSession implements Closeable {
     if (nestCount == 0) {
       sqlSession.rollback(true);
       isRollingback = false;
+      rollbackHooks.forEach(Runnable::run);
+      rollbackHooks.clear();
     }
   }
 
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence;
+
+import static org.apache.amoro.api.metrics.MetricDefine.defineCounter;
+import static org.apache.amoro.api.metrics.MetricDefine.defineGauge;
+
+import org.apache.amoro.api.config.Configurations;
+import org.apache.amoro.api.metrics.Counter;
+import org.apache.amoro.api.metrics.Gauge;
+import org.apache.amoro.api.metrics.Metric;
+import org.apache.amoro.api.metrics.MetricDefine;
+import org.apache.amoro.api.metrics.MetricKey;
+import org.apache.amoro.server.AmoroManagementConf;
+import org.apache.amoro.server.metrics.MetricRegistry;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of the database connection pool and the statements executed by mappers.
+ *
+ * <p>Statement latencies are reported as cumulative bucket counters tagged by the upper bound
+ * {@code le} in milliseconds together with the count and sum, which is the layout of a prometheus
+ * histogram, so quantiles could be computed by {@code histogram_quantile}. Statements slower than
+ * {@link AmoroManagementConf#DB_SLOW_STATEMENT_THRESHOLD} are logged.
+ */
+public class PersistenceMetrics {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PersistenceMetrics.class);
+
+  static final String STATEMENT_TAG = "statement";
+  static final String BUCKET_TAG = "le";
+  static final long[] BUCKET_BOUNDS_MILLS = {5, 10, 50, 100, 500, 1000, 5000};
+  static final String INF_BOUND = "+Inf";
+
+  public static final MetricDefine DATABASE_CONNECTION_ACTIVE =
+      defineGauge("database_connection_active")
+          .withDescription("Number of connections currently borrowed from the pool")
+          .build();
+
+  public static final MetricDefine DATABASE_CONNECTION_IDLE =
+      defineGauge("database_connection_idle")
+          .withDescription("Number of idle connections in the pool")
+          .build();
+
+  public static final MetricDefine DATABASE_CONNECTION_MAX_TOTAL =
+      defineGauge("database_connection_max_total")
+          .withDescription("Max number of connections in the pool")
+          .build();
+
+  public static final MetricDefine DATABASE_CONNECTION_WAITERS =
+      defineGauge("database_connection_waiters")
+          .withDescription("Number of threads currently waiting for a connection from the pool")
+          .build();
+
+  public static final MetricDefine DATABASE_CONNECTION_WAIT_COUNT =
+      defineCounter("database_connection_wait_count")
+          .withDescription("Count of connections borrowed from the pool since ams started")
+          .build();
+
+  public static final MetricDefine DATABASE_CONNECTION_WAIT_DURATION_MILLS =
+      defineCounter("database_connection_wait_duration_mills")
+          .withDescription(
+              "Total milliseconds spent waiting for connections from the pool since ams started")
+          .build();
+
+  public static final MetricDefine DATABASE_CONNECTION_WAIT_FAILED_COUNT =
+      defineCounter("database_connection_wait_failed_count")
+          .withDescription(
+              "Count of failures of borrowing connections from the pool since ams started")
+          .build();
+
+  public static final MetricDefine DATABASE_STATEMENT_DURATION_BUCKET =
+      defineCounter("database_statement_duration_mills_bucket")
+          .withDescription(
+              "Count of statements whose duration is less than or equal to the bound in milliseconds")
+          .withTags(STATEMENT_TAG, BUCKET_TAG)
+          .build();
+
+  public static final MetricDefine DATABASE_STATEMENT_DURATION_COUNT =
+      defineCounter("database_statement_duration_mills_count")
+          .withDescription("Count of executed statements since ams started")
+          .withTags(STATEMENT_TAG)
+          .build();
+
+  public static final MetricDefine DATABASE_STATEMENT_DURATION_SUM =
+      defineCounter("database_statement_duration_mills_sum")
+          .withDescription("Total milliseconds spent executing statements since ams started")
+          .withTags(STATEMENT_TAG)
+          .build();
+
+  public static final MetricDefine DATABASE_STATEMENT_FAILED_COUNT =
+      defineCounter("database_statement_failed_count")
+          .withDescription("Count of failed statements since ams started")
+          .withTags(STATEMENT_TAG)
+          .build();
+
+  public static final MetricDefine DATABASE_STATEMENT_SLOW_COUNT =
+      defineCounter("database_statement_slow_count")
+          .withDescription("Count of statements slower than the threshold since ams started")
+          .withTags(STATEMENT_TAG)
+          .build();
+
+  private static volatile PersistenceMetrics INSTANCE;
+
+  /** @return Get the singleton object, which uses the default configurations if not initialized. */
+  public static PersistenceMetrics getInstance() {
+    if (INSTANCE == null) {
+      synchronized (PersistenceMetrics.class) {
+        if (INSTANCE == null) {
+          INSTANCE = new PersistenceMetrics(new Configurations());
+        }
+      }
+    }
+    return INSTANCE;
+  }
+
+  /** Initialize the singleton object with the service configurations and register its metrics. */
+  public static void initialize(Configurations serviceConfig, MetricRegistry registry) {
+    synchronized (PersistenceMetrics.class) {
+      if (INSTANCE != null) {
+        INSTANCE.unregisterMetrics();
+      }
+      PersistenceMetrics metrics = new PersistenceMetrics(serviceConfig);
+      metrics.registerMetrics(registry);
+      INSTANCE = metrics;
+    }
+  }
+
+  /** Unregister metrics and release the singleton object. */
+  public static void dispose() {
+    synchronized (PersistenceMetrics.class) {
+      if (INSTANCE != null) {
+        INSTANCE.unregisterMetrics();
+      }
+      INSTANCE = null;
+    }
+  }
+
+  private final long slowStatementThresholdMills;
+  private final Counter connectionWaits = new Counter();
+  private final Counter connectionWaitMills = new Counter();
+  private final Counter connectionWaitFailures = new Counter();
+  private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+  private final List<MetricKey> registeredMetricKeys = Lists.newArrayList();
+  private volatile MetricRegistry registry;
+
+  public PersistenceMetrics(Configurations serviceConfig) {
+    this(serviceConfig.get(AmoroManagementConf.DB_SLOW_STATEMENT_THRESHOLD));
+  }
+
+  public PersistenceMetrics(Duration slowStatementThreshold) {
+    this.slowStatementThresholdMills = slowStatementThreshold.toMillis();
+  }
+
+  /** Record the time spent borrowing a connection from the pool. */
+  public void connectionBorrowed(long waitMills, boolean succeeded) {
+    connectionWaits.inc();
+    connectionWaitMills.inc(waitMills);
+    if (!succeeded) {
+      connectionWaitFailures.inc();
+    }
+  }
+
+  /**
+   * Record the execution of a mapper statement and log it if it is slow.
+   *
+   * @param statementId id of the mapped statement, which is the full name of the mapper method
+   * @param sql supplier of the sql, only called when the statement is slow
+   */
+  public void statementExecuted(
+      String statementId, long durationMills, boolean succeeded, Supplier<String> sql) {
+    StatementMetrics metrics = statements.computeIfAbsent(statementId, this::newStatementMetrics);
+    metrics.record(durationMills, succeeded);
+    if (slowStatementThresholdMills > 0 && durationMills >= slowStatementThresholdMills) {
+      metrics.slow.inc();
+      LOG.warn(
+          "Slow statement {} took {} ms, threshold is {} ms, sql: {}",
+          statementId,
+          durationMills,
+          slowStatementThresholdMills,
+          sql.get());
+    }
+  }
+
+  public long connectionWaitCount() {
+    return connectionWaits.getCount();
+  }
+
+  public long statementCount(String statementId) {
+    StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0 : metrics.count.getCount();
+  }
+
+  public long slowStatementCount(String statementId) {
+    StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0 : metrics.slow.getCount();
+  }
+
+  public long failedStatementCount(String statementId) {
+    StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0 : metrics.failed.getCount();
+  }
+
+  /** Use the mapper class name and method name as the tag to keep it short. */
+  static String statementName(String statementId) {
+    int methodIndex = statementId.lastIndexOf('.');
+    int classIndex = methodIndex > 0 ? statementId.lastIndexOf('.', methodIndex - 1) : -1;
+    return statementId.substring(classIndex + 1);
+  }
+
+  private StatementMetrics newStatementMetrics(String statementId) {
+    StatementMetrics metrics = new StatementMetrics(statementName(statementId));
+    synchronized (this) {
+      if (registry != null) {
+        metrics.register(this);
+      }
+    }
+    return metrics;
+  }
+
+  private synchronized void registerMetrics(MetricRegistry registry) {
+    this.registry = registry;
+    registerGauge(DATABASE_CONNECTION_ACTIVE, MonitoredDataSource::getNumActive);
+    registerGauge(DATABASE_CONNECTION_IDLE, MonitoredDataSource::getNumIdle);
+    registerGauge(DATABASE_CONNECTION_MAX_TOTAL, MonitoredDataSource::getMaxTotal);
+    registerGauge(DATABASE_CONNECTION_WAITERS, MonitoredDataSource::getNumWaiters);
+    registerMetric(DATABASE_CONNECTION_WAIT_COUNT, ImmutableMap.of(), connectionWaits);
+    registerMetric(DATABASE_CONNECTION_WAIT_DURATION_MILLS, ImmutableMap.of(), connectionWaitMills);
+    registerMetric(
+        DATABASE_CONNECTION_WAIT_FAILED_COUNT, ImmutableMap.of(), connectionWaitFailures);
+  }
+
+  private void registerGauge(MetricDefine define, Function<MonitoredDataSource, Integer> value) {
+    registerMetric(
+        define,
+        ImmutableMap.of(),
+        (Gauge<Integer>)
+            () -> {
+              DataSource dataSource =
+                  SqlSessionFactoryProvider.getInstance()
+                      .get()
+                      .getConfiguration()
+                      .getEnvironment()
+                      .getDataSource();
+              return dataSource instanceof MonitoredDataSource
+                  ? value.apply((MonitoredDataSource) dataSource)
+                  : 0;
+            });
+  }
+
+  private void registerMetric(MetricDefine define, Map<String, String> tags, Metric metric) {
+    registeredMetricKeys.add(registry.register(define, tags, metric));
+  }
+
+  private synchronized void unregisterMetrics() {
+    if (registry != null) {
+      registeredMetricKeys.forEach(registry::unregister);
+      registeredMetricKeys.clear();
+      registry = null;
+    }
+  }
+
+  private static class StatementMetrics {
+    private final String statement;
+    private final Counter[] buckets = new Counter[BUCKET_BOUNDS_MILLS.length + 1];
+    private final Counter count = new Counter();
+    private final Counter sum = new Counter();
+    private final Counter failed = new Counter();
+    private final Counter slow = new Counter();
+
+    private StatementMetrics(String statement) {
+      this.statement = statement;
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new Counter();
+      }
+    }
+
+    private void record(long durationMills, boolean succeeded) {
+      // buckets are cumulative, a statement is counted by all buckets whose bound is not less
+      for (int i = 0; i < BUCKET_BOUNDS_MILLS.length; i++) {
+        if (durationMills <= BUCKET_BOUNDS_MILLS[i]) {
+          buckets[i].inc();
+        }
+      }
+      buckets[BUCKET_BOUNDS_MILLS.length].inc();
+      count.inc();
+      sum.inc(durationMills);
+      if (!succeeded) {
+        failed.inc();
+      }
+    }
+
+    private void register(PersistenceMetrics owner) {
+      for (int i = 0; i < buckets.length; i++) {
+        String bound =
+            i < BUCKET_BOUNDS_MILLS.length ? String.valueOf(BUCKET_BOUNDS_MILLS[i]) : INF_BOUND;
+        owner.registerMetric(
+            DATABASE_STATEMENT_DURATION_BUCKET,
+            ImmutableMap.of(STATEMENT_TAG, statement, BUCKET_TAG, bound),
+            buckets[i]);
+      }
+      Map<String, String> tags = ImmutableMap.of(STATEMENT_TAG, statement);
+      owner.registerMetric(DATABASE_STATEMENT_DURATION_COUNT, tags, count);
+      owner.registerMetric(DATABASE_STATEMENT_DURATION_SUM, tags, sum);
+      owner.registerMetric(DATABASE_STATEMENT_FAILED_COUNT, tags, failed);
+      owner.registerMetric(DATABASE_STATEMENT_SLOW_COUNT, tags, slow);
+    }
+  }
+}
@@ -67,6 +67,17 @@ public abstract class PersistentBase {
     }
   }
 
+  /**
+   * Register an operation to revert in-memory changes made in the current transaction. It is run if
+   * the outermost transaction is rolled back, e.g. when a nested transaction has already returned
+   * but the outer one fails.
+   */
+  protected final void doOnRollback(Runnable operation) {
+    NestedSqlSession session = NestedSqlSession.current();
+    Preconditions.checkState(session != null, "No transaction is opened");
+    session.onRollback(operation);
+  }
+
   protected final <T, R> R getAs(Class<T> mapperClz, Function<T, R> func) {
     try (NestedSqlSession session = beginSession()) {
       try {
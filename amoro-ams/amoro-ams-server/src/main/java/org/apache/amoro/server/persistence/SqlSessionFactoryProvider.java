@@ -24,6 +24,7 @@ import org.apache.amoro.server.persistence.mapper.ApiTokensMapper;
 import org.apache.amoro.server.persistence.mapper.CatalogMetaMapper;
 import org.apache.amoro.server.persistence.mapper.OptimizerMapper;
 import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.persistence.mapper.PartitionStatisticsMapper;
 import org.apache.amoro.server.persistence.mapper.PlatformFileMapper;
 import org.apache.amoro.server.persistence.mapper.ResourceMapper;
 import org.apache.amoro.server.persistence.mapper.TableBlockerMapper;
@@ -70,7 +71,7 @@ public class SqlSessionFactoryProvider {
   private volatile SqlSessionFactory sqlSessionFactory;
 
   public void init(Configurations config) {
-    BasicDataSource dataSource = new BasicDataSource();
+    BasicDataSource dataSource = new MonitoredDataSource();
     dataSource.setUrl(config.getString(AmoroManagementConf.DB_CONNECTION_URL));
     dataSource.setDriverClassName(config.getString(AmoroManagementConf.DB_DRIVER_CLASS_NAME));
     dbType = config.getString(AmoroManagementConf.DB_TYPE);
@@ -99,6 +100,9 @@ public class SqlSessionFactoryProvider {
     TransactionFactory transactionFactory = new JdbcTransactionFactory();
     Environment environment = new Environment("develop", transactionFactory, dataSource);
     Configuration configuration = new Configuration(environment);
+    // statements may use _databaseId for database specific syntax
+    configuration.setDatabaseId(dbType);
+    configuration.addInterceptor(new StatementMetricsInterceptor());
     configuration.addMapper(TableMetaMapper.class);
     configuration.addMapper(OptimizingMapper.class);
     configuration.addMapper(CatalogMetaMapper.class);
@@ -107,6 +111,7 @@ public class SqlSessionFactoryProvider {
     configuration.addMapper(PlatformFileMapper.class);
     configuration.addMapper(ResourceMapper.class);
     configuration.addMapper(TableBlockerMapper.class);
+    configuration.addMapper(PartitionStatisticsMapper.class);
     if (sqlSessionFactory == null) {
       synchronized (this) {
         if (sqlSessionFactory == null) {
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence;
+
+import static org.apache.amoro.api.metrics.MetricDefine.defineCounter;
+import static org.apache.amoro.api.metrics.MetricDefine.defineGauge;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.amoro.api.ServerTableIdentifier;
+import org.apache.amoro.api.config.Configurations;
+import org.apache.amoro.api.metrics.Counter;
+import org.apache.amoro.api.metrics.Gauge;
+import org.apache.amoro.api.metrics.Metric;
+import org.apache.amoro.api.metrics.MetricDefine;
+import org.apache.amoro.api.metrics.MetricKey;
+import org.apache.amoro.server.AmoroManagementConf;
+import org.apache.amoro.server.metrics.MetricRegistry;
+import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.server.table.TableMetadata;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.table.TableIdentifier;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read-through cache of the table identifiers and table metadata stored in AMS.
+ *
+ * <p>Cached table metadata is validated by the meta version of the table on each read, which is a
+ * cheap lookup by the primary key and is increased by every commit of any AMS node, so a read never
+ * returns metadata older than the last commit. The identifier of a table never changes until the
+ * table is dropped, so identifiers are cached for a limited time and invalidated when tables are
+ * dropped by this node.
+ */
+public class TableMetaCache extends PersistentBase {
+
+  static final String CACHE_TAG = "cache";
+  static final String IDENTIFIER_CACHE = "table_identifier";
+  static final String METADATA_CACHE = "table_metadata";
+
+  public static final MetricDefine TABLE_META_CACHE_HIT_COUNT =
+      defineCounter("table_meta_cache_hit_count")
+          .withDescription("Count of table meta reads served by the cache since ams started")
+          .withTags(CACHE_TAG)
+          .build();
+
+  public static final MetricDefine TABLE_META_CACHE_MISS_COUNT =
+      defineCounter("table_meta_cache_miss_count")
+          .withDescription("Count of table meta reads loaded from the database since ams started")
+          .withTags(CACHE_TAG)
+          .build();
+
+  public static final MetricDefine TABLE_META_CACHE_HIT_RATIO =
+      defineGauge("table_meta_cache_hit_ratio")
+          .withDescription("Ratio of table meta reads served by the cache since ams started")
+          .withTags(CACHE_TAG)
+          .build();
+
+  private static volatile TableMetaCache INSTANCE;
+
+  /** @return Get the singleton object, which uses the default configurations if not initialized. */
+  public static TableMetaCache getInstance() {
+    if (INSTANCE == null) {
+      synchronized (TableMetaCache.class) {
+        if (INSTANCE == null) {
+          INSTANCE = new TableMetaCache(new Configurations());
+        }
+      }
+    }
+    return INSTANCE;
+  }
+
+  /** Initialize the singleton object with the service configurations and register its metrics. */
+  public static void initialize(Configurations serviceConfig, MetricRegistry registry) {
+    synchronized (TableMetaCache.class) {
+      if (INSTANCE != null) {
+        INSTANCE.unregisterMetrics();
+      }
+      INSTANCE = new TableMetaCache(serviceConfig);
+      INSTANCE.registerMetrics(registry);
+    }
+  }
+
+  /** Clear the cache, unregister its metrics and release the singleton object. */
+  public static void dispose() {
+    synchronized (TableMetaCache.class) {
+      if (INSTANCE != null) {
+        INSTANCE.unregisterMetrics();
+        INSTANCE.invalidateAll();
+      }
+      INSTANCE = null;
+    }
+  }
+
+  private final Cache<TableIdentifier, ServerTableIdentifier> identifiers;
+  private final Cache<Long, TableMetadata> metadata;
+  private final CacheMetrics identifierMetrics = new CacheMetrics(IDENTIFIER_CACHE);
+  private final CacheMetrics metadataMetrics = new CacheMetrics(METADATA_CACHE);
+  private final List<MetricKey> registeredMetricKeys = Lists.newArrayList();
+  private MetricRegistry registry;
+
+  public TableMetaCache(Configurations serviceConfig) {
+    this(
+        serviceConfig.getLong(AmoroManagementConf.TABLE_META_CACHE_MAX_ENTRIES),
+        serviceConfig.get(AmoroManagementConf.TABLE_META_CACHE_TTL));
+  }
+
+  public TableMetaCache(long maxEntries, Duration ttl) {
+    Preconditions.checkArgument(maxEntries >= 0, "Max entries must not be negative");
+    if (maxEntries > 0) {
+      this.identifiers =
+          Caffeine.newBuilder()
+              .maximumSize(maxEntries)
+              .expireAfterWrite(ttl)
+              .executor(Runnable::run)
+              .build();
+      this.metadata =
+          Caffeine.newBuilder()
+              .maximumSize(maxEntries)
+              .expireAfterAccess(ttl)
+              .executor(Runnable::run)
+              .build();
+    } else {
+      this.identifiers = null;
+      this.metadata = null;
+    }
+  }
+
+  /**
+   * Get the identifier of a table.
+   *
+   * @return the identifier, or null if the table doesn't exist.
+   */
+  public ServerTableIdentifier getTableIdentifier(String catalog, String database, String table) {
+    if (bypass()) {
+      return selectTableIdentifier(catalog, database, table);
+    }
+    TableIdentifier key = TableIdentifier.of(catalog, database, table);
+    ServerTableIdentifier identifier = identifiers.getIfPresent(key);
+    if (identifier != null) {
+      identifierMetrics.hit();
+      return identifier;
+    }
+    identifierMetrics.miss();
+    identifier = selectTableIdentifier(catalog, database, table);
+    if (identifier != null) {
+      identifiers.put(key, identifier);
+    }
+    return identifier;
+  }
+
+  /**
+   * Get the metadata of an internal table by the table id.
+   *
+   * @return a copy of the current metadata, or null if the table doesn't exist.
+   */
+  public TableMetadata getTableMetadata(long tableId) {
+    if (bypass()) {
+      return getAs(TableMetaMapper.class, mapper -> mapper.selectTableMetaById(tableId));
+    }
+    Long metaVersion =
+        getAs(TableMetaMapper.class, mapper -> mapper.selectTableMetaVersion(tableId));
+    if (metaVersion == null) {
+      metadata.invalidate(tableId);
+      return null;
+    }
+    TableMetadata cached = metadata.getIfPresent(tableId);
+    if (cached != null && cached.getMetaVersion() == metaVersion) {
+      metadataMetrics.hit();
+      return cached.copy();
+    }
+    metadataMetrics.miss();
+    TableMetadata loaded =
+        getAs(TableMetaMapper.class, mapper -> mapper.selectTableMetaById(tableId));
+    if (loaded != null) {
+      // keep the newest version if the table is loaded concurrently
+      metadata
+          .asMap()
+          .merge(
+              tableId,
+              loaded.copy(),
+              (exists, newer) ->
+                  newer.getMetaVersion() >= exists.getMetaVersion() ? newer : exists);
+    }
+    return loaded;
+  }
+
+  /**
+   * Get the metadata of an internal table by the table name.
+   *
+   * @return a copy of the current metadata, or null if the table doesn't exist.
+   */
+  public TableMetadata getTableMetadata(String catalog, String database, String table) {
+    ServerTableIdentifier identifier = getTableIdentifier(catalog, database, table);
+    if (identifier == null) {
+      return null;
+    }
+    TableMetadata tableMetadata = getTableMetadata(identifier.getId());
+    if (tableMetadata == null && !bypass()) {
+      // the cached identifier is stale if the table is dropped or re-created by other AMS nodes
+      identifiers.invalidate(TableIdentifier.of(catalog, database, table));
+      identifier = getTableIdentifier(catalog, database, table);
+      if (identifier == null) {
+        return null;
+      }
+      tableMetadata = getTableMetadata(identifier.getId());
+    }
+    return tableMetadata;
+  }
+
+  /** Invalidate the cached identifier and metadata of a table after it is changed or dropped. */
+  public void invalidate(ServerTableIdentifier identifier) {
+    invalidate(identifier.getCatalog(), identifier.getDatabase(), identifier.getTableName());
+    if (metadata != null && identifier.getId() != null) {
+      metadata.invalidate(identifier.getId());
+    }
+  }
+
+  /** Invalidate the cached identifier of a table after it is dropped. */
+  public void invalidate(String catalog, String database, String table) {
+    if (identifiers != null) {
+      identifiers.invalidate(TableIdentifier.of(catalog, database, table));
+    }
+  }
+
+  public void invalidateAll() {
+    if (identifiers != null) {
+      identifiers.invalidateAll();
+    }
+    if (metadata != null) {
+      metadata.invalidateAll();
+    }
+  }
+
+  public boolean enabled() {
+    return metadata != null;
+  }
+
+  public long identifierHitCount() {
+    return identifierMetrics.hits.getCount();
+  }
+
+  public long metadataHitCount() {
+    return metadataMetrics.hits.getCount();
+  }
+
+  public long metadataMissCount() {
+    return metadataMetrics.misses.getCount();
+  }
+
+  /**
+   * Rows read within an opened session may be uncommitted and rolled back later, so they are read
+   * from the database directly and never cached.
+   */
+  private boolean bypass() {
+    return metadata == null || NestedSqlSession.isOpened();
+  }
+
+  private ServerTableIdentifier selectTableIdentifier(
+      String catalog, String database, String table) {
+    return getAs(
+        TableMetaMapper.class, mapper -> mapper.selectTableIdentifier(catalog, database, table));
+  }
+
+  private void registerMetrics(MetricRegistry registry) {
+    this.registry = registry;
+    for (CacheMetrics metrics : Lists.newArrayList(identifierMetrics, metadataMetrics)) {
+      registerMetric(metrics.cache, TABLE_META_CACHE_HIT_COUNT, metrics.hits);
+      registerMetric(metrics.cache, TABLE_META_CACHE_MISS_COUNT, metrics.misses);
+      registerMetric(metrics.cache, TABLE_META_CACHE_HIT_RATIO, (Gauge<Double>) metrics::hitRatio);
+    }
+  }
+
+  private void registerMetric(String cache, MetricDefine define, Metric metric) {
+    registeredMetricKeys.add(registry.register(define, ImmutableMap.of(CACHE_TAG, cache), metric));
+  }
+
+  private void unregisterMetrics() {
+    if (registry != null) {
+      registeredMetricKeys.forEach(registry::unregister);
+      registeredMetricKeys.clear();
+    }
+  }
+
+  private static class CacheMetrics {
+    private final String cache;
+    private final Counter hits = new Counter();
+    private final Counter misses = new Counter();
+
+    private CacheMetrics(String cache) {
+      this.cache = cache;
+    }
+
+    private void hit() {
+      hits.inc();
+    }
+
+    private void miss() {
+      misses.inc();
+    }
+
+    private double hitRatio() {
+      long hitCount = hits.getCount();
+      long total = hitCount + misses.getCount();
+      return total == 0 ? 0 : (double) hitCount / total;
+    }
+  }
+}
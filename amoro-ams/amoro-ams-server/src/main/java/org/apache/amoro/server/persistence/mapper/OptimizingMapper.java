@@ -23,6 +23,7 @@ import org.apache.amoro.optimizing.RewriteFilesInput;
 import org.apache.amoro.server.optimizing.MetricsSummary;
 import org.apache.amoro.server.optimizing.OptimizingProcess;
 import org.apache.amoro.server.optimizing.OptimizingProcessMeta;
+import org.apache.amoro.server.optimizing.OptimizingProcessRollup;
 import org.apache.amoro.server.optimizing.OptimizingTaskMeta;
 import org.apache.amoro.server.optimizing.OptimizingType;
 import org.apache.amoro.server.optimizing.TaskRuntime;
@@ -35,6 +36,7 @@ import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
 import org.apache.ibatis.annotations.Results;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
@@ -50,6 +52,88 @@ public interface OptimizingMapper {
       "DELETE FROM table_optimizing_process WHERE table_id = #{tableId} and process_id < #{time}")
   void deleteOptimizingProcessBefore(@Param("tableId") long tableId, @Param("time") long time);
 
+  /** Select the oldest optimizing processes of the table whose ids are less than the time. */
+  @Select({
+    "<script>",
+    "SELECT process_id, table_id, catalog_name, db_name, table_name, target_snapshot_id,"
+        + " target_change_snapshot_id, status, optimizing_type, plan_time, end_time, fail_reason,"
+        + " summary, from_sequence, to_sequence FROM table_optimizing_process"
+        + " WHERE table_id = #{tableId} AND process_id &lt; #{time} ORDER BY process_id",
+    "<if test=\"_databaseId == 'mysql'\">LIMIT #{limit}</if>",
+    "<if test=\"_databaseId != 'mysql'\">FETCH FIRST #{limit} ROWS ONLY</if>",
+    "</script>"
+  })
+  @ResultMap("optimizingProcessMeta")
+  List<OptimizingProcessMeta> selectOptimizingProcessesBefore(
+      @Param("tableId") long tableId, @Param("time") long time, @Param("limit") int limit);
+
+  /** Optimizing process rollup operations below */
+  @Select(
+      "SELECT table_id, period_start, optimizing_type, status, process_count, total_duration,"
+          + " input_file_count, input_file_size, output_file_count, output_file_size"
+          + " FROM table_optimizing_process_rollup WHERE table_id = #{tableId}"
+          + " ORDER BY period_start desc, optimizing_type, status")
+  @Results(
+      id = "optimizingProcessRollup",
+      value = {
+        @Result(property = "tableId", column = "table_id"),
+        @Result(
+            property = "periodStart",
+            column = "period_start",
+            typeHandler = Long2TsConverter.class),
+        @Result(property = "optimizingType", column = "optimizing_type"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "processCount", column = "process_count"),
+        @Result(property = "totalDuration", column = "total_duration"),
+        @Result(property = "inputFileCount", column = "input_file_count"),
+        @Result(property = "inputFileSize", column = "input_file_size"),
+        @Result(property = "outputFileCount", column = "output_file_count"),
+        @Result(property = "outputFileSize", column = "output_file_size")
+      })
+  List<OptimizingProcessRollup> selectOptimizingProcessRollups(@Param("tableId") long tableId);
+
+  /** Select a page of optimizing process rollups of the table, latest first. */
+  @Select({
+    "<script>",
+    "SELECT table_id, period_start, optimizing_type, status, process_count, total_duration,"
+        + " input_file_count, input_file_size, output_file_count, output_file_size"
+        + " FROM table_optimizing_process_rollup WHERE table_id = #{tableId}"
+        + " ORDER BY period_start desc, optimizing_type, status",
+    "<if test=\"_databaseId == 'mysql'\">LIMIT #{limit} OFFSET #{offset}</if>",
+    "<if test=\"_databaseId != 'mysql'\">OFFSET #{offset} ROWS FETCH NEXT #{limit} ROWS ONLY</if>",
+    "</script>"
+  })
+  @ResultMap("optimizingProcessRollup")
+  List<OptimizingProcessRollup> selectOptimizingProcessRollupsByPage(
+      @Param("tableId") long tableId, @Param("limit") int limit, @Param("offset") int offset);
+
+  @Select("SELECT COUNT(1) FROM table_optimizing_process_rollup WHERE table_id = #{tableId}")
+  int countOptimizingProcessRollups(@Param("tableId") long tableId);
+
+  @Insert(
+      "INSERT INTO table_optimizing_process_rollup (table_id, period_start, optimizing_type, status,"
+          + " process_count, total_duration, input_file_count, input_file_size, output_file_count,"
+          + " output_file_size) VALUES (#{rollup.tableId},"
+          + " #{rollup.periodStart, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter},"
+          + " #{rollup.optimizingType}, #{rollup.status}, #{rollup.processCount},"
+          + " #{rollup.totalDuration}, #{rollup.inputFileCount}, #{rollup.inputFileSize},"
+          + " #{rollup.outputFileCount}, #{rollup.outputFileSize})")
+  void insertOptimizingProcessRollup(@Param("rollup") OptimizingProcessRollup rollup);
+
+  /** Add the metrics to the existing rollup, returns 0 if the rollup does not exist. */
+  @Update(
+      "UPDATE table_optimizing_process_rollup SET"
+          + " process_count = process_count + #{rollup.processCount},"
+          + " total_duration = total_duration + #{rollup.totalDuration},"
+          + " input_file_count = input_file_count + #{rollup.inputFileCount},"
+          + " input_file_size = input_file_size + #{rollup.inputFileSize},"
+          + " output_file_count = output_file_count + #{rollup.outputFileCount},"
+          + " output_file_size = output_file_size + #{rollup.outputFileSize}"
+          + " WHERE table_id = #{rollup.tableId} AND period_start ="
+          + " #{rollup.periodStart, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter}"
+          + " AND optimizing_type = #{rollup.optimizingType} AND status = #{rollup.status}")
+  int updateOptimizingProcessRollup(@Param("rollup") OptimizingProcessRollup rollup);
+
   @Insert(
       "INSERT INTO table_optimizing_process(table_id, catalog_name, db_name, table_name ,process_id,"
           + " target_snapshot_id, target_change_snapshot_id, status, optimizing_type, plan_time, summary, from_sequence,"
@@ -95,34 +179,71 @@ public interface OptimizingMapper {
           + " WHERE a.catalog_name = #{catalogName} AND a.db_name = #{dbName} AND a.table_name = #{tableName}"
           + " AND b.catalog_name = #{catalogName} AND b.db_name = #{dbName} AND b.table_name = #{tableName}"
           + " ORDER BY process_id desc")
-  @Results({
-    @Result(property = "processId", column = "process_id"),
-    @Result(property = "tableId", column = "table_id"),
-    @Result(property = "catalogName", column = "catalog_name"),
-    @Result(property = "dbName", column = "db_name"),
-    @Result(property = "tableName", column = "table_name"),
-    @Result(property = "targetSnapshotId", column = "target_snapshot_id"),
-    @Result(property = "targetChangeSnapshotId", column = "target_change_snapshot_id"),
-    @Result(property = "status", column = "status"),
-    @Result(property = "optimizingType", column = "optimizing_type"),
-    @Result(property = "planTime", column = "plan_time", typeHandler = Long2TsConverter.class),
-    @Result(property = "endTime", column = "end_time", typeHandler = Long2TsConverter.class),
-    @Result(property = "failReason", column = "fail_reason"),
-    @Result(property = "summary", column = "summary", typeHandler = JsonObjectConverter.class),
-    @Result(
-        property = "fromSequence",
-        column = "from_sequence",
-        typeHandler = MapLong2StringConverter.class),
-    @Result(
-        property = "toSequence",
-        column = "to_sequence",
-        typeHandler = MapLong2StringConverter.class)
-  })
+  @Results(
+      id = "optimizingProcessMeta",
+      value = {
+        @Result(property = "processId", column = "process_id"),
+        @Result(property = "tableId", column = "table_id"),
+        @Result(property = "catalogName", column = "catalog_name"),
+        @Result(property = "dbName", column = "db_name"),
+        @Result(property = "tableName", column = "table_name"),
+        @Result(property = "targetSnapshotId", column = "target_snapshot_id"),
+        @Result(property = "targetChangeSnapshotId", column = "target_change_snapshot_id"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "optimizingType", column = "optimizing_type"),
+        @Result(property = "planTime", column = "plan_time", typeHandler = Long2TsConverter.class),
+        @Result(property = "endTime", column = "end_time", typeHandler = Long2TsConverter.class),
+        @Result(property = "failReason", column = "fail_reason"),
+        @Result(property = "summary", column = "summary", typeHandler = JsonObjectConverter.class),
+        @Result(
+            property = "fromSequence",
+            column = "from_sequence",
+            typeHandler = MapLong2StringConverter.class),
+        @Result(
+            property = "toSequence",
+            column = "to_sequence",
+            typeHandler = MapLong2StringConverter.class)
+      })
   List<OptimizingProcessMeta> selectOptimizingProcesses(
       @Param("catalogName") String catalogName,
       @Param("dbName") String dbName,
       @Param("tableName") String tableName);
 
+  /**
+   * Select a page of optimizing processes of the table, latest first. MySQL does not support the
+   * standard OFFSET ... FETCH clause, so it uses LIMIT ... OFFSET instead.
+   */
+  @Select({
+    "<script>",
+    "SELECT a.process_id, a.table_id, a.catalog_name, a.db_name, a.table_name, a.target_snapshot_id,"
+        + " a.target_change_snapshot_id, a.status, a.optimizing_type, a.plan_time, a.end_time,"
+        + " a.fail_reason, a.summary, a.from_sequence, a.to_sequence FROM table_optimizing_process a"
+        + " INNER JOIN table_identifier b ON a.table_id = b.table_id"
+        + " WHERE a.catalog_name = #{catalogName} AND a.db_name = #{dbName} AND a.table_name = #{tableName}"
+        + " AND b.catalog_name = #{catalogName} AND b.db_name = #{dbName} AND b.table_name = #{tableName}"
+        + " ORDER BY a.process_id desc",
+    "<if test=\"_databaseId == 'mysql'\">LIMIT #{limit} OFFSET #{offset}</if>",
+    "<if test=\"_databaseId != 'mysql'\">OFFSET #{offset} ROWS FETCH NEXT #{limit} ROWS ONLY</if>",
+    "</script>"
+  })
+  @ResultMap("optimizingProcessMeta")
+  List<OptimizingProcessMeta> selectOptimizingProcessesByPage(
+      @Param("catalogName") String catalogName,
+      @Param("dbName") String dbName,
+      @Param("tableName") String tableName,
+      @Param("limit") int limit,
+      @Param("offset") int offset);
+
+  @Select(
+      "SELECT COUNT(1) FROM table_optimizing_process a"
+          + " INNER JOIN table_identifier b ON a.table_id = b.table_id"
+          + " WHERE a.catalog_name = #{catalogName} AND a.db_name = #{dbName} AND a.table_name = #{tableName}"
+          + " AND b.catalog_name = #{catalogName} AND b.db_name = #{dbName} AND b.table_name = #{tableName}")
+  int countOptimizingProcesses(
+      @Param("catalogName") String catalogName,
+      @Param("dbName") String dbName,
+      @Param("tableName") String tableName);
+
   /** Optimizing TaskRuntime operation below */
   @Insert({
     "<script>",
@@ -228,6 +349,18 @@ public interface OptimizingMapper {
   @Delete("DELETE FROM task_runtime WHERE table_id = #{tableId} AND process_id < #{time}")
   void deleteTaskRuntimesBefore(@Param("tableId") long tableId, @Param("time") long time);
 
+  /** Select the ids of the oldest processes that have task runtimes before the time. */
+  @Select({
+    "<script>",
+    "SELECT DISTINCT process_id FROM task_runtime WHERE table_id = #{tableId}"
+        + " AND process_id &lt; #{time} ORDER BY process_id",
+    "<if test=\"_databaseId == 'mysql'\">LIMIT #{limit}</if>",
+    "<if test=\"_databaseId != 'mysql'\">FETCH FIRST #{limit} ROWS ONLY</if>",
+    "</script>"
+  })
+  List<Long> selectTaskRuntimeProcessIdsBefore(
+      @Param("tableId") long tableId, @Param("time") long time, @Param("limit") int limit);
+
   /** Optimizing rewrite input and output operations below */
   @Update(
       "UPDATE table_optimizing_process SET rewrite_input = #{input, jdbcType=BLOB,"
@@ -256,15 +389,32 @@ public interface OptimizingMapper {
   List<TaskRuntime.TaskQuota> selectTaskQuotasByTime(
       @Param("tableId") long tableId, @Param("startTime") long startTime);
 
-  @Insert(
-      "INSERT INTO optimizing_task_quota (process_id, task_id, retry_num, table_id, start_time, end_time,"
-          + " fail_reason) VALUES (#{taskQuota.processId}, #{taskQuota.taskId}, #{taskQuota.retryNum},"
-          + " #{taskQuota.tableId},"
-          + " #{taskQuota.startTime, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter}, "
-          + " #{taskQuota.endTime, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter},"
-          + " #{taskQuota.failReason, jdbcType=VARCHAR})")
-  void insertTaskQuota(@Param("taskQuota") TaskRuntime.TaskQuota taskQuota);
+  @Insert({
+    "<script>",
+    "INSERT INTO optimizing_task_quota (process_id, task_id, retry_num, table_id, start_time, end_time,"
+        + " fail_reason) VALUES ",
+    "<foreach collection='taskQuotas' item='taskQuota' separator=','>",
+    "(#{taskQuota.processId}, #{taskQuota.taskId}, #{taskQuota.retryNum}, #{taskQuota.tableId},"
+        + " #{taskQuota.startTime, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter},"
+        + " #{taskQuota.endTime, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter},"
+        + " #{taskQuota.failReason, jdbcType=VARCHAR})",
+    "</foreach>",
+    "</script>"
+  })
+  void insertTaskQuotas(@Param("taskQuotas") List<TaskRuntime.TaskQuota> taskQuotas);
 
   @Delete("DELETE FROM optimizing_task_quota WHERE table_id = #{table_id} AND process_id < #{time}")
   void deleteOptimizingQuotaBefore(@Param("table_id") long tableId, @Param("time") long timestamp);
+
+  /** Select the ids of the oldest processes that have task quotas before the time. */
+  @Select({
+    "<script>",
+    "SELECT DISTINCT process_id FROM optimizing_task_quota WHERE table_id = #{tableId}"
+        + " AND process_id &lt; #{time} ORDER BY process_id",
+    "<if test=\"_databaseId == 'mysql'\">LIMIT #{limit}</if>",
+    "<if test=\"_databaseId != 'mysql'\">FETCH FIRST #{limit} ROWS ONLY</if>",
+    "</script>"
+  })
+  List<Long> selectTaskQuotaProcessIdsBefore(
+      @Param("tableId") long tableId, @Param("time") long time, @Param("limit") int limit);
 }
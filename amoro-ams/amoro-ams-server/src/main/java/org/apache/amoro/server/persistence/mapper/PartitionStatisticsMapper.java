@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence.mapper;
+
+import org.apache.amoro.server.dashboard.model.PartitionBaseInfo;
+import org.apache.amoro.server.persistence.converter.Long2TsConverter;
+import org.apache.amoro.server.table.PartitionStatisticsState;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/** Statistics of the live files in each partition of a table. */
+public interface PartitionStatisticsMapper {
+  String TABLE_NAME = "table_partition_statistics";
+  String STATE_TABLE_NAME = "table_partition_statistics_state";
+
+  @Select(
+      "SELECT partition_path, spec_id, file_count, file_size, last_commit_time FROM "
+          + TABLE_NAME
+          + " WHERE table_id = #{tableId}")
+  @Results(
+      id = "partitionStatistics",
+      value = {
+        @Result(property = "partition", column = "partition_path"),
+        @Result(property = "specId", column = "spec_id"),
+        @Result(property = "fileCount", column = "file_count"),
+        @Result(property = "fileSize", column = "file_size"),
+        @Result(
+            property = "lastCommitTime",
+            column = "last_commit_time",
+            typeHandler = Long2TsConverter.class)
+      })
+  List<PartitionBaseInfo> selectPartitionStatistics(@Param("tableId") long tableId);
+
+  /**
+   * Select a page of partitions ordered by the partition path in descending order, the pattern is a
+   * LIKE pattern escaped by '!'.
+   */
+  @Select({
+    "<script>",
+    "SELECT partition_path, spec_id, file_count, file_size, last_commit_time FROM "
+        + TABLE_NAME
+        + " WHERE table_id = #{tableId}",
+    "<if test=\"pattern != null\">AND partition_path LIKE #{pattern} ESCAPE '!'</if>",
+    "ORDER BY partition_path desc",
+    "<if test=\"_databaseId == 'mysql'\">LIMIT #{limit} OFFSET #{offset}</if>",
+    "<if test=\"_databaseId != 'mysql'\">OFFSET #{offset} ROWS FETCH NEXT #{limit} ROWS ONLY</if>",
+    "</script>"
+  })
+  @ResultMap("partitionStatistics")
+  List<PartitionBaseInfo> selectPartitionStatisticsByPage(
+      @Param("tableId") long tableId,
+      @Param("pattern") String pattern,
+      @Param("limit") int limit,
+      @Param("offset") int offset);
+
+  @Select({
+    "<script>",
+    "SELECT COUNT(1) FROM " + TABLE_NAME + " WHERE table_id = #{tableId}",
+    "<if test=\"pattern != null\">AND partition_path LIKE #{pattern} ESCAPE '!'</if>",
+    "</script>"
+  })
+  int countPartitionStatistics(@Param("tableId") long tableId, @Param("pattern") String pattern);
+
+  @Insert({
+    "<script>",
+    "INSERT INTO "
+        + TABLE_NAME
+        + " (table_id, partition_path, spec_id, file_count, file_size, last_commit_time) VALUES ",
+    "<foreach collection='partitions' item='partition' separator=','>",
+    "(#{tableId}, #{partition.partition}, #{partition.specId}, #{partition.fileCount},"
+        + " #{partition.fileSize},"
+        + " #{partition.lastCommitTime, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter})",
+    "</foreach>",
+    "</script>"
+  })
+  void insertPartitionStatistics(
+      @Param("tableId") long tableId, @Param("partitions") List<PartitionBaseInfo> partitions);
+
+  @Update(
+      "UPDATE "
+          + TABLE_NAME
+          + " SET spec_id = #{partition.specId}, file_count = #{partition.fileCount},"
+          + " file_size = #{partition.fileSize}, last_commit_time ="
+          + " #{partition.lastCommitTime, typeHandler=org.apache.amoro.server.persistence.converter.Long2TsConverter}"
+          + " WHERE table_id = #{tableId} AND partition_path = #{partition.partition}")
+  void updatePartitionStatistics(
+      @Param("tableId") long tableId, @Param("partition") PartitionBaseInfo partition);
+
+  @Delete(
+      "DELETE FROM "
+          + TABLE_NAME
+          + " WHERE table_id = #{tableId} AND partition_path = #{partitionPath}")
+  void deletePartitionStatistics(
+      @Param("tableId") long tableId, @Param("partitionPath") String partitionPath);
+
+  @Delete("DELETE FROM " + TABLE_NAME + " WHERE table_id = #{tableId}")
+  void deleteTablePartitionStatistics(@Param("tableId") long tableId);
+
+  @Select(
+      "SELECT snapshot_id, change_snapshot_id, spec_id, status FROM "
+          + STATE_TABLE_NAME
+          + " WHERE table_id = #{tableId}")
+  @Results({
+    @Result(property = "snapshotId", column = "snapshot_id"),
+    @Result(property = "changeSnapshotId", column = "change_snapshot_id"),
+    @Result(property = "specId", column = "spec_id"),
+    @Result(property = "status", column = "status")
+  })
+  PartitionStatisticsState selectPartitionStatisticsState(@Param("tableId") long tableId);
+
+  @Insert(
+      "INSERT INTO "
+          + STATE_TABLE_NAME
+          + " (table_id, snapshot_id, change_snapshot_id, spec_id, status) VALUES (#{tableId},"
+          + " #{state.snapshotId}, #{state.changeSnapshotId}, #{state.specId}, #{state.status})")
+  void insertPartitionStatisticsState(
+      @Param("tableId") long tableId, @Param("state") PartitionStatisticsState state);
+
+  @Delete("DELETE FROM " + STATE_TABLE_NAME + " WHERE table_id = #{tableId}")
+  void deletePartitionStatisticsState(@Param("tableId") long tableId);
+}
@@ -163,6 +163,9 @@ public interface TableMetaMapper {
   @Delete("DELETE FROM table_metadata WHERE table_id = #{tableId}")
   void deleteTableMetaById(@Param("tableId") long tableId);
 
+  @Select("SELECT meta_version FROM table_metadata WHERE table_id = #{tableId}")
+  Long selectTableMetaVersion(@Param("tableId") long tableId);
+
   @Update(
       "UPDATE table_metadata SET properties ="
           + " #{tableMeta.properties, typeHandler=org.apache.amoro.server.persistence.converter.Map2StringConverter},"
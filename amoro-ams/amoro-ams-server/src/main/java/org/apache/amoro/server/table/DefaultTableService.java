@@ -40,6 +40,7 @@ import org.apache.amoro.server.exception.ObjectNotExistsException;
 import org.apache.amoro.server.manager.MetricManager;
 import org.apache.amoro.server.optimizing.OptimizingStatus;
 import org.apache.amoro.server.persistence.StatedPersistentBase;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.persistence.mapper.CatalogMetaMapper;
 import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
 import org.apache.amoro.server.table.blocker.TableBlocker;
@@ -357,10 +358,8 @@ public class DefaultTableService extends StatedPersistentBase implements TableSe
 
   @Override
   public ServerTableIdentifier getServerTableIdentifier(TableIdentifier id) {
-    return getAs(
-        TableMetaMapper.class,
-        mapper ->
-            mapper.selectTableIdentifier(id.getCatalog(), id.getDatabase(), id.getTableName()));
+    return TableMetaCache.getInstance()
+        .getTableIdentifier(id.getCatalog(), id.getDatabase(), id.getTableName());
   }
 
   private ServerTableIdentifier getOrSyncServerTableIdentifier(TableIdentifier id) {
@@ -403,6 +402,19 @@ public class DefaultTableService extends StatedPersistentBase implements TableSe
     if (headHandler != null) {
       headHandler.dispose();
     }
+    tableRuntimeMap
+        .values()
+        .forEach(
+            tableRuntime -> {
+              try {
+                tableRuntime.persistPendingTaskQuotas();
+              } catch (Throwable t) {
+                LOG.error(
+                    "Failed to persist task quotas of table {}",
+                    tableRuntime.getTableIdentifier(),
+                    t);
+              }
+            });
   }
 
   @VisibleForTesting
@@ -608,6 +620,7 @@ public class DefaultTableService extends StatedPersistentBase implements TableSe
                 tableIdentifier.getCatalog(),
                 tableIdentifier.getDatabase(),
                 tableIdentifier.getTableName()));
+    TableMetaCache.getInstance().invalidate(tableIdentifier);
     Optional.ofNullable(tableRuntimeMap.remove(tableIdentifier))
         .ifPresent(
             tableRuntime -> {
@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table;
+
+import org.apache.amoro.api.ServerTableIdentifier;
+import org.apache.amoro.server.AmoroServiceConstants;
+import org.apache.amoro.server.dashboard.model.PartitionBaseInfo;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.TableMetaCache;
+import org.apache.amoro.server.persistence.mapper.PartitionStatisticsMapper;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.table.TableIdentifier;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.IcebergFindFiles;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.util.Pair;
+import org.apache.iceberg.util.SnapshotUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the persisted statistics of the live files in each partition of a table.
+ *
+ * <p>The statistics are collected by scanning all files only once, after that they are updated from
+ * the files added and removed by the new snapshots, so the dashboard can list partitions without
+ * scanning the files of the table. The snapshots the statistics cover are persisted with them.
+ */
+public class PartitionStatisticsManager extends PersistentBase {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionStatisticsManager.class);
+
+  /** The max length of partition paths that can be persisted. */
+  private static final int MAX_PARTITION_PATH_LENGTH = 512;
+
+  private static final int INSERT_BATCH_SIZE = 500;
+
+  /** @return true if the statistics of the table have been collected and persisted */
+  public boolean isCollected(long tableId) {
+    PartitionStatisticsState state =
+        getAs(
+            PartitionStatisticsMapper.class,
+            mapper -> mapper.selectPartitionStatisticsState(tableId));
+    return state != null && state.getStatus() == PartitionStatisticsState.Status.COLLECTED;
+  }
+
+  /** Collect the statistics again by scanning all live files of the table. */
+  public void collect(long tableId, MixedTable table) {
+    PartitionStatisticsState state = currentState(table);
+    Map<String, PartitionBaseInfo> partitions = new HashMap<>();
+    for (Table store : stores(table)) {
+      collectFiles(store, partitions);
+    }
+    replace(tableId, partitions.values(), state);
+  }
+
+  /**
+   * Bring the statistics up to date with the current snapshots of the table. They are updated from
+   * the files added and removed by the snapshots committed after the snapshots they cover, and
+   * collected again if they can't be updated, e.g. if those snapshots have been expired.
+   *
+   * <p>The statistics are persisted together with the snapshots they cover in one transaction, so
+   * they never get out of step with each other. Statistics which can't be persisted are skipped
+   * until the partition spec of the table changes.
+   *
+   * @param tableId id of the table
+   * @param table the refreshed table
+   */
+  public void refresh(long tableId, MixedTable table) {
+    PartitionStatisticsState state =
+        getAs(
+            PartitionStatisticsMapper.class,
+            mapper -> mapper.selectPartitionStatisticsState(tableId));
+    PartitionStatisticsState current = currentState(table);
+    if (state == null) {
+      collect(tableId, table);
+      return;
+    }
+    if (state.getStatus() == PartitionStatisticsState.Status.SKIPPED) {
+      if (state.getSpecId() != current.getSpecId()) {
+        LOG.info("Collecting partition statistics of table {} with the new spec", table.id());
+        collect(tableId, table);
+      }
+      return;
+    }
+    if (state.getSnapshotId() == current.getSnapshotId()
+        && state.getChangeSnapshotId() == current.getChangeSnapshotId()) {
+      return;
+    }
+
+    Map<String, PartitionBaseInfo> partitions = new HashMap<>();
+    getAs(PartitionStatisticsMapper.class, mapper -> mapper.selectPartitionStatistics(tableId))
+        .forEach(partition -> partitions.put(partition.getPartition(), partition));
+    Set<String> existingPartitions = new HashSet<>(partitions.keySet());
+    Set<String> changedPartitions = new HashSet<>();
+    boolean applied;
+    if (table.isKeyedTable()) {
+      applied =
+          applyChanges(
+                  table.asKeyedTable().baseTable(),
+                  state.getSnapshotId(),
+                  partitions,
+                  changedPartitions)
+              && applyChanges(
+                  table.asKeyedTable().changeTable(),
+                  state.getChangeSnapshotId(),
+                  partitions,
+                  changedPartitions);
+    } else {
+      applied =
+          applyChanges(
+              table.asUnkeyedTable(), state.getSnapshotId(), partitions, changedPartitions);
+    }
+    if (!applied) {
+      LOG.info("Collecting partition statistics of table {} again", table.id());
+      collect(tableId, table);
+      return;
+    }
+    if (!persistable(tableId, partitions.values())) {
+      skip(tableId, current);
+      return;
+    }
+
+    List<PartitionBaseInfo> insertedPartitions = new ArrayList<>();
+    List<PartitionBaseInfo> updatedPartitions = new ArrayList<>();
+    List<String> deletedPartitions = new ArrayList<>();
+    for (String path : changedPartitions) {
+      PartitionBaseInfo partition = partitions.get(path);
+      if (partition.getFileCount() <= 0) {
+        if (existingPartitions.contains(path)) {
+          deletedPartitions.add(path);
+        }
+      } else if (existingPartitions.contains(path)) {
+        updatedPartitions.add(partition);
+      } else {
+        insertedPartitions.add(partition);
+      }
+    }
+    doAs(
+        PartitionStatisticsMapper.class,
+        mapper -> {
+          deletedPartitions.forEach(path -> mapper.deletePartitionStatistics(tableId, path));
+          updatedPartitions.forEach(
+              partition -> mapper.updatePartitionStatistics(tableId, partition));
+          Lists.partition(insertedPartitions, INSERT_BATCH_SIZE)
+              .forEach(batch -> mapper.insertPartitionStatistics(tableId, batch));
+          saveState(mapper, tableId, current);
+        });
+  }
+
+  /** Remove the statistics of the table, they will be collected again on the next refresh. */
+  public void drop(long tableId) {
+    doAs(
+        PartitionStatisticsMapper.class,
+        mapper -> {
+          mapper.deleteTablePartitionStatistics(tableId);
+          mapper.deletePartitionStatisticsState(tableId);
+        });
+  }
+
+  /**
+   * List a page of partitions whose path contains the filter, ordered by the partition path in
+   * descending order.
+   *
+   * @return the page and the total number of matched partitions, or null if the statistics of the
+   *     table have not been collected
+   */
+  public Pair<List<PartitionBaseInfo>, Integer> listPartitions(
+      TableIdentifier identifier, String filter, int limit, int offset) {
+    ServerTableIdentifier serverTableIdentifier =
+        TableMetaCache.getInstance()
+            .getTableIdentifier(
+                identifier.getCatalog(), identifier.getDatabase(), identifier.getTableName());
+    if (serverTableIdentifier == null) {
+      return null;
+    }
+    long tableId = serverTableIdentifier.getId();
+    if (!isCollected(tableId)) {
+      return null;
+    }
+    String pattern = filter == null ? null : "%" + escapeLikePattern(filter) + "%";
+    int total =
+        getAs(
+            PartitionStatisticsMapper.class,
+            mapper -> mapper.countPartitionStatistics(tableId, pattern));
+    if (total == 0) {
+      return Pair.of(Collections.emptyList(), 0);
+    }
+    List<PartitionBaseInfo> partitions =
+        getAs(
+            PartitionStatisticsMapper.class,
+            mapper -> mapper.selectPartitionStatisticsByPage(tableId, pattern, limit, offset));
+    return Pair.of(partitions, total);
+  }
+
+  private void replace(
+      long tableId, Collection<PartitionBaseInfo> partitions, PartitionStatisticsState state) {
+    if (!persistable(tableId, partitions)) {
+      skip(tableId, state);
+      return;
+    }
+    List<PartitionBaseInfo> partitionList = new ArrayList<>(partitions);
+    doAs(
+        PartitionStatisticsMapper.class,
+        mapper -> {
+          mapper.deleteTablePartitionStatistics(tableId);
+          Lists.partition(partitionList, INSERT_BATCH_SIZE)
+              .forEach(batch -> mapper.insertPartitionStatistics(tableId, batch));
+          saveState(mapper, tableId, state);
+        });
+  }
+
+  /**
+   * Remove the statistics which can't be persisted and remember the table is skipped, the dashboard
+   * lists its partitions by scanning files instead.
+   */
+  private void skip(long tableId, PartitionStatisticsState state) {
+    state.setStatus(PartitionStatisticsState.Status.SKIPPED);
+    doAs(
+        PartitionStatisticsMapper.class,
+        mapper -> {
+          mapper.deleteTablePartitionStatistics(tableId);
+          saveState(mapper, tableId, state);
+        });
+  }
+
+  private static void saveState(
+      PartitionStatisticsMapper mapper, long tableId, PartitionStatisticsState state) {
+    mapper.deletePartitionStatisticsState(tableId);
+    mapper.insertPartitionStatisticsState(tableId, state);
+  }
+
+  private boolean persistable(long tableId, Collection<PartitionBaseInfo> partitions) {
+    for (PartitionBaseInfo partition : partitions) {
+      if (partition.getFileCount() > 0
+          && partition.getPartition().length() > MAX_PARTITION_PATH_LENGTH) {
+        LOG.warn(
+            "Skip persisting partition statistics of table {} until its partition spec changes,"
+                + " partition path {} is longer than {}",
+            tableId,
+            partition.getPartition(),
+            MAX_PARTITION_PATH_LENGTH);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void collectFiles(Table store, Map<String, PartitionBaseInfo> partitions) {
+    Map<Integer, PartitionSpec> specs = store.specs();
+    try (CloseableIterable<IcebergFindFiles.IcebergManifestEntry> entries =
+        new IcebergFindFiles(store).ignoreDeleted().entries()) {
+      for (IcebergFindFiles.IcebergManifestEntry entry : entries) {
+        Snapshot snapshot = store.snapshot(entry.getSnapshotId());
+        long commitTime = snapshot == null ? -1 : snapshot.timestampMillis();
+        addFile(specs, entry.getFile(), 1, commitTime, partitions);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close the manifest reader", e);
+    }
+  }
+
+  private boolean applyChanges(
+      Table store,
+      long fromSnapshotId,
+      Map<String, PartitionBaseInfo> partitions,
+      Set<String> changed) {
+    Snapshot current = store.currentSnapshot();
+    long currentSnapshotId =
+        current == null ? AmoroServiceConstants.INVALID_SNAPSHOT_ID : current.snapshotId();
+    if (currentSnapshotId == fromSnapshotId) {
+      return true;
+    }
+    if (current == null
+        || fromSnapshotId == AmoroServiceConstants.INVALID_SNAPSHOT_ID
+        || !SnapshotUtil.isAncestorOf(store, currentSnapshotId, fromSnapshotId)) {
+      return false;
+    }
+    Map<Integer, PartitionSpec> specs = store.specs();
+    for (Snapshot snapshot :
+        SnapshotUtil.ancestorsBetween(store, currentSnapshotId, fromSnapshotId)) {
+      long commitTime = snapshot.timestampMillis();
+      addFiles(specs, snapshot.addedDataFiles(store.io()), 1, commitTime, partitions, changed);
+      addFiles(specs, snapshot.addedDeleteFiles(store.io()), 1, commitTime, partitions, changed);
+      addFiles(specs, snapshot.removedDataFiles(store.io()), -1, -1, partitions, changed);
+      addFiles(specs, snapshot.removedDeleteFiles(store.io()), -1, -1, partitions, changed);
+    }
+    return true;
+  }
+
+  private void addFiles(
+      Map<Integer, PartitionSpec> specs,
+      Iterable<? extends ContentFile<?>> files,
+      int sign,
+      long commitTime,
+      Map<String, PartitionBaseInfo> partitions,
+      Set<String> changedPartitions) {
+    for (ContentFile<?> file : files) {
+      changedPartitions.add(addFile(specs, file, sign, commitTime, partitions).getPartition());
+    }
+  }
+
+  private PartitionBaseInfo addFile(
+      Map<Integer, PartitionSpec> specs,
+      ContentFile<?> file,
+      int sign,
+      long commitTime,
+      Map<String, PartitionBaseInfo> partitions) {
+    String path = specs.get(file.specId()).partitionToPath(file.partition());
+    PartitionBaseInfo partition =
+        partitions.computeIfAbsent(
+            path, p -> new PartitionBaseInfo(p, file.specId(), 0, 0, commitTime));
+    partition.setFileCount(partition.getFileCount() + sign);
+    partition.setFileSize(partition.getFileSize() + sign * file.fileSizeInBytes());
+    partition.setLastCommitTime(Math.max(partition.getLastCommitTime(), commitTime));
+    return partition;
+  }
+
+  private static PartitionStatisticsState currentState(MixedTable table) {
+    long changeSnapshotId =
+        table.isKeyedTable()
+            ? snapshotId(table.asKeyedTable().changeTable())
+            : AmoroServiceConstants.INVALID_SNAPSHOT_ID;
+    Table baseStore =
+        table.isKeyedTable() ? table.asKeyedTable().baseTable() : table.asUnkeyedTable();
+    return new PartitionStatisticsState(
+        snapshotId(baseStore),
+        changeSnapshotId,
+        table.spec().specId(),
+        PartitionStatisticsState.Status.COLLECTED);
+  }
+
+  private static long snapshotId(Table store) {
+    Snapshot snapshot = store.currentSnapshot();
+    return snapshot == null ? AmoroServiceConstants.INVALID_SNAPSHOT_ID : snapshot.snapshotId();
+  }
+
+  private static List<Table> stores(MixedTable table) {
+    if (table.isKeyedTable()) {
+      return Arrays.asList(table.asKeyedTable().changeTable(), table.asKeyedTable().baseTable());
+    }
+    return Collections.singletonList(table.asUnkeyedTable());
+  }
+
+  private static String escapeLikePattern(String value) {
+    return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+  }
+}
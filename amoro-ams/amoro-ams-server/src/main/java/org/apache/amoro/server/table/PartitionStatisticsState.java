@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table;
+
+/** The snapshots covered by the persisted partition statistics of a table. */
+public class PartitionStatisticsState {
+
+  public enum Status {
+    /** The statistics are persisted and up to date with the snapshots. */
+    COLLECTED,
+    /** The statistics can't be persisted, e.g. a partition path is too long. */
+    SKIPPED
+  }
+
+  private long snapshotId;
+  private long changeSnapshotId;
+  private int specId;
+  private Status status;
+
+  public PartitionStatisticsState() {}
+
+  public PartitionStatisticsState(
+      long snapshotId, long changeSnapshotId, int specId, Status status) {
+    this.snapshotId = snapshotId;
+    this.changeSnapshotId = changeSnapshotId;
+    this.specId = specId;
+    this.status = status;
+  }
+
+  public long getSnapshotId() {
+    return snapshotId;
+  }
+
+  public void setSnapshotId(long snapshotId) {
+    this.snapshotId = snapshotId;
+  }
+
+  public long getChangeSnapshotId() {
+    return changeSnapshotId;
+  }
+
+  public void setChangeSnapshotId(long changeSnapshotId) {
+    this.changeSnapshotId = changeSnapshotId;
+  }
+
+  public int getSpecId() {
+    return specId;
+  }
+
+  public void setSpecId(int specId) {
+    this.specId = specId;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+}
@@ -298,4 +298,26 @@ public class TableMetadata implements Serializable {
   public void setMetaVersion(long metaVersion) {
     this.metaVersion = metaVersion;
   }
+
+  /** @return a copy of this metadata whose properties could be changed independently. */
+  public TableMetadata copy() {
+    TableMetadata copy = new TableMetadata();
+    copy.tableIdentifier = tableIdentifier;
+    copy.tableLocation = tableLocation;
+    copy.baseLocation = baseLocation;
+    copy.changeLocation = changeLocation;
+    copy.primaryKey = primaryKey;
+    copy.metaStoreSite = metaStoreSite;
+    copy.hdfsSite = hdfsSite;
+    copy.coreSite = coreSite;
+    copy.authMethod = authMethod;
+    copy.hadoopUsername = hadoopUsername;
+    copy.krbKeytab = krbKeytab;
+    copy.krbConf = krbConf;
+    copy.krbPrincipal = krbPrincipal;
+    copy.properties = properties == null ? null : Maps.newHashMap(properties);
+    copy.metaVersion = metaVersion;
+    copy.metaStore = metaStore;
+    return copy;
+  }
 }
@@ -36,10 +36,12 @@ import org.apache.amoro.server.optimizing.TaskRuntime;
 import org.apache.amoro.server.optimizing.plan.OptimizingEvaluator;
 import org.apache.amoro.server.persistence.StatedPersistentBase;
 import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.persistence.mapper.PartitionStatisticsMapper;
 import org.apache.amoro.server.persistence.mapper.TableBlockerMapper;
 import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
 import org.apache.amoro.server.table.blocker.TableBlocker;
 import org.apache.amoro.server.utils.IcebergTableUtil;
+import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
 import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.table.MixedTable;
@@ -66,10 +68,15 @@ public class TableRuntime extends StatedPersistentBase {
 
   private static final Logger LOG = LoggerFactory.getLogger(TableRuntime.class);
 
+  /** Max number of task quotas kept in memory before they are persisted. */
+  private static final int TASK_QUOTA_BATCH_SIZE = 100;
+
   private final TableRuntimeHandler tableHandler;
   private final ServerTableIdentifier tableIdentifier;
   private final List<TaskRuntime.TaskQuota> taskQuotas =
       Collections.synchronizedList(new ArrayList<>());
+  // task quotas that have not been persisted yet
+  private final List<TaskRuntime.TaskQuota> pendingTaskQuotas = new ArrayList<>();
 
   // for unKeyedTable or base table
   @StateField private volatile long currentSnapshotId = AmoroServiceConstants.INVALID_SNAPSHOT_ID;
@@ -155,6 +162,7 @@ public class TableRuntime extends StatedPersistentBase {
   }
 
   public void dispose() {
+    persistPendingTaskQuotas();
     invokeInStateLock(
         () -> {
           doAsTransaction(
@@ -162,7 +170,14 @@ public class TableRuntime extends StatedPersistentBase {
               () ->
                   doAs(
                       TableMetaMapper.class,
-                      mapper -> mapper.deleteOptimizingRuntime(tableIdentifier.getId())));
+                      mapper -> mapper.deleteOptimizingRuntime(tableIdentifier.getId())),
+              () ->
+                  doAs(
+                      PartitionStatisticsMapper.class,
+                      mapper -> {
+                        mapper.deleteTablePartitionStatistics(tableIdentifier.getId());
+                        mapper.deletePartitionStatisticsState(tableIdentifier.getId());
+                      }));
         });
     optimizingMetrics.unregister();
   }
@@ -306,6 +321,7 @@ public class TableRuntime extends StatedPersistentBase {
           }
           updateOptimizingStatus(OptimizingStatus.IDLE);
           optimizingProcess = null;
+          persistPendingTaskQuotas();
           persistUpdatingRuntime();
           optimizingMetrics.processComplete(processType, success);
           tableHandler.handleTableChanged(this, originalStatus);
@@ -367,13 +383,55 @@ public class TableRuntime extends StatedPersistentBase {
     return true;
   }
 
+  /**
+   * Add the quota of a finished task. Quotas are persisted in batches when enough of them are
+   * pending or when the optimizing process completes, they are only used to recover the quotas
+   * after restarting.
+   */
   public void addTaskQuota(TaskRuntime.TaskQuota taskQuota) {
-    doAs(OptimizingMapper.class, mapper -> mapper.insertTaskQuota(taskQuota));
+    synchronized (pendingTaskQuotas) {
+      pendingTaskQuotas.add(taskQuota);
+      if (pendingTaskQuotas.size() >= TASK_QUOTA_BATCH_SIZE) {
+        persistPendingTaskQuotas();
+      }
+    }
     taskQuotas.add(taskQuota);
     long validTime = System.currentTimeMillis() - AmoroServiceConstants.QUOTA_LOOK_BACK_TIME;
     this.taskQuotas.removeIf(task -> task.checkExpired(validTime));
   }
 
+  /**
+   * Persist the task quotas which are pending to be written in a batch. Quotas are pending again if
+   * the transaction persisting them is rolled back, including an outer transaction it joined.
+   */
+  public void persistPendingTaskQuotas() {
+    synchronized (pendingTaskQuotas) {
+      if (pendingTaskQuotas.isEmpty()) {
+        return;
+      }
+      List<TaskRuntime.TaskQuota> quotas = new ArrayList<>(pendingTaskQuotas);
+      doAsTransaction(
+          () -> doAs(OptimizingMapper.class, mapper -> mapper.insertTaskQuotas(quotas)),
+          () -> {
+            pendingTaskQuotas.clear();
+            doOnRollback(() -> restorePendingTaskQuotas(quotas));
+          });
+    }
+  }
+
+  private void restorePendingTaskQuotas(List<TaskRuntime.TaskQuota> quotas) {
+    synchronized (pendingTaskQuotas) {
+      pendingTaskQuotas.addAll(0, quotas);
+    }
+  }
+
+  @VisibleForTesting
+  public int pendingTaskQuotaCount() {
+    synchronized (pendingTaskQuotas) {
+      return pendingTaskQuotas.size();
+    }
+  }
+
   private void persistTableRuntime() {
     doAs(TableMetaMapper.class, mapper -> mapper.insertTableRuntime(this));
   }
@@ -64,7 +64,11 @@ public class AsyncTableExecutors {
         new OptimizingExpiringExecutor(
             tableManager,
             conf.getInteger(AmoroManagementConf.OPTIMIZING_RUNTIME_DATA_KEEP_DAYS),
-            conf.getInteger(AmoroManagementConf.OPTIMIZING_RUNTIME_DATA_EXPIRE_INTERVAL_HOURS));
+            conf.getInteger(AmoroManagementConf.OPTIMIZING_TASK_RUNTIME_KEEP_DAYS),
+            conf.getInteger(AmoroManagementConf.OPTIMIZING_TASK_QUOTA_KEEP_DAYS),
+            conf.getInteger(AmoroManagementConf.OPTIMIZING_RUNTIME_DATA_EXPIRE_INTERVAL_HOURS),
+            conf.getInteger(AmoroManagementConf.OPTIMIZING_RUNTIME_DATA_EXPIRE_BATCH_SIZE),
+            conf.get(AmoroManagementConf.OPTIMIZING_RUNTIME_DATA_EXPIRE_BATCH_INTERVAL));
     this.blockerExpiringExecutor = new BlockerExpiringExecutor(tableManager);
     if (conf.getBoolean(AmoroManagementConf.SYNC_HIVE_TABLES_ENABLED)) {
       this.hiveCommitSyncExecutor =
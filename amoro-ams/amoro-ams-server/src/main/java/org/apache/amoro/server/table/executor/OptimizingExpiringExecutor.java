@@ -18,23 +18,42 @@
 
 package org.apache.amoro.server.table.executor;
 
-import org.apache.amoro.server.persistence.PersistentBase;
-import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.optimizing.OptimizingProcess;
 import org.apache.amoro.server.table.TableManager;
 import org.apache.amoro.server.table.TableRuntime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+
+/**
+ * Expires the optimizing history of tables, including optimizing processes, task runtimes and task
+ * quotas. Each of them has its own retention and is purged in batches.
+ */
 public class OptimizingExpiringExecutor extends BaseTableExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(OptimizingExpiringExecutor.class);
 
-  private final Persistency persistency = new Persistency();
+  static final long DAY_MILLS = 24 * 60 * 60 * 1000L;
+
+  private final OptimizingHistoryPurger purger;
   private final long keepTime;
+  private final long taskRuntimeKeepTime;
+  private final long taskQuotaKeepTime;
   private final long interval;
 
-  public OptimizingExpiringExecutor(TableManager tableRuntimes, int keepDays, int intervalHours) {
+  public OptimizingExpiringExecutor(
+      TableManager tableRuntimes,
+      int keepDays,
+      int taskRuntimeKeepDays,
+      int taskQuotaKeepDays,
+      int intervalHours,
+      int batchSize,
+      Duration batchInterval) {
     super(tableRuntimes, 1);
-    this.keepTime = keepDays * 24 * 60 * 60 * 1000L;
+    this.purger = new OptimizingHistoryPurger(batchSize, batchInterval);
+    this.keepTime = keepDays * DAY_MILLS;
+    this.taskRuntimeKeepTime = taskRuntimeKeepDays * DAY_MILLS;
+    this.taskQuotaKeepTime = taskQuotaKeepDays * DAY_MILLS;
     this.interval = intervalHours * 60 * 60 * 1000L;
   }
 
@@ -51,35 +70,40 @@ public class OptimizingExpiringExecutor extends BaseTableExecutor {
   @Override
   protected void execute(TableRuntime tableRuntime) {
     try {
-      persistency.doExpiring(tableRuntime);
+      doExpiring(tableRuntime);
     } catch (Throwable throwable) {
       LOG.error(
           "Expiring table runtimes of {} failed.", tableRuntime.getTableIdentifier(), throwable);
     }
   }
 
-  private class Persistency extends PersistentBase {
-    public void doExpiring(TableRuntime tableRuntime) {
-      long expireTime = System.currentTimeMillis() - keepTime;
-      doAsTransaction(
-          () ->
-              doAs(
-                  OptimizingMapper.class,
-                  mapper ->
-                      mapper.deleteOptimizingProcessBefore(
-                          tableRuntime.getTableIdentifier().getId(), expireTime)),
-          () ->
-              doAs(
-                  OptimizingMapper.class,
-                  mapper ->
-                      mapper.deleteTaskRuntimesBefore(
-                          tableRuntime.getTableIdentifier().getId(), expireTime)),
-          () ->
-              doAs(
-                  OptimizingMapper.class,
-                  mapper ->
-                      mapper.deleteOptimizingQuotaBefore(
-                          tableRuntime.getTableIdentifier().getId(), expireTime)));
+  private void doExpiring(TableRuntime tableRuntime) {
+    long tableId = tableRuntime.getTableIdentifier().getId();
+    int tableKeepDays = tableRuntime.getOptimizingConfig().getHistoryKeepDays();
+    long processKeepTime = tableKeepDays >= 0 ? tableKeepDays * DAY_MILLS : keepTime;
+    long currentTime = System.currentTimeMillis();
+    // the running process is never expired
+    OptimizingProcess runningProcess = tableRuntime.getOptimizingProcess();
+    long maxExpireTime = runningProcess == null ? currentTime : runningProcess.getProcessId();
+
+    int processBatches =
+        purger.purgeProcesses(tableId, Math.min(maxExpireTime, currentTime - processKeepTime));
+    int taskRuntimeBatches =
+        purger.purgeTaskRuntimes(
+            tableId,
+            Math.min(maxExpireTime, currentTime - Math.min(taskRuntimeKeepTime, processKeepTime)));
+    int taskQuotaBatches =
+        purger.purgeTaskQuotas(
+            tableId,
+            Math.min(maxExpireTime, currentTime - Math.min(taskQuotaKeepTime, processKeepTime)));
+    if (processBatches + taskRuntimeBatches + taskQuotaBatches > 0) {
+      LOG.info(
+          "Expired optimizing history of {} in {} process batches, {} task runtime batches and {}"
+              + " task quota batches",
+          tableRuntime.getTableIdentifier(),
+          processBatches,
+          taskRuntimeBatches,
+          taskQuotaBatches);
     }
   }
 }
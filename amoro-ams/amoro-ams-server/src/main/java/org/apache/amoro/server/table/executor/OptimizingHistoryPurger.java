@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table.executor;
+
+import org.apache.amoro.server.optimizing.OptimizingProcessMeta;
+import org.apache.amoro.server.optimizing.OptimizingProcessRollup;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Purges the expired optimizing history of a table in batches, each batch removes the rows of a
+ * limited number of processes in its own transaction and batches are paused by an interval, so the
+ * history tables are never locked for a long time.
+ *
+ * <p>Expired optimizing processes are rolled up into daily summaries before they are removed.
+ */
+public class OptimizingHistoryPurger extends PersistentBase {
+
+  private final int batchSize;
+  private final long batchIntervalMills;
+
+  public OptimizingHistoryPurger(int batchSize, Duration batchInterval) {
+    Preconditions.checkArgument(batchSize > 0, "batch size[%s] must > 0", batchSize);
+    this.batchSize = batchSize;
+    this.batchIntervalMills = batchInterval.toMillis();
+  }
+
+  /**
+   * Roll up and remove the optimizing processes whose ids are less than the expire time.
+   *
+   * @return number of purged batches
+   */
+  public int purgeProcesses(long tableId, long expireTime) {
+    return purgeInBatches(
+        () ->
+            getAs(
+                OptimizingMapper.class,
+                mapper -> mapper.selectOptimizingProcessesBefore(tableId, expireTime, batchSize)),
+        OptimizingProcessMeta::getProcessId,
+        processes -> {
+          long processIdBound = processes.get(processes.size() - 1).getProcessId() + 1;
+          doAs(
+              OptimizingMapper.class,
+              mapper -> {
+                for (OptimizingProcessRollup rollup : rollUp(tableId, processes)) {
+                  if (mapper.updateOptimizingProcessRollup(rollup) == 0) {
+                    mapper.insertOptimizingProcessRollup(rollup);
+                  }
+                }
+                mapper.deleteOptimizingProcessBefore(tableId, processIdBound);
+              });
+        });
+  }
+
+  /**
+   * Remove the task runtimes of the processes whose ids are less than the expire time.
+   *
+   * @return number of purged batches
+   */
+  public int purgeTaskRuntimes(long tableId, long expireTime) {
+    return purgeInBatches(
+        () ->
+            getAs(
+                OptimizingMapper.class,
+                mapper -> mapper.selectTaskRuntimeProcessIdsBefore(tableId, expireTime, batchSize)),
+        Function.identity(),
+        processIds ->
+            doAs(
+                OptimizingMapper.class,
+                mapper ->
+                    mapper.deleteTaskRuntimesBefore(
+                        tableId, processIds.get(processIds.size() - 1) + 1)));
+  }
+
+  /**
+   * Remove the task quotas of the processes whose ids are less than the expire time.
+   *
+   * @return number of purged batches
+   */
+  public int purgeTaskQuotas(long tableId, long expireTime) {
+    return purgeInBatches(
+        () ->
+            getAs(
+                OptimizingMapper.class,
+                mapper -> mapper.selectTaskQuotaProcessIdsBefore(tableId, expireTime, batchSize)),
+        Function.identity(),
+        processIds ->
+            doAs(
+                OptimizingMapper.class,
+                mapper ->
+                    mapper.deleteOptimizingQuotaBefore(
+                        tableId, processIds.get(processIds.size() - 1) + 1)));
+  }
+
+  /**
+   * Select the oldest expired rows and purge them batch by batch until there are no expired rows,
+   * rows of the same process are always purged in the same batch since process ids are selected in
+   * ascending order and rows are removed by the upper bound of the process ids.
+   */
+  private <T> int purgeInBatches(
+      Supplier<List<T>> selector, Function<T, Long> processIdOf, Consumer<List<T>> purger) {
+    int batches = 0;
+    List<T> expired = selector.get();
+    while (!expired.isEmpty()) {
+      purger.accept(expired);
+      batches++;
+      if (expired.size() < batchSize || !pause()) {
+        break;
+      }
+      Long lastProcessId = processIdOf.apply(expired.get(expired.size() - 1));
+      expired = selector.get();
+      Preconditions.checkState(
+          expired.isEmpty() || !Objects.equals(processIdOf.apply(expired.get(0)), lastProcessId),
+          "Process %s has not been purged",
+          lastProcessId);
+    }
+    return batches;
+  }
+
+  private boolean pause() {
+    if (batchIntervalMills <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(batchIntervalMills);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static Iterable<OptimizingProcessRollup> rollUp(
+      long tableId, List<OptimizingProcessMeta> processes) {
+    Map<String, OptimizingProcessRollup> rollups = new LinkedHashMap<>();
+    for (OptimizingProcessMeta process : processes) {
+      long periodStart =
+          process.getPlanTime()
+              - Math.floorMod(process.getPlanTime(), OptimizingExpiringExecutor.DAY_MILLS);
+      String key = periodStart + ":" + process.getOptimizingType() + ":" + process.getStatus();
+      rollups
+          .computeIfAbsent(
+              key,
+              k ->
+                  new OptimizingProcessRollup(
+                      tableId, periodStart, process.getOptimizingType(), process.getStatus()))
+          .add(process);
+    }
+    return rollups.values();
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.amoro.AmoroTable;
 import org.apache.amoro.api.config.TableConfiguration;
 import org.apache.amoro.server.optimizing.OptimizingProcess;
 import org.apache.amoro.server.optimizing.plan.OptimizingEvaluator;
+import org.apache.amoro.server.table.PartitionStatisticsManager;
 import org.apache.amoro.server.table.TableManager;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.table.MixedTable;
@@ -31,6 +32,7 @@ public class TableRuntimeRefreshExecutor extends BaseTableExecutor {
 
   // 1 minutes
   private final long interval;
+  private final PartitionStatisticsManager partitionStatistics = new PartitionStatisticsManager();
 
   public TableRuntimeRefreshExecutor(TableManager tableRuntimes, int poolSize, long interval) {
     super(tableRuntimes, poolSize);
@@ -62,6 +64,19 @@ public class TableRuntimeRefreshExecutor extends BaseTableExecutor {
     }
   }
 
+  private void refreshPartitionStatistics(TableRuntime tableRuntime, MixedTable table) {
+    try {
+      partitionStatistics.refresh(tableRuntime.getTableIdentifier().getId(), table);
+    } catch (Throwable throwable) {
+      // a statistics failure must not stop refreshing the runtime or evaluating optimizing, the
+      // next refresh retries from the snapshots stored with the statistics
+      logger.error(
+          "Refreshing partition statistics of table {} failed.",
+          tableRuntime.getTableIdentifier(),
+          throwable);
+    }
+  }
+
   @Override
   public void handleConfigChanged(TableRuntime tableRuntime, TableConfiguration originalConfig) {
     // After disabling self-optimizing, close the currently running optimizing process.
@@ -83,6 +98,7 @@ public class TableRuntimeRefreshExecutor extends BaseTableExecutor {
       AmoroTable<?> table = loadTable(tableRuntime);
       tableRuntime.refresh(table);
       MixedTable mixedTable = (MixedTable) table.originalTable();
+      refreshPartitionStatistics(tableRuntime, mixedTable);
       if ((mixedTable.isKeyedTable()
               && (lastOptimizedSnapshotId != tableRuntime.getCurrentSnapshotId()
                   || lastOptimizedChangeSnapshotId != tableRuntime.getCurrentChangeSnapshotId()))
@@ -20,6 +20,7 @@ package org.apache.amoro.server.table.internal;
 
 import org.apache.amoro.api.ServerTableIdentifier;
 import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
 import org.apache.amoro.server.utils.InternalTableUtil;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
@@ -66,20 +67,30 @@ public class IcebergInternalTableOperations extends PersistentBase implements Ta
 
   @Override
   public TableMetadata refresh() {
-    if (this.tableMetadata == null) {
-      this.tableMetadata =
-          getAs(
-              TableMetaMapper.class, mapper -> mapper.selectTableMetaById(this.identifier.getId()));
+    String metadataFileLocation = currentMetadataLocation();
+    if (StringUtils.isBlank(metadataFileLocation)) {
+      return null;
     }
+    this.current =
+        InternalTableMetadataCache.getInstance()
+            .read(this.identifier.getId(), io, metadataFileLocation);
+    return this.current;
+  }
+
+  /**
+   * Location of the current metadata file stored in AMS, which is known without reading the
+   * metadata file.
+   *
+   * @return the location, or null if the table doesn't exist.
+   */
+  public String currentMetadataLocation() {
     if (this.tableMetadata == null) {
-      return null;
+      this.tableMetadata = TableMetaCache.getInstance().getTableMetadata(this.identifier.getId());
     }
-    String metadataFileLocation = tableMetadataLocation(this.tableMetadata);
-    if (StringUtils.isBlank(metadataFileLocation)) {
+    if (this.tableMetadata == null) {
       return null;
     }
-    this.current = TableMetadataParser.read(io, metadataFileLocation);
-    return this.current;
+    return tableMetadataLocation(this.tableMetadata);
   }
 
   protected String tableMetadataLocation(org.apache.amoro.server.table.TableMetadata tableMeta) {
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.amoro.api.config.Configurations;
+import org.apache.amoro.server.AmoroManagementConf;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableMetadataParser;
+import org.apache.iceberg.io.FileIO;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cache of the iceberg {@link TableMetadata} parsed from metadata files of internal tables.
+ *
+ * <p>A metadata file is never changed after it is committed, so parsed metadata is cached by the
+ * table and the location of the metadata file, and a commit is visible immediately because it
+ * changes the location stored in the database.
+ */
+public class InternalTableMetadataCache {
+
+  private static volatile InternalTableMetadataCache INSTANCE;
+
+  /** @return Get the singleton object, which uses the default configurations if not initialized. */
+  public static InternalTableMetadataCache getInstance() {
+    if (INSTANCE == null) {
+      synchronized (InternalTableMetadataCache.class) {
+        if (INSTANCE == null) {
+          INSTANCE = new InternalTableMetadataCache(new Configurations());
+        }
+      }
+    }
+    return INSTANCE;
+  }
+
+  /** Initialize the singleton object with the service configurations. */
+  public static void initialize(Configurations serviceConfig) {
+    synchronized (InternalTableMetadataCache.class) {
+      INSTANCE = new InternalTableMetadataCache(serviceConfig);
+    }
+  }
+
+  /** Clear the cached metadata and release the singleton object. */
+  public static void dispose() {
+    synchronized (InternalTableMetadataCache.class) {
+      if (INSTANCE != null) {
+        INSTANCE.invalidateAll();
+      }
+      INSTANCE = null;
+    }
+  }
+
+  private final Cache<CacheKey, TableMetadata> cache;
+
+  public InternalTableMetadataCache(Configurations serviceConfig) {
+    this(
+        serviceConfig.getLong(AmoroManagementConf.TABLE_METADATA_CACHE_MAX_ENTRIES),
+        serviceConfig.get(AmoroManagementConf.TABLE_METADATA_CACHE_TTL));
+  }
+
+  public InternalTableMetadataCache(long maxEntries, Duration ttl) {
+    Preconditions.checkArgument(maxEntries >= 0, "Max entries must not be negative");
+    if (maxEntries > 0) {
+      this.cache =
+          Caffeine.newBuilder()
+              .maximumSize(maxEntries)
+              .expireAfterAccess(ttl)
+              .executor(Runnable::run)
+              .recordStats()
+              .build();
+    } else {
+      this.cache = null;
+    }
+  }
+
+  /**
+   * Get the metadata parsed from the metadata file, the file is read and parsed only on cache miss.
+   *
+   * @param tableId id of the table
+   * @param io file io to read the metadata file
+   * @param metadataFileLocation location of the current metadata file of the table
+   * @return the parsed metadata
+   */
+  public TableMetadata read(long tableId, FileIO io, String metadataFileLocation) {
+    if (cache == null) {
+      return TableMetadataParser.read(io, metadataFileLocation);
+    }
+    return cache.get(
+        new CacheKey(tableId, metadataFileLocation),
+        key -> TableMetadataParser.read(io, key.metadataFileLocation));
+  }
+
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  public boolean enabled() {
+    return cache != null;
+  }
+
+  public long hitCount() {
+    return cache == null ? 0 : cache.stats().hitCount();
+  }
+
+  public long missCount() {
+    return cache == null ? 0 : cache.stats().missCount();
+  }
+
+  private static class CacheKey {
+    private final long tableId;
+    private final String metadataFileLocation;
+
+    private CacheKey(long tableId, String metadataFileLocation) {
+      this.tableId = tableId;
+      this.metadataFileLocation = metadataFileLocation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      return tableId == that.tableId
+          && Objects.equals(metadataFileLocation, that.metadataFileLocation);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tableId, metadataFileLocation);
+    }
+  }
+}
@@ -28,8 +28,13 @@ public class SimpleResultSet implements TerminalSession.ResultSet {
   Object[] current;
 
   public SimpleResultSet(List<String> columns, List<Object[]> rows) {
+    this(columns, rows.iterator());
+  }
+
+  /** Result-set fetching rows from the iterator only when they are read. */
+  public SimpleResultSet(List<String> columns, Iterator<Object[]> rows) {
     this.columns = columns;
-    it = rows.iterator();
+    it = rows;
   }
 
   @Override
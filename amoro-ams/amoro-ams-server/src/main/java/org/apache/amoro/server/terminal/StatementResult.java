@@ -24,13 +24,17 @@ import java.util.List;
 
 /** result of single statement. */
 public class StatementResult {
+  private static final long ROW_OVERHEAD_BYTES = 48;
+  private static final long STRING_OVERHEAD_BYTES = 48;
+
   private final int lineNumber;
   private final String statement;
   private boolean success;
   private String logs;
   private final List<String> columns;
-  private final List<Object[]> datas = Lists.newArrayList();
+  private final List<List<String>> datas = Lists.newArrayList();
   private final boolean empty;
+  private boolean truncated;
 
   public StatementResult(String statement, int lineNumber, List<String> columns) {
     this.statement = statement;
@@ -40,8 +44,27 @@ public class StatementResult {
     this.empty = false;
   }
 
-  public void appendRow(Object[] row) {
-    this.datas.add(row);
+  /**
+   * Append a row, values are converted to strings when fetched so the fetched objects are not held
+   * by the result.
+   *
+   * @return estimated size in bytes of the appended row
+   */
+  public long appendRow(Object[] row) {
+    List<String> rowStringList = Lists.newArrayListWithCapacity(row.length);
+    long size = ROW_OVERHEAD_BYTES;
+    for (Object o : row) {
+      String value = o == null ? "null" : o.toString();
+      rowStringList.add(value);
+      size += STRING_OVERHEAD_BYTES + 2L * value.length();
+    }
+    this.datas.add(rowStringList);
+    return size;
+  }
+
+  /** Mark that rows left in the result-set are not fetched. */
+  public void truncate() {
+    this.truncated = true;
   }
 
   public void withExceptionLog(String log) {
@@ -69,24 +92,16 @@ public class StatementResult {
     return columns;
   }
 
-  public List<Object[]> getDatas() {
-    return datas;
+  public int getRowCount() {
+    return datas.size();
   }
 
   public List<List<String>> getDataAsStringList() {
-    List<List<String>> results = Lists.newArrayList();
-    for (Object[] row : datas) {
-      List<String> rowStringList = Lists.newArrayList();
-      for (Object o : row) {
-        if (o == null) {
-          rowStringList.add("null");
-        } else {
-          rowStringList.add(o.toString());
-        }
-      }
-      results.add(rowStringList);
-    }
-    return results;
+    return datas;
+  }
+
+  public boolean isTruncated() {
+    return truncated;
   }
 
   public boolean isEmpty() {
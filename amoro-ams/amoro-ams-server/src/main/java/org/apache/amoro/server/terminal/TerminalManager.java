@@ -62,6 +62,7 @@ public class TerminalManager {
   private final TableService tableService;
   private final TerminalSessionFactory sessionFactory;
   private final int resultLimits;
+  private final long resultMemoryLimit;
   private final boolean stopOnError;
 
   private final int sessionTimeout;
@@ -84,6 +85,7 @@ public class TerminalManager {
     this.serviceConfig = conf;
     this.tableService = tableService;
     this.resultLimits = conf.getInteger(AmoroManagementConf.TERMINAL_RESULT_LIMIT);
+    this.resultMemoryLimit = conf.getLong(AmoroManagementConf.TERMINAL_RESULT_MEMORY_LIMIT);
     this.stopOnError = conf.getBoolean(AmoroManagementConf.TERMINAL_STOP_ON_ERROR);
     this.sessionTimeout = conf.getInteger(AmoroManagementConf.TERMINAL_SESSION_TIMEOUT);
     this.sessionFactory = loadTerminalSessionFactory(conf);
@@ -146,7 +148,7 @@ public class TerminalManager {
       throw new IllegalStateException(
           "current session is not ready to execute script. status:" + context.getStatus());
     }
-    context.submit(catalog, script, resultLimits, stopOnError);
+    context.submit(catalog, script, resultLimits, resultMemoryLimit, stopOnError);
     return sessionId;
   }
 
@@ -184,6 +186,7 @@ public class TerminalManager {
               sql.setId("line:" + statement.getLineNumber() + " - " + statement.getStatement());
               sql.setColumns(statement.getColumns());
               sql.setRowData(statement.getDataAsStringList());
+              sql.setTruncated(statement.isTruncated());
               sql.setStatus(
                   statement.isSuccess()
                       ? ExecutionStatus.Finished.name()
@@ -61,6 +61,12 @@ public interface TerminalSession {
    */
   ResultSet executeStatement(String catalog, String statement);
 
+  /**
+   * cancel the statement being executed or fetched of this session, called from another thread.
+   * DO-NOT-THROW-ANYTHING of this method.
+   */
+  default void cancel() {}
+
   /** @return - return logs during execution and clean logs */
   List<String> logs();
 
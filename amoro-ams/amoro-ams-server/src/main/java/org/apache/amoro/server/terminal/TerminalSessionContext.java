@@ -96,9 +96,15 @@ public class TerminalSessionContext {
     return ExecutionStatus.Running != status;
   }
 
+  /**
+   * submit a script to execute.
+   *
+   * @param fetchLimit - max rows fetched of each statement
+   * @param memoryLimit - max estimated bytes of rows fetched of all statements of the script
+   */
   public synchronized void submit(
-      String catalog, String script, int fetchLimit, boolean stopOnError) {
-    ExecutionTask task = new ExecutionTask(catalog, script, fetchLimit, stopOnError);
+      String catalog, String script, int fetchLimit, long memoryLimit, boolean stopOnError) {
+    ExecutionTask task = new ExecutionTask(catalog, script, fetchLimit, memoryLimit, stopOnError);
     if (!isReadyToExecute()) {
       throw new IllegalStateException(
           "current session is not ready to execute. status: " + status.get().name());
@@ -123,6 +129,10 @@ public class TerminalSessionContext {
   public synchronized void cancel() {
     if (this.task != null) {
       this.task.cancel();
+      TerminalSession session = this.session;
+      if (session != null && status.get() == ExecutionStatus.Running) {
+        session.cancel();
+      }
     }
   }
 
@@ -189,10 +199,13 @@ public class TerminalSessionContext {
 
     private final AtomicBoolean canceled = new AtomicBoolean(false);
     private final int fetchLimits;
+    private final long memoryLimit;
     private final boolean stopOnError;
     private final String catalog;
+    private long fetchedBytes = 0;
 
-    public ExecutionTask(String catalog, String script, int fetchLimits, boolean stopOnError) {
+    public ExecutionTask(
+        String catalog, String script, int fetchLimits, long memoryLimit, boolean stopOnError) {
       this.catalog = catalog;
       if (script.trim().endsWith(";")) {
         this.script = script;
@@ -200,6 +213,7 @@ public class TerminalSessionContext {
         this.script = script + ";";
       }
       this.fetchLimits = fetchLimits;
+      this.memoryLimit = memoryLimit;
       this.stopOnError = stopOnError;
     }
 
@@ -264,6 +278,10 @@ public class TerminalSessionContext {
           // drop the semicolon(;) character
           String statement = statementBuilder.substring(0, statementBuilder.length() - 1);
           boolean success = executeStatement(session, statement, no);
+          if (canceled.get()) {
+            executionResult.appendLog("execution is canceled. ");
+            return ExecutionStatus.Canceled;
+          }
           if (!success) {
             if (stopOnError) {
               executionResult.appendLog(
@@ -319,7 +337,7 @@ public class TerminalSessionContext {
         executionResult.appendResult(sr);
         executionResult.appendLog(
             "statement execute down, fetch rows:"
-                + sr.getDatas().size()
+                + sr.getRowCount()
                 + ", execution cost: "
                 + cost
                 + "ms");
@@ -331,13 +349,21 @@ public class TerminalSessionContext {
       long count = 0;
       StatementResult sr = new StatementResult(statement, lineNo, rs.columns());
       try {
-        while (rs.next()) {
-          sr.appendRow(rs.rowData());
-          count++;
+        // rows are read from the result-set one by one, the backend fetches them in chunks
+        while (!canceled.get() && rs.next()) {
           if (count >= fetchLimits) {
+            sr.truncate();
             executionResult.appendLog("meet result set limit " + count + ", ignore rows left.");
             break;
           }
+          if (fetchedBytes >= memoryLimit) {
+            sr.truncate();
+            executionResult.appendLog(
+                "meet result memory limit " + memoryLimit + " bytes of session, ignore rows left.");
+            break;
+          }
+          fetchedBytes += sr.appendRow(rs.rowData());
+          count++;
         }
       } catch (Throwable t) {
         executionResult.appendLog("meet exception when fetch result data.");
@@ -21,6 +21,8 @@ package org.apache.amoro.server.terminal.kyuubi;
 import org.apache.amoro.server.terminal.JDBCResultSet;
 import org.apache.amoro.server.terminal.TerminalSession;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -30,16 +32,23 @@ import java.util.Map;
 
 public class KyuubiSession implements TerminalSession {
 
+  private static final Logger LOG = LoggerFactory.getLogger(KyuubiSession.class);
+
   final List<String> logs = Lists.newArrayList();
   final Connection connection;
 
+  final int fetchSize;
+
   private volatile String currentCatalog;
+  private volatile Statement currentStatement;
   Map<String, String> sessionConf;
 
-  public KyuubiSession(Connection connection, List<String> logs, Map<String, String> sessionConf) {
+  public KyuubiSession(
+      Connection connection, List<String> logs, Map<String, String> sessionConf, int fetchSize) {
     this.logs.addAll(logs);
     this.connection = connection;
     this.sessionConf = sessionConf;
+    this.fetchSize = fetchSize;
   }
 
   @Override
@@ -77,6 +86,9 @@ public class KyuubiSession implements TerminalSession {
     Statement sts = null;
     try {
       sts = connection.createStatement();
+      // rows are fetched from the server in chunks of fetch size when the result-set is read
+      sts.setFetchSize(fetchSize);
+      currentStatement = sts;
       boolean withRs = sts.execute(statement);
       if (withRs) {
         rs = sts.getResultSet();
@@ -88,6 +100,18 @@ public class KyuubiSession implements TerminalSession {
     return new JDBCResultSet(rs, sts);
   }
 
+  @Override
+  public void cancel() {
+    Statement sts = currentStatement;
+    if (sts != null) {
+      try {
+        sts.cancel();
+      } catch (Throwable t) {
+        LOG.warn("Failed to cancel the running statement of the kyuubi session", t);
+      }
+    }
+  }
+
   @Override
   public synchronized List<String> logs() {
     List<String> logs = Lists.newArrayList(this.logs);
@@ -130,7 +130,8 @@ public class KyuubiTerminalSessionFactory implements TerminalSessionFactory {
     }
 
     Connection connection = metaStore.doAs(() -> driver.connect(kyuubiJdbcUrl, properties));
-    return new KyuubiSession(connection, logs, sessionConf);
+    return new KyuubiSession(
+        connection, logs, sessionConf, configuration.getInteger(SessionConfigOptions.FETCH_SIZE));
   }
 
   private String getConnectionUrl(JdbcConnectionParams params) {
@@ -20,19 +20,25 @@ package org.apache.amoro.server.terminal.local;
 
 import org.apache.amoro.server.terminal.SimpleResultSet;
 import org.apache.amoro.server.terminal.TerminalSession;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Iterators;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.SparkSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import scala.collection.JavaConverters;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 public class LocalTerminalSession implements TerminalSession {
 
+  private static final Logger LOG = LoggerFactory.getLogger(LocalTerminalSession.class);
+
   List<String> logs = Lists.newArrayList();
 
   List<String> catalogs;
@@ -41,6 +47,9 @@ public class LocalTerminalSession implements TerminalSession {
 
   Map<String, String> sessionConfigs;
 
+  /** spark jobs of this session are submitted in this group, so they could be canceled. */
+  final String jobGroup = "terminal-session-" + UUID.randomUUID();
+
   LocalTerminalSession(
       List<String> supportedCatalogs,
       SparkSession session,
@@ -59,6 +68,7 @@ public class LocalTerminalSession implements TerminalSession {
 
   @Override
   public ResultSet executeStatement(String catalog, String statement) {
+    session.sparkContext().setJobGroup(jobGroup, statement, true);
     if (currentCatalog == null || !currentCatalog.equalsIgnoreCase(catalog)) {
       if (TerminalSession.canUseSparkSessionCatalog(sessionConfigs, catalog)) {
         session.sql("use `spark_catalog`");
@@ -76,12 +86,25 @@ public class LocalTerminalSession implements TerminalSession {
     }
 
     Dataset<Row> ds = session.sql(statement);
-    List<Object[]> rows =
-        ds.collectAsList().stream()
-            .map(r -> JavaConverters.seqAsJavaList(r.toSeq()).toArray(new Object[0]))
-            .collect(Collectors.toList());
+    List<String> columns = Arrays.asList(ds.columns());
+    if (columns.isEmpty()) {
+      return new SimpleResultSet(columns, Collections.emptyIterator());
+    }
+    // fetch rows partition by partition instead of collecting all of them to the driver
+    return new SimpleResultSet(
+        columns,
+        Iterators.transform(
+            ds.toLocalIterator(),
+            r -> JavaConverters.seqAsJavaList(r.toSeq()).toArray(new Object[0])));
+  }
 
-    return new SimpleResultSet(Arrays.asList(ds.columns()), rows);
+  @Override
+  public void cancel() {
+    try {
+      session.sparkContext().cancelJobGroup(jobGroup);
+    } catch (Throwable t) {
+      LOG.warn("Failed to cancel the spark jobs of group {}", jobGroup, t);
+    }
   }
 
   @Override
@@ -142,6 +142,8 @@ CREATE TABLE table_optimizing_process (
     CONSTRAINT table_optimizing_process_pk PRIMARY KEY (process_id)
 );
 
+CREATE INDEX table_process_index ON table_optimizing_process (catalog_name, db_name, table_name, process_id);
+
 CREATE TABLE task_runtime (
     process_id      BIGINT NOT NULL,
     task_id         INT NOT NULL,
@@ -202,3 +204,36 @@ CREATE TABLE table_blocker (
   properties clob(64m),
   PRIMARY KEY (blocker_id)
 );
+
+CREATE TABLE table_partition_statistics (
+  table_id bigint NOT NULL,
+  partition_path varchar(512) NOT NULL,
+  spec_id int NOT NULL,
+  file_count bigint NOT NULL,
+  file_size bigint NOT NULL,
+  last_commit_time timestamp DEFAULT NULL,
+  PRIMARY KEY (table_id, partition_path)
+);
+
+CREATE TABLE table_partition_statistics_state (
+  table_id bigint NOT NULL,
+  snapshot_id bigint NOT NULL,
+  change_snapshot_id bigint NOT NULL,
+  spec_id int NOT NULL,
+  status varchar(10) NOT NULL,
+  PRIMARY KEY (table_id)
+);
+
+CREATE TABLE table_optimizing_process_rollup (
+  table_id bigint NOT NULL,
+  period_start timestamp NOT NULL,
+  optimizing_type varchar(10) NOT NULL,
+  status varchar(10) NOT NULL,
+  process_count bigint NOT NULL,
+  total_duration bigint NOT NULL,
+  input_file_count bigint NOT NULL,
+  input_file_size bigint NOT NULL,
+  output_file_count bigint NOT NULL,
+  output_file_size bigint NOT NULL,
+  PRIMARY KEY (table_id, period_start, optimizing_type, status)
+);
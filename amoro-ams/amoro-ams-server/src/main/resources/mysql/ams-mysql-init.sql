@@ -152,7 +152,8 @@ CREATE TABLE `table_optimizing_process`
     `from_sequence`                 mediumtext COMMENT 'from or min sequence of each partition',
     `to_sequence`                   mediumtext COMMENT 'to or max sequence of each partition',
     PRIMARY KEY (`process_id`),
-    KEY  `table_index` (`table_id`, `plan_time`)
+    KEY  `table_index` (`table_id`, `plan_time`),
+    KEY  `table_process_index` (`catalog_name`, `db_name`, `table_name`, `process_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT 'History of optimizing after each commit';
 
 CREATE TABLE `task_runtime`
@@ -222,3 +223,39 @@ CREATE TABLE `table_blocker` (
   PRIMARY KEY (`blocker_id`),
   KEY `table_index` (`catalog_name`,`db_name`,`table_name`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Table blockers' ROW_FORMAT=DYNAMIC;
+
+CREATE TABLE `table_partition_statistics`
+(
+    `table_id`                  bigint(20) NOT NULL,
+    `partition_path`            varchar(512) NOT NULL COMMENT 'Partition path',
+    `spec_id`                   int(11) NOT NULL COMMENT 'Partition spec id',
+    `file_count`                bigint(20) NOT NULL COMMENT 'Number of live data and delete files',
+    `file_size`                 bigint(20) NOT NULL COMMENT 'Total size of live files in bytes',
+    `last_commit_time`          timestamp NULL DEFAULT NULL COMMENT 'Last commit time of the partition',
+    PRIMARY KEY (`table_id`, `partition_path`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT 'Statistics of live files in each partition' ROW_FORMAT=DYNAMIC;
+
+CREATE TABLE `table_partition_statistics_state`
+(
+    `table_id`                  bigint(20) NOT NULL,
+    `snapshot_id`               bigint(20) NOT NULL COMMENT 'Base store snapshot the statistics cover',
+    `change_snapshot_id`        bigint(20) NOT NULL COMMENT 'Change store snapshot the statistics cover',
+    `spec_id`                   int(11) NOT NULL COMMENT 'Default partition spec id when the statistics were collected',
+    `status`                    varchar(10) NOT NULL COMMENT 'Status of the statistics: COLLECTED, SKIPPED',
+    PRIMARY KEY (`table_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT 'Snapshots covered by the partition statistics of each table';
+
+CREATE TABLE `table_optimizing_process_rollup`
+(
+    `table_id`                  bigint(20) NOT NULL,
+    `period_start`              timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Start of the day the processes were planned',
+    `optimizing_type`           varchar(10) NOT NULL COMMENT 'Optimize type: Major, Minor, Full',
+    `status`                    varchar(10) NOT NULL COMMENT 'Status of the processes',
+    `process_count`             bigint(20) NOT NULL COMMENT 'Number of rolled up processes',
+    `total_duration`            bigint(20) NOT NULL COMMENT 'Total duration of the processes in milliseconds',
+    `input_file_count`          bigint(20) NOT NULL COMMENT 'Number of rewritten input files',
+    `input_file_size`           bigint(20) NOT NULL COMMENT 'Total size of rewritten input files in bytes',
+    `output_file_count`         bigint(20) NOT NULL COMMENT 'Number of output files',
+    `output_file_size`          bigint(20) NOT NULL COMMENT 'Total size of output files in bytes',
+    PRIMARY KEY (`table_id`, `period_start`, `optimizing_type`, `status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT 'Daily summaries of expired optimizing processes';
@@ -21,3 +21,67 @@ ALTER TABLE table_optimizing_process ALTER COLUMN table_name TYPE varchar(256) N
 ALTER TABLE table_metadata ALTER COLUMN table_name TYPE varchar(256) NOT NULL;
 ALTER TABLE table_runtime ALTER COLUMN table_name TYPE varchar(256) NOT NULL;
 ALTER TABLE table_blocker ALTER COLUMN table_name TYPE varchar(256) NOT NULL;
+CREATE INDEX table_process_index ON table_optimizing_process (catalog_name, db_name, table_name, process_id);
+
+CREATE TABLE table_partition_statistics
+(
+    table_id BIGINT NOT NULL,
+    partition_path VARCHAR(512) NOT NULL,
+    spec_id INT NOT NULL,
+    file_count BIGINT NOT NULL,
+    file_size BIGINT NOT NULL,
+    last_commit_time TIMESTAMP,
+    PRIMARY KEY (table_id, partition_path)
+);
+
+COMMENT ON TABLE table_partition_statistics IS 'Statistics of live files in each partition';
+COMMENT ON COLUMN table_partition_statistics.table_id IS 'Table ID';
+COMMENT ON COLUMN table_partition_statistics.partition_path IS 'Partition path';
+COMMENT ON COLUMN table_partition_statistics.spec_id IS 'Partition spec ID';
+COMMENT ON COLUMN table_partition_statistics.file_count IS 'Number of live data and delete files';
+COMMENT ON COLUMN table_partition_statistics.file_size IS 'Total size of live files in bytes';
+COMMENT ON COLUMN table_partition_statistics.last_commit_time IS 'Last commit time of the partition';
+
+CREATE TABLE table_partition_statistics_state
+(
+    table_id BIGINT NOT NULL,
+    snapshot_id BIGINT NOT NULL,
+    change_snapshot_id BIGINT NOT NULL,
+    spec_id INT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    PRIMARY KEY (table_id)
+);
+
+COMMENT ON TABLE table_partition_statistics_state IS 'Snapshots covered by the partition statistics of each table';
+COMMENT ON COLUMN table_partition_statistics_state.table_id IS 'Table ID';
+COMMENT ON COLUMN table_partition_statistics_state.snapshot_id IS 'Base store snapshot the statistics cover';
+COMMENT ON COLUMN table_partition_statistics_state.change_snapshot_id IS 'Change store snapshot the statistics cover';
+COMMENT ON COLUMN table_partition_statistics_state.spec_id IS 'Default partition spec id when the statistics were collected';
+COMMENT ON COLUMN table_partition_statistics_state.status IS 'Status of the statistics: COLLECTED, SKIPPED';
+
+CREATE TABLE table_optimizing_process_rollup
+(
+    table_id BIGINT NOT NULL,
+    period_start TIMESTAMP NOT NULL,
+    optimizing_type VARCHAR(10) NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    process_count BIGINT NOT NULL,
+    total_duration BIGINT NOT NULL,
+    input_file_count BIGINT NOT NULL,
+    input_file_size BIGINT NOT NULL,
+    output_file_count BIGINT NOT NULL,
+    output_file_size BIGINT NOT NULL,
+    PRIMARY KEY (table_id, period_start, optimizing_type, status)
+);
+
+COMMENT ON TABLE table_optimizing_process_rollup IS 'Daily summaries of expired optimizing processes';
+COMMENT ON COLUMN table_optimizing_process_rollup.table_id IS 'Table ID';
+COMMENT ON COLUMN table_optimizing_process_rollup.period_start IS 'Start of the day the processes were planned';
+COMMENT ON COLUMN table_optimizing_process_rollup.optimizing_type IS 'Optimizing type: Major, Minor, Full';
+COMMENT ON COLUMN table_optimizing_process_rollup.status IS 'Status of the processes';
+COMMENT ON COLUMN table_optimizing_process_rollup.process_count IS 'Number of rolled up processes';
+COMMENT ON COLUMN table_optimizing_process_rollup.total_duration IS 'Total duration of the processes in milliseconds';
+COMMENT ON COLUMN table_optimizing_process_rollup.input_file_count IS 'Number of rewritten input files';
+COMMENT ON COLUMN table_optimizing_process_rollup.input_file_size IS 'Total size of rewritten input files in bytes';
+COMMENT ON COLUMN table_optimizing_process_rollup.output_file_count IS 'Number of output files';
+COMMENT ON COLUMN table_optimizing_process_rollup.output_file_size IS 'Total size of output files in bytes';
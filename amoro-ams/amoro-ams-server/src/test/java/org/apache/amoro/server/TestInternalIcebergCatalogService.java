@@ -50,6 +50,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -199,6 +201,38 @@ public class TestInternalIcebergCatalogService extends RestCatalogServiceTestBas
       Assertions.assertEquals(files.length, tasks.size());
     }
 
+    @Test
+    public void testLoadTableWithETag() throws IOException {
+      Table tbl = nsCatalog.createTable(identifier, schema);
+      String url =
+          ams.getHttpUrl()
+              + restCatalogUri
+              + "/v1/catalogs/"
+              + catalogName()
+              + "/namespaces/"
+              + database
+              + "/tables/"
+              + table;
+
+      HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+      Assertions.assertEquals(200, conn.getResponseCode());
+      String etag = conn.getHeaderField("ETag");
+      conn.disconnect();
+      Assertions.assertNotNull(etag);
+
+      conn = (HttpURLConnection) new URL(url).openConnection();
+      conn.setRequestProperty("If-None-Match", etag);
+      Assertions.assertEquals(304, conn.getResponseCode());
+      conn.disconnect();
+
+      tbl.updateProperties().set("k1", "v1").commit();
+      conn = (HttpURLConnection) new URL(url).openConnection();
+      conn.setRequestProperty("If-None-Match", etag);
+      Assertions.assertEquals(200, conn.getResponseCode());
+      Assertions.assertNotEquals(etag, conn.getHeaderField("ETag"));
+      conn.disconnect();
+    }
+
     @Test
     public void testServerCatalogLoadTable() throws IOException {
       Table tbl = nsCatalog.createTable(identifier, schema, spec);
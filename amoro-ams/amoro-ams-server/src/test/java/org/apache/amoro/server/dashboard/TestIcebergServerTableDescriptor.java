@@ -18,14 +18,36 @@
 
 package org.apache.amoro.server.dashboard;
 
+import org.apache.amoro.api.CommitMetaProducer;
+import org.apache.amoro.api.config.Configurations;
 import org.apache.amoro.formats.AmoroCatalogTestHelper;
 import org.apache.amoro.formats.IcebergHadoopCatalogTestHelper;
 import org.apache.amoro.hive.formats.IcebergHiveCatalogTestHelper;
+import org.apache.amoro.op.SnapshotSummary;
+import org.apache.amoro.server.dashboard.model.AmoroSnapshotsOfTable;
+import org.apache.amoro.server.dashboard.model.OperationType;
+import org.apache.amoro.server.dashboard.model.PartitionBaseInfo;
+import org.apache.amoro.server.dashboard.model.PartitionFileBaseInfo;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Iterables;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Streams;
+import org.apache.amoro.table.TableIdentifier;
+import org.apache.iceberg.AppendFiles;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.Pair;
+import org.junit.Assert;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @RunWith(Parameterized.class)
 public class TestIcebergServerTableDescriptor extends TestServerTableDescriptor {
 
@@ -77,6 +99,153 @@ public class TestIcebergServerTableDescriptor extends TestServerTableDescriptor
     getTable().updateSchema().deleteColumn("renamed_col").commit();
   }
 
+  @Test
+  public void tablePartitionsAndFiles() {
+    Table table = getTable();
+    AppendFiles append = table.newAppend();
+    for (int i = 1; i <= 5; i++) {
+      append.appendFile(dataFile(table, "age=" + i, i));
+    }
+    append.appendFile(dataFile(table, "age=1", 6));
+    append.appendFile(dataFile(table, "age=1", 7));
+    append.commit();
+
+    ServerTableDescriptor serverTableDescriptor =
+        new ServerTableDescriptor(tableService(), new Configurations());
+    org.apache.amoro.api.TableIdentifier identifier =
+        TableIdentifier.of(getAmoroCatalogTestHelper().catalogName(), TEST_DB, TEST_TABLE)
+            .buildTableIdentifier();
+
+    Pair<List<PartitionBaseInfo>, Integer> partitions =
+        serverTableDescriptor.getTablePartition(identifier, "", 2, 0);
+    Assert.assertEquals(5, (int) partitions.second());
+    Assert.assertEquals(
+        Arrays.asList("age=5", "age=4"),
+        partitions.first().stream()
+            .map(PartitionBaseInfo::getPartition)
+            .collect(Collectors.toList()));
+
+    partitions = serverTableDescriptor.getTablePartition(identifier, "age=1", 2, 0);
+    Assert.assertEquals(1, (int) partitions.second());
+    Assert.assertEquals(3, partitions.first().get(0).getFileCount());
+
+    Pair<List<PartitionFileBaseInfo>, Integer> files =
+        serverTableDescriptor.getTableFile(identifier, null, null, 3, 0);
+    Assert.assertEquals(7, (int) files.second());
+    Assert.assertEquals(3, files.first().size());
+
+    files = serverTableDescriptor.getTableFile(identifier, null, null, 3, 6);
+    Assert.assertEquals(7, (int) files.second());
+    Assert.assertEquals(1, files.first().size());
+
+    // the files of a spec are counted by the scan
+    files = serverTableDescriptor.getTableFile(identifier, null, table.spec().specId(), 3, 0);
+    Assert.assertEquals(7, (int) files.second());
+    Assert.assertEquals(3, files.first().size());
+
+    files = serverTableDescriptor.getTableFile(identifier, "age=1", table.spec().specId(), 2, 0);
+    Assert.assertEquals(3, (int) files.second());
+    Assert.assertEquals(2, files.first().size());
+  }
+
+  @Test
+  public void tableSnapshots() {
+    Table table = getTable();
+    int snapshotCount = 200;
+    for (int i = 1; i <= snapshotCount; i++) {
+      AppendFiles append = table.newAppend().appendFile(dataFile(table, "age=" + (i % 5), i));
+      if (i % 4 == 0) {
+        append.set(SnapshotSummary.SNAPSHOT_PRODUCER, CommitMetaProducer.OPTIMIZE.name());
+      }
+      append.commit();
+    }
+
+    ServerTableDescriptor serverTableDescriptor =
+        new ServerTableDescriptor(tableService(), new Configurations());
+    org.apache.amoro.api.TableIdentifier identifier =
+        TableIdentifier.of(getAmoroCatalogTestHelper().catalogName(), TEST_DB, TEST_TABLE)
+            .buildTableIdentifier();
+
+    Pair<List<AmoroSnapshotsOfTable>, Integer> snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.ALL, 0, Long.MAX_VALUE, 10, 0);
+    Assert.assertEquals(snapshotCount, (int) snapshots.second());
+    Assert.assertEquals(10, snapshots.first().size());
+    Assert.assertEquals(
+        String.valueOf(table.currentSnapshot().snapshotId()),
+        snapshots.first().get(0).getSnapshotId());
+    for (int i = 1; i < snapshots.first().size(); i++) {
+      Assert.assertTrue(
+          snapshots.first().get(i - 1).getCommitTime() >= snapshots.first().get(i).getCommitTime());
+    }
+
+    snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.ALL, 0, Long.MAX_VALUE, 10, snapshotCount - 5);
+    Assert.assertEquals(5, snapshots.first().size());
+
+    snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.OPTIMIZING, 0, Long.MAX_VALUE, 10, 0);
+    Assert.assertEquals(snapshotCount / 4, (int) snapshots.second());
+    snapshots.first().forEach(s -> Assert.assertEquals("OPTIMIZE", s.getProducer()));
+    snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.NON_OPTIMIZING, 0, Long.MAX_VALUE, 10, 0);
+    Assert.assertEquals(snapshotCount - snapshotCount / 4, (int) snapshots.second());
+
+    List<Long> commitTimes =
+        Streams.stream(table.snapshots())
+            .map(Snapshot::timestampMillis)
+            .sorted()
+            .collect(Collectors.toList());
+    long startTime = commitTimes.get(50);
+    long endTime = commitTimes.get(150);
+    snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.ALL, startTime, endTime, 10, 0);
+    Assert.assertEquals(
+        commitTimes.stream().filter(t -> t >= startTime && t <= endTime).count(),
+        (long) snapshots.second());
+    snapshots
+        .first()
+        .forEach(
+            s -> Assert.assertTrue(s.getCommitTime() >= startTime && s.getCommitTime() <= endTime));
+
+    // new snapshots are appended to the indexed history
+    table.newAppend().appendFile(dataFile(table, "age=1", snapshotCount + 1)).commit();
+    snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.ALL, 0, Long.MAX_VALUE, 10, 0);
+    Assert.assertEquals(snapshotCount + 1, (int) snapshots.second());
+    Assert.assertEquals(
+        String.valueOf(table.currentSnapshot().snapshotId()),
+        snapshots.first().get(0).getSnapshotId());
+
+    // expired snapshots are removed from the indexed history
+    table
+        .expireSnapshots()
+        .expireOlderThan(commitTimes.get(100))
+        .retainLast(1)
+        .cleanExpiredFiles(false)
+        .commit();
+    table.refresh();
+    snapshots =
+        serverTableDescriptor.getSnapshots(
+            identifier, null, OperationType.ALL, 0, Long.MAX_VALUE, 10, 0);
+    Assert.assertEquals(Iterables.size(table.snapshots()), (int) snapshots.second());
+  }
+
+  private static DataFile dataFile(Table table, String partitionPath, int index) {
+    return DataFiles.builder(table.spec())
+        .withPath(table.location() + "/data/" + partitionPath + "/file-" + index + ".parquet")
+        .withPartitionPath(partitionPath)
+        .withFormat(FileFormat.PARQUET)
+        .withFileSizeInBytes(1024)
+        .withRecordCount(1)
+        .build();
+  }
+
   private Table getTable() {
     return (Table) getAmoroCatalog().loadTable(TEST_DB, TEST_TABLE).originalTable();
   }
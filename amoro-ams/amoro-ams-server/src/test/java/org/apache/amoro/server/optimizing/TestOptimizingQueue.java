@@ -49,6 +49,7 @@ import org.apache.amoro.server.resource.OptimizerInstance;
 import org.apache.amoro.server.resource.OptimizerThread;
 import org.apache.amoro.server.resource.QuotaProvider;
 import org.apache.amoro.server.table.AMSTableTestBase;
+import org.apache.amoro.server.table.TableManager;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.server.table.TableRuntimeMeta;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
@@ -64,6 +65,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -230,6 +232,34 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     queue.dispose();
   }
 
+  @Test
+  public void testTaskQuotasKeptIfCompletingFails() {
+    TableManager tableManager = Mockito.spy(tableService());
+    TableRuntimeMeta tableRuntimeMeta =
+        initTableWithFiles(
+            buildTableRuntimeMeta(OptimizingStatus.PENDING, defaultResourceGroup(), tableManager));
+    TableRuntime tableRuntime = tableRuntimeMeta.getTableRuntime();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime task = queue.pollTask(MAX_POLLING_TIME);
+    task.schedule(optimizerThread);
+    task.ack(optimizerThread);
+    task.complete(
+        optimizerThread,
+        buildOptimizingTaskResult(task.getTaskId(), optimizerThread.getThreadId()));
+    Assert.assertEquals(1, tableRuntime.pendingTaskQuotaCount());
+
+    // the quotas are persisted when completing the process, but rolled back with the runtime
+    Mockito.doThrow(new IllegalStateException("Failed to update table runtime"))
+        .when(tableManager)
+        .handleTableChanged(Mockito.any(TableRuntime.class), Mockito.any(OptimizingStatus.class));
+    Assert.assertThrows(RuntimeException.class, () -> tableRuntime.getOptimizingProcess().close());
+    Assert.assertEquals(1, tableRuntime.pendingTaskQuotaCount());
+
+    tableRuntime.persistPendingTaskQuotas();
+    Assert.assertEquals(0, tableRuntime.pendingTaskQuotaCount());
+    queue.dispose();
+  }
+
   @Test
   public void testCollectingTasks() {
     TableRuntimeMeta tableRuntimeMeta = initTableWithFiles();
@@ -346,12 +376,15 @@ public class TestOptimizingQueue extends AMSTableTestBase {
   }
 
   protected TableRuntimeMeta initTableWithFiles() {
+    return initTableWithFiles(
+        buildTableRuntimeMeta(OptimizingStatus.PENDING, defaultResourceGroup()));
+  }
+
+  private TableRuntimeMeta initTableWithFiles(TableRuntimeMeta tableRuntimeMeta) {
     MixedTable mixedTable =
         (MixedTable) tableService().loadTable(serverTableIdentifier()).originalTable();
     appendData(mixedTable.asUnkeyedTable(), 1);
     appendData(mixedTable.asUnkeyedTable(), 2);
-    TableRuntimeMeta tableRuntimeMeta =
-        buildTableRuntimeMeta(OptimizingStatus.PENDING, defaultResourceGroup());
     TableRuntime runtime = tableRuntimeMeta.getTableRuntime();
 
     runtime.refresh(tableService().loadTable(serverTableIdentifier()));
@@ -360,6 +393,11 @@ public class TestOptimizingQueue extends AMSTableTestBase {
 
   private TableRuntimeMeta buildTableRuntimeMeta(
       OptimizingStatus status, ResourceGroup resourceGroup) {
+    return buildTableRuntimeMeta(status, resourceGroup, tableService());
+  }
+
+  private TableRuntimeMeta buildTableRuntimeMeta(
+      OptimizingStatus status, ResourceGroup resourceGroup, TableManager tableManager) {
     MixedTable mixedTable =
         (MixedTable) tableService().loadTable(serverTableIdentifier()).originalTable();
     TableRuntimeMeta tableRuntimeMeta = new TableRuntimeMeta();
@@ -371,7 +409,7 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     tableRuntimeMeta.setTableStatus(status);
     tableRuntimeMeta.setTableConfig(TableConfiguration.parseConfig(mixedTable.properties()));
     tableRuntimeMeta.setOptimizerGroup(resourceGroup.getName());
-    tableRuntimeMeta.constructTableRuntime(tableService());
+    tableRuntimeMeta.constructTableRuntime(tableManager);
     return tableRuntimeMeta;
   }
 
@@ -173,6 +173,25 @@ public class TestNestedSqlSession {
     assertNull(nestedSession.getSqlSession());
   }
 
+  @Test
+  void testRollbackHooks() {
+    Runnable committedHook = mock(Runnable.class);
+    nestedSession.onRollback(committedHook);
+    nestedSession.commit();
+    nestedSession.rollback();
+    verifyNoInteractions(committedHook);
+
+    // hooks registered in a nested transaction run when the outermost one is rolled back
+    Runnable hook = mock(Runnable.class);
+    nestedSession.openNestedSession();
+    nestedSession.onRollback(hook);
+    nestedSession.commit();
+    nestedSession.close();
+    verifyNoInteractions(hook);
+    nestedSession.rollback();
+    verify(hook).run();
+  }
+
   @Test
   void testBeginTransaction() throws Exception {
     assertSame(nestedSession, nestedSession.openNestedSession());
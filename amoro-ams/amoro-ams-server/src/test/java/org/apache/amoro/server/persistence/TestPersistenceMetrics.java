@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence;
+
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.ServerTableIdentifier;
+import org.apache.amoro.api.config.Configurations;
+import org.apache.amoro.api.metrics.Counter;
+import org.apache.amoro.api.metrics.Gauge;
+import org.apache.amoro.api.metrics.Metric;
+import org.apache.amoro.api.metrics.MetricDefine;
+import org.apache.amoro.api.metrics.MetricKey;
+import org.apache.amoro.server.AmoroManagementConf;
+import org.apache.amoro.server.metrics.MetricRegistry;
+import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.server.table.DerbyPersistence;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class TestPersistenceMetrics {
+
+  @ClassRule public static DerbyPersistence DERBY = new DerbyPersistence();
+
+  private static final String SELECT_STATEMENT =
+      TableMetaMapper.class.getName() + ".selectTableIdentifier";
+  private static final String INSERT_STATEMENT = TableMetaMapper.class.getName() + ".insertTable";
+
+  private final Persistency persistency = new Persistency();
+  private final MetricRegistry registry = new MetricRegistry();
+
+  @Before
+  public void initMetrics() {
+    Configurations config = new Configurations();
+    config.set(AmoroManagementConf.DB_SLOW_STATEMENT_THRESHOLD, Duration.ZERO);
+    PersistenceMetrics.initialize(config, registry);
+  }
+
+  @After
+  public void disposeMetrics() {
+    PersistenceMetrics.dispose();
+  }
+
+  @Test
+  public void testStatementMetrics() {
+    ServerTableIdentifier identifier =
+        ServerTableIdentifier.of("test_catalog", "test_db", "test_table", TableFormat.ICEBERG);
+    persistency.insertTable(identifier);
+    Assert.assertNotNull(persistency.selectTable(identifier));
+    Assert.assertNotNull(persistency.selectTable(identifier));
+    Assert.assertThrows(RuntimeException.class, () -> persistency.insertTable(identifier));
+
+    PersistenceMetrics metrics = PersistenceMetrics.getInstance();
+    Assert.assertEquals(2, metrics.statementCount(SELECT_STATEMENT));
+    Assert.assertEquals(0, metrics.failedStatementCount(SELECT_STATEMENT));
+    Assert.assertEquals(2, metrics.statementCount(INSERT_STATEMENT));
+    Assert.assertEquals(1, metrics.failedStatementCount(INSERT_STATEMENT));
+    Assert.assertEquals(0, metrics.slowStatementCount(INSERT_STATEMENT));
+    Assert.assertTrue(metrics.connectionWaitCount() >= 4);
+
+    Map<String, String> tags =
+        ImmutableMap.of(PersistenceMetrics.STATEMENT_TAG, "TableMetaMapper.selectTableIdentifier");
+    Assert.assertEquals(
+        2, counterValue(PersistenceMetrics.DATABASE_STATEMENT_DURATION_COUNT, tags));
+    Assert.assertEquals(
+        2,
+        counterValue(
+            PersistenceMetrics.DATABASE_STATEMENT_DURATION_BUCKET,
+            ImmutableMap.of(
+                PersistenceMetrics.STATEMENT_TAG,
+                "TableMetaMapper.selectTableIdentifier",
+                PersistenceMetrics.BUCKET_TAG,
+                PersistenceMetrics.INF_BOUND)));
+    Assert.assertEquals(
+        1,
+        counterValue(
+            PersistenceMetrics.DATABASE_STATEMENT_FAILED_COUNT,
+            ImmutableMap.of(PersistenceMetrics.STATEMENT_TAG, "TableMetaMapper.insertTable")));
+  }
+
+  @Test
+  public void testConnectionPoolMetrics() {
+    persistency.selectTable(
+        ServerTableIdentifier.of("test_catalog", "test_db", "test_table", TableFormat.ICEBERG));
+    Assert.assertEquals(
+        (int) AmoroManagementConf.DB_CONNECT_MAX_TOTAL.defaultValue(),
+        gaugeValue(PersistenceMetrics.DATABASE_CONNECTION_MAX_TOTAL));
+    Assert.assertEquals(0, gaugeValue(PersistenceMetrics.DATABASE_CONNECTION_ACTIVE));
+    Assert.assertEquals(0, gaugeValue(PersistenceMetrics.DATABASE_CONNECTION_WAITERS));
+    Assert.assertTrue(counterValue(PersistenceMetrics.DATABASE_CONNECTION_WAIT_COUNT) > 0);
+  }
+
+  @Test
+  public void testSlowStatements() {
+    PersistenceMetrics metrics = new PersistenceMetrics(Duration.ofMillis(100));
+    metrics.statementExecuted(SELECT_STATEMENT, 10, true, () -> "SELECT 1");
+    metrics.statementExecuted(SELECT_STATEMENT, 100, true, () -> "SELECT 1");
+    metrics.statementExecuted(SELECT_STATEMENT, 1000, false, () -> "SELECT 1");
+    Assert.assertEquals(3, metrics.statementCount(SELECT_STATEMENT));
+    Assert.assertEquals(2, metrics.slowStatementCount(SELECT_STATEMENT));
+    Assert.assertEquals(1, metrics.failedStatementCount(SELECT_STATEMENT));
+
+    // slow statements are not logged if the threshold is 0
+    PersistenceMetrics disabled = new PersistenceMetrics(Duration.ZERO);
+    disabled.statementExecuted(
+        SELECT_STATEMENT,
+        1000,
+        true,
+        () -> {
+          throw new IllegalStateException("Sql should not be built");
+        });
+    Assert.assertEquals(0, disabled.slowStatementCount(SELECT_STATEMENT));
+  }
+
+  @Test
+  public void testStatementName() {
+    Assert.assertEquals(
+        "TableMetaMapper.selectTableIdentifier",
+        PersistenceMetrics.statementName(SELECT_STATEMENT));
+    Assert.assertEquals("Mapper.select", PersistenceMetrics.statementName("Mapper.select"));
+    Assert.assertEquals("select", PersistenceMetrics.statementName("select"));
+  }
+
+  private long counterValue(MetricDefine define) {
+    return counterValue(define, ImmutableMap.of());
+  }
+
+  private long counterValue(MetricDefine define, Map<String, String> tags) {
+    Metric metric = registry.getMetrics().get(new MetricKey(define, tags));
+    Assert.assertNotNull(metric);
+    return ((Counter) metric).getCount();
+  }
+
+  private int gaugeValue(MetricDefine define) {
+    Metric metric = registry.getMetrics().get(new MetricKey(define, ImmutableMap.of()));
+    Assert.assertNotNull(metric);
+    return ((Gauge<Integer>) metric).getValue();
+  }
+
+  private static class Persistency extends PersistentBase {
+
+    private void insertTable(ServerTableIdentifier identifier) {
+      doAs(TableMetaMapper.class, mapper -> mapper.insertTable(identifier));
+    }
+
+    private ServerTableIdentifier selectTable(ServerTableIdentifier identifier) {
+      return getAs(
+          TableMetaMapper.class,
+          mapper ->
+              mapper.selectTableIdentifier(
+                  identifier.getCatalog(), identifier.getDatabase(), identifier.getTableName()));
+    }
+  }
+}
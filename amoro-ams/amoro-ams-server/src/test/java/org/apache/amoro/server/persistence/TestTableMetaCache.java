@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence;
+
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.CatalogMeta;
+import org.apache.amoro.api.ServerTableIdentifier;
+import org.apache.amoro.api.TableMeta;
+import org.apache.amoro.catalog.CatalogTestHelpers;
+import org.apache.amoro.properties.CatalogMetaProperties;
+import org.apache.amoro.properties.MetaTableProperties;
+import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.server.table.DerbyPersistence;
+import org.apache.amoro.server.table.TableMetadata;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class TestTableMetaCache {
+
+  @ClassRule public static DerbyPersistence DERBY = new DerbyPersistence();
+
+  private static final String CATALOG = "test_catalog";
+  private static final String DATABASE = "test_db";
+
+  private final Persistency persistency = new Persistency();
+  private final TableMetaCache cache = new TableMetaCache(100, Duration.ofMinutes(10));
+
+  @Test
+  public void testReadAfterCommit() {
+    ServerTableIdentifier identifier = persistency.createTable("commit_table");
+
+    Assert.assertEquals("1", cache.getTableMetadata(identifier.getId()).getProperties().get("k"));
+    TableMetadata cached = cache.getTableMetadata(identifier.getId());
+    Assert.assertEquals(1, cache.metadataHitCount());
+    Assert.assertEquals(1, cache.metadataMissCount());
+
+    // changes to the returned metadata are not visible to other readers
+    cached.getProperties().put("k", "changed");
+    Assert.assertEquals("1", cache.getTableMetadata(identifier.getId()).getProperties().get("k"));
+
+    // commits are visible immediately, even if they are not committed through the cache
+    for (int i = 2; i <= 5; i++) {
+      TableMetadata base = persistency.selectTableMeta(identifier.getId());
+      base.getProperties().put("k", String.valueOf(i));
+      Assert.assertEquals(1, persistency.commitTableChange(identifier.getId(), base));
+
+      TableMetadata current = cache.getTableMetadata(identifier.getId());
+      Assert.assertEquals(String.valueOf(i), current.getProperties().get("k"));
+      Assert.assertEquals(i - 1, current.getMetaVersion());
+      Assert.assertEquals(
+          String.valueOf(i),
+          cache.getTableMetadata(CATALOG, DATABASE, "commit_table").getProperties().get("k"));
+    }
+    Assert.assertEquals(5, cache.metadataMissCount());
+
+    // a commit based on the cached metadata succeeds
+    TableMetadata base = cache.getTableMetadata(identifier.getId());
+    base.getProperties().put("k", "6");
+    Assert.assertEquals(1, persistency.commitTableChange(identifier.getId(), base));
+    Assert.assertEquals(0, persistency.commitTableChange(identifier.getId(), base));
+    Assert.assertEquals("6", cache.getTableMetadata(identifier.getId()).getProperties().get("k"));
+  }
+
+  @Test
+  public void testTableDroppedByOthers() {
+    ServerTableIdentifier identifier = persistency.createTable("dropped_table");
+    Assert.assertEquals(
+        identifier.getId(), cache.getTableIdentifier(CATALOG, DATABASE, "dropped_table").getId());
+    Assert.assertNotNull(cache.getTableMetadata(CATALOG, DATABASE, "dropped_table"));
+    Assert.assertEquals(1, cache.identifierHitCount());
+
+    // the table is dropped and re-created without invalidating the cache
+    persistency.dropTable(identifier);
+    Assert.assertNull(cache.getTableMetadata(identifier.getId()));
+    ServerTableIdentifier recreated = persistency.createTable("dropped_table");
+    TableMetadata metadata = cache.getTableMetadata(CATALOG, DATABASE, "dropped_table");
+    Assert.assertEquals(recreated.getId(), metadata.getTableIdentifier().getId());
+    Assert.assertEquals(
+        recreated.getId(), cache.getTableIdentifier(CATALOG, DATABASE, "dropped_table").getId());
+
+    persistency.dropTable(recreated);
+    Assert.assertNull(cache.getTableMetadata(CATALOG, DATABASE, "dropped_table"));
+    Assert.assertNull(cache.getTableIdentifier(CATALOG, DATABASE, "dropped_table"));
+  }
+
+  @Test
+  public void testReadInTransaction() {
+    ServerTableIdentifier identifier =
+        ServerTableIdentifier.of(CATALOG, DATABASE, "rollback_table", TableFormat.ICEBERG);
+    Assert.assertThrows(
+        RuntimeException.class,
+        () ->
+            persistency.doInTransaction(
+                () -> persistency.insertTable(identifier),
+                () -> {
+                  // uncommitted rows are visible in the transaction
+                  Assert.assertNotNull(
+                      cache.getTableIdentifier(CATALOG, DATABASE, "rollback_table"));
+                  throw new IllegalStateException("rollback");
+                }));
+    // and they are not cached
+    Assert.assertNull(cache.getTableIdentifier(CATALOG, DATABASE, "rollback_table"));
+  }
+
+  @Test
+  public void testInvalidate() {
+    ServerTableIdentifier identifier = persistency.createTable("invalidated_table");
+    Assert.assertNotNull(cache.getTableIdentifier(CATALOG, DATABASE, "invalidated_table"));
+    persistency.dropTable(identifier);
+    // the dropped identifier is cached until it is invalidated or expired
+    Assert.assertNotNull(cache.getTableIdentifier(CATALOG, DATABASE, "invalidated_table"));
+    cache.invalidate(identifier);
+    Assert.assertNull(cache.getTableIdentifier(CATALOG, DATABASE, "invalidated_table"));
+  }
+
+  @Test
+  public void testCacheDisabled() {
+    TableMetaCache disabled = new TableMetaCache(0, Duration.ofMinutes(10));
+    ServerTableIdentifier identifier = persistency.createTable("uncached_table");
+    Assert.assertFalse(disabled.enabled());
+    Assert.assertNotNull(disabled.getTableMetadata(CATALOG, DATABASE, "uncached_table"));
+    persistency.dropTable(identifier);
+    Assert.assertNull(disabled.getTableIdentifier(CATALOG, DATABASE, "uncached_table"));
+    Assert.assertEquals(0, disabled.metadataHitCount() + disabled.metadataMissCount());
+  }
+
+  private static class Persistency extends PersistentBase {
+
+    private ServerTableIdentifier createTable(String tableName) {
+      ServerTableIdentifier identifier =
+          ServerTableIdentifier.of(CATALOG, DATABASE, tableName, TableFormat.ICEBERG);
+      insertTable(identifier);
+      TableMeta tableMeta = new TableMeta();
+      tableMeta.setTableIdentifier(identifier.getIdentifier());
+      tableMeta.setFormat(TableFormat.ICEBERG.name());
+      tableMeta.setLocations(
+          ImmutableMap.of(
+              MetaTableProperties.LOCATION_KEY_TABLE, "/" + tableName,
+              MetaTableProperties.LOCATION_KEY_BASE, "/" + tableName));
+      tableMeta.setProperties(Maps.newHashMap(ImmutableMap.of("k", "1")));
+      CatalogMeta catalogMeta =
+          CatalogTestHelpers.buildCatalogMeta(
+              CATALOG, CatalogMetaProperties.CATALOG_TYPE_AMS, Maps.newHashMap());
+      TableMetadata tableMetadata = new TableMetadata(identifier, tableMeta, catalogMeta);
+      doAs(TableMetaMapper.class, mapper -> mapper.insertTableMeta(tableMetadata));
+      return identifier;
+    }
+
+    private void insertTable(ServerTableIdentifier identifier) {
+      doAs(TableMetaMapper.class, mapper -> mapper.insertTable(identifier));
+    }
+
+    private void dropTable(ServerTableIdentifier identifier) {
+      doAsTransaction(
+          () -> doAs(TableMetaMapper.class, mapper -> mapper.deleteTableIdById(identifier.getId())),
+          () ->
+              doAs(
+                  TableMetaMapper.class, mapper -> mapper.deleteTableMetaById(identifier.getId())));
+    }
+
+    private TableMetadata selectTableMeta(long tableId) {
+      return getAs(TableMetaMapper.class, mapper -> mapper.selectTableMetaById(tableId));
+    }
+
+    private int commitTableChange(long tableId, TableMetadata tableMetadata) {
+      return getAs(
+          TableMetaMapper.class, mapper -> mapper.commitTableChange(tableId, tableMetadata));
+    }
+
+    private void doInTransaction(Runnable... operations) {
+      doAsTransaction(operations);
+    }
+  }
+}
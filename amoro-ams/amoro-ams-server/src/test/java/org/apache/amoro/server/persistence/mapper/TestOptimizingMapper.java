@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence.mapper;
+
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.OptimizingTaskId;
+import org.apache.amoro.api.ServerTableIdentifier;
+import org.apache.amoro.server.optimizing.MetricsSummary;
+import org.apache.amoro.server.optimizing.OptimizingProcess;
+import org.apache.amoro.server.optimizing.OptimizingProcessMeta;
+import org.apache.amoro.server.optimizing.OptimizingType;
+import org.apache.amoro.server.optimizing.TaskRuntime;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.table.DerbyPersistence;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestOptimizingMapper {
+
+  @ClassRule public static DerbyPersistence DERBY = new DerbyPersistence();
+
+  private final Persistency persistency = new Persistency();
+
+  @Test
+  public void testSelectOptimizingProcessesByPage() {
+    ServerTableIdentifier table = persistency.insertTable("test_table");
+    ServerTableIdentifier otherTable = persistency.insertTable("other_table");
+    for (long processId = 1; processId <= 5; processId++) {
+      persistency.insertProcess(table, processId);
+    }
+    persistency.insertProcess(otherTable, 6);
+
+    Assert.assertEquals(5, persistency.count(table));
+    Assert.assertEquals(1, persistency.count(otherTable));
+
+    Assert.assertEquals(
+        Collections.singletonList(6L),
+        persistency.processIds(persistency.selectByPage(otherTable, 10, 0)));
+    List<OptimizingProcessMeta> firstPage = persistency.selectByPage(table, 2, 0);
+    Assert.assertEquals(Arrays.asList(5L, 4L), persistency.processIds(firstPage));
+    Assert.assertEquals("test_table", firstPage.get(0).getTableName());
+    Assert.assertEquals(
+        Arrays.asList(3L, 2L), persistency.processIds(persistency.selectByPage(table, 2, 2)));
+    Assert.assertEquals(
+        Collections.singletonList(1L),
+        persistency.processIds(persistency.selectByPage(table, 2, 4)));
+    Assert.assertTrue(persistency.selectByPage(table, 2, 6).isEmpty());
+  }
+
+  @Test
+  public void testInsertTaskQuotas() {
+    ServerTableIdentifier table = persistency.insertTable("quota_table");
+    List<TaskRuntime.TaskQuota> quotas = new ArrayList<>();
+    for (int taskId = 1; taskId <= 250; taskId++) {
+      quotas.add(taskQuota(table, 100L + taskId % 3, taskId));
+    }
+    persistency.insertTaskQuotas(quotas);
+
+    List<TaskRuntime.TaskQuota> selected = persistency.selectTaskQuotas(table, 101L);
+    Assert.assertEquals(
+        quotas.stream().filter(quota -> quota.getProcessId() >= 101L).count(), selected.size());
+    TaskRuntime.TaskQuota quota =
+        selected.stream().filter(q -> q.getTaskId() == 10).findFirst().orElse(null);
+    Assert.assertNotNull(quota);
+    Assert.assertEquals(101L, quota.getProcessId());
+    Assert.assertEquals(1, quota.getRetryNum());
+    Assert.assertEquals(1000L, quota.getStartTime());
+    Assert.assertEquals(2000L + 10, quota.getEndTime());
+  }
+
+  private static TaskRuntime.TaskQuota taskQuota(
+      ServerTableIdentifier table, long processId, int taskId) {
+    TaskRuntime task = Mockito.mock(TaskRuntime.class);
+    Mockito.when(task.getTaskId()).thenReturn(new OptimizingTaskId(processId, taskId));
+    Mockito.when(task.getTableId()).thenReturn(table.getId());
+    Mockito.when(task.getStartTime()).thenReturn(1000L);
+    Mockito.when(task.getEndTime()).thenReturn(2000L + taskId);
+    Mockito.when(task.getRetry()).thenReturn(1);
+    return new TaskRuntime.TaskQuota(task);
+  }
+
+  private static class Persistency extends PersistentBase {
+
+    private ServerTableIdentifier insertTable(String tableName) {
+      ServerTableIdentifier identifier =
+          ServerTableIdentifier.of("test_catalog", "test_db", tableName, TableFormat.ICEBERG);
+      doAs(TableMetaMapper.class, mapper -> mapper.insertTable(identifier));
+      return identifier;
+    }
+
+    private void insertProcess(ServerTableIdentifier identifier, long processId) {
+      doAs(
+          OptimizingMapper.class,
+          mapper ->
+              mapper.insertOptimizingProcess(
+                  identifier,
+                  processId,
+                  processId,
+                  -1,
+                  OptimizingProcess.Status.SUCCESS,
+                  OptimizingType.MINOR,
+                  System.currentTimeMillis(),
+                  new MetricsSummary(),
+                  Collections.emptyMap(),
+                  Collections.emptyMap()));
+    }
+
+    private int count(ServerTableIdentifier identifier) {
+      return getAs(
+          OptimizingMapper.class,
+          mapper ->
+              mapper.countOptimizingProcesses(
+                  identifier.getCatalog(), identifier.getDatabase(), identifier.getTableName()));
+    }
+
+    private List<OptimizingProcessMeta> selectByPage(
+        ServerTableIdentifier identifier, int limit, int offset) {
+      return getAs(
+          OptimizingMapper.class,
+          mapper ->
+              mapper.selectOptimizingProcessesByPage(
+                  identifier.getCatalog(),
+                  identifier.getDatabase(),
+                  identifier.getTableName(),
+                  limit,
+                  offset));
+    }
+
+    private void insertTaskQuotas(List<TaskRuntime.TaskQuota> quotas) {
+      doAs(OptimizingMapper.class, mapper -> mapper.insertTaskQuotas(quotas));
+    }
+
+    private List<TaskRuntime.TaskQuota> selectTaskQuotas(
+        ServerTableIdentifier identifier, long startTime) {
+      return getAs(
+          OptimizingMapper.class,
+          mapper -> mapper.selectTaskQuotasByTime(identifier.getId(), startTime));
+    }
+
+    private List<Long> processIds(List<OptimizingProcessMeta> processes) {
+      return processes.stream()
+          .map(OptimizingProcessMeta::getProcessId)
+          .collect(Collectors.toList());
+    }
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.amoro.server.table;
 import org.apache.amoro.api.config.Configurations;
 import org.apache.amoro.server.AmoroManagementConf;
 import org.apache.amoro.server.persistence.SqlSessionFactoryProvider;
+import org.apache.amoro.server.persistence.TableMetaCache;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.ibatis.session.SqlSession;
 import org.junit.rules.ExternalResource;
@@ -91,5 +92,6 @@ public class DerbyPersistence extends ExternalResource {
     } catch (SQLException e) {
       throw new RuntimeException("Clear table failed", e);
     }
+    TableMetaCache.getInstance().invalidateAll();
   }
 }
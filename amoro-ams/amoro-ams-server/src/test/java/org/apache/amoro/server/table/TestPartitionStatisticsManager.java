@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table;
+
+import org.apache.amoro.BasicTableTestHelper;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.TableTestHelper;
+import org.apache.amoro.catalog.BasicCatalogTestHelper;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.server.AmoroServiceConstants;
+import org.apache.amoro.server.dashboard.model.PartitionBaseInfo;
+import org.apache.amoro.server.optimizing.OptimizingTestHelpers;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.mapper.PartitionStatisticsMapper;
+import org.apache.amoro.server.utils.IcebergTableUtil;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.table.UnkeyedTable;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFiles;
+import org.apache.iceberg.util.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RunWith(Parameterized.class)
+public class TestPartitionStatisticsManager extends AMSTableTestBase {
+
+  @Parameterized.Parameters(name = "{0}, {1}")
+  public static Object[] parameters() {
+    return new Object[][] {
+      {new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG), new BasicTableTestHelper(true, true)},
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, true)}
+    };
+  }
+
+  private final PartitionStatisticsManager partitionStatistics = new PartitionStatisticsManager();
+  private final Persistency persistency = new Persistency();
+
+  public TestPartitionStatisticsManager(
+      CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
+    super(catalogTestHelper, tableTestHelper, true);
+  }
+
+  @Test
+  public void testRefreshPartitionStatistics() {
+    MixedTable table =
+        (MixedTable) tableService().loadTable(serverTableIdentifier()).originalTable();
+    long tableId = serverTableIdentifier().getId();
+
+    Assert.assertFalse(partitionStatistics.isCollected(tableId));
+    Assert.assertNull(partitionStatistics.listPartitions(table.id(), null, 10, 0));
+
+    // the statistics of an empty table are collected as no partitions
+    partitionStatistics.refresh(tableId, table);
+    Assert.assertTrue(partitionStatistics.isCollected(tableId));
+    Assert.assertEquals(
+        0, (int) partitionStatistics.listPartitions(table.id(), null, 10, 0).second());
+
+    List<DataFile> firstFiles = append(table, 1, 2, "2022-01-01T12:00:00");
+    append(table, 3, 4, "2022-01-02T12:00:00");
+    partitionStatistics.refresh(tableId, table);
+    Assert.assertEquals(baseSnapshotId(table), persistency.selectState(tableId).getSnapshotId());
+    Assert.assertEquals(2, fileCounts(table).size());
+
+    append(table, 5, 6, "2022-01-02T12:00:00");
+    append(table, 7, 8, "2022-01-03T12:00:00");
+    DeleteFiles deleteFiles = baseStore(table).newDelete();
+    firstFiles.forEach(deleteFiles::deleteFile);
+    deleteFiles.commit();
+    // updated from the snapshots covered by the persisted statistics
+    partitionStatistics.refresh(tableId, table);
+    Assert.assertEquals(baseSnapshotId(table), persistency.selectState(tableId).getSnapshotId());
+    Map<String, Long> refreshed = fileCounts(table);
+    Assert.assertEquals(2, refreshed.size());
+
+    // the incrementally updated statistics match the collected ones
+    List<PartitionBaseInfo> refreshedPartitions = listPartitions(table, null);
+    partitionStatistics.collect(tableId, table);
+    Assert.assertEquals(refreshed, fileCounts(table));
+    Assert.assertEquals(
+        refreshedPartitions.stream()
+            .map(PartitionBaseInfo::getFileSize)
+            .collect(Collectors.toList()),
+        listPartitions(table, null).stream()
+            .map(PartitionBaseInfo::getFileSize)
+            .collect(Collectors.toList()));
+
+    List<PartitionBaseInfo> filtered = listPartitions(table, "01-03");
+    Assert.assertEquals(1, filtered.size());
+    Assert.assertTrue(filtered.get(0).getPartition().contains("2022-01-03"));
+    Assert.assertTrue(listPartitions(table, "%").isEmpty());
+
+    Pair<List<PartitionBaseInfo>, Integer> page =
+        partitionStatistics.listPartitions(table.id(), null, 1, 1);
+    Assert.assertEquals(2, (int) page.second());
+    Assert.assertTrue(page.first().get(0).getPartition().contains("2022-01-02"));
+
+    partitionStatistics.drop(tableId);
+    Assert.assertFalse(partitionStatistics.isCollected(tableId));
+    Assert.assertNull(persistency.selectState(tableId));
+  }
+
+  @Test
+  public void testSkippedPartitionStatistics() {
+    MixedTable table =
+        (MixedTable) tableService().loadTable(serverTableIdentifier()).originalTable();
+    long tableId = serverTableIdentifier().getId();
+    append(table, 1, 2, "2022-01-01T12:00:00");
+
+    // statistics which can't be persisted are not collected again with the same spec
+    persistency.saveState(
+        tableId,
+        new PartitionStatisticsState(
+            AmoroServiceConstants.INVALID_SNAPSHOT_ID,
+            AmoroServiceConstants.INVALID_SNAPSHOT_ID,
+            table.spec().specId(),
+            PartitionStatisticsState.Status.SKIPPED));
+    partitionStatistics.refresh(tableId, table);
+    Assert.assertFalse(partitionStatistics.isCollected(tableId));
+    Assert.assertNull(partitionStatistics.listPartitions(table.id(), null, 10, 0));
+
+    // but collected again once the spec has changed
+    persistency.saveState(
+        tableId,
+        new PartitionStatisticsState(
+            AmoroServiceConstants.INVALID_SNAPSHOT_ID,
+            AmoroServiceConstants.INVALID_SNAPSHOT_ID,
+            table.spec().specId() + 1,
+            PartitionStatisticsState.Status.SKIPPED));
+    partitionStatistics.refresh(tableId, table);
+    Assert.assertTrue(partitionStatistics.isCollected(tableId));
+    Assert.assertEquals(1, fileCounts(table).size());
+
+    partitionStatistics.drop(tableId);
+  }
+
+  private List<DataFile> append(MixedTable table, int from, int to, String opTime) {
+    long transactionId = table.isKeyedTable() ? table.asKeyedTable().beginTransaction("") : 0;
+    return OptimizingTestHelpers.appendBase(
+        table,
+        tableTestHelper()
+            .writeBaseStore(
+                table,
+                transactionId,
+                OptimizingTestHelpers.generateRecord(tableTestHelper(), from, to, opTime),
+                false));
+  }
+
+  private UnkeyedTable baseStore(MixedTable table) {
+    return table.isKeyedTable() ? table.asKeyedTable().baseTable() : table.asUnkeyedTable();
+  }
+
+  private long baseSnapshotId(MixedTable table) {
+    return IcebergTableUtil.getSnapshotId(baseStore(table), true);
+  }
+
+  private List<PartitionBaseInfo> listPartitions(MixedTable table, String filter) {
+    return partitionStatistics.listPartitions(table.id(), filter, 10, 0).first();
+  }
+
+  private Map<String, Long> fileCounts(MixedTable table) {
+    return listPartitions(table, null).stream()
+        .collect(
+            Collectors.toMap(PartitionBaseInfo::getPartition, PartitionBaseInfo::getFileCount));
+  }
+
+  private static class Persistency extends PersistentBase {
+
+    private PartitionStatisticsState selectState(long tableId) {
+      return getAs(
+          PartitionStatisticsMapper.class,
+          mapper -> mapper.selectPartitionStatisticsState(tableId));
+    }
+
+    private void saveState(long tableId, PartitionStatisticsState state) {
+      doAs(
+          PartitionStatisticsMapper.class,
+          mapper -> {
+            mapper.deletePartitionStatisticsState(tableId);
+            mapper.insertPartitionStatisticsState(tableId, state);
+          });
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table.executor;
+
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.OptimizingTaskId;
+import org.apache.amoro.api.ServerTableIdentifier;
+import org.apache.amoro.api.TableIdentifier;
+import org.apache.amoro.api.config.Configurations;
+import org.apache.amoro.server.dashboard.ServerTableDescriptor;
+import org.apache.amoro.server.optimizing.MetricsSummary;
+import org.apache.amoro.server.optimizing.OptimizingProcess;
+import org.apache.amoro.server.optimizing.OptimizingProcessRollup;
+import org.apache.amoro.server.optimizing.OptimizingType;
+import org.apache.amoro.server.optimizing.TaskRuntime;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.server.table.DerbyPersistence;
+import org.apache.amoro.server.table.TableService;
+import org.apache.iceberg.util.Pair;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestOptimizingHistoryPurger {
+
+  @ClassRule public static DerbyPersistence DERBY = new DerbyPersistence();
+
+  private static final long DAY_MILLS = Duration.ofDays(1).toMillis();
+
+  private final Persistency persistency = new Persistency();
+  private final OptimizingHistoryPurger purger = new OptimizingHistoryPurger(10, Duration.ZERO);
+
+  @Test
+  public void testPurgeProcesses() {
+    ServerTableIdentifier table = persistency.insertTable("purge_process_table");
+    ServerTableIdentifier otherTable = persistency.insertTable("other_process_table");
+    for (long processId = 1; processId <= 25; processId++) {
+      // processes 1-12 are planned in the first day, others in the second day
+      long planTime = (processId <= 12 ? DAY_MILLS : 2 * DAY_MILLS) + processId;
+      persistency.insertProcess(table, processId, planTime);
+    }
+    persistency.insertProcess(otherTable, 26, DAY_MILLS);
+
+    // processes 1-20 are expired and purged in 2 full batches
+    Assert.assertEquals(2, purger.purgeProcesses(table.getId(), 21));
+    Assert.assertEquals(5, persistency.countProcesses(table));
+    Assert.assertEquals(1, persistency.countProcesses(otherTable));
+    Assert.assertEquals(0, purger.purgeProcesses(table.getId(), 21));
+
+    List<OptimizingProcessRollup> rollups = persistency.selectRollups(table);
+    Assert.assertEquals(2, rollups.size());
+    Assert.assertEquals(2 * DAY_MILLS, rollups.get(0).getPeriodStart());
+    Assert.assertEquals(8, rollups.get(0).getProcessCount());
+    Assert.assertEquals(DAY_MILLS, rollups.get(1).getPeriodStart());
+    Assert.assertEquals(12, rollups.get(1).getProcessCount());
+    Assert.assertEquals(24, rollups.get(1).getOutputFileCount());
+    Assert.assertEquals(OptimizingType.MINOR, rollups.get(1).getOptimizingType());
+    Assert.assertEquals(OptimizingProcess.Status.SUCCESS, rollups.get(1).getStatus());
+
+    // rollups of the same day are accumulated
+    Assert.assertEquals(1, purger.purgeProcesses(table.getId(), Long.MAX_VALUE));
+    Assert.assertEquals(0, persistency.countProcesses(table));
+    rollups = persistency.selectRollups(table);
+    Assert.assertEquals(2, rollups.size());
+    Assert.assertEquals(13, rollups.get(0).getProcessCount());
+    Assert.assertTrue(persistency.selectRollups(otherTable).isEmpty());
+
+    // rollups are exposed to the dashboard
+    ServerTableDescriptor tableDescriptor =
+        new ServerTableDescriptor(Mockito.mock(TableService.class), new Configurations());
+    Pair<List<OptimizingProcessRollup>, Integer> page =
+        tableDescriptor.getOptimizingProcessRollups(table.getIdentifier(), 1, 0);
+    Assert.assertEquals(2, (int) page.second());
+    Assert.assertEquals(1, page.first().size());
+    Assert.assertEquals(13, page.first().get(0).getProcessCount());
+    page = tableDescriptor.getOptimizingProcessRollups(table.getIdentifier(), 1, 1);
+    Assert.assertEquals(DAY_MILLS, page.first().get(0).getPeriodStart());
+    page =
+        tableDescriptor.getOptimizingProcessRollups(
+            new TableIdentifier(table.getCatalog(), table.getDatabase(), "no_such_table"), 10, 0);
+    Assert.assertEquals(0, (int) page.second());
+    Assert.assertTrue(page.first().isEmpty());
+  }
+
+  @Test
+  public void testPurgeTaskQuotas() {
+    ServerTableIdentifier table = persistency.insertTable("purge_quota_table");
+    List<TaskRuntime.TaskQuota> quotas = new ArrayList<>();
+    for (long processId = 1; processId <= 25; processId++) {
+      for (int taskId = 1; taskId <= 3; taskId++) {
+        quotas.add(taskQuota(table, processId, taskId));
+      }
+    }
+    persistency.insertTaskQuotas(quotas);
+
+    // quotas of processes 1-15 are expired, all tasks of a process are purged in the same batch
+    Assert.assertEquals(2, purger.purgeTaskQuotas(table.getId(), 16));
+    List<TaskRuntime.TaskQuota> remaining = persistency.selectTaskQuotas(table);
+    Assert.assertEquals(30, remaining.size());
+    Assert.assertTrue(remaining.stream().allMatch(quota -> quota.getProcessId() >= 16));
+    Assert.assertEquals(0, purger.purgeTaskQuotas(table.getId(), 16));
+  }
+
+  private static TaskRuntime.TaskQuota taskQuota(
+      ServerTableIdentifier table, long processId, int taskId) {
+    TaskRuntime task = Mockito.mock(TaskRuntime.class);
+    Mockito.when(task.getTaskId()).thenReturn(new OptimizingTaskId(processId, taskId));
+    Mockito.when(task.getTableId()).thenReturn(table.getId());
+    Mockito.when(task.getStartTime()).thenReturn(processId);
+    Mockito.when(task.getEndTime()).thenReturn(processId + 1);
+    return new TaskRuntime.TaskQuota(task);
+  }
+
+  private static class Persistency extends PersistentBase {
+
+    private ServerTableIdentifier insertTable(String tableName) {
+      ServerTableIdentifier identifier =
+          ServerTableIdentifier.of("test_catalog", "test_db", tableName, TableFormat.ICEBERG);
+      doAs(TableMetaMapper.class, mapper -> mapper.insertTable(identifier));
+      return identifier;
+    }
+
+    private void insertProcess(ServerTableIdentifier identifier, long processId, long planTime) {
+      MetricsSummary summary = new MetricsSummary();
+      summary.setNewFileCnt(2);
+      doAs(
+          OptimizingMapper.class,
+          mapper ->
+              mapper.insertOptimizingProcess(
+                  identifier,
+                  processId,
+                  processId,
+                  -1,
+                  OptimizingProcess.Status.SUCCESS,
+                  OptimizingType.MINOR,
+                  planTime,
+                  summary,
+                  Collections.emptyMap(),
+                  Collections.emptyMap()));
+    }
+
+    private int countProcesses(ServerTableIdentifier identifier) {
+      return getAs(
+          OptimizingMapper.class,
+          mapper ->
+              mapper.countOptimizingProcesses(
+                  identifier.getCatalog(), identifier.getDatabase(), identifier.getTableName()));
+    }
+
+    private List<OptimizingProcessRollup> selectRollups(ServerTableIdentifier identifier) {
+      return getAs(
+          OptimizingMapper.class,
+          mapper -> mapper.selectOptimizingProcessRollups(identifier.getId()));
+    }
+
+    private void insertTaskQuotas(List<TaskRuntime.TaskQuota> quotas) {
+      doAs(OptimizingMapper.class, mapper -> mapper.insertTaskQuotas(quotas));
+    }
+
+    private List<TaskRuntime.TaskQuota> selectTaskQuotas(ServerTableIdentifier identifier) {
+      return getAs(
+          OptimizingMapper.class, mapper -> mapper.selectTaskQuotasByTime(identifier.getId(), 0));
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table.internal;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.SortOrder;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableMetadataParser;
+import org.apache.iceberg.inmemory.InMemoryFileIO;
+import org.apache.iceberg.types.Types;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+public class TestInternalTableMetadataCache {
+  private static final Logger LOG = LoggerFactory.getLogger(TestInternalTableMetadataCache.class);
+
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  private final InMemoryFileIO io = new InMemoryFileIO();
+
+  @Test
+  public void testReadCachedMetadata() {
+    String location = writeMetadata("v1");
+    InternalTableMetadataCache cache = new InternalTableMetadataCache(10, TTL);
+
+    TableMetadata first = cache.read(1L, io, location);
+    TableMetadata second = cache.read(1L, io, location);
+    Assertions.assertSame(first, second);
+    Assertions.assertEquals(location, first.metadataFileLocation());
+    Assertions.assertEquals(1, cache.missCount());
+    Assertions.assertEquals(1, cache.hitCount());
+  }
+
+  @Test
+  public void testReadNewMetadataLocation() {
+    String v1 = writeMetadata("v1");
+    String v2 = writeMetadata("v2");
+    InternalTableMetadataCache cache = new InternalTableMetadataCache(10, TTL);
+
+    Assertions.assertEquals(v1, cache.read(1L, io, v1).metadataFileLocation());
+    Assertions.assertEquals(v2, cache.read(1L, io, v2).metadataFileLocation());
+    Assertions.assertEquals(v1, cache.read(2L, io, v1).metadataFileLocation());
+    Assertions.assertEquals(3, cache.missCount());
+  }
+
+  @Test
+  public void testDisabledCache() {
+    String location = writeMetadata("v1");
+    InternalTableMetadataCache cache = new InternalTableMetadataCache(0, TTL);
+
+    Assertions.assertFalse(cache.enabled());
+    Assertions.assertNotSame(cache.read(1L, io, location), cache.read(1L, io, location));
+  }
+
+  /** A local load test reading the same metadata repeatedly, like clients loading a table. */
+  @Test
+  public void testReadThroughput() {
+    String location = writeMetadata("v1");
+    int requests = 500;
+    long uncached = readRepeatedly(new InternalTableMetadataCache(0, TTL), location, requests);
+    InternalTableMetadataCache cache = new InternalTableMetadataCache(10, TTL);
+    long cached = readRepeatedly(cache, location, requests);
+
+    LOG.info(
+        "Read metadata {} times, {} req/s without cache, {} req/s with cache",
+        requests,
+        throughput(requests, uncached),
+        throughput(requests, cached));
+    Assertions.assertEquals(1, cache.missCount());
+    Assertions.assertEquals(requests - 1, cache.hitCount());
+  }
+
+  private long readRepeatedly(InternalTableMetadataCache cache, String location, int requests) {
+    long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      cache.read(1L, io, location);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long throughput(int requests, long nanos) {
+    return requests * 1_000_000_000L / Math.max(nanos, 1);
+  }
+
+  private String writeMetadata(String version) {
+    List<Types.NestedField> columns = Lists.newArrayList();
+    for (int i = 1; i <= 200; i++) {
+      columns.add(Types.NestedField.optional(i, "col_" + i, Types.StringType.get()));
+    }
+    Map<String, String> properties = Maps.newHashMap();
+    for (int i = 0; i < 200; i++) {
+      properties.put("property." + i, "value-" + i);
+    }
+    TableMetadata metadata =
+        TableMetadata.newTableMetadata(
+            new Schema(columns),
+            PartitionSpec.unpartitioned(),
+            SortOrder.unsorted(),
+            "memory://warehouse/db/tbl",
+            properties);
+    String location = "memory://warehouse/db/tbl/metadata/" + version + ".metadata.json";
+    TableMetadataParser.overwrite(metadata, io.newOutputFile(location));
+    return location;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.terminal.local;
+
+import org.apache.amoro.api.config.Configurations;
+import org.apache.amoro.server.terminal.ExecutionStatus;
+import org.apache.amoro.server.terminal.StatementResult;
+import org.apache.amoro.server.terminal.TerminalSession;
+import org.apache.amoro.server.terminal.TerminalSessionContext;
+import org.apache.amoro.server.terminal.TerminalSessionFactory;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.table.TableMetaStore;
+import org.apache.spark.sql.SparkSession;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+public class TestLocalTerminalSession {
+
+  private static final String CATALOG = "spark_catalog";
+
+  private static SparkSession spark;
+  private static ThreadPoolExecutor executor;
+
+  private volatile LocalTerminalSession session;
+
+  @BeforeClass
+  public static void setup() {
+    spark =
+        SparkSession.builder()
+            .master("local[1]")
+            .appName("test-local-terminal-session")
+            .config("spark.ui.enabled", "false")
+            .getOrCreate();
+    executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>());
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    executor.shutdownNow();
+    spark.stop();
+  }
+
+  @Test
+  public void testFetchLimit() throws InterruptedException {
+    TerminalSessionContext context = newContext();
+    context.submit(CATALOG, "select id from range(0, 100000)", 10, Long.MAX_VALUE, false);
+    Assert.assertEquals(ExecutionStatus.Finished, waitFinished(context));
+
+    List<StatementResult> results = context.getStatementResults();
+    Assert.assertEquals(1, results.size());
+    Assert.assertEquals(10, results.get(0).getRowCount());
+    Assert.assertEquals("9", results.get(0).getDataAsStringList().get(9).get(0));
+    Assert.assertTrue(results.get(0).isTruncated());
+
+    // results are not truncated if all rows are fetched
+    context.submit(CATALOG, "select id from range(0, 10)", 10, Long.MAX_VALUE, false);
+    Assert.assertEquals(ExecutionStatus.Finished, waitFinished(context));
+    results = context.getStatementResults();
+    Assert.assertEquals(10, results.get(0).getRowCount());
+    Assert.assertFalse(results.get(0).isTruncated());
+  }
+
+  @Test
+  public void testMemoryLimit() throws InterruptedException {
+    TerminalSessionContext context = newContext();
+    String script =
+        "select repeat('a', 1000) from range(0, 1000);\n"
+            + "select repeat('b', 1000) from range(0, 1000);";
+    context.submit(CATALOG, script, 1000, 100 * 1024, false);
+    Assert.assertEquals(ExecutionStatus.Finished, waitFinished(context));
+
+    // the memory limit is shared by all statements of the session
+    List<StatementResult> results = context.getStatementResults();
+    Assert.assertEquals(2, results.size());
+    Assert.assertTrue(results.get(0).getRowCount() > 0);
+    Assert.assertTrue(results.get(0).getRowCount() < 100);
+    Assert.assertTrue(results.get(0).isTruncated());
+    Assert.assertTrue(results.get(0).isSuccess());
+    Assert.assertEquals(0, results.get(1).getRowCount());
+    Assert.assertTrue(results.get(1).isTruncated());
+  }
+
+  @Test
+  public void testCancel() throws InterruptedException {
+    TerminalSessionContext context = newContext();
+    context.submit(
+        CATALOG,
+        "select sum(id % 7) from range(0, 1000000000000);\nselect 1;",
+        1000,
+        Long.MAX_VALUE,
+        false);
+    waitUntil(
+        () ->
+            session != null
+                && spark.sparkContext().statusTracker().getJobIdsForGroup(session.jobGroup).length
+                    > 0);
+    Assert.assertEquals(ExecutionStatus.Running, context.getStatus());
+
+    context.cancel();
+    Assert.assertEquals(ExecutionStatus.Canceled, waitFinished(context));
+    // the statement after the canceled one is not executed
+    Assert.assertTrue(context.getStatementResults().stream().noneMatch(StatementResult::isSuccess));
+  }
+
+  private TerminalSessionContext newContext() {
+    TerminalSessionFactory factory =
+        new TerminalSessionFactory() {
+          @Override
+          public void initialize(Configurations properties) {}
+
+          @Override
+          public TerminalSession create(TableMetaStore metaStore, Configurations configuration) {
+            session =
+                new LocalTerminalSession(
+                    Lists.newArrayList(CATALOG),
+                    spark.cloneSession(),
+                    Lists.newArrayList(),
+                    Maps.newHashMap());
+            return session;
+          }
+        };
+    return new TerminalSessionContext(
+        "test-session", TableMetaStore.EMPTY, executor, factory, new Configurations());
+  }
+
+  private static ExecutionStatus waitFinished(TerminalSessionContext context)
+      throws InterruptedException {
+    waitUntil(() -> context.getStatus() != ExecutionStatus.Running);
+    return context.getStatus();
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2);
+    while (!condition.getAsBoolean()) {
+      Assert.assertTrue("timeout waiting for the execution", System.currentTimeMillis() < deadline);
+      Thread.sleep(50);
+    }
+  }
+}
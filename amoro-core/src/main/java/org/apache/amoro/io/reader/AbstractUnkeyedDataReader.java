@@ -140,8 +140,7 @@ public abstract class AbstractUnkeyedDataReader<T> {
     Map<Integer, ?> idToConstant =
         DataReaderCommon.getIdToConstant(task, projectedSchema, convertConstant);
 
-    DeleteFilter<T> deleteFilter =
-        new GenericDeleteFilter(task, tableSchema, projectedSchema, structLikeCollections);
+    DeleteFilter<T> deleteFilter = createDeleteFilter(task);
 
     CloseableIterable<T> iterable =
         deleteFilter.filter(newIterable(task, deleteFilter.requiredSchema(), idToConstant));
@@ -153,6 +152,10 @@ public abstract class AbstractUnkeyedDataReader<T> {
     return iterable;
   }
 
+  protected DeleteFilter<T> createDeleteFilter(FileScanTask task) {
+    return new GenericDeleteFilter(task, tableSchema, projectedSchema, structLikeCollections);
+  }
+
   private CloseableIterable<T> newIterable(
       FileScanTask task, Schema schema, Map<Integer, ?> idToConstant) {
     CloseableIterable<T> iter;
@@ -128,6 +128,38 @@ public abstract class DeleteFilter<T> {
     return (Long) posAccessor.get(asStructLike(record));
   }
 
+  public boolean hasPosDeletes() {
+    return !posDeletes.isEmpty();
+  }
+
+  public boolean hasEqDeletes() {
+    return !eqDeletes.isEmpty();
+  }
+
+  /**
+   * Predicate of the records deleted by position or equality delete files, for readers filtering
+   * the records on their own such as columnar readers. The predicate should be closed after
+   * reading.
+   */
+  public CloseablePredicate<T> deletedPredicate() {
+    Predicate<T> isDeleted = record -> false;
+    if (!posDeletes.isEmpty()) {
+      Set<Long> deletedPositions = positionSet();
+      isDeleted = record -> deletedPositions.contains(pos(record));
+    }
+    List<CloseablePredicate<T>> eqPredicates = applyEqDeletes();
+    for (CloseablePredicate<T> eqPredicate : eqPredicates) {
+      isDeleted = isDeleted.or(eqPredicate);
+    }
+    return new CloseablePredicate<>(
+        isDeleted,
+        () -> {
+          for (CloseablePredicate<T> eqPredicate : eqPredicates) {
+            eqPredicate.close();
+          }
+        });
+  }
+
   public CloseableIterable<T> filter(CloseableIterable<T> records) {
     return new CloseableIterableWrapper<>(
         applyEqDeletes(applyPosDeletes(records)),
@@ -217,14 +249,16 @@ public abstract class DeleteFilter<T> {
       return records;
     }
 
-    List<CloseableIterable<Record>> deletes = Lists.transform(posDeletes, this::openPosDeletes);
+    return Deletes.filter(records, this::pos, positionSet());
+  }
 
+  private Set<Long> positionSet() {
     // if there are fewer deletes than a reasonable number to keep in memory, use a set
     if (positionSet == null) {
+      List<CloseableIterable<Record>> deletes = Lists.transform(posDeletes, this::openPosDeletes);
       this.positionSet = Deletes.toPositionSet(dataFile.path(), CloseableIterable.concat(deletes));
     }
-
-    return Deletes.filter(records, this::pos, positionSet);
+    return positionSet;
   }
 
   private CloseableIterable<Record> openPosDeletes(DeleteFile file) {
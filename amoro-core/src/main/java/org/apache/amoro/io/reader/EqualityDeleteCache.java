@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.io.reader;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.apache.amoro.data.ChangedLsn;
+import org.apache.amoro.data.PrimaryKeyedFile;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.types.Types;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A cache of decoded equality delete files shared by all {@link MixedDeleteFilter}s in the JVM.
+ *
+ * <p>Splits of the same tree node usually share the same equality delete files of the change store,
+ * caching the decoded primary keys and lsn of a delete file saves reading and decoding it again for
+ * every split. Entries are keyed by the path and size of the delete file, the primary key type and
+ * the identity of the file system and credentials the file is read with, so a file read by one user
+ * is never returned to another. The cache is bounded by the estimated heap size of the cached
+ * entries.
+ *
+ * <p>The cache is disabled by default, it could be enabled by the system property {@link
+ * #MAX_SIZE_PROPERTY} or by {@link #initialize(long)} from the engine.
+ */
+public class EqualityDeleteCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EqualityDeleteCache.class);
+
+  /** System property of the max estimated size in bytes of the shared cache, 0 to disable. */
+  public static final String MAX_SIZE_PROPERTY = "amoro.eq-delete-cache.max-size-bytes";
+
+  private static volatile EqualityDeleteCache shared =
+      new EqualityDeleteCache(Long.getLong(MAX_SIZE_PROPERTY, 0L));
+  // the system property takes precedence over the size configured by the engine
+  private static boolean initialized = System.getProperty(MAX_SIZE_PROPERTY) != null;
+
+  private final long maxSizeInBytes;
+  private final Cache<Key, DeleteSet> cache;
+
+  EqualityDeleteCache(long maxSizeInBytes) {
+    Preconditions.checkArgument(maxSizeInBytes >= 0, "Max size must not be negative");
+    this.maxSizeInBytes = maxSizeInBytes;
+    if (maxSizeInBytes > 0) {
+      this.cache =
+          Caffeine.newBuilder()
+              .maximumWeight(maxSizeInBytes)
+              .weigher(
+                  (Key key, DeleteSet deleteSet) ->
+                      (int) Math.min(deleteSet.sizeInBytes(), Integer.MAX_VALUE))
+              .removalListener(
+                  (Key key, DeleteSet deleteSet, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                      LOG.debug("Evict decoded equality delete file {}", key);
+                    }
+                  })
+              .executor(Runnable::run)
+              .recordStats()
+              .build();
+    } else {
+      this.cache = null;
+    }
+  }
+
+  /** The cache shared by the JVM. */
+  public static EqualityDeleteCache shared() {
+    return shared;
+  }
+
+  /**
+   * Size the cache shared by the JVM if it has not been sized yet. Engines call it with the
+   * configuration of every catalog, the first size wins and the others are ignored, since the cache
+   * is shared by all catalogs and resizing it would drop the cached entries.
+   *
+   * @param maxSizeInBytes max estimated size in bytes of the cached entries, 0 to disable the cache
+   */
+  public static synchronized void initialize(long maxSizeInBytes) {
+    if (!initialized) {
+      initialized = true;
+      configure(maxSizeInBytes);
+    } else if (shared.maxSizeInBytes != maxSizeInBytes) {
+      LOG.warn(
+          "The shared equality delete cache is already configured with max size {} bytes, "
+              + "ignore max size {} bytes",
+          shared.maxSizeInBytes,
+          maxSizeInBytes);
+    }
+  }
+
+  /**
+   * Resize the cache shared by the JVM, cached entries are dropped if the size is changed.
+   *
+   * @param maxSizeInBytes max estimated size in bytes of the cached entries, 0 to disable the cache
+   */
+  public static synchronized void configure(long maxSizeInBytes) {
+    if (shared.maxSizeInBytes != maxSizeInBytes) {
+      LOG.info("Configure the shared equality delete cache with max size {} bytes", maxSizeInBytes);
+      EqualityDeleteCache previous = shared;
+      shared = new EqualityDeleteCache(maxSizeInBytes);
+      previous.invalidateAll();
+    }
+  }
+
+  public boolean enabled() {
+    return cache != null;
+  }
+
+  /**
+   * Get the decoded delete file, load it on cache miss. Concurrent loads of the same file wait for
+   * each other.
+   */
+  DeleteSet get(
+      PrimaryKeyedFile deleteFile,
+      Types.StructType keyType,
+      Object identity,
+      Supplier<DeleteSet> loader) {
+    Preconditions.checkState(enabled(), "Equality delete cache is disabled");
+    Preconditions.checkNotNull(identity, "File system identity must not be null");
+    Key key =
+        new Key(deleteFile.path().toString(), deleteFile.fileSizeInBytes(), keyType, identity);
+    return cache.get(key, k -> loader.get());
+  }
+
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  public long maxSizeInBytes() {
+    return maxSizeInBytes;
+  }
+
+  public long hitCount() {
+    return cache == null ? 0 : cache.stats().hitCount();
+  }
+
+  public long missCount() {
+    return cache == null ? 0 : cache.stats().missCount();
+  }
+
+  public long evictionCount() {
+    return cache == null ? 0 : cache.stats().evictionCount();
+  }
+
+  /** Number of the cached delete files. */
+  public long entryCount() {
+    return cache == null ? 0 : cache.estimatedSize();
+  }
+
+  /** Estimated heap size in bytes of the cached delete files. */
+  public long sizeInBytes() {
+    if (cache == null) {
+      return 0;
+    }
+    return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+  }
+
+  /** Primary keys and the lsn of the deletes decoded from one equality delete file. */
+  static class DeleteSet {
+    private static final long ENTRY_OVERHEAD =
+        RamUsageEstimator.shallowSizeOfInstance(ChangedLsn.class)
+            + RamUsageEstimator.shallowSizeOfInstance(KeyStruct.class)
+            + 2L * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+    private final List<StructLike> keys = new ArrayList<>();
+    private final List<ChangedLsn> lsns = new ArrayList<>();
+    private long sizeInBytes = RamUsageEstimator.shallowSizeOfInstance(DeleteSet.class);
+
+    void add(StructLike key, ChangedLsn lsn) {
+      Object[] values = new Object[key.size()];
+      long size = ENTRY_OVERHEAD + RamUsageEstimator.shallowSizeOf(values);
+      for (int i = 0; i < values.length; i++) {
+        values[i] = key.get(i, Object.class);
+        if (values[i] != null) {
+          size += RamUsageEstimator.sizeOfObject(values[i], 0);
+        }
+      }
+      keys.add(new KeyStruct(values));
+      lsns.add(lsn);
+      sizeInBytes += size;
+    }
+
+    void forEach(BiConsumer<StructLike, ChangedLsn> consumer) {
+      for (int i = 0; i < keys.size(); i++) {
+        consumer.accept(keys.get(i), lsns.get(i));
+      }
+    }
+
+    int size() {
+      return keys.size();
+    }
+
+    long sizeInBytes() {
+      return sizeInBytes;
+    }
+  }
+
+  /** Detached primary key of a delete row. */
+  private static class KeyStruct implements StructLike {
+    private final Object[] values;
+
+    private KeyStruct(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public <T> T get(int pos, Class<T> javaClass) {
+      return javaClass.cast(values[pos]);
+    }
+
+    @Override
+    public <T> void set(int pos, T value) {
+      throw new UnsupportedOperationException("Cached delete keys are read only");
+    }
+  }
+
+  private static class Key {
+    private final String path;
+    private final long fileSizeInBytes;
+    private final Types.StructType keyType;
+    private final Object identity;
+
+    private Key(String path, long fileSizeInBytes, Types.StructType keyType, Object identity) {
+      this.path = path;
+      this.fileSizeInBytes = fileSizeInBytes;
+      this.keyType = keyType;
+      this.identity = identity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return fileSizeInBytes == that.fileSizeInBytes
+          && Objects.equals(path, that.path)
+          && Objects.equals(keyType, that.keyType)
+          && Objects.equals(identity, that.identity);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, fileSizeInBytes, keyType, identity);
+    }
+
+    @Override
+    public String toString() {
+      return path;
+    }
+  }
+}
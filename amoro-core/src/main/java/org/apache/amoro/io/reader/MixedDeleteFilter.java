@@ -22,6 +22,7 @@ import org.apache.amoro.data.ChangedLsn;
 import org.apache.amoro.data.DataTreeNode;
 import org.apache.amoro.data.PrimaryKeyedFile;
 import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.io.AuthenticatedHadoopFileIO;
 import org.apache.amoro.io.CloseableIterableWrapper;
 import org.apache.amoro.io.CloseablePredicate;
 import org.apache.amoro.scan.KeyedTableScanTask;
@@ -47,7 +48,6 @@ import org.apache.iceberg.data.avro.DataReader;
 import org.apache.iceberg.data.orc.GenericOrcReader;
 import org.apache.iceberg.data.parquet.GenericParquetReaders;
 import org.apache.iceberg.io.CloseableIterable;
-import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.io.InputFile;
 import org.apache.iceberg.orc.ORC;
 import org.apache.iceberg.parquet.Parquet;
@@ -55,6 +55,7 @@ import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.Filter;
 import org.apache.iceberg.util.StructProjection;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -99,13 +100,16 @@ public abstract class MixedDeleteFilter<T> {
   private final Schema deleteSchema;
   private final Filter<Record> deleteNodeFilter;
   private CloseablePredicate<T> eqPredicate;
-  private Map<String, Set<Long>> positionMap;
+  private StructLikeBaseMap<ChangedLsn> eqDeleteMap;
+  private final Map<String, List<DeleteFile>> posDeletesByDataPath;
+  private final Set<String> loadedPosDeletes = new HashSet<>();
+  private final Map<String, Roaring64Bitmap> positionMap = new HashMap<>();
   private final Accessor<StructLike> posAccessor;
   private final Accessor<StructLike> filePathAccessor;
-  private final Set<String> pathSets;
 
   private String currentDataPath;
-  private Set<Long> currentPosSet;
+  private Roaring64Bitmap currentPosSet;
+  private boolean currentPosSetLoaded;
 
   private StructLikeCollections structLikeCollections = StructLikeCollections.DEFAULT;
 
@@ -140,18 +144,16 @@ public abstract class MixedDeleteFilter<T> {
             .collect(Collectors.toSet());
 
     Map<String, DeleteFile> map = new HashMap<>();
+    this.posDeletesByDataPath = new HashMap<>();
     for (MixedFileScanTask mixedFileScanTask : keyedTableScanTask.dataTasks()) {
       for (DeleteFile deleteFile : mixedFileScanTask.deletes()) {
         map.putIfAbsent(deleteFile.path().toString(), deleteFile);
       }
+      posDeletesByDataPath.put(
+          mixedFileScanTask.file().path().toString(), mixedFileScanTask.deletes());
     }
     this.posDeletes = new ArrayList<>(map.values());
 
-    this.pathSets =
-        keyedTableScanTask.dataTasks().stream()
-            .map(s -> s.file().path().toString())
-            .collect(Collectors.toSet());
-
     this.primaryKeyId =
         primaryKeySpec.primaryKeyStruct().fields().stream()
             .map(Types.NestedField::fieldId)
@@ -205,6 +207,19 @@ public abstract class MixedDeleteFilter<T> {
     return null;
   }
 
+  /**
+   * The identity of the file system and credentials the delete files are read with. Decoded delete
+   * files are only shared with filters of an equal identity, the shared cache is not used if it is
+   * null.
+   */
+  protected Object deleteCacheIdentity() {
+    AuthenticatedFileIO fileIO = getFileIO();
+    if (fileIO instanceof AuthenticatedHadoopFileIO) {
+      return ((AuthenticatedHadoopFileIO) fileIO).getTableMetaStore();
+    }
+    return fileIO;
+  }
+
   /** @return The data not in equity delete file */
   public CloseableIterable<T> filter(CloseableIterable<T> records) {
     return new CloseableIterableWrapper<>(
@@ -217,9 +232,66 @@ public abstract class MixedDeleteFilter<T> {
         apply(records, applyEqDeletes().or(applyPosDeletes())), eqPredicate);
   }
 
+  /**
+   * Predicate of the records deleted by position or equality delete files, for readers filtering
+   * the records on their own such as columnar readers. The predicate should be closed after
+   * reading.
+   */
+  public CloseablePredicate<T> deletedPredicate() {
+    Predicate<T> isDeleted = applyPosDeletes().or(applyEqDeletes());
+    return new CloseablePredicate<>(
+        isDeleted,
+        () -> {
+          if (eqPredicate != null) {
+            eqPredicate.close();
+          }
+        });
+  }
+
+  /** Whether there are equality delete files to apply. */
+  public boolean hasEqDeletes() {
+    return !eqDeletes.isEmpty();
+  }
+
+  /** Whether there are position delete files to apply. */
+  public boolean hasPosDeletes() {
+    return !posDeletes.isEmpty();
+  }
+
+  /** Schema of the primary keys looked up by {@link #eqDeleteLsn(StructLike)}. */
+  public Schema eqDeleteKeySchema() {
+    return TypeUtil.select(requiredSchema, primaryKeyId);
+  }
+
+  /**
+   * Find the lsn of the latest equality delete of the primary key, rows written before the lsn are
+   * deleted.
+   *
+   * @param primaryKey primary key in the order of {@link #eqDeleteKeySchema()}
+   * @return lsn of the latest delete, null if the primary key is not deleted
+   */
+  public ChangedLsn eqDeleteLsn(StructLike primaryKey) {
+    if (eqDeletes.isEmpty()) {
+      return null;
+    }
+    applyEqDeletes();
+    return eqDeleteMap.get(primaryKey);
+  }
+
+  /**
+   * Positions of the current data file deleted by position delete files.
+   *
+   * @return deleted positions, null if no position of the current data file is deleted
+   */
+  public Roaring64Bitmap currentDeletedPositions() {
+    Preconditions.checkState(currentDataPath != null, "Current data path is not set");
+    return currentPosSet();
+  }
+
   public void setCurrentDataPath(String currentDataPath) {
     this.currentDataPath = currentDataPath;
     this.currentPosSet = null;
+    this.currentPosSetLoaded = false;
   }
 
   private ChangedLsn deleteLSN(StructLike structLike) {
@@ -248,39 +320,49 @@ public abstract class MixedDeleteFilter<T> {
     StructProjection deletePKProjectRow = StructProjection.create(deleteSchema, pkSchema);
     StructProjection dataPKProjectRow = StructProjection.create(requiredSchema, pkSchema);
 
-    Iterable<CloseableIterable<Record>> deleteRecords =
-        Iterables.transform(eqDeletes, this::openDeletes);
-
-    // copy the delete records because they will be held in a map
-    CloseableIterable<Record> records =
-        CloseableIterable.transform(CloseableIterable.concat(deleteRecords), Record::copy);
-    if (deleteNodeFilter != null) {
-      records = deleteNodeFilter.filter(records);
-    }
-
-    InternalRecordWrapper internalRecordWrapper =
-        new InternalRecordWrapper(deleteSchema.asStruct());
-    CloseableIterable<StructLike> structLikeIterable =
-        CloseableIterable.transform(records, internalRecordWrapper::copyFor);
-
     StructLikeBaseMap<ChangedLsn> structLikeMap =
         structLikeCollections.createStructLikeMap(pkSchema.asStruct());
-    // init map
-    try (CloseableIterable<StructLike> deletes = structLikeIterable) {
-      Iterator<StructLike> it =
-          getFileIO() == null ? deletes.iterator() : getFileIO().doAs(deletes::iterator);
-      while (it.hasNext()) {
-        StructLike structLike = it.next();
-        StructLike deletePK = deletePKProjectRow.copyFor(structLike);
-        ChangedLsn deleteLsn = deleteLSN(structLike);
+    EqualityDeleteCache deleteCache = EqualityDeleteCache.shared();
+    Object identity = deleteCacheIdentity();
+    if (deleteCache.enabled() && deleteNodeFilter == null && identity != null) {
+      // decoded delete files are shared with the other splits reading the same files
+      for (PrimaryKeyedFile eqDelete : eqDeletes) {
+        deleteCache
+            .get(
+                eqDelete,
+                pkSchema.asStruct(),
+                identity,
+                () -> readDeleteSet(eqDelete, deletePKProjectRow))
+            .forEach((deletePK, deleteLsn) -> putLatestDelete(structLikeMap, deletePK, deleteLsn));
+      }
+    } else {
+      Iterable<CloseableIterable<Record>> deleteRecords =
+          Iterables.transform(eqDeletes, this::openDeletes);
+
+      // copy the delete records because they will be held in a map
+      CloseableIterable<Record> records =
+          CloseableIterable.transform(CloseableIterable.concat(deleteRecords), Record::copy);
+      if (deleteNodeFilter != null) {
+        records = deleteNodeFilter.filter(records);
+      }
 
-        ChangedLsn old = structLikeMap.get(deletePK);
-        if (old == null || old.compareTo(deleteLsn) <= 0) {
-          structLikeMap.put(deletePK, deleteLsn);
+      InternalRecordWrapper internalRecordWrapper =
+          new InternalRecordWrapper(deleteSchema.asStruct());
+      CloseableIterable<StructLike> structLikeIterable =
+          CloseableIterable.transform(records, internalRecordWrapper::copyFor);
+
+      // init map
+      try (CloseableIterable<StructLike> deletes = structLikeIterable) {
+        Iterator<StructLike> it =
+            getFileIO() == null ? deletes.iterator() : getFileIO().doAs(deletes::iterator);
+        while (it.hasNext()) {
+          StructLike structLike = it.next();
+          putLatestDelete(
+              structLikeMap, deletePKProjectRow.copyFor(structLike), deleteLSN(structLike));
         }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
       }
-    } catch (IOException e) {
-      throw new RuntimeException(e);
     }
 
     Predicate<T> isInDeleteSet =
@@ -296,10 +378,38 @@ public abstract class MixedDeleteFilter<T> {
           return deleteLsn.compareTo(dataLSN) > 0;
         };
 
+    this.eqDeleteMap = structLikeMap;
     this.eqPredicate = new CloseablePredicate<>(isInDeleteSet, structLikeMap);
     return isInDeleteSet;
   }
 
+  private static void putLatestDelete(
+      StructLikeBaseMap<ChangedLsn> structLikeMap, StructLike deletePK, ChangedLsn deleteLsn) {
+    ChangedLsn old = structLikeMap.get(deletePK);
+    if (old == null || old.compareTo(deleteLsn) <= 0) {
+      structLikeMap.put(deletePK, deleteLsn);
+    }
+  }
+
+  private EqualityDeleteCache.DeleteSet readDeleteSet(
+      PrimaryKeyedFile deleteFile, StructProjection deletePKProjectRow) {
+    EqualityDeleteCache.DeleteSet deleteSet = new EqualityDeleteCache.DeleteSet();
+    InternalRecordWrapper internalRecordWrapper =
+        new InternalRecordWrapper(deleteSchema.asStruct());
+    try (CloseableIterable<Record> deletes = openDeletes(deleteFile)) {
+      Iterator<Record> it =
+          getFileIO() == null ? deletes.iterator() : getFileIO().doAs(deletes::iterator);
+      while (it.hasNext()) {
+        // the key values are copied by the delete set, so the reused records could be wrapped
+        StructLike structLike = internalRecordWrapper.wrap(it.next());
+        deleteSet.add(deletePKProjectRow.wrap(structLike), deleteLSN(structLike));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return deleteSet;
+  }
+
   private CloseableIterable<T> applyEqDeletes(
       CloseableIterable<T> records, Predicate<T> predicate) {
     if (eqDeletes.isEmpty()) {
@@ -365,37 +475,9 @@ public abstract class MixedDeleteFilter<T> {
       return record -> false;
     }
 
-    // if there are fewer deletes than a reasonable number to keep in memory, use a set
-    if (positionMap == null) {
-      positionMap = new HashMap<>();
-      List<CloseableIterable<Record>> deletes = Lists.transform(posDeletes, this::openPosDeletes);
-      CloseableIterator<Record> iterator = CloseableIterable.concat(deletes).iterator();
-      while (iterator.hasNext()) {
-        Record deleteRecord = iterator.next();
-        String path = FILENAME_ACCESSOR.get(deleteRecord).toString();
-        if (!pathSets.contains(path)) {
-          continue;
-        }
-        Set<Long> posSet = positionMap.get(path);
-        if (posSet == null) {
-          posSet = new HashSet<>();
-          positionMap.put(path, posSet);
-        }
-        posSet.add((Long) POSITION_ACCESSOR.get(deleteRecord));
-      }
-    }
-
     return item -> {
-      Set<Long> posSet;
-      if (currentDataPath != null) {
-        if (currentPosSet == null) {
-          currentPosSet = positionMap.get(currentDataPath);
-        }
-        posSet = currentPosSet;
-      } else {
-        posSet = positionMap.get(filePath(item));
-      }
-
+      Roaring64Bitmap posSet =
+          currentDataPath != null ? currentPosSet() : deletedPositions(filePath(item));
       if (posSet == null) {
         return false;
       }
@@ -403,6 +485,57 @@ public abstract class MixedDeleteFilter<T> {
     };
   }
 
+  private Roaring64Bitmap currentPosSet() {
+    if (!currentPosSetLoaded) {
+      currentPosSet = deletedPositions(currentDataPath);
+      currentPosSetLoaded = true;
+    }
+    return currentPosSet;
+  }
+
+  /**
+   * Positions of the data file deleted by position delete files. Only the delete files referenced
+   * by the data file are read, at the first time one of their data files is read, and positions of
+   * the other data files of this task are kept from them to avoid reading them again.
+   */
+  private Roaring64Bitmap deletedPositions(String dataPath) {
+    List<DeleteFile> deleteFiles = posDeletesByDataPath.get(dataPath);
+    if (deleteFiles == null || deleteFiles.isEmpty()) {
+      return null;
+    }
+    boolean loaded = false;
+    for (DeleteFile deleteFile : deleteFiles) {
+      if (loadedPosDeletes.add(deleteFile.path().toString())) {
+        loadPosDeletes(deleteFile);
+        loaded = true;
+      }
+    }
+    Roaring64Bitmap posSet = positionMap.get(dataPath);
+    if (posSet == null || posSet.isEmpty()) {
+      return null;
+    }
+    if (loaded) {
+      // deleted positions are mostly sorted and contiguous, which run containers compress well
+      posSet.runOptimize();
+    }
+    return posSet;
+  }
+
+  private void loadPosDeletes(DeleteFile deleteFile) {
+    try (CloseableIterable<Record> deletes = openPosDeletes(deleteFile)) {
+      for (Record deleteRecord : deletes) {
+        String path = FILENAME_ACCESSOR.get(deleteRecord).toString();
+        if (!posDeletesByDataPath.containsKey(path)) {
+          continue;
+        }
+        Roaring64Bitmap posSet = positionMap.computeIfAbsent(path, k -> new Roaring64Bitmap());
+        posSet.add((Long) POSITION_ACCESSOR.get(deleteRecord));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private CloseableIterable<T> apply(CloseableIterable<T> records, Predicate<T> predicate) {
     Filter<T> filter =
         new Filter<T>() {
@@ -24,7 +24,10 @@ import java.util.Arrays;
 
 /** Log format version. */
 public enum FormatVersion {
-  FORMAT_VERSION_V1(new MessageBytes().append(LogData.MAGIC_NUMBER).append((byte) 1).toBytes());
+  /** The actual value is serialized as JSON by {@link LogDataJsonSerialization}. */
+  FORMAT_VERSION_V1(new MessageBytes().append(LogData.MAGIC_NUMBER).append((byte) 1).toBytes()),
+  /** The actual value is serialized as compact binary by {@link LogDataBinarySerialization}. */
+  FORMAT_VERSION_V2(new MessageBytes().append(LogData.MAGIC_NUMBER).append((byte) 2).toBytes());
 
   /**
    * the version of log format, contains a fixed magic number and actual version number, the byte
@@ -56,6 +59,19 @@ public enum FormatVersion {
     return versionNum;
   }
 
+  /** Whether the message starts with the bytes of this version. */
+  public boolean isVersionOf(byte[] message) {
+    if (message == null || message.length < version.length) {
+      return false;
+    }
+    for (int i = 0; i < version.length; i++) {
+      if (message[i] != version[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public static FormatVersion fromBytes(byte[] data) {
     for (FormatVersion formatVersion : FormatVersion.values()) {
       byte[] expected = formatVersion.asBytes();
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkArgument;
+
+import org.apache.amoro.log.data.LogArrayData;
+import org.apache.amoro.log.data.LogMapData;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.amoro.shade.guava32.com.google.common.primitives.Longs;
+import org.apache.amoro.utils.FlipUtil;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deserialization that deserializes binary bytes of {@link FormatVersion#FORMAT_VERSION_V2} written
+ * by {@link LogDataBinarySerialization} into an instance of {@link LogData} through {@link
+ * LogData.Factory#create(Object, Object...)}. Messages written with a schema of a different {@link
+ * LogDataBinarySerialization#schemaFingerprint(Types.StructType) fingerprint} are rejected.
+ */
+public class LogDataBinaryDeserialization<T> implements Serializable {
+  private static final long serialVersionUID = 3307542398011562474L;
+  private static final int SCHEMA_FINGERPRINT_POS = 18;
+  private static final int ROW_BEGINNING_POS = 22;
+
+  private final LogData.Factory<T> factory;
+  private final LogArrayData.Factory arrayFactory;
+  private final LogMapData.Factory mapFactory;
+  private final Types.StructType structType;
+  private final int schemaFingerprint;
+  private transient ValueReader rowReader;
+
+  public LogDataBinaryDeserialization(
+      Schema schema,
+      LogData.Factory<T> factory,
+      LogArrayData.Factory arrayFactory,
+      LogMapData.Factory mapFactory) {
+    this.factory = Preconditions.checkNotNull(factory);
+    this.arrayFactory = Preconditions.checkNotNull(arrayFactory);
+    this.mapFactory = Preconditions.checkNotNull(mapFactory);
+    this.structType = schema.asStruct();
+    this.schemaFingerprint = LogDataBinarySerialization.schemaFingerprint(structType);
+  }
+
+  public LogData<T> deserialize(byte[] message) {
+    checkArgument(message != null, "message is null.");
+    checkArgument(message.length >= ROW_BEGINNING_POS, "message is illegal.");
+    if (rowReader == null) {
+      rowReader = createStructReader(structType);
+    }
+    byte[] versionBytes = Bytes.subByte(message, 0, 4);
+    byte[] upstreamIdBytes = Bytes.subByte(message, 4, 4);
+    long epicNo = Longs.fromByteArray(Bytes.subByte(message, 8, 8));
+    byte flip = message[16];
+    byte changeActionByte = message[17];
+
+    if (FlipUtil.convertToBoolean(flip)) {
+      // we can ignore actual value which should be empty, when flip is true.
+      return factory.create(null, versionBytes, upstreamIdBytes, epicNo, true, changeActionByte);
+    }
+
+    ByteBuffer input = ByteBuffer.wrap(message);
+    int messageFingerprint = input.getInt(SCHEMA_FINGERPRINT_POS);
+    if (messageFingerprint != schemaFingerprint) {
+      throw new IllegalArgumentException(
+          String.format(
+              "The message is written with schema fingerprint %08x but read with schema %s of "
+                  + "fingerprint %08x, it could not be read after the types of the schema changed.",
+              messageFingerprint, structType, schemaFingerprint));
+    }
+    input.position(ROW_BEGINNING_POS);
+    T actualValue = (T) rowReader.read(input);
+    return factory.create(
+        actualValue, versionBytes, upstreamIdBytes, epicNo, false, changeActionByte);
+  }
+
+  /** Reader that reads a non-null value of a certain type from the input. */
+  private interface ValueReader {
+    Object read(ByteBuffer input);
+  }
+
+  private ValueReader createReader(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return input -> input.get() != 0;
+      case INTEGER:
+      case DATE:
+        return input -> (int) readVarLong(input);
+      case LONG:
+      case TIME:
+        return LogDataBinaryDeserialization::readVarLong;
+      case FLOAT:
+        return input -> Float.intBitsToFloat(input.getInt());
+      case DOUBLE:
+        return input -> Double.longBitsToDouble(input.getLong());
+      case TIMESTAMP:
+        Types.TimestampType timestamp = (Types.TimestampType) type;
+        if (timestamp.shouldAdjustToUTC()) {
+          return input -> Instant.ofEpochSecond(readVarLong(input), readVarLong(input));
+        } else {
+          return input ->
+              LocalDateTime.ofEpochSecond(
+                  readVarLong(input), (int) readVarLong(input), ZoneOffset.UTC);
+        }
+      case STRING:
+        return input -> {
+          int length = (int) readVarLong(input);
+          // the buffer wraps the whole message, so the position is the offset in the array
+          String value =
+              new String(input.array(), input.position(), length, StandardCharsets.UTF_8);
+          input.position(input.position() + length);
+          return value;
+        };
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return LogDataBinaryDeserialization::readLengthPrefixed;
+      case DECIMAL:
+        return input -> {
+          int scale = (int) readVarLong(input);
+          return new BigDecimal(new BigInteger(readLengthPrefixed(input)), scale);
+        };
+      case LIST:
+        return createListReader(type);
+      case MAP:
+        return createMapReader(type);
+      case STRUCT:
+        return createStructReader(type);
+      default:
+        throw new UnsupportedOperationException("Not Support to parse type: " + type);
+    }
+  }
+
+  private ValueReader createStructReader(Type type) {
+    final List<Types.NestedField> fields = type.asNestedType().asStructType().fields();
+    final int fieldCount = fields.size();
+    final Type[] fieldTypes = fields.stream().map(Types.NestedField::type).toArray(Type[]::new);
+    final ValueReader[] fieldReaders = new ValueReader[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      fieldReaders[i] = createReader(fieldTypes[i]);
+    }
+    final int bitmapSize = LogDataBinarySerialization.bitmapSize(fieldCount);
+
+    return input -> {
+      int bitmapPosition = input.position();
+      input.position(bitmapPosition + bitmapSize);
+      Object[] struct = new Object[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        if (!isNull(input, bitmapPosition, i)) {
+          struct[i] = fieldReaders[i].read(input);
+        }
+      }
+      return factory.createActualValue(struct, fieldTypes);
+    };
+  }
+
+  private ValueReader createListReader(Type type) {
+    Types.ListType list = type.asNestedType().asListType();
+    Type elementType = list.elementType();
+    ValueReader elementReader = createReader(elementType);
+    return input -> {
+      int size = (int) readVarLong(input);
+      return arrayFactory.create(readArray(input, size, elementType, elementReader));
+    };
+  }
+
+  private ValueReader createMapReader(Type type) {
+    Types.MapType map = type.asNestedType().asMapType();
+    Type keyType = map.keyType();
+    Type valueType = map.valueType();
+    ValueReader keyReader = createReader(keyType);
+    ValueReader valueReader = createReader(valueType);
+    return input -> {
+      int size = (int) readVarLong(input);
+      Object[] keys = readArray(input, size, keyType, keyReader);
+      Object[] values = readArray(input, size, valueType, valueReader);
+      Map<Object, Object> result = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        result.put(keys[i], values[i]);
+      }
+      return mapFactory.create(result);
+    };
+  }
+
+  /** Reads the null bitmap and the non-null elements written by an array writer. */
+  private Object[] readArray(ByteBuffer input, int size, Type elementType, ValueReader reader) {
+    int bitmapPosition = input.position();
+    input.position(bitmapPosition + LogDataBinarySerialization.bitmapSize(size));
+    Object[] array = null;
+    for (int i = 0; i < size; i++) {
+      if (isNull(input, bitmapPosition, i)) {
+        continue;
+      }
+      Object value = factory.convertIfNecessary(elementType, reader.read(input));
+      if (array == null) {
+        array = (Object[]) Array.newInstance(value.getClass(), size);
+      }
+      array[i] = value;
+    }
+    return array == null ? new Object[size] : array;
+  }
+
+  private static boolean isNull(ByteBuffer input, int bitmapPosition, int pos) {
+    return (input.get(bitmapPosition + (pos >>> 3)) & (1 << (pos & 7))) != 0;
+  }
+
+  private static byte[] readLengthPrefixed(ByteBuffer input) {
+    byte[] bytes = new byte[(int) readVarLong(input)];
+    input.get(bytes);
+    return bytes;
+  }
+
+  /** Reads a zigzag encoded variable length long. */
+  private static long readVarLong(ByteBuffer input) {
+    long zigzag = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = input.get();
+      zigzag |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+}
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import org.apache.amoro.log.LogData.FieldGetterFactory;
+import org.apache.amoro.log.data.LogArrayData;
+import org.apache.amoro.log.data.LogMapData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Serialization that serializes an instance of {@link LogData} into compact binary bytes of {@link
+ * FormatVersion#FORMAT_VERSION_V2}.
+ *
+ * <p>The header is the same as the JSON format followed by 4 bytes fingerprint of the schema, see
+ * {@link #schemaFingerprint(Types.StructType)}. The actual value is encoded driven by the schema
+ * without field names: a struct is a null bitmap followed by its non-null fields, integers are
+ * zigzag varints, strings and binaries are length prefixed, a list is its size, a null bitmap and
+ * its non-null elements, a map is its keys and values encoded as two lists.
+ */
+public class LogDataBinarySerialization<T> implements Serializable {
+  private static final long serialVersionUID = -2153207963585327411L;
+
+  private final Schema schema;
+  private final FieldGetterFactory<T> fieldGetterFactory;
+  private final int schemaFingerprint;
+
+  private transient ValueWriter rowWriter;
+  /** Reusable output buffer. */
+  private transient BinaryOutput output;
+
+  public LogDataBinarySerialization(Schema schema, FieldGetterFactory<T> fieldGetterFactory) {
+    this.schema = schema;
+    this.fieldGetterFactory = fieldGetterFactory;
+    this.schemaFingerprint = schemaFingerprint(schema.asStruct());
+  }
+
+  public void init() {
+    if (this.rowWriter == null) {
+      this.rowWriter = createStructWriter(schema.asStruct());
+      this.output = new BinaryOutput();
+    }
+  }
+
+  public byte[] serialize(LogData<T> element) {
+    init();
+    output.reset();
+    // 4 bytes version + 4 bytes upstreamId + 8 bytes EpicNo + 1 byte flip + 1 byte rowKind + 4
+    // bytes schema fingerprint + n bytes object data
+    output.writeBytes(element.getVersionBytes());
+    output.writeBytes(element.getUpstreamIdBytes());
+    output.writeBytes(element.getEpicNoBytes());
+    output.writeByte(element.getFlipByte());
+    output.writeByte(element.getChangeActionByte());
+    output.writeFixedInt(schemaFingerprint);
+
+    if (element.getFlip()) {
+      // would ignore serializing actual value if flip is true.
+      return output.toBytes();
+    }
+
+    try {
+      rowWriter.write(element.getActualValue(), output);
+    } catch (Throwable t) {
+      throw new RuntimeException("Could not serialize row '" + element + "'. ", t);
+    }
+    return output.toBytes();
+  }
+
+  /** Writer that writes a non-null value of a certain type into the output. */
+  private interface ValueWriter {
+    void write(Object value, BinaryOutput output);
+  }
+
+  private ValueWriter createWriter(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return (value, out) -> out.writeByte((Boolean) value ? (byte) 1 : (byte) 0);
+      case INTEGER:
+      case DATE:
+        return (value, out) -> out.writeVarLong((int) value);
+      case LONG:
+      case TIME:
+        return (value, out) -> out.writeVarLong((long) value);
+      case FLOAT:
+        return (value, out) -> out.writeFixedInt(Float.floatToIntBits((float) value));
+      case DOUBLE:
+        return (value, out) -> out.writeFixedLong(Double.doubleToLongBits((double) value));
+      case TIMESTAMP:
+        Types.TimestampType timestamp = (Types.TimestampType) type;
+        if (timestamp.shouldAdjustToUTC()) {
+          return (value, out) -> {
+            Instant instant = (Instant) value;
+            out.writeVarLong(instant.getEpochSecond());
+            out.writeVarLong(instant.getNano());
+          };
+        } else {
+          return (value, out) -> {
+            LocalDateTime localDateTime = (LocalDateTime) value;
+            out.writeVarLong(localDateTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(localDateTime.getNano());
+          };
+        }
+      case STRING:
+        return (value, out) ->
+            out.writeLengthPrefixed(value.toString().getBytes(StandardCharsets.UTF_8));
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return (value, out) -> out.writeLengthPrefixed((byte[]) value);
+      case DECIMAL:
+        return (value, out) -> {
+          BigDecimal decimal = (BigDecimal) value;
+          out.writeVarLong(decimal.scale());
+          out.writeLengthPrefixed(decimal.unscaledValue().toByteArray());
+        };
+      case LIST:
+        return createListWriter(type);
+      case MAP:
+        return createMapWriter(type);
+      case STRUCT:
+        return createStructWriter(type);
+      default:
+        throw new UnsupportedOperationException("Not Support to parse type: " + type);
+    }
+  }
+
+  private ValueWriter createStructWriter(Type type) {
+    final List<Types.NestedField> fields = type.asNestedType().asStructType().fields();
+    final int fieldCount = fields.size();
+    final ValueWriter[] fieldWriters = new ValueWriter[fieldCount];
+    final List<LogData.FieldGetter<T>> fieldGetters = new ArrayList<>(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      Type fieldType = fields.get(i).type();
+      fieldWriters[i] = createWriter(fieldType);
+      fieldGetters.add(fieldGetterFactory.createFieldGetter(fieldType, i));
+    }
+    // the fields are read once to build the null bitmap before being written
+    final Object[] fieldValues = new Object[fieldCount];
+    final byte[] nullBitmap = new byte[bitmapSize(fieldCount)];
+
+    return (value, out) -> {
+      T actualValue = (T) value;
+      Arrays.fill(nullBitmap, (byte) 0);
+      for (int i = 0; i < fieldCount; i++) {
+        try {
+          fieldValues[i] = fieldGetters.get(i).getFieldOrNull(actualValue, i);
+        } catch (Throwable t) {
+          throw new RuntimeException(
+              String.format("Fail to serialize at field: %s.", fields.get(i).name()), t);
+        }
+        if (fieldValues[i] == null) {
+          setNull(nullBitmap, i);
+        }
+      }
+      out.writeBytes(nullBitmap);
+      for (int i = 0; i < fieldCount; i++) {
+        if (fieldValues[i] != null) {
+          fieldWriters[i].write(fieldValues[i], out);
+          fieldValues[i] = null;
+        }
+      }
+    };
+  }
+
+  private ValueWriter createListWriter(Type type) {
+    Types.ListType list = type.asNestedType().asListType();
+    Types.NestedField elementField = list.field(list.elementId());
+    ArrayWriter elementsWriter = new ArrayWriter(elementField, createWriter(elementField.type()));
+    return (value, out) -> {
+      LogArrayData array = (LogArrayData) value;
+      out.writeVarLong(array.size());
+      elementsWriter.write(array, out);
+    };
+  }
+
+  private ValueWriter createMapWriter(Type type) {
+    Types.MapType map = type.asNestedType().asMapType();
+    Types.NestedField keyField = map.field(map.keyId());
+    Types.NestedField valueField = map.field(map.valueId());
+    ArrayWriter keysWriter = new ArrayWriter(keyField, createWriter(keyField.type()));
+    ArrayWriter valuesWriter = new ArrayWriter(valueField, createWriter(valueField.type()));
+    return (value, out) -> {
+      LogMapData mapData = (LogMapData) value;
+      out.writeVarLong(mapData.size());
+      keysWriter.write(mapData.keyArray(), out);
+      valuesWriter.write(mapData.valueArray(), out);
+    };
+  }
+
+  /** Writes the null bitmap and non-null elements of an array, the size is written by callers. */
+  private static class ArrayWriter {
+    private final LogArrayData.ElementGetter elementGetter;
+    private final ValueWriter elementWriter;
+
+    private ArrayWriter(Types.NestedField elementField, ValueWriter elementWriter) {
+      this.elementGetter = LogArrayData.createElementGetter(elementField);
+      this.elementWriter = elementWriter;
+    }
+
+    private void write(LogArrayData array, BinaryOutput out) {
+      int size = array.size();
+      byte[] nullBitmap = new byte[bitmapSize(size)];
+      for (int i = 0; i < size; i++) {
+        if (array.isNullAt(i)) {
+          setNull(nullBitmap, i);
+        }
+      }
+      out.writeBytes(nullBitmap);
+      for (int i = 0; i < size; i++) {
+        Object element = elementGetter.getElementOrNull(array, i);
+        if (element != null) {
+          elementWriter.write(element, out);
+        }
+      }
+    }
+  }
+
+  /**
+   * The fingerprint of the types and field ids of a schema. Messages only could be read with a
+   * schema of the same fingerprint as the encoding has no field names, renaming fields keeps the
+   * fingerprint.
+   */
+  static int schemaFingerprint(Types.StructType struct) {
+    CRC32 crc = new CRC32();
+    crc.update(typeSignature(struct).getBytes(StandardCharsets.UTF_8));
+    return (int) crc.getValue();
+  }
+
+  private static String typeSignature(Type type) {
+    switch (type.typeId()) {
+      case STRUCT:
+        return type.asStructType().fields().stream()
+            .map(field -> field.fieldId() + ":" + typeSignature(field.type()))
+            .collect(Collectors.joining(",", "struct<", ">"));
+      case LIST:
+        Types.ListType list = type.asListType();
+        return "list<" + list.elementId() + ":" + typeSignature(list.elementType()) + ">";
+      case MAP:
+        Types.MapType map = type.asMapType();
+        return "map<"
+            + map.keyId()
+            + ":"
+            + typeSignature(map.keyType())
+            + ","
+            + map.valueId()
+            + ":"
+            + typeSignature(map.valueType())
+            + ">";
+      default:
+        return type.toString();
+    }
+  }
+
+  static int bitmapSize(int count) {
+    return (count + 7) >>> 3;
+  }
+
+  private static void setNull(byte[] nullBitmap, int pos) {
+    nullBitmap[pos >>> 3] |= (byte) (1 << (pos & 7));
+  }
+
+  /** A growable byte buffer with varint encoding. */
+  private static class BinaryOutput {
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    private void reset() {
+      position = 0;
+    }
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+      }
+    }
+
+    private void writeByte(byte value) {
+      ensureCapacity(1);
+      buffer[position++] = value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    private void writeLengthPrefixed(byte[] bytes) {
+      writeVarLong(bytes.length);
+      writeBytes(bytes);
+    }
+
+    /** Writes a zigzag encoded variable length long, at most 10 bytes. */
+    private void writeVarLong(long value) {
+      ensureCapacity(10);
+      long zigzag = (value << 1) ^ (value >> 63);
+      while ((zigzag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+        zigzag >>>= 7;
+      }
+      buffer[position++] = (byte) zigzag;
+    }
+
+    private void writeFixedInt(int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeFixedLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    private byte[] toBytes() {
+      return Arrays.copyOf(buffer, position);
+    }
+  }
+}
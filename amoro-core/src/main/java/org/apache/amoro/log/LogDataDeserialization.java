@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkArgument;
+
+import org.apache.amoro.log.data.LogArrayData;
+import org.apache.amoro.log.data.LogMapData;
+import org.apache.iceberg.Schema;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Deserialization that deserializes a message in the format of its leading {@link FormatVersion}
+ * bytes into an instance of {@link LogData}, so messages of all versions could be consumed from the
+ * same topic.
+ */
+public class LogDataDeserialization<T> implements Serializable {
+  private static final long serialVersionUID = -3360527215870614948L;
+  private static final int VERSION_LENGTH = 4;
+
+  private final LogDataJsonDeserialization<T> jsonDeserialization;
+  private final LogDataBinaryDeserialization<T> binaryDeserialization;
+
+  public LogDataDeserialization(
+      Schema schema,
+      LogData.Factory<T> factory,
+      LogArrayData.Factory arrayFactory,
+      LogMapData.Factory mapFactory) {
+    this.jsonDeserialization =
+        new LogDataJsonDeserialization<>(schema, factory, arrayFactory, mapFactory);
+    this.binaryDeserialization =
+        new LogDataBinaryDeserialization<>(schema, factory, arrayFactory, mapFactory);
+  }
+
+  public LogData<T> deserialize(byte[] message) throws IOException {
+    checkArgument(message != null, "message is null.");
+    checkArgument(message.length >= VERSION_LENGTH, "message is illegal.");
+    byte[] versionBytes = Bytes.subByte(message, 0, VERSION_LENGTH);
+    FormatVersion version = FormatVersion.fromBytes(versionBytes);
+    if (version == null) {
+      throw new IllegalArgumentException(
+          "Unsupported log format version: " + new String(versionBytes));
+    }
+    switch (version) {
+      case FORMAT_VERSION_V1:
+        return jsonDeserialization.deserialize(message);
+      case FORMAT_VERSION_V2:
+        return binaryDeserialization.deserialize(message);
+      default:
+        throw new IllegalArgumentException("Unsupported log format version: " + version);
+    }
+  }
+}
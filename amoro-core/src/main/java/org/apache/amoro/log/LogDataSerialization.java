@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import org.apache.amoro.log.LogData.FieldGetterFactory;
+import org.apache.iceberg.Schema;
+
+import java.io.Serializable;
+
+/**
+ * Serialization that serializes an instance of {@link LogData} in the format of its {@link
+ * FormatVersion}: JSON by {@link LogDataJsonSerialization} for {@link
+ * FormatVersion#FORMAT_VERSION_V1} and compact binary by {@link LogDataBinarySerialization} for
+ * {@link FormatVersion#FORMAT_VERSION_V2}.
+ */
+public class LogDataSerialization<T> implements Serializable {
+  private static final long serialVersionUID = 4190628573491130263L;
+
+  private final LogDataJsonSerialization<T> jsonSerialization;
+  private final LogDataBinarySerialization<T> binarySerialization;
+
+  public LogDataSerialization(Schema schema, FieldGetterFactory<T> fieldGetterFactory) {
+    this.jsonSerialization = new LogDataJsonSerialization<>(schema, fieldGetterFactory);
+    this.binarySerialization = new LogDataBinarySerialization<>(schema, fieldGetterFactory);
+  }
+
+  public byte[] serialize(LogData<T> element) {
+    FormatVersion version = FormatVersion.fromBytes(element.getVersionBytes());
+    if (version == null) {
+      throw new IllegalArgumentException(
+          "Unsupported log format version: " + new String(element.getVersionBytes()));
+    }
+    switch (version) {
+      case FORMAT_VERSION_V1:
+        return jsonSerialization.serialize(element);
+      case FORMAT_VERSION_V2:
+        return binarySerialization.serialize(element);
+      default:
+        throw new IllegalArgumentException("Unsupported log format version: " + version);
+    }
+  }
+}
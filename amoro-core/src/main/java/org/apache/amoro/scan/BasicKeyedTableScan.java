@@ -62,6 +62,7 @@ public class BasicKeyedTableScan implements KeyedTableScan {
   private final long splitSize;
   private Double splitTaskByDeleteRatio;
   private Expression expression;
+  private boolean includeColumnStats = false;
 
   public BasicKeyedTableScan(BasicKeyedTable table) {
     this.table = table;
@@ -98,6 +99,12 @@ public class BasicKeyedTableScan implements KeyedTableScan {
     return this;
   }
 
+  @Override
+  public KeyedTableScan includeColumnStats() {
+    this.includeColumnStats = true;
+    return this;
+  }
+
   @Override
   public CloseableIterable<CombinedScanTask> planTasks() {
     // base file
@@ -137,6 +144,9 @@ public class BasicKeyedTableScan implements KeyedTableScan {
     if (this.expression != null) {
       scan = scan.filter(this.expression);
     }
+    if (includeColumnStats) {
+      scan = scan.includeColumnStats();
+    }
     CloseableIterable<FileScanTask> fileScanTasks = scan.planFiles();
     return CloseableIterable.transform(
         fileScanTasks,
@@ -33,6 +33,13 @@ public interface KeyedTableScan {
    */
   KeyedTableScan filter(Expression expr);
 
+  /**
+   * Create a new scan from this that loads the column stats with each data file of the base store.
+   *
+   * @return a new scan based on this that loads column stats
+   */
+  KeyedTableScan includeColumnStats();
+
   /**
    * Plan the {@link CombinedScanTask tasks} for this scan.
    *
@@ -69,6 +69,13 @@ public class TableMetaStore implements Serializable {
   private static final ConcurrentHashMap<TableMetaStore, RuntimeContext> RUNTIME_CONTEXT_CACHE =
       new ConcurrentHashMap<>();
 
+  /**
+   * The runtime context whose ugi is already established on the current thread. Nested {@link
+   * #doAs} calls for the same context run the callable directly instead of entering another
+   * privileged action, so callers can authenticate once per batch or file instead of per record.
+   */
+  private static final ThreadLocal<RuntimeContext> ACTIVE_CONTEXT = new ThreadLocal<>();
+
   public static final TableMetaStore EMPTY =
       TableMetaStore.builder().withConfiguration(new Configuration()).buildForTest();
 
@@ -228,7 +235,12 @@ public class TableMetaStore implements Serializable {
         || CatalogMetaProperties.AUTH_CONFIGS_VALUE_TYPE_AK_SK.equalsIgnoreCase(authMethod)) {
       return call(callable);
     }
-    return Objects.requireNonNull(getUGI()).doAs((PrivilegedAction<T>) () -> call(callable));
+    RuntimeContext context = getRuntimeContext();
+    if (ACTIVE_CONTEXT.get() == context) {
+      return call(callable);
+    }
+    return Objects.requireNonNull(getUGI())
+        .doAs((PrivilegedAction<T>) () -> callInContext(context, callable));
   }
 
   /**
@@ -248,7 +260,22 @@ public class TableMetaStore implements Serializable {
         proxyUser,
         proxyUgi,
         getUGI());
-    return proxyUgi.doAs((PrivilegedAction<T>) () -> call(callable));
+    // the proxy user is not the ugi of the runtime context, nested doAs must re-enter
+    return proxyUgi.doAs((PrivilegedAction<T>) () -> callInContext(null, callable));
+  }
+
+  private <T> T callInContext(RuntimeContext context, Callable<T> callable) {
+    RuntimeContext previous = ACTIVE_CONTEXT.get();
+    ACTIVE_CONTEXT.set(context);
+    try {
+      return call(callable);
+    } finally {
+      if (previous == null) {
+        ACTIVE_CONTEXT.remove();
+      } else {
+        ACTIVE_CONTEXT.set(previous);
+      }
+    }
   }
 
   private <T> T call(Callable<T> callable) {
@@ -306,12 +333,15 @@ public class TableMetaStore implements Serializable {
         && Arrays.equals(krbKeyTab, that.krbKeyTab)
         && Arrays.equals(krbConf, that.krbConf)
         && Objects.equals(krbPrincipal, that.krbPrincipal)
+        && Objects.equals(accessKey, that.accessKey)
+        && Objects.equals(secretKey, that.secretKey)
         && Objects.equals(disableAuth, that.disableAuth);
   }
 
   @Override
   public int hashCode() {
-    int result = Objects.hash(disableAuth, authMethod, hadoopUsername, krbPrincipal);
+    int result =
+        Objects.hash(disableAuth, authMethod, hadoopUsername, krbPrincipal, accessKey, secretKey);
     result = 31 * result + Arrays.hashCode(metaStoreSite);
     result = 31 * result + Arrays.hashCode(hdfsSite);
     result = 31 * result + Arrays.hashCode(coreSite);
@@ -119,6 +119,10 @@ public class TableProperties {
       "self-optimizing.min-plan-interval";
   public static final long SELF_OPTIMIZING_MIN_PLAN_INTERVAL_DEFAULT = 60000;
 
+  public static final String SELF_OPTIMIZING_HISTORY_KEEP_DAYS =
+      "self-optimizing.history.keep-days";
+  public static final int SELF_OPTIMIZING_HISTORY_KEEP_DAYS_DEFAULT = -1; // use the AMS setting
+
   /** deprecated table optimize related properties */
   @Deprecated public static final String ENABLE_OPTIMIZE = "optimize.enable";
 
@@ -307,6 +311,8 @@ public class TableProperties {
 
   public static final String LOG_STORE_DATA_VERSION = "log-store.data-version";
   public static final String LOG_STORE_DATA_VERSION_DEFAULT = "v1";
+  /** Log data serialized as compact binary instead of JSON. */
+  public static final String LOG_STORE_DATA_VERSION_V2 = "v2";
 
   public static final String LOG_STORE_PROPERTIES_PREFIX = "properties.";
 
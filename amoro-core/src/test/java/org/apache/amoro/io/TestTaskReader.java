@@ -27,6 +27,7 @@ import org.apache.amoro.catalog.BasicCatalogTestHelper;
 import org.apache.amoro.catalog.CatalogTestHelper;
 import org.apache.amoro.data.ChangeAction;
 import org.apache.amoro.io.reader.BaseIcebergPosDeleteReader;
+import org.apache.amoro.io.reader.EqualityDeleteCache;
 import org.apache.amoro.scan.CombinedScanTask;
 import org.apache.amoro.scan.KeyedTableScanTask;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
@@ -107,6 +108,37 @@ public class TestTaskReader extends TableDataTestBase {
     Assert.assertEquals(expectRecords, records);
   }
 
+  @Test
+  public void testMergeOnReadWithEqDeleteCache() {
+    EqualityDeleteCache.configure(1024 * 1024);
+    try {
+      // expect: (id=1),(id=2),(id=3),(id=6)
+      Set<Record> expectRecords = Sets.newHashSet();
+      expectRecords.add(allRecords.get(0));
+      expectRecords.add(allRecords.get(1));
+      expectRecords.add(allRecords.get(2));
+      expectRecords.add(allRecords.get(5));
+      for (int i = 0; i < 2; i++) {
+        Set<Record> records =
+            Sets.newHashSet(
+                tableTestHelper()
+                    .readKeyedTable(
+                        getMixedTable().asKeyedTable(),
+                        Expressions.alwaysTrue(),
+                        null,
+                        useDiskMap,
+                        false));
+        Assert.assertEquals(expectRecords, records);
+      }
+      // the second read takes the decoded delete files from the cache
+      EqualityDeleteCache deleteCache = EqualityDeleteCache.shared();
+      Assert.assertTrue(deleteCache.missCount() > 0);
+      Assert.assertTrue(deleteCache.hitCount() >= deleteCache.missCount());
+    } finally {
+      EqualityDeleteCache.configure(0);
+    }
+  }
+
   @Test
   public void testMergeOnReadFilterLongType() {
     // where id = 1
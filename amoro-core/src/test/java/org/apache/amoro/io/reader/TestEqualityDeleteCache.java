@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.io.reader;
+
+import org.apache.amoro.data.ChangedLsn;
+import org.apache.amoro.data.DefaultKeyedFile;
+import org.apache.amoro.data.PrimaryKeyedFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestEqualityDeleteCache {
+
+  private static final Types.StructType KEY_TYPE =
+      Types.StructType.of(Types.NestedField.required(1, "id", Types.LongType.get()));
+  private static final String IDENTITY = "user";
+  private static final String LOCATION =
+      "hdfs://nameservice/warehouse/test_db.db/test_pk_table/change";
+
+  @Test
+  public void testHitAndMiss() {
+    EqualityDeleteCache cache = new EqualityDeleteCache(1024 * 1024);
+    AtomicInteger loads = new AtomicInteger();
+    PrimaryKeyedFile deleteFile = deleteFile(1, 1024);
+
+    EqualityDeleteCache.DeleteSet first =
+        cache.get(deleteFile, KEY_TYPE, IDENTITY, () -> load(loads, 3, 10));
+    EqualityDeleteCache.DeleteSet second =
+        cache.get(deleteFile(1, 1024), KEY_TYPE, IDENTITY, () -> load(loads, 3, 10));
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(1, cache.hitCount());
+    Assert.assertEquals(1, cache.missCount());
+    Assert.assertEquals(1, cache.entryCount());
+    Assert.assertEquals(first.sizeInBytes(), cache.sizeInBytes());
+
+    // a rewritten file of the same path or another key type is loaded again
+    cache.get(deleteFile(1, 2048), KEY_TYPE, IDENTITY, () -> load(loads, 3, 10));
+    cache.get(
+        deleteFile,
+        Types.StructType.of(Types.NestedField.required(2, "name", Types.StringType.get())),
+        IDENTITY,
+        () -> load(loads, 3, 10));
+    Assert.assertEquals(3, loads.get());
+    Assert.assertEquals(3, cache.missCount());
+
+    // a file read with other credentials is not shared
+    Assert.assertNotSame(
+        first, cache.get(deleteFile, KEY_TYPE, "another_user", () -> load(loads, 3, 10)));
+    Assert.assertEquals(4, loads.get());
+  }
+
+  @Test
+  public void testDeleteSet() {
+    EqualityDeleteCache.DeleteSet deleteSet = load(new AtomicInteger(), 5, 7);
+    Assert.assertEquals(5, deleteSet.size());
+    Assert.assertTrue(deleteSet.sizeInBytes() > 0);
+
+    AtomicInteger count = new AtomicInteger();
+    deleteSet.forEach(
+        (key, lsn) -> {
+          Assert.assertEquals(count.get(), (long) key.get(0, Long.class));
+          Assert.assertEquals(ChangedLsn.of(7, count.get()), lsn);
+          count.incrementAndGet();
+        });
+    Assert.assertEquals(5, count.get());
+  }
+
+  @Test
+  public void testEviction() {
+    long entrySize = load(new AtomicInteger(), 100, 1).sizeInBytes();
+    EqualityDeleteCache cache = new EqualityDeleteCache(entrySize * 3);
+    AtomicInteger loads = new AtomicInteger();
+    for (int i = 0; i < 10; i++) {
+      cache.get(deleteFile(i, 1024), KEY_TYPE, IDENTITY, () -> load(loads, 100, 1));
+    }
+    Assert.assertEquals(10, loads.get());
+    Assert.assertTrue(cache.evictionCount() >= 7);
+    Assert.assertTrue(cache.sizeInBytes() <= entrySize * 3);
+  }
+
+  @Test
+  public void testDisabled() {
+    EqualityDeleteCache cache = new EqualityDeleteCache(0);
+    Assert.assertFalse(cache.enabled());
+    Assert.assertEquals(0, cache.hitCount());
+    Assert.assertEquals(0, cache.sizeInBytes());
+    Assert.assertThrows(
+        IllegalStateException.class,
+        () ->
+            cache.get(
+                deleteFile(1, 1024), KEY_TYPE, IDENTITY, () -> load(new AtomicInteger(), 1, 1)));
+  }
+
+  private static EqualityDeleteCache.DeleteSet load(
+      AtomicInteger loads, int deleteCount, long transactionId) {
+    loads.incrementAndGet();
+    EqualityDeleteCache.DeleteSet deleteSet = new EqualityDeleteCache.DeleteSet();
+    GenericRecord key = GenericRecord.create(KEY_TYPE);
+    for (int i = 0; i < deleteCount; i++) {
+      // the record is reused, the delete set keeps a copy of the key
+      key.set(0, (long) i);
+      deleteSet.add(key, ChangedLsn.of(transactionId, i));
+    }
+    return deleteSet;
+  }
+
+  private static PrimaryKeyedFile deleteFile(int count, long fileSizeInBytes) {
+    String path = String.format("%s/4-ED-3-00000-0-0-%05d.parquet", LOCATION, count);
+    return DefaultKeyedFile.parseChange(
+        DataFiles.builder(PartitionSpec.unpartitioned())
+            .withPath(path)
+            .withFormat(FileFormat.PARQUET)
+            .withFileSizeInBytes(fileSizeInBytes)
+            .withRecordCount(100)
+            .build());
+  }
+}
@@ -22,15 +22,19 @@ import org.apache.amoro.data.ChangeAction;
 import org.apache.amoro.log.data.LogArrayData;
 import org.apache.amoro.log.data.LogMapData;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.amoro.utils.IdGenerator;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.types.Type;
 import org.apache.iceberg.types.Types;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -173,6 +177,48 @@ public class FormatTestBase {
 
   LogMapData.Factory mapFactory = GenericMapData::new;
 
+  /** Creates a log data holding all types of values, the actual value is null if flip. */
+  LogData<UserPojo> createLogData(FormatVersion version, boolean flip) {
+    UserPojo subUserPojo = new UserPojo();
+    subUserPojo.objects = new Object[] {false, 2, 987654321L};
+    UserPojo userPojo = new UserPojo();
+    userPojo.objects =
+        new Object[] {
+          true,
+          -1,
+          123456789L,
+          subUserPojo,
+          123.45f,
+          -123.456789d,
+          (int) LocalDate.of(2022, 11, 11).toEpochDay(),
+          LocalTime.of(13, 23, 23, 98766545).toNanoOfDay(),
+          LocalDateTime.of(2022, 12, 12, 13, 14, 14, 987654234),
+          Instant.parse("2022-12-13T13:33:44.98765432Z"),
+          "ssss_string_\u4e2d\u6587",
+          new byte[] {1},
+          new byte[] {'1'},
+          null,
+          BigDecimal.valueOf(-111.111),
+          new GenericArrayData(new Long[] {123L, 234L, null, 345L}, 4, false),
+          new GenericArrayData(new int[] {123, 234, 0, 345}, 4, true),
+          new GenericArrayData(new UserPojo[] {subUserPojo}, 1, false),
+          new GenericMapData(
+              new HashMap<Long, String>() {
+                {
+                  put(1123L, "Str_123");
+                  put(1124L, null);
+                }
+              })
+        };
+    return new LogDataUser(
+        version.asBytes(),
+        IdGenerator.generateUpstreamId(),
+        123455L,
+        flip,
+        ChangeAction.UPDATE_AFTER,
+        userPojo);
+  }
+
   class GenericArrayData implements LogArrayData {
     private final Object array;
     private final boolean isPrimitiveArray;
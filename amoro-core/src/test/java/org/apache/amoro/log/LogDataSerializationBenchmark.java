@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serialize and deserialize throughput and the message size of the JSON and binary log
+ * data formats. It's not run as a unit test, run the main method to get the numbers.
+ */
+public class LogDataSerializationBenchmark extends FormatTestBase {
+  private static final int WARMUP_ITERATIONS = 100_000;
+  private static final int MEASURE_ITERATIONS = 1_000_000;
+
+  public static void main(String[] args) throws IOException {
+    new LogDataSerializationBenchmark().run();
+  }
+
+  private void run() throws IOException {
+    LogDataSerialization<UserPojo> serialization =
+        new LogDataSerialization<>(userSchema, fieldGetterFactory);
+    LogDataDeserialization<UserPojo> deserialization =
+        new LogDataDeserialization<>(userSchema, factory, arrayFactory, mapFactory);
+    for (FormatVersion version : FormatVersion.values()) {
+      LogData<UserPojo> logData = createLogData(version, false);
+      byte[] message = serialization.serialize(logData);
+
+      measure(version, "serialize", () -> serialization.serialize(logData));
+      measure(version, "deserialize", () -> deserialization.deserialize(message));
+      System.out.printf("%s message size: %d bytes%n", version, message.length);
+    }
+  }
+
+  private static void measure(FormatVersion version, String name, Action action)
+      throws IOException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      action.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+      action.run();
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    System.out.printf(
+        "%s %s: %.1f ns/op, %.0f ops/s%n",
+        version,
+        name,
+        (double) elapsedNanos / MEASURE_ITERATIONS,
+        MEASURE_ITERATIONS / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+  }
+
+  private interface Action {
+    Object run() throws IOException;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.apache.amoro.log.data.LogArrayData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+public class TestLogDataBinarySerialization extends FormatTestBase {
+
+  @Test
+  public void testLogDataSerialize() {
+    LogData<UserPojo> logData = createLogData(FormatVersion.FORMAT_VERSION_V2, false);
+
+    LogDataBinarySerialization<UserPojo> binarySerialization =
+        new LogDataBinarySerialization<>(userSchema, fieldGetterFactory);
+    byte[] bytes = binarySerialization.serialize(logData);
+    Assert.assertNotNull(bytes);
+
+    LogDataBinaryDeserialization<UserPojo> binaryDeserialization =
+        new LogDataBinaryDeserialization<>(userSchema, factory, arrayFactory, mapFactory);
+    LogData<UserPojo> result = binaryDeserialization.deserialize(bytes);
+    check(logData, result);
+
+    // array data only prints its class name, check the elements separately
+    LogArrayData list = (LogArrayData) result.getActualValue().objects[15];
+    assertEquals(4, list.size());
+    assertEquals(123L, list.getLong(0));
+    Assert.assertTrue(list.isNullAt(2));
+    assertEquals(345L, list.getLong(3));
+    LogArrayData structList = (LogArrayData) result.getActualValue().objects[17];
+    assertEquals("UserPojo = [false, 2, 987654321]", structList.getStruct(0).toString());
+
+    // the binary bytes are much smaller than the JSON ones
+    LogDataJsonSerialization<UserPojo> jsonSerialization =
+        new LogDataJsonSerialization<>(userSchema, fieldGetterFactory);
+    byte[] jsonBytes =
+        jsonSerialization.serialize(createLogData(FormatVersion.FORMAT_VERSION_V1, false));
+    Assert.assertTrue(bytes.length * 2 < jsonBytes.length);
+  }
+
+  @Test
+  public void testFlipSerialize() {
+    LogData<UserPojo> logData = createLogData(FormatVersion.FORMAT_VERSION_V2, true);
+    byte[] bytes =
+        new LogDataBinarySerialization<>(userSchema, fieldGetterFactory).serialize(logData);
+    assertEquals(22, bytes.length);
+
+    LogData<UserPojo> result =
+        new LogDataBinaryDeserialization<>(userSchema, factory, arrayFactory, mapFactory)
+            .deserialize(bytes);
+    Assert.assertTrue(result.getFlip());
+    Assert.assertNull(result.getActualValue());
+  }
+
+  @Test
+  public void testSchemaFingerprint() {
+    Types.StructType struct =
+        Types.StructType.of(
+            Types.NestedField.optional(1, "id", Types.IntegerType.get()),
+            Types.NestedField.optional(2, "name", Types.StringType.get()));
+    // renaming fields keeps the encoding
+    Assert.assertEquals(
+        LogDataBinarySerialization.schemaFingerprint(struct),
+        LogDataBinarySerialization.schemaFingerprint(
+            Types.StructType.of(
+                Types.NestedField.optional(1, "user_id", Types.IntegerType.get()),
+                Types.NestedField.required(2, "user_name", Types.StringType.get()))));
+    // changed types, reordered or replaced fields don't
+    Assert.assertNotEquals(
+        LogDataBinarySerialization.schemaFingerprint(struct),
+        LogDataBinarySerialization.schemaFingerprint(
+            Types.StructType.of(
+                Types.NestedField.optional(1, "id", Types.LongType.get()),
+                Types.NestedField.optional(2, "name", Types.StringType.get()))));
+    Assert.assertNotEquals(
+        LogDataBinarySerialization.schemaFingerprint(struct),
+        LogDataBinarySerialization.schemaFingerprint(
+            Types.StructType.of(
+                Types.NestedField.optional(2, "name", Types.StringType.get()),
+                Types.NestedField.optional(1, "id", Types.IntegerType.get()))));
+    Assert.assertNotEquals(
+        LogDataBinarySerialization.schemaFingerprint(struct),
+        LogDataBinarySerialization.schemaFingerprint(
+            Types.StructType.of(
+                Types.NestedField.optional(1, "id", Types.IntegerType.get()),
+                Types.NestedField.optional(3, "name", Types.StringType.get()))));
+  }
+
+  @Test
+  public void testRejectMismatchedSchema() {
+    byte[] bytes =
+        new LogDataBinarySerialization<>(userSchema, fieldGetterFactory)
+            .serialize(createLogData(FormatVersion.FORMAT_VERSION_V2, false));
+    Schema evolvedSchema =
+        new Schema(
+            userSchema.columns().stream()
+                .map(
+                    field ->
+                        field.fieldId() == 1
+                            ? Types.NestedField.optional(1, "f_int", Types.LongType.get())
+                            : field)
+                .collect(Collectors.toList()));
+
+    LogDataBinaryDeserialization<UserPojo> deserialization =
+        new LogDataBinaryDeserialization<>(evolvedSchema, factory, arrayFactory, mapFactory);
+    Assert.assertThrows(IllegalArgumentException.class, () -> deserialization.deserialize(bytes));
+
+    // flips have no actual value and are read with any schema
+    byte[] flip =
+        new LogDataBinarySerialization<>(userSchema, fieldGetterFactory)
+            .serialize(createLogData(FormatVersion.FORMAT_VERSION_V2, true));
+    Assert.assertTrue(deserialization.deserialize(flip).getFlip());
+  }
+
+  @Test
+  public void testMixedFormatVersions() throws IOException {
+    LogDataSerialization<UserPojo> serialization =
+        new LogDataSerialization<>(userSchema, fieldGetterFactory);
+    LogDataDeserialization<UserPojo> deserialization =
+        new LogDataDeserialization<>(userSchema, factory, arrayFactory, mapFactory);
+
+    // both versions could be written and read by the same serialization
+    for (FormatVersion version : FormatVersion.values()) {
+      LogData<UserPojo> logData = createLogData(version, false);
+      byte[] bytes = serialization.serialize(logData);
+      Assert.assertTrue(version.isVersionOf(bytes));
+      check(logData, deserialization.deserialize(bytes));
+    }
+  }
+
+  private void check(LogData<UserPojo> expected, LogData<UserPojo> actual) {
+    assertArrayEquals(expected.getVersionBytes(), actual.getVersionBytes());
+    assertArrayEquals(expected.getUpstreamIdBytes(), actual.getUpstreamIdBytes());
+    assertEquals(expected.getEpicNo(), actual.getEpicNo());
+    assertEquals(expected.getFlip(), actual.getFlip());
+    assertEquals(expected.getChangeActionByte(), actual.getChangeActionByte());
+    assertEquals(expected.getActualValue().toString(), actual.getActualValue().toString());
+  }
+}
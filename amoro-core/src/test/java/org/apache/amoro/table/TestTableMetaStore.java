@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.table;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTableMetaStore {
+
+  private static TableMetaStore simpleAuthMetaStore(String user) {
+    return TableMetaStore.builder()
+        .withConfiguration(new Configuration())
+        .withSimpleAuth(user)
+        .buildForTest();
+  }
+
+  @Test
+  public void testNestedDoAsKeepsUser() {
+    TableMetaStore metaStore = simpleAuthMetaStore("amoro_user");
+    String nestedUser =
+        metaStore.doAs(
+            () ->
+                metaStore.doAs(() -> UserGroupInformation.getCurrentUser().getShortUserName()));
+    Assert.assertEquals("amoro_user", nestedUser);
+  }
+
+  @Test
+  public void testNestedDoAsWithOtherMetaStore() {
+    TableMetaStore outer = simpleAuthMetaStore("outer_user");
+    TableMetaStore inner = simpleAuthMetaStore("inner_user");
+    String nestedUser =
+        outer.doAs(
+            () -> inner.doAs(() -> UserGroupInformation.getCurrentUser().getShortUserName()));
+    Assert.assertEquals("inner_user", nestedUser);
+    // the outer context is restored after the nested call returns
+    String outerUser =
+        outer.doAs(
+            () -> {
+              inner.doAs(() -> null);
+              return UserGroupInformation.getCurrentUser().getShortUserName();
+            });
+    Assert.assertEquals("outer_user", outerUser);
+  }
+
+  @Test
+  public void testDoAsInsideImpersonating() {
+    TableMetaStore metaStore = simpleAuthMetaStore("amoro_user");
+    String nestedUser =
+        metaStore.doAsImpersonating(
+            "proxy_user",
+            () -> metaStore.doAs(() -> UserGroupInformation.getCurrentUser().getShortUserName()));
+    Assert.assertEquals("amoro_user", nestedUser);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.amoro.flink.read.hybrid.reader;
 import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SOURCE_READER_FETCH_BATCH_RECORD_COUNT;
 
 import org.apache.amoro.flink.read.source.DataIterator;
+import org.apache.amoro.io.AuthenticatedFileIO;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
@@ -36,13 +37,24 @@ class ArrayPoolDataIteratorBatcher<T> implements DataIteratorBatcher<T> {
   private final int batchSize;
   private final int handoverQueueSize;
   private final RecordFactory<T> recordFactory;
+  /**
+   * Used to establish the ugi context once per batch. The readers beneath the data iterator may
+   * open files lazily while iterating, nested doAs calls of the same io are then executed directly.
+   */
+  private final AuthenticatedFileIO io;
 
   private transient Pool<T[]> pool;
 
   ArrayPoolDataIteratorBatcher(ReadableConfig config, RecordFactory<T> recordFactory) {
+    this(config, recordFactory, null);
+  }
+
+  ArrayPoolDataIteratorBatcher(
+      ReadableConfig config, RecordFactory<T> recordFactory, AuthenticatedFileIO io) {
     this.batchSize = config.get(SOURCE_READER_FETCH_BATCH_RECORD_COUNT);
     this.handoverQueueSize = config.get(SourceReaderOptions.ELEMENT_QUEUE_CAPACITY);
     this.recordFactory = recordFactory;
+    this.io = io;
   }
 
   @Override
@@ -81,11 +93,15 @@ class ArrayPoolDataIteratorBatcher<T> implements DataIteratorBatcher<T> {
 
     @Override
     public boolean hasNext() {
-      return inputIterator.hasNext();
+      return io == null ? inputIterator.hasNext() : io.doAs(inputIterator::hasNext);
     }
 
     @Override
     public RecordsWithSplitIds<MixedFormatRecordWithOffset<T>> next() {
+      return io == null ? nextBatch() : io.doAs(this::nextBatch);
+    }
+
+    private RecordsWithSplitIds<MixedFormatRecordWithOffset<T>> nextBatch() {
       if (!inputIterator.hasNext()) {
         throw new NoSuchElementException();
       }
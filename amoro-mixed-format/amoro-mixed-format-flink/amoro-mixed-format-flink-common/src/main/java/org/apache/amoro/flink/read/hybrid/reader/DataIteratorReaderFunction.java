@@ -22,24 +22,52 @@ import org.apache.amoro.flink.read.hybrid.split.ChangelogSplit;
 import org.apache.amoro.flink.read.hybrid.split.MixedFormatSplit;
 import org.apache.amoro.flink.read.source.ChangeLogDataIterator;
 import org.apache.amoro.flink.read.source.DataIterator;
+import org.apache.amoro.flink.read.source.FilePrefetcher;
 import org.apache.amoro.flink.read.source.MergeOnReadDataIterator;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.iceberg.io.CloseableIterator;
 
 /** A {@link ReaderFunction} implementation that uses {@link DataIterator}. */
 public abstract class DataIteratorReaderFunction<T> implements ReaderFunction<T> {
   private final DataIteratorBatcher<T> batcher;
+  private final int filePrefetchCount;
+  private final int filePrefetchThreads;
 
   public DataIteratorReaderFunction(DataIteratorBatcher<T> batcher) {
+    this(batcher, 0, 0);
+  }
+
+  public DataIteratorReaderFunction(
+      DataIteratorBatcher<T> batcher, int filePrefetchCount, int filePrefetchThreads) {
     this.batcher = batcher;
+    this.filePrefetchCount = filePrefetchCount;
+    this.filePrefetchThreads = filePrefetchThreads;
   }
 
   public abstract DataIterator<T> createDataIterator(MixedFormatSplit split);
 
+  @Override
+  public FilePrefetcher createFilePrefetcher(MetricGroup metricGroup) {
+    if (filePrefetchCount <= 0) {
+      return null;
+    }
+    return new FilePrefetcher(filePrefetchCount, filePrefetchThreads, metricGroup);
+  }
+
   @Override
   public CloseableIterator<RecordsWithSplitIds<MixedFormatRecordWithOffset<T>>> apply(
       MixedFormatSplit split) {
+    return apply(split, null);
+  }
+
+  @Override
+  public CloseableIterator<RecordsWithSplitIds<MixedFormatRecordWithOffset<T>>> apply(
+      MixedFormatSplit split, FilePrefetcher prefetcher) {
     DataIterator<T> inputIterator = createDataIterator(split);
+    if (prefetcher != null && !(inputIterator instanceof MergeOnReadDataIterator)) {
+      inputIterator.prefetchWith(prefetcher);
+    }
     if (inputIterator instanceof MergeOnReadDataIterator) {
       inputIterator.seek(0, split.asMergeOnReadSplit().recordOffset());
     } else if (inputIterator instanceof ChangeLogDataIterator) {
@@ -22,6 +22,7 @@ import org.apache.amoro.flink.read.hybrid.split.ChangelogSplit;
 import org.apache.amoro.flink.read.hybrid.split.MergeOnReadSplit;
 import org.apache.amoro.flink.read.hybrid.split.MixedFormatSplit;
 import org.apache.amoro.flink.read.hybrid.split.SnapshotSplit;
+import org.apache.amoro.flink.read.source.FilePrefetcher;
 import org.apache.flink.api.connector.source.SourceReaderContext;
 import org.apache.flink.connector.base.source.reader.RecordsBySplits;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
@@ -48,6 +49,8 @@ public class HybridSplitReader<T>
   private final ReaderFunction<T> openSplitFunction;
   private final int indexOfSubtask;
   private final Queue<MixedFormatSplit> splits;
+  /** Opens the upcoming files of the current split in background, null if disabled. */
+  private final FilePrefetcher filePrefetcher;
 
   private CloseableIterator<RecordsWithSplitIds<MixedFormatRecordWithOffset<T>>> currentReader;
   private String currentSplitId;
@@ -56,6 +59,7 @@ public class HybridSplitReader<T>
     this.openSplitFunction = openSplitFunction;
     this.indexOfSubtask = context.getIndexOfSubtask();
     this.splits = new ArrayDeque<>();
+    this.filePrefetcher = openSplitFunction.createFilePrefetcher(context.metricGroup());
   }
 
   @Override
@@ -65,7 +69,7 @@ public class HybridSplitReader<T>
         return new RecordsBySplits<>(Collections.emptyMap(), Collections.emptySet());
       }
       MixedFormatSplit mixedFormatSplit = splits.poll();
-      currentReader = openSplitFunction.apply(mixedFormatSplit);
+      currentReader = openSplitFunction.apply(mixedFormatSplit, filePrefetcher);
       currentSplitId = mixedFormatSplit.splitId();
     }
     if (currentReader.hasNext()) {
@@ -117,6 +121,10 @@ public class HybridSplitReader<T>
     if (currentReader != null) {
       currentReader.close();
     }
+    // close after the current reader, which waits for the files being opened in background
+    if (filePrefetcher != null) {
+      filePrefetcher.close();
+    }
   }
 
   private RecordsWithSplitIds<MixedFormatRecordWithOffset<T>> finishSplit() throws IOException {
@@ -19,7 +19,9 @@
 package org.apache.amoro.flink.read.hybrid.reader;
 
 import org.apache.amoro.flink.read.hybrid.split.MixedFormatSplit;
+import org.apache.amoro.flink.read.source.FilePrefetcher;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.iceberg.io.CloseableIterator;
 
 import java.io.Serializable;
@@ -34,4 +36,20 @@ public interface ReaderFunction<T>
     extends Serializable,
         Function<
             MixedFormatSplit,
-            CloseableIterator<RecordsWithSplitIds<MixedFormatRecordWithOffset<T>>>> {}
+            CloseableIterator<RecordsWithSplitIds<MixedFormatRecordWithOffset<T>>>> {
+
+  /**
+   * Creates the prefetcher that opens the files of splits in background.
+   *
+   * @return null if file prefetching is disabled.
+   */
+  default FilePrefetcher createFilePrefetcher(MetricGroup metricGroup) {
+    return null;
+  }
+
+  /** Produces an iterator of the split whose files are opened ahead with the given prefetcher. */
+  default CloseableIterator<RecordsWithSplitIds<MixedFormatRecordWithOffset<T>>> apply(
+      MixedFormatSplit split, FilePrefetcher prefetcher) {
+    return apply(split);
+  }
+}
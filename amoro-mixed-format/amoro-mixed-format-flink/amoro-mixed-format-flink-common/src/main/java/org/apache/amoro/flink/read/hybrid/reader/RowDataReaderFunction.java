@@ -19,6 +19,10 @@
 package org.apache.amoro.flink.read.hybrid.reader;
 
 import static org.apache.amoro.flink.shuffle.RowKindUtil.convertToFlinkRowKind;
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SOURCE_READER_COLUMNAR_BATCH_SIZE;
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SOURCE_READER_COLUMNAR_ENABLED;
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SOURCE_READER_FILE_PREFETCH_COUNT;
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SOURCE_READER_FILE_PREFETCH_THREADS;
 import static org.apache.amoro.utils.SchemaUtil.changeWriteSchema;
 import static org.apache.amoro.utils.SchemaUtil.fillUpIdentifierFields;
 
@@ -26,6 +30,7 @@ import org.apache.amoro.flink.read.hybrid.split.MixedFormatSplit;
 import org.apache.amoro.flink.read.source.ChangeLogDataIterator;
 import org.apache.amoro.flink.read.source.DataIterator;
 import org.apache.amoro.flink.read.source.FileScanTaskReader;
+import org.apache.amoro.flink.read.source.FlinkColumnarParquetReader;
 import org.apache.amoro.flink.read.source.FlinkKeyedMORDataReader;
 import org.apache.amoro.flink.read.source.FlinkUnkyedDataReader;
 import org.apache.amoro.flink.read.source.MergeOnReadDataIterator;
@@ -35,7 +40,9 @@ import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.table.PrimaryKeySpec;
 import org.apache.amoro.utils.NodeFilter;
 import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.flink.FlinkSchemaUtil;
 import org.apache.iceberg.flink.data.RowDataUtil;
@@ -63,6 +70,11 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
   private final int fileOffsetIndex;
 
   private final boolean reuse;
+  /** Whether to read base-store snapshot splits with the columnar Parquet reader. */
+  private final boolean columnarRead;
+
+  private final int columnarBatchSize;
+  private transient RowData.FieldGetter[] columnarFieldGetters;
 
   public RowDataReaderFunction(
       ReadableConfig config,
@@ -96,7 +108,10 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
         new ArrayPoolDataIteratorBatcher<>(
             config,
             new RowDataRecordFactory(
-                FlinkSchemaUtil.convert(readSchema(tableSchema, projectedSchema)))));
+                FlinkSchemaUtil.convert(readSchema(tableSchema, projectedSchema))),
+            io),
+        config.get(SOURCE_READER_FILE_PREFETCH_COUNT),
+        config.get(SOURCE_READER_FILE_PREFETCH_THREADS));
     this.tableSchema = tableSchema;
     this.readSchema = fillUpReadSchema(tableSchema, projectedSchema, primaryKeySpec);
     this.primaryKeySpec = primaryKeySpec;
@@ -108,6 +123,10 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
     this.columnSize =
         projectedSchema == null ? readSchema.columns().size() : projectedSchema.columns().size();
     this.reuse = reuse;
+    this.columnarRead =
+        config.get(SOURCE_READER_COLUMNAR_ENABLED)
+            && FlinkColumnarParquetReader.supportsColumnarRead(this.readSchema);
+    this.columnarBatchSize = config.get(SOURCE_READER_COLUMNAR_BATCH_SIZE);
   }
 
   @Override
@@ -137,6 +156,22 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
               RowDataUtil::convertConstant,
               Collections.singleton(split.dataTreeNode()),
               reuse);
+      if (columnarRead) {
+        FileScanTaskReader<RowData> columnarReader =
+            new FlinkColumnarParquetReader(
+                io,
+                readSchema,
+                primaryKeySpec,
+                Collections.singleton(split.dataTreeNode()),
+                caseSensitive,
+                columnarBatchSize,
+                rowDataReader);
+        return new DataIterator<>(
+            columnarReader,
+            split.asSnapshotSplit().insertTasks(),
+            rowData -> Long.MIN_VALUE,
+            this::removeColumnarMetaColumn);
+      }
       return new DataIterator<>(
           rowDataReader,
           split.asSnapshotSplit().insertTasks(),
@@ -184,6 +219,31 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
     return MixedFormatUtils.removeMixedFormatMetaColumn(rowData, columnSize);
   }
 
+  /**
+   * Rows of the columnar reader are views over a column batch, the filled up identifier fields are
+   * removed by copying the selected columns.
+   */
+  RowData removeColumnarMetaColumn(RowData rowData) {
+    if (rowData instanceof GenericRowData) {
+      return removeMixedFormatMetaColumn(rowData);
+    }
+    if (rowData.getArity() == columnSize) {
+      return rowData;
+    }
+    if (columnarFieldGetters == null) {
+      RowType rowType = FlinkSchemaUtil.convert(readSchema);
+      columnarFieldGetters = new RowData.FieldGetter[columnSize];
+      for (int i = 0; i < columnSize; i++) {
+        columnarFieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+      }
+    }
+    GenericRowData newRowData = new GenericRowData(rowData.getRowKind(), columnSize);
+    for (int i = 0; i < columnSize; i++) {
+      newRowData.setField(i, columnarFieldGetters[i].getFieldOrNull(rowData));
+    }
+    return newRowData;
+  }
+
   RowData transformRowKind(ChangeLogDataIterator.ChangeActionTrans<RowData> trans) {
     RowData rowData = trans.row();
     rowData.setRowKind(convertToFlinkRowKind(trans.changeAction()));
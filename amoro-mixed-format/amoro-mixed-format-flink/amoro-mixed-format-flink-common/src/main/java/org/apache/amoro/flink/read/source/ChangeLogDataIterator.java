@@ -84,6 +84,12 @@ public class ChangeLogDataIterator<T> extends DataIterator<T> {
     deleteDataIterator.seek(startingDeleteFileOffset, startingDeleteRecordOffset);
   }
 
+  @Override
+  public void prefetchWith(FilePrefetcher prefetcher) {
+    insertDataIterator.prefetchWith(prefetcher);
+    deleteDataIterator.prefetchWith(prefetcher);
+  }
+
   @Override
   public void seek(int startingFileOffset, long startingRecordOffset) {
     throw new UnsupportedOperationException(
@@ -25,10 +25,13 @@ import org.apache.iceberg.io.CloseableIterator;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 /**
@@ -49,6 +52,9 @@ public class DataIterator<T> implements CloseableIterator<T> {
   private long currentFileOffset;
   private final Function<T, Long> fileOffsetGetter;
   private final Function<T, T> metaColumnRemover;
+  private FilePrefetcher prefetcher;
+  /** Files of the upcoming tasks which are being opened in background, in the order of tasks. */
+  private final Deque<Future<CloseableIterator<T>>> prefetchedIterators = new ArrayDeque<>();
 
   public DataIterator() {
     this(null, Collections.emptyList(), t -> Long.MIN_VALUE, t -> t);
@@ -136,12 +142,22 @@ public class DataIterator<T> implements CloseableIterator<T> {
     return currentIterator.hasNext();
   }
 
+  /**
+   * Opens the files of the upcoming tasks in background with the given prefetcher. It should be
+   * set before any other iterator actions.
+   */
+  public void prefetchWith(FilePrefetcher prefetcher) {
+    Preconditions.checkState(
+        fileOffset == -1, "Prefetcher should be set before any other iterator actions");
+    this.prefetcher = prefetcher;
+  }
+
   /** Updates the current iterator field to ensure that the current Iterator is not exhausted. */
   private void updateCurrentIterator() {
     try {
-      while (!currentIterator.hasNext() && tasks.hasNext()) {
+      while (!currentIterator.hasNext() && (tasks.hasNext() || !prefetchedIterators.isEmpty())) {
         currentIterator.close();
-        currentIterator = openTaskIterator(tasks.next());
+        currentIterator = nextTaskIterator();
         fileOffset += 1;
         recordOffset = 0L;
       }
@@ -150,6 +166,24 @@ public class DataIterator<T> implements CloseableIterator<T> {
     }
   }
 
+  private CloseableIterator<T> nextTaskIterator() {
+    if (prefetcher == null) {
+      return openTaskIterator(tasks.next());
+    }
+    prefetchTasks();
+    CloseableIterator<T> iterator = prefetcher.await(prefetchedIterators.poll());
+    // start opening the following files while the current one is read
+    prefetchTasks();
+    return iterator;
+  }
+
+  private void prefetchTasks() {
+    while (prefetchedIterators.size() < prefetcher.prefetchCount() && tasks.hasNext()) {
+      MixedFileScanTask task = tasks.next();
+      prefetchedIterators.add(prefetcher.submit(() -> openTaskIterator(task)));
+    }
+  }
+
   private CloseableIterator<T> openTaskIterator(MixedFileScanTask scanTask) {
     return fileScanTaskReader.open(scanTask);
   }
@@ -158,6 +192,15 @@ public class DataIterator<T> implements CloseableIterator<T> {
   public void close() throws IOException {
     // close the current iterator
     currentIterator.close();
+    // close the files opened in background
+    while (!prefetchedIterators.isEmpty()) {
+      Future<CloseableIterator<T>> prefetched = prefetchedIterators.poll();
+      try {
+        prefetched.get().close();
+      } catch (Exception e) {
+        // the file failed to be opened, there is nothing to close
+      }
+    }
     tasks = null;
   }
 
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.read.source;
+
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens the upcoming files of a {@link DataIterator} in background I/O threads while the records of
+ * the current file are emitted, so the per-file open latency of object stores is hidden behind the
+ * reading of the previous file.
+ *
+ * <p>Only opening a file is done in the background, the opened iterator is handed over to and
+ * consumed by the split reader thread.
+ */
+public class FilePrefetcher implements Closeable {
+
+  public static final String PREFETCH_HITS = "filePrefetchHits";
+  public static final String PREFETCH_MISSES = "filePrefetchMisses";
+  public static final String PREFETCH_HIT_RATIO = "filePrefetchHitRatio";
+  public static final String READER_IDLE_TIME = "filePrefetchReaderIdleTimeMs";
+
+  private final int prefetchCount;
+  private final ExecutorService executor;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter idleTimeMs;
+
+  public FilePrefetcher(int prefetchCount, int threads, MetricGroup metricGroup) {
+    Preconditions.checkArgument(prefetchCount > 0, "The prefetch count must be positive");
+    Preconditions.checkArgument(threads > 0, "The prefetch threads must be positive");
+    this.prefetchCount = prefetchCount;
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("mixed-format-file-prefetch-%d")
+                .build());
+    if (metricGroup != null) {
+      this.hits = metricGroup.counter(PREFETCH_HITS);
+      this.misses = metricGroup.counter(PREFETCH_MISSES);
+      this.idleTimeMs = metricGroup.counter(READER_IDLE_TIME);
+      metricGroup.gauge(PREFETCH_HIT_RATIO, (Gauge<Double>) this::hitRatio);
+    } else {
+      this.hits = new SimpleCounter();
+      this.misses = new SimpleCounter();
+      this.idleTimeMs = new SimpleCounter();
+    }
+  }
+
+  /** The number of files opened ahead of the file being read. */
+  public int prefetchCount() {
+    return prefetchCount;
+  }
+
+  <T> Future<T> submit(Callable<T> open) {
+    return executor.submit(open);
+  }
+
+  /**
+   * Waits for a prefetched file. It's a hit if the file has been opened before it is required, the
+   * time spent waiting otherwise is counted as reader idle time.
+   */
+  <T> T await(Future<T> future) {
+    if (future.isDone()) {
+      hits.inc();
+    } else {
+      misses.inc();
+    }
+    long start = System.nanoTime();
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for a prefetched file", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof IOException) {
+        throw new UncheckedIOException((IOException) cause);
+      }
+      throw new RuntimeException("Failed to open a prefetched file", cause);
+    } finally {
+      idleTimeMs.inc(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+  }
+
+  /** The number of files which have been opened before they are required. */
+  public long hits() {
+    return hits.getCount();
+  }
+
+  /** The number of files which have been waited for by the reader. */
+  public long misses() {
+    return misses.getCount();
+  }
+
+  public double hitRatio() {
+    long total = hits.getCount() + misses.getCount();
+    return total == 0 ? 0 : (double) hits.getCount() / total;
+  }
+
+  public long idleTimeMs() {
+    return idleTimeMs.getCount();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
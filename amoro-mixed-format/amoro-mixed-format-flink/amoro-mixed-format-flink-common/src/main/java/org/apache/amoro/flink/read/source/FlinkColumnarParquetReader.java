@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.read.source;
+
+import org.apache.amoro.data.DataTreeNode;
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.io.reader.BaseIcebergPosDeleteReader;
+import org.apache.amoro.io.reader.DataReaderCommon;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.table.PrimaryKeySpec;
+import org.apache.amoro.utils.NodeFilter;
+import org.apache.flink.formats.parquet.vector.ParquetColumnarRowSplitReader;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.columnar.vector.VectorizedColumnBatch;
+import org.apache.flink.table.data.utils.JoinedRowData;
+import org.apache.flink.table.data.utils.ProjectedRowData;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.deletes.Deletes;
+import org.apache.iceberg.deletes.PositionDeleteIndex;
+import org.apache.iceberg.encryption.PlaintextEncryptionManager;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
+import org.apache.iceberg.flink.RowDataWrapper;
+import org.apache.iceberg.flink.data.RowDataUtil;
+import org.apache.iceberg.hadoop.HadoopFileIO;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.parquet.ParquetSchemaUtil;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A columnar reader for base-store {@link FileScanTask}s of Parquet files. Parquet pages are
+ * decoded into Flink {@link VectorizedColumnBatch}es and rows are returned as views over the batch.
+ * Position deletes of the task are loaded into a {@link PositionDeleteIndex} and applied as a
+ * selection mask over the rows of each batch.
+ *
+ * <p>Columns are resolved by the field ids in the Parquet file, so renamed columns are read from
+ * their names in the file. Identity partition values and other constants of the task are filled
+ * from the task instead of the file, and optional columns missing in the file are read as null.
+ *
+ * <p>Tasks that can not be read in a columnar way, e.g. ORC files, tasks with equality deletes or
+ * position deletes on a partial file split, and files whose columns could not be resolved by field
+ * ids, are delegated to the row-based reader.
+ */
+public class FlinkColumnarParquetReader implements FileScanTaskReader<RowData> {
+  private static final long serialVersionUID = 1L;
+
+  private final AuthenticatedFileIO fileIO;
+  private final Schema readSchema;
+  private final PrimaryKeySpec primaryKeySpec;
+  private final Set<DataTreeNode> sourceNodes;
+  private final boolean caseSensitive;
+  private final int batchSize;
+  private final FileScanTaskReader<RowData> rowReader;
+
+  public FlinkColumnarParquetReader(
+      AuthenticatedFileIO fileIO,
+      Schema readSchema,
+      PrimaryKeySpec primaryKeySpec,
+      Set<DataTreeNode> sourceNodes,
+      boolean caseSensitive,
+      int batchSize,
+      FileScanTaskReader<RowData> rowReader) {
+    this.fileIO = fileIO;
+    this.readSchema = readSchema;
+    this.primaryKeySpec = primaryKeySpec;
+    this.sourceNodes = sourceNodes;
+    this.caseSensitive = caseSensitive;
+    this.batchSize = batchSize;
+    this.rowReader = rowReader;
+  }
+
+  /**
+   * Whether the schema could be read in a columnar way. Only flat schemas of primitive types which
+   * are decoded identically by the Flink Parquet vector readers are supported.
+   */
+  public static boolean supportsColumnarRead(Schema schema) {
+    for (Types.NestedField field : schema.columns()) {
+      if (MetadataColumns.isMetadataColumn(field.fieldId())) {
+        return false;
+      }
+      Type.TypeID typeId = field.type().typeId();
+      switch (typeId) {
+        case BOOLEAN:
+        case INTEGER:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case DATE:
+        case STRING:
+        case BINARY:
+        case DECIMAL:
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public CloseableIterator<RowData> open(FileScanTask task) {
+    if (!canReadColumnar(task)) {
+      return rowReader.open(task);
+    }
+    CloseableIterator<RowData> rows = fileIO.doAs(() -> openColumnar(task));
+    return rows != null ? rows : rowReader.open(task);
+  }
+
+  private boolean canReadColumnar(FileScanTask task) {
+    if (task.file().format() != FileFormat.PARQUET || !(fileIO instanceof HadoopFileIO)) {
+      return false;
+    }
+    for (DeleteFile delete : task.deletes()) {
+      if (delete.content() != FileContent.POSITION_DELETES) {
+        return false;
+      }
+    }
+    // the positions of rows are only known if the whole file is read
+    return task.deletes().isEmpty()
+        || (task.start() == 0 && task.length() >= task.file().fileSizeInBytes());
+  }
+
+  /** @return rows of the task, or null if the columns could not be resolved in the file. */
+  private CloseableIterator<RowData> openColumnar(FileScanTask task) throws IOException {
+    Path path = new Path(task.file().path().toString());
+    ColumnMapping mapping =
+        ColumnMapping.resolve(
+            readSchema,
+            readFileSchema(path),
+            DataReaderCommon.getIdToConstant(task, readSchema, RowDataUtil::convertConstant));
+    if (mapping == null) {
+      return null;
+    }
+    RowType rowType = FlinkSchemaUtil.convert(readSchema);
+    ParquetColumnarRowSplitReader reader =
+        new ParquetColumnarRowSplitReader(
+            false,
+            caseSensitive,
+            ((HadoopFileIO) fileIO).conf(),
+            mapping.fileColumnTypes(rowType),
+            mapping.fileColumnNames,
+            VectorizedColumnBatch::new,
+            batchSize,
+            path,
+            task.start(),
+            task.length());
+    PositionDeleteIndex deletes = task.deletes().isEmpty() ? null : loadPositionDeletes(task);
+    CloseableIterable<RowData> rows =
+        new CloseableIterable<RowData>() {
+          @Override
+          public CloseableIterator<RowData> iterator() {
+            return new ColumnarRowIterator(reader, deletes, mapping);
+          }
+
+          @Override
+          public void close() throws IOException {
+            reader.close();
+          }
+        };
+    if (sourceNodes != null) {
+      RowDataWrapper asStructLike = new RowDataWrapper(rowType, readSchema.asStruct());
+      rows =
+          new NodeFilter<RowData>(sourceNodes, readSchema, primaryKeySpec, asStructLike::wrap)
+              .filter(rows);
+    }
+    return rows.iterator();
+  }
+
+  private MessageType readFileSchema(Path path) throws IOException {
+    try (ParquetFileReader reader =
+        ParquetFileReader.open(HadoopInputFile.fromPath(path, ((HadoopFileIO) fileIO).conf()))) {
+      return reader.getFooter().getFileMetaData().getSchema();
+    }
+  }
+
+  private PositionDeleteIndex loadPositionDeletes(FileScanTask task) {
+    BaseIcebergPosDeleteReader deleteReader =
+        new BaseIcebergPosDeleteReader(
+            fileIO, new PlaintextEncryptionManager(), Lists.newArrayList(task.deletes()));
+    List<CloseableIterable<Record>> deletes = Collections.singletonList(deleteReader.readDeletes());
+    return Deletes.toPositionIndex(task.file().path(), deletes);
+  }
+
+  /**
+   * Iterates the rows of the columnar batches, rows deleted by position are skipped. The returned
+   * rows are reused views over the current batch and must be copied before the next call.
+   */
+  private static class ColumnarRowIterator implements CloseableIterator<RowData> {
+    private final ParquetColumnarRowSplitReader reader;
+    private final PositionDeleteIndex deletes;
+    private final GenericRowData constants;
+    private final ProjectedRowData projectedRow;
+    private final JoinedRowData joinedRow;
+    private long position = -1;
+    private RowData next;
+
+    private ColumnarRowIterator(
+        ParquetColumnarRowSplitReader reader, PositionDeleteIndex deletes, ColumnMapping mapping) {
+      this.reader = reader;
+      this.deletes = deletes;
+      this.constants = mapping.constants;
+      if (mapping.isIdentity()) {
+        this.projectedRow = null;
+        this.joinedRow = null;
+      } else {
+        this.joinedRow = new JoinedRowData();
+        this.projectedRow = ProjectedRowData.from(mapping.projection);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        while (next == null && !reader.reachedEnd()) {
+          RowData row = reader.nextRecord();
+          position++;
+          if (deletes == null || !deletes.isDeleted(position)) {
+            next =
+                projectedRow == null
+                    ? row
+                    : projectedRow.replaceRow(joinedRow.replace(row, constants));
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return next != null;
+    }
+
+    @Override
+    public RowData next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      RowData row = next;
+      next = null;
+      return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+
+  /**
+   * Mapping from the columns of the read schema to the columns read from the Parquet file and the
+   * constants of the task. Rows of the file are joined with the constants and projected to the read
+   * schema.
+   */
+  static class ColumnMapping {
+    private final String[] fileColumnNames;
+    private final int[] fileColumnIndexes;
+    private final GenericRowData constants;
+    private final int[] projection;
+
+    private ColumnMapping(
+        String[] fileColumnNames,
+        int[] fileColumnIndexes,
+        GenericRowData constants,
+        int[] projection) {
+      this.fileColumnNames = fileColumnNames;
+      this.fileColumnIndexes = fileColumnIndexes;
+      this.constants = constants;
+      this.projection = projection;
+    }
+
+    /**
+     * Resolve the columns of the read schema by the field ids of the file.
+     *
+     * @return the mapping, or null if the columns could not be resolved in a columnar way, e.g. the
+     *     file has no field ids and needs a name mapping, or the type of a column is promoted.
+     */
+    static ColumnMapping resolve(
+        Schema readSchema, MessageType fileType, Map<Integer, ?> idToConstant) {
+      if (!ParquetSchemaUtil.hasIds(fileType)) {
+        return null;
+      }
+      Types.StructType fileStruct;
+      try {
+        fileStruct = ParquetSchemaUtil.convert(fileType).asStruct();
+      } catch (RuntimeException e) {
+        return null;
+      }
+      List<Types.NestedField> columns = readSchema.columns();
+      List<String> fileColumnNames = Lists.newArrayList();
+      List<Integer> fileColumnIndexes = Lists.newArrayList();
+      List<Object> constants = Lists.newArrayList();
+      int[] constantIndexes = new int[columns.size()];
+      for (int i = 0; i < columns.size(); i++) {
+        Types.NestedField column = columns.get(i);
+        Types.NestedField fileColumn = fileStruct.field(column.fieldId());
+        if (idToConstant.containsKey(column.fieldId())) {
+          constantIndexes[i] = constants.size();
+          constants.add(idToConstant.get(column.fieldId()));
+        } else if (fileColumn != null) {
+          if (!fileColumn.type().equals(column.type())) {
+            return null;
+          }
+          constantIndexes[i] = -1;
+          fileColumnNames.add(fileColumn.name());
+          fileColumnIndexes.add(i);
+        } else if (column.isOptional()) {
+          constantIndexes[i] = constants.size();
+          constants.add(null);
+        } else {
+          return null;
+        }
+      }
+      if (fileColumnNames.isEmpty()) {
+        return null;
+      }
+      int[] projection = new int[columns.size()];
+      int fileColumnCount = fileColumnNames.size();
+      for (int i = 0, fileIndex = 0; i < columns.size(); i++) {
+        projection[i] = constantIndexes[i] < 0 ? fileIndex++ : fileColumnCount + constantIndexes[i];
+      }
+      return new ColumnMapping(
+          fileColumnNames.toArray(new String[0]),
+          fileColumnIndexes.stream().mapToInt(Integer::intValue).toArray(),
+          GenericRowData.of(constants.toArray()),
+          projection);
+    }
+
+    private LogicalType[] fileColumnTypes(RowType rowType) {
+      LogicalType[] types = new LogicalType[fileColumnIndexes.length];
+      for (int i = 0; i < fileColumnIndexes.length; i++) {
+        types[i] = rowType.getTypeAt(fileColumnIndexes[i]);
+      }
+      return types;
+    }
+
+    /** Whether rows of the file are rows of the read schema. */
+    boolean isIdentity() {
+      return constants.getArity() == 0;
+    }
+
+    String[] fileColumnNames() {
+      return fileColumnNames;
+    }
+
+    int[] projection() {
+      return projection;
+    }
+
+    GenericRowData constants() {
+      return constants;
+    }
+  }
+}
@@ -26,7 +26,7 @@ import org.apache.amoro.flink.read.source.log.LogSourceHelper;
 import org.apache.amoro.flink.shuffle.LogRecordV1;
 import org.apache.amoro.flink.table.descriptors.MixedFormatValidator;
 import org.apache.amoro.log.LogData;
-import org.apache.amoro.log.LogDataJsonDeserialization;
+import org.apache.amoro.log.LogDataDeserialization;
 import org.apache.flink.api.connector.source.SourceReaderContext;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
 import org.apache.flink.connector.kafka.source.metrics.KafkaSourceReaderMetrics;
@@ -92,7 +92,7 @@ public class LogKafkaPartitionSplitReader extends KafkaPartitionSplitReader {
 
   private static final Logger LOG = LoggerFactory.getLogger(LogKafkaPartitionSplitReader.class);
 
-  private final LogDataJsonDeserialization<RowData> logDataJsonDeserialization;
+  private final LogDataDeserialization<RowData> logDataDeserialization;
   private final LogSourceHelper logReadHelper;
   private final boolean logRetractionEnable;
   private final boolean logConsumerAppendOnly;
@@ -107,8 +107,8 @@ public class LogKafkaPartitionSplitReader extends KafkaPartitionSplitReader {
       String logConsumerChangelogMode) {
     super(props, context, kafkaSourceReaderMetrics);
 
-    this.logDataJsonDeserialization =
-        new LogDataJsonDeserialization<>(
+    this.logDataDeserialization =
+        new LogDataDeserialization<>(
             schema, LogRecordV1.factory, LogRecordV1.arrayFactory, LogRecordV1.mapFactory);
     this.logRetractionEnable = logRetractionEnable;
     this.logReadHelper = logReadHelper;
@@ -205,7 +205,7 @@ public class LogKafkaPartitionSplitReader extends KafkaPartitionSplitReader {
               "Can't deserialize mixed-format log queue message due to it does not contain magic number.");
         }
 
-        LogData<RowData> logData = logDataJsonDeserialization.deserialize(value);
+        LogData<RowData> logData = logDataDeserialization.deserialize(value);
         if (!logData.getFlip() && filterByRowKind(logData.getActualValue())) {
           LOG.info(
               "filter the rowData, because of logConsumerAppendOnly is true, and rowData={}.",
@@ -284,7 +284,7 @@ public class LogKafkaPartitionSplitReader extends KafkaPartitionSplitReader {
           finishRetract.add(tp);
           break;
         }
-        LogData<RowData> logData = logDataJsonDeserialization.deserialize(r.value());
+        LogData<RowData> logData = logDataDeserialization.deserialize(r.value());
 
         if (!Objects.equals(logData.getUpstreamId(), retractingInfo.getUpstreamId())
             || logData.getEpicNo() <= retractingInfo.getEpicNo()) {
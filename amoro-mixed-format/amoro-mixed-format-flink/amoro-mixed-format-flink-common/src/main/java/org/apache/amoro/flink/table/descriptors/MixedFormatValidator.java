@@ -116,6 +116,35 @@ public class MixedFormatValidator extends ConnectorDescriptorValidator {
           .defaultValue(2048)
           .withDescription("The target number of records for Iceberg reader fetch batch.");
 
+  public static final ConfigOption<Boolean> SOURCE_READER_COLUMNAR_ENABLED =
+      ConfigOptions.key("source.columnar-read.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to decode the Parquet files of base-store snapshot splits into columnar batches."
+                  + " Splits with equality deletes, ORC files and non-primitive columns are still read"
+                  + " row by row. The flink-parquet format must be on the classpath.");
+
+  public static final ConfigOption<Integer> SOURCE_READER_COLUMNAR_BATCH_SIZE =
+      ConfigOptions.key("source.columnar-read.batch-size")
+          .intType()
+          .defaultValue(2048)
+          .withDescription("The number of rows of a columnar batch decoded from Parquet files.");
+
+  public static final ConfigOption<Integer> SOURCE_READER_FILE_PREFETCH_COUNT =
+      ConfigOptions.key("source.file-prefetch.count")
+          .intType()
+          .defaultValue(0)
+          .withDescription(
+              "The number of upcoming files of a split that are opened in background while the"
+                  + " current file is read. 0 means files are opened one by one when needed.");
+
+  public static final ConfigOption<Integer> SOURCE_READER_FILE_PREFETCH_THREADS =
+      ConfigOptions.key("source.file-prefetch.threads")
+          .intType()
+          .defaultValue(2)
+          .withDescription("The number of I/O threads of each source reader to prefetch files.");
+
   public static final ConfigOption<String> SCAN_STARTUP_MODE =
       ConfigOptions.key("scan.startup.mode")
           .stringType()
@@ -157,6 +186,16 @@ public class MixedFormatValidator extends ConnectorDescriptorValidator {
                   + " means this job will submit empty snapshots to the table, it is suitable with some valid reasons, e.g."
                   + " advance watermark metadata stored in the table(https://github.com/apache/iceberg/pull/5561).");
 
+  public static final ConfigOption<Integer> SINK_COMMITTER_AGGREGATOR_PARALLELISM =
+      ConfigOptions.key("sink.committer.aggregator.parallelism")
+          .intType()
+          .defaultValue(0)
+          .withDescription(
+              "The parallelism of the operators pre-aggregating the write results per partition group"
+                  + " before the files committer. The committer then only receives one merged write"
+                  + " result per aggregator and checkpoint. 0 means the write results are sent to the"
+                  + " committer directly.");
+
   public static final ConfigOption<String> MIXED_FORMAT_CATALOG =
       ConfigOptions.key("mixed-format.catalog")
           .stringType()
@@ -23,6 +23,7 @@ import org.apache.amoro.flink.table.MixedFormatTableLoader;
 import org.apache.amoro.flink.table.descriptors.MixedFormatValidator;
 import org.apache.amoro.flink.write.hidden.HiddenLogWriter;
 import org.apache.amoro.flink.write.hidden.LogMsgFactory;
+import org.apache.amoro.log.FormatVersion;
 import org.apache.amoro.log.LogData;
 import org.apache.flink.runtime.state.StateInitializationContext;
 import org.apache.flink.runtime.state.StateSnapshotContext;
@@ -56,9 +57,33 @@ public class AutomaticLogWriter extends MixedFormatLogWriter {
       ShuffleHelper helper,
       MixedFormatTableLoader tableLoader,
       Duration writeLogstoreWatermarkGap) {
+    this(
+        schema,
+        producerConfig,
+        topic,
+        factory,
+        fieldGetterFactory,
+        jobId,
+        helper,
+        tableLoader,
+        writeLogstoreWatermarkGap,
+        FormatVersion.FORMAT_VERSION_V1);
+  }
+
+  public AutomaticLogWriter(
+      Schema schema,
+      Properties producerConfig,
+      String topic,
+      LogMsgFactory<RowData> factory,
+      LogData.FieldGetterFactory<RowData> fieldGetterFactory,
+      byte[] jobId,
+      ShuffleHelper helper,
+      MixedFormatTableLoader tableLoader,
+      Duration writeLogstoreWatermarkGap,
+      FormatVersion logVersion) {
     this.mixedFormatLogWriter =
         new HiddenLogWriter(
-            schema, producerConfig, topic, factory, fieldGetterFactory, jobId, helper);
+            schema, producerConfig, topic, factory, fieldGetterFactory, jobId, helper, logVersion);
     this.status = new AutomaticDoubleWriteStatus(tableLoader, writeLogstoreWatermarkGap);
   }
 
@@ -26,6 +26,7 @@ import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.MIXE
 import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.MIXED_FORMAT_THROUGHPUT_METRIC_ENABLE_DEFAULT;
 import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.MIXED_FORMAT_WRITE_MAX_OPEN_FILE_SIZE;
 import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.MIXED_FORMAT_WRITE_MAX_OPEN_FILE_SIZE_DEFAULT;
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SINK_COMMITTER_AGGREGATOR_PARALLELISM;
 import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SUBMIT_EMPTY_SNAPSHOTS;
 import static org.apache.amoro.table.TableProperties.WRITE_DISTRIBUTION_HASH_MODE;
 import static org.apache.amoro.table.TableProperties.WRITE_DISTRIBUTION_HASH_MODE_DEFAULT;
@@ -85,6 +86,8 @@ public class FlinkSink {
   private static final Logger LOG = LoggerFactory.getLogger(FlinkSink.class);
 
   public static final String FILES_COMMITTER_NAME = "FilesCommitter";
+  public static final String WRITE_RESULT_SPLITTER_NAME = "WriteResultSplitter";
+  public static final String WRITE_RESULT_AGGREGATOR_NAME = "WriteResultAggregator";
 
   public static Builder forRowData(DataStream<RowData> input) {
     return new Builder().forRowData(input);
@@ -155,6 +158,7 @@ public class FlinkSink {
         MixedFormatFileWriter fileWriter,
         OneInputStreamOperator<WriteResult, Void> committer,
         int writeOperatorParallelism,
+        int aggregatorParallelism,
         MetricsGenerator metricsGenerator,
         String emitMode) {
       SingleOutputStreamOperator writerStream =
@@ -166,6 +170,27 @@ public class FlinkSink {
               .name(String.format("MixedFormatWriter %s(%s)", table.name(), emitMode))
               .setParallelism(writeOperatorParallelism);
 
+      if (committer != null && aggregatorParallelism > 0) {
+        // pre-aggregate write results per partition group in parallel, so that the single
+        // committer does not receive a write result from every writer
+        int partitionGroups = Math.min(aggregatorParallelism, writeOperatorParallelism);
+        writerStream =
+            writerStream
+                .flatMap(new WriteResultSplitter(partitionGroups))
+                .returns(TypeExtractor.createTypeInfo(WriteResult.class))
+                .name(WRITE_RESULT_SPLITTER_NAME)
+                .setParallelism(writeOperatorParallelism)
+                .partitionCustom(
+                    new WriteResultSplitter.PartitionGroupPartitioner(),
+                    new WriteResultSplitter.PartitionGroupSelector(partitionGroups))
+                .transform(
+                    WRITE_RESULT_AGGREGATOR_NAME,
+                    TypeExtractor.createTypeInfo(WriteResult.class),
+                    new WriteResultAggregator())
+                .setParallelism(partitionGroups)
+                .setMaxParallelism(partitionGroups);
+      }
+
       if (committer != null) {
         writerStream =
             writerStream
@@ -199,6 +224,12 @@ public class FlinkSink {
               SINK_PARALLELISM.key(),
               rowDataInput.getExecutionEnvironment().getParallelism());
 
+      int aggregatorParallelism =
+          PropertyUtil.propertyAsInt(
+              table.properties(),
+              SINK_COMMITTER_AGGREGATOR_PARALLELISM.key(),
+              SINK_COMMITTER_AGGREGATOR_PARALLELISM.defaultValue());
+
       DistributionHashMode distributionMode = getDistributionHashMode();
       LOG.info("take effect distribute mode: {}", distributionMode);
       ShuffleHelper helper = ShuffleHelper.build(table, writeSchema, flinkSchemaRowType);
@@ -260,6 +291,7 @@ public class FlinkSink {
           fileWriter,
           createFileCommitter(table, tableLoader, overwrite, branch, table.spec(), emitMode),
           writeOperatorParallelism,
+          aggregatorParallelism,
           metricsGenerator,
           emitMode);
     }
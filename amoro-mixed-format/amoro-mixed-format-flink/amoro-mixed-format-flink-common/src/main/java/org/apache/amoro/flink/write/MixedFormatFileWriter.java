@@ -173,17 +173,13 @@ public class MixedFormatFileWriter extends AbstractStreamOperator<WriteResult>
 
   @Override
   public void processElement(StreamRecord<RowData> element) throws Exception {
-    RowData row = element.getValue();
-    table
-        .io()
-        .doAs(
-            () -> {
-              if (writer == null) {
-                this.writer = taskWriterFactory.create();
-              }
-              writer.write(row);
-              return null;
-            });
+    if (writer == null) {
+      this.writer = table.io().doAs(taskWriterFactory::create);
+    }
+    // Records are not wrapped in doAs one by one. The task writer authenticates itself when it
+    // rolls a new file and when it closes files, which keeps the ugi context per file instead of
+    // per record.
+    writer.write(element.getValue());
   }
 
   @Override
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.write;
+
+import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.iceberg.io.WriteResult;
+
+/**
+ * Pre-aggregates the {@link WriteResult}s of one partition group before they reach the files
+ * committer. The aggregators run in parallel between the writers and the single committer, every
+ * aggregator merges all results it received within a checkpoint and emits one {@link WriteResult}
+ * before the checkpoint barrier, so the committer only appends the pre-merged results instead of
+ * receiving one result from every writer.
+ */
+public class WriteResultAggregator extends AbstractStreamOperator<WriteResult>
+    implements OneInputStreamOperator<WriteResult, WriteResult>, BoundedOneInput {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient WriteResult.Builder builder;
+  private transient int bufferedResults;
+
+  @Override
+  public void open() throws Exception {
+    super.open();
+    this.builder = WriteResult.builder();
+    this.bufferedResults = 0;
+  }
+
+  @Override
+  public void processElement(StreamRecord<WriteResult> element) {
+    builder.add(element.getValue());
+    bufferedResults++;
+  }
+
+  @Override
+  public void prepareSnapshotPreBarrier(long checkpointId) {
+    emitAggregatedResult();
+  }
+
+  @Override
+  public void endInput() {
+    emitAggregatedResult();
+  }
+
+  private void emitAggregatedResult() {
+    if (bufferedResults > 0) {
+      output.collect(new StreamRecord<>(builder.build()));
+      LOG.debug("Emit a write result aggregated from {} write results", bufferedResults);
+    }
+    this.builder = WriteResult.builder();
+    this.bufferedResults = 0;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.write;
+
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.util.Collector;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.io.WriteResult;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Splits the {@link WriteResult} of a writer into one {@link WriteResult} per partition group, so
+ * that the files of the same partition are always aggregated by the same {@link
+ * WriteResultAggregator}.
+ */
+public class WriteResultSplitter implements FlatMapFunction<WriteResult, WriteResult> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int partitionGroups;
+
+  public WriteResultSplitter(int partitionGroups) {
+    Preconditions.checkArgument(
+        partitionGroups > 0, "The number of partition groups must be positive");
+    this.partitionGroups = partitionGroups;
+  }
+
+  @Override
+  public void flatMap(WriteResult writeResult, Collector<WriteResult> out) {
+    Map<Integer, WriteResult.Builder> builders = Maps.newHashMap();
+    for (DataFile dataFile : writeResult.dataFiles()) {
+      builders
+          .computeIfAbsent(partitionGroup(dataFile, partitionGroups), g -> WriteResult.builder())
+          .addDataFiles(dataFile);
+    }
+    for (DeleteFile deleteFile : writeResult.deleteFiles()) {
+      builders
+          .computeIfAbsent(partitionGroup(deleteFile, partitionGroups), g -> WriteResult.builder())
+          .addDeleteFiles(deleteFile);
+    }
+    for (CharSequence referencedDataFile : writeResult.referencedDataFiles()) {
+      builders
+          .computeIfAbsent(
+              partitionGroup(referencedDataFile, partitionGroups), g -> WriteResult.builder())
+          .addReferencedDataFiles(referencedDataFile);
+    }
+    if (builders.isEmpty()) {
+      // keep the empty result, it may be used to submit an empty snapshot
+      out.collect(writeResult);
+      return;
+    }
+    builders.values().forEach(builder -> out.collect(builder.build()));
+  }
+
+  /**
+   * Returns the partition group of a split {@link WriteResult}, all files of it belong to the same
+   * group.
+   */
+  static int partitionGroup(WriteResult writeResult, int partitionGroups) {
+    if (writeResult.dataFiles().length > 0) {
+      return partitionGroup(writeResult.dataFiles()[0], partitionGroups);
+    } else if (writeResult.deleteFiles().length > 0) {
+      return partitionGroup(writeResult.deleteFiles()[0], partitionGroups);
+    } else if (writeResult.referencedDataFiles().length > 0) {
+      return partitionGroup(writeResult.referencedDataFiles()[0], partitionGroups);
+    }
+    return 0;
+  }
+
+  static int partitionGroup(ContentFile<?> file, int partitionGroups) {
+    StructLike partition = file.partition();
+    int hash = 0;
+    if (partition != null) {
+      for (int i = 0; i < partition.size(); i++) {
+        hash = 31 * hash + Objects.hashCode(partition.get(i, Object.class));
+      }
+    }
+    return Math.floorMod(hash, partitionGroups);
+  }
+
+  static int partitionGroup(CharSequence referencedDataFile, int partitionGroups) {
+    return Math.floorMod(referencedDataFile.toString().hashCode(), partitionGroups);
+  }
+
+  /** Selects the partition group of a split {@link WriteResult} as its key. */
+  public static class PartitionGroupSelector implements KeySelector<WriteResult, Integer> {
+    private static final long serialVersionUID = 1L;
+
+    private final int partitionGroups;
+
+    public PartitionGroupSelector(int partitionGroups) {
+      this.partitionGroups = partitionGroups;
+    }
+
+    @Override
+    public Integer getKey(WriteResult writeResult) {
+      return partitionGroup(writeResult, partitionGroups);
+    }
+  }
+
+  /** Sends each partition group to the aggregator with the same index. */
+  public static class PartitionGroupPartitioner implements Partitioner<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int partition(Integer partitionGroup, int numPartitions) {
+      return partitionGroup % numPartitions;
+    }
+  }
+}
@@ -26,7 +26,7 @@ import org.apache.amoro.flink.shuffle.ShuffleHelper;
 import org.apache.amoro.flink.write.MixedFormatLogWriter;
 import org.apache.amoro.log.FormatVersion;
 import org.apache.amoro.log.LogData;
-import org.apache.amoro.log.LogDataJsonSerialization;
+import org.apache.amoro.log.LogDataSerialization;
 import org.apache.flink.api.common.state.ListState;
 import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
@@ -72,9 +72,9 @@ public abstract class AbstractHiddenLogWriter extends MixedFormatLogWriter {
 
   private GlobalFlipCommitter flipCommitter;
   private final LogData.FieldGetterFactory<RowData> fieldGetterFactory;
-  protected transient LogDataJsonSerialization<RowData> logDataJsonSerialization;
+  protected transient LogDataSerialization<RowData> logDataSerialization;
 
-  protected FormatVersion logVersion = FormatVersion.FORMAT_VERSION_V1;
+  protected final FormatVersion logVersion;
   protected byte[] jobIdentify;
   // start from 1L, epicNo is similar to checkpoint id.
   protected long epicNo = 1L;
@@ -89,7 +89,28 @@ public abstract class AbstractHiddenLogWriter extends MixedFormatLogWriter {
       LogData.FieldGetterFactory<RowData> fieldGetterFactory,
       byte[] jobId,
       ShuffleHelper helper) {
+    this(
+        schema,
+        producerConfig,
+        topic,
+        factory,
+        fieldGetterFactory,
+        jobId,
+        helper,
+        FormatVersion.FORMAT_VERSION_V1);
+  }
+
+  public AbstractHiddenLogWriter(
+      Schema schema,
+      Properties producerConfig,
+      String topic,
+      LogMsgFactory<RowData> factory,
+      LogData.FieldGetterFactory<RowData> fieldGetterFactory,
+      byte[] jobId,
+      ShuffleHelper helper,
+      FormatVersion logVersion) {
     this.schema = schema;
+    this.logVersion = checkNotNull(logVersion);
     this.producerConfig = checkNotNull(producerConfig);
     this.topic = checkNotNull(topic);
     this.factory = factory;
@@ -153,10 +174,10 @@ public abstract class AbstractHiddenLogWriter extends MixedFormatLogWriter {
       hiddenLogJobIdentifyState.add(new String(jobIdentify, StandardCharsets.UTF_8));
     }
 
-    logDataJsonSerialization =
-        new LogDataJsonSerialization<>(checkNotNull(schema), checkNotNull(fieldGetterFactory));
+    logDataSerialization =
+        new LogDataSerialization<>(checkNotNull(schema), checkNotNull(fieldGetterFactory));
 
-    producer = factory.createProducer(producerConfig, topic, logDataJsonSerialization, helper);
+    producer = factory.createProducer(producerConfig, topic, logDataSerialization, helper);
 
     parallelismState.clear();
     parallelismState.add(parallelism);
@@ -22,7 +22,7 @@ import static org.apache.amoro.shade.guava32.com.google.common.base.Precondition
 
 import org.apache.amoro.flink.shuffle.ShuffleHelper;
 import org.apache.amoro.log.LogData;
-import org.apache.amoro.log.LogDataJsonSerialization;
+import org.apache.amoro.log.LogDataSerialization;
 import org.apache.flink.api.common.functions.AggregateFunction;
 import org.apache.flink.runtime.taskexecutor.GlobalAggregateManager;
 import org.apache.flink.table.data.RowData;
@@ -73,7 +73,7 @@ public class GlobalFlipCommitter {
       implements AggregateFunction<CommitRequest, LogGlobalState, Long> {
     private static final long serialVersionUID = 6399278898504357412L;
     private final int numberOfTasks;
-    private final LogDataJsonSerialization<RowData> logDataJsonSerialization;
+    private final LogDataSerialization<RowData> logDataSerialization;
     private final LogMsgFactory<RowData> factory;
     private final Properties producerConfig;
     private final String topic;
@@ -90,8 +90,8 @@ public class GlobalFlipCommitter {
         ShuffleHelper helper) {
       this.numberOfTasks = numberOfTasks;
       this.factory = checkNotNull(factory);
-      this.logDataJsonSerialization =
-          new LogDataJsonSerialization<>(checkNotNull(schema), checkNotNull(fieldGetterFactory));
+      this.logDataSerialization =
+          new LogDataSerialization<>(checkNotNull(schema), checkNotNull(fieldGetterFactory));
       this.producerConfig = producerConfig;
       this.topic = topic;
       this.helper = helper;
@@ -145,7 +145,7 @@ public class GlobalFlipCommitter {
 
     private void sendFlip(SubAccumulator subAccumulator, CommitRequest value) throws Exception {
       if (null == producer) {
-        producer = factory.createProducer(producerConfig, topic, logDataJsonSerialization, helper);
+        producer = factory.createProducer(producerConfig, topic, logDataSerialization, helper);
         producer.open();
       }
 
@@ -22,6 +22,7 @@ import static org.apache.amoro.flink.shuffle.RowKindUtil.transformFromFlinkRowKi
 
 import org.apache.amoro.flink.shuffle.LogRecordV1;
 import org.apache.amoro.flink.shuffle.ShuffleHelper;
+import org.apache.amoro.log.FormatVersion;
 import org.apache.amoro.log.LogData;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.table.data.RowData;
@@ -44,6 +45,18 @@ public class HiddenLogWriter extends AbstractHiddenLogWriter {
     super(schema, producerConfig, topic, factory, fieldGetterFactory, jobId, helper);
   }
 
+  public HiddenLogWriter(
+      Schema schema,
+      Properties producerConfig,
+      String topic,
+      LogMsgFactory<RowData> factory,
+      LogData.FieldGetterFactory<RowData> fieldGetterFactory,
+      byte[] jobId,
+      ShuffleHelper helper,
+      FormatVersion logVersion) {
+    super(schema, producerConfig, topic, factory, fieldGetterFactory, jobId, helper, logVersion);
+  }
+
   @Override
   public void endInput() throws Exception {
     producer.flush();
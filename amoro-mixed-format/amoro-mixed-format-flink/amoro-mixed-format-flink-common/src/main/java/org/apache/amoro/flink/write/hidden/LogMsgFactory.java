@@ -20,7 +20,7 @@ package org.apache.amoro.flink.write.hidden;
 
 import org.apache.amoro.flink.shuffle.ShuffleHelper;
 import org.apache.amoro.log.LogData;
-import org.apache.amoro.log.LogDataJsonSerialization;
+import org.apache.amoro.log.LogDataSerialization;
 import org.apache.flink.configuration.Configuration;
 
 import java.io.Serializable;
@@ -35,7 +35,7 @@ public interface LogMsgFactory<T> extends Serializable {
   Producer<T> createProducer(
       Properties producerConfig,
       String topic,
-      LogDataJsonSerialization<T> logDataJsonSerialization,
+      LogDataSerialization<T> logDataSerialization,
       ShuffleHelper helper);
 
   Consumer<T> createConsumer();
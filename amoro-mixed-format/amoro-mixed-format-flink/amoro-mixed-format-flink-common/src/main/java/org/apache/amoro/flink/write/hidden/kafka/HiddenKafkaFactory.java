@@ -23,7 +23,7 @@ import static org.apache.amoro.shade.guava32.com.google.common.base.Precondition
 import org.apache.amoro.flink.shuffle.ShuffleHelper;
 import org.apache.amoro.flink.write.hidden.LogMsgFactory;
 import org.apache.amoro.flink.write.hidden.MixedFormatLogPartitioner;
-import org.apache.amoro.log.LogDataJsonSerialization;
+import org.apache.amoro.log.LogDataSerialization;
 
 import java.util.Properties;
 
@@ -35,11 +35,11 @@ public class HiddenKafkaFactory<T> implements LogMsgFactory<T> {
   public Producer<T> createProducer(
       Properties producerConfig,
       String topic,
-      LogDataJsonSerialization<T> logDataJsonSerialization,
+      LogDataSerialization<T> logDataSerialization,
       ShuffleHelper helper) {
     checkNotNull(topic);
     return new HiddenKafkaProducer<>(
-        producerConfig, topic, logDataJsonSerialization, new MixedFormatLogPartitioner<>(helper));
+        producerConfig, topic, logDataSerialization, new MixedFormatLogPartitioner<>(helper));
   }
 
   @Override
@@ -18,6 +18,8 @@
 
 package org.apache.amoro.flink.read.hybrid.reader;
 
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.SOURCE_READER_COLUMNAR_ENABLED;
+
 import org.apache.amoro.BasicTableTestHelper;
 import org.apache.amoro.TableFormat;
 import org.apache.amoro.catalog.BasicCatalogTestHelper;
@@ -27,19 +29,28 @@ import org.apache.amoro.flink.read.hybrid.enumerator.TestContinuousSplitPlannerI
 import org.apache.amoro.flink.read.hybrid.split.ChangelogSplit;
 import org.apache.amoro.flink.read.hybrid.split.MixedFormatSplit;
 import org.apache.amoro.flink.read.source.DataIterator;
+import org.apache.amoro.flink.read.source.FilePrefetcher;
+import org.apache.amoro.flink.read.source.FileScanTaskReader;
+import org.apache.amoro.flink.read.source.FlinkUnkyedDataReader;
 import org.apache.amoro.scan.ChangeTableIncrementalScan;
 import org.apache.amoro.scan.MixedFileScanTask;
 import org.apache.amoro.table.KeyedTable;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.shaded.guava30.com.google.common.collect.Maps;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.types.RowKind;
 import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.Schema;
 import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
+import org.apache.iceberg.flink.data.RowDataUtil;
 import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.io.TaskWriter;
 import org.junit.Assert;
 import org.junit.Test;
@@ -178,6 +189,169 @@ public class TestRowDataReaderFunction extends TestContinuousSplitPlannerImpl {
     assertArrayEquals(array, actual);
   }
 
+  @Test
+  public void testReadSnapshotColumnar() {
+    List<RowData> actual =
+        assertColumnarRead(testKeyedTable, testKeyedTable.schema().select("id", "name", "ts"));
+    Assert.assertFalse(actual.isEmpty());
+  }
+
+  @Test
+  public void testReadSnapshotColumnarAfterRename() {
+    testKeyedTable.updateSchema().renameColumn("name", "user_name").commit();
+    testKeyedTable.refresh();
+    List<RowData> actual =
+        assertColumnarRead(testKeyedTable, testKeyedTable.schema().select("id", "user_name", "ts"));
+    Assert.assertFalse(actual.isEmpty());
+    // renamed columns are resolved by field ids in the files written before the rename
+    actual.forEach(rowData -> Assert.assertFalse(rowData.isNullAt(1)));
+  }
+
+  /** Read snapshot splits by the row reader and the columnar reader, and assert they are equal. */
+  private static List<RowData> assertColumnarRead(KeyedTable table, Schema projectedSchema) {
+    RowDataReaderFunction rowReaderFunction =
+        new RowDataReaderFunction(
+            new Configuration(),
+            table.schema(),
+            projectedSchema,
+            table.primaryKeySpec(),
+            null,
+            true,
+            table.io());
+    Configuration columnarConfig = new Configuration();
+    columnarConfig.set(SOURCE_READER_COLUMNAR_ENABLED, true);
+    RowDataReaderFunction columnarReaderFunction =
+        new RowDataReaderFunction(
+            columnarConfig,
+            table.schema(),
+            projectedSchema,
+            table.primaryKeySpec(),
+            null,
+            true,
+            table.io());
+
+    RowType rowType = FlinkSchemaUtil.convert(projectedSchema);
+    List<RowData> expected = new ArrayList<>();
+    List<RowData> actual = new ArrayList<>();
+    FlinkSplitPlanner.planFullTable(table, new AtomicInteger(0)).stream()
+        .filter(MixedFormatSplit::isSnapshotSplit)
+        .forEach(
+            split -> {
+              readCopies(rowReaderFunction.createDataIterator(split), rowType, expected);
+              readCopies(columnarReaderFunction.createDataIterator(split), rowType, actual);
+            });
+    Assert.assertArrayEquals(
+        expected.stream().sorted(Comparator.comparing(RowData::toString)).toArray(),
+        actual.stream().sorted(Comparator.comparing(RowData::toString)).toArray());
+    return actual;
+  }
+
+  @Test
+  public void testReadWithFilePrefetch() throws IOException {
+    List<MixedFormatSplit> mixedFormatSplits =
+        FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger(0));
+
+    RowDataReaderFunction rowDataReaderFunction =
+        new RowDataReaderFunction(
+            new Configuration(),
+            testKeyedTable.schema(),
+            testKeyedTable.schema(),
+            testKeyedTable.primaryKeySpec(),
+            null,
+            true,
+            testKeyedTable.io());
+
+    List<RowData> actual = new ArrayList<>();
+    try (FilePrefetcher prefetcher = new FilePrefetcher(2, 2, null)) {
+      for (MixedFormatSplit split : mixedFormatSplits) {
+        try (DataIterator<RowData> dataIterator = rowDataReaderFunction.createDataIterator(split)) {
+          dataIterator.prefetchWith(prefetcher);
+          while (dataIterator.hasNext()) {
+            actual.add(dataIterator.next());
+          }
+        }
+      }
+      Assert.assertTrue(prefetcher.hits() + prefetcher.misses() > 0);
+    }
+
+    assertArrayEquals(excepts(), actual);
+  }
+
+  @Test
+  public void testFilePrefetchHits() throws Exception {
+    List<MixedFileScanTask> baseTasks =
+        FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger(0)).stream()
+            .filter(MixedFormatSplit::isSnapshotSplit)
+            .flatMap(split -> split.asSnapshotSplit().insertTasks().stream())
+            .collect(Collectors.toList());
+    Assert.assertTrue("Prefetching requires more than one file", baseTasks.size() > 1);
+
+    FlinkUnkyedDataReader rowDataReader =
+        new FlinkUnkyedDataReader(
+            testKeyedTable.io(),
+            testKeyedTable.schema(),
+            testKeyedTable.schema(),
+            testKeyedTable.primaryKeySpec(),
+            null,
+            true,
+            RowDataUtil::convertConstant,
+            baseTasks.stream().map(task -> task.file().node()).collect(Collectors.toSet()),
+            false);
+    AtomicInteger openedFiles = new AtomicInteger();
+    FileScanTaskReader<RowData> countingReader =
+        task -> {
+          CloseableIterator<RowData> iterator = rowDataReader.open(task);
+          openedFiles.incrementAndGet();
+          return iterator;
+        };
+
+    int prefetchCount = 2;
+    long rowCount = 0;
+    try (FilePrefetcher prefetcher = new FilePrefetcher(prefetchCount, 2, null);
+        DataIterator<RowData> dataIterator =
+            new DataIterator<>(countingReader, baseTasks, row -> Long.MIN_VALUE, row -> row)) {
+      dataIterator.prefetchWith(prefetcher);
+      while (dataIterator.hasNext()) {
+        dataIterator.next();
+        rowCount++;
+        if (!dataIterator.currentFileHasNext()) {
+          // a slow consumer, the following files are opened before they are required
+          int submitted = Math.min(dataIterator.fileOffset() + 1 + prefetchCount, baseTasks.size());
+          while (openedFiles.get() < submitted) {
+            Thread.sleep(10);
+          }
+          Thread.sleep(10);
+        }
+      }
+
+      Assert.assertEquals(baseTasks.size(), prefetcher.hits() + prefetcher.misses());
+      // only the first file is required right after it has been submitted
+      Assert.assertTrue(prefetcher.hits() >= baseTasks.size() - 1);
+      Assert.assertTrue(prefetcher.hitRatio() > 0);
+    }
+    Assert.assertEquals(
+        baseTasks.stream().mapToLong(task -> task.file().recordCount()).sum(), rowCount);
+  }
+
+  private static void readCopies(
+      DataIterator<RowData> dataIterator, RowType rowType, List<RowData> copies) {
+    // rows of the columnar reader are reused views over a column batch, copy them deeply
+    RowData.FieldGetter[] getters = new RowData.FieldGetter[rowType.getFieldCount()];
+    TypeSerializer[] serializers = RowDataRecordFactory.createFieldSerializers(rowType);
+    for (int i = 0; i < getters.length; i++) {
+      getters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+    }
+    while (dataIterator.hasNext()) {
+      RowData rowData = dataIterator.next();
+      GenericRowData copy = new GenericRowData(rowData.getRowKind(), getters.length);
+      for (int i = 0; i < getters.length; i++) {
+        Object field = getters[i].getFieldOrNull(rowData);
+        copy.setField(i, field == null ? null : serializers[i].copy(field));
+      }
+      copies.add(copy);
+    }
+  }
+
   protected void assertArrayEquals(RowData[] excepts, List<RowData> actual) {
     Assert.assertArrayEquals(excepts, sortRowDataCollection(actual));
   }
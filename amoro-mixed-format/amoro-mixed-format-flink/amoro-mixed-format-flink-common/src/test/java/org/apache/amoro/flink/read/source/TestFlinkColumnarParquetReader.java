@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.read.source;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.flink.table.data.StringData;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.parquet.ParquetSchemaUtil;
+import org.apache.iceberg.types.Types;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestFlinkColumnarParquetReader {
+
+  private static final Schema READ_SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.IntegerType.get()),
+          Types.NestedField.optional(2, "name", Types.StringType.get()),
+          Types.NestedField.optional(3, "part", Types.StringType.get()),
+          Types.NestedField.optional(4, "added", Types.LongType.get()));
+
+  @Test
+  public void testResolveColumnsById() {
+    MessageType fileType =
+        ParquetSchemaUtil.convert(
+            new Schema(
+                Types.NestedField.required(1, "id", Types.IntegerType.get()),
+                Types.NestedField.optional(3, "part", Types.StringType.get()),
+                Types.NestedField.optional(2, "old_name", Types.StringType.get())),
+            "table");
+    FlinkColumnarParquetReader.ColumnMapping mapping =
+        FlinkColumnarParquetReader.ColumnMapping.resolve(
+            READ_SCHEMA, fileType, ImmutableMap.of(3, StringData.fromString("p")));
+
+    Assert.assertNotNull(mapping);
+    Assert.assertFalse(mapping.isIdentity());
+    // the renamed column is read by its name in the file
+    Assert.assertArrayEquals(new String[] {"id", "old_name"}, mapping.fileColumnNames());
+    // the identity partition column and the added column are constants after the file columns
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 3}, mapping.projection());
+    Assert.assertEquals(StringData.fromString("p"), mapping.constants().getString(0));
+    Assert.assertTrue(mapping.constants().isNullAt(1));
+  }
+
+  @Test
+  public void testResolveIdentityColumns() {
+    MessageType fileType = ParquetSchemaUtil.convert(READ_SCHEMA, "table");
+    FlinkColumnarParquetReader.ColumnMapping mapping =
+        FlinkColumnarParquetReader.ColumnMapping.resolve(READ_SCHEMA, fileType, ImmutableMap.of());
+
+    Assert.assertNotNull(mapping);
+    Assert.assertTrue(mapping.isIdentity());
+    Assert.assertArrayEquals(
+        new String[] {"id", "name", "part", "added"}, mapping.fileColumnNames());
+  }
+
+  @Test
+  public void testFallbackToRowReader() {
+    // files without field ids need the name mapping of the table
+    MessageType withoutIds =
+        MessageTypeParser.parseMessageType(
+            "message table { required int32 id; optional binary name (UTF8); }");
+    Assert.assertNull(
+        FlinkColumnarParquetReader.ColumnMapping.resolve(
+            READ_SCHEMA, withoutIds, ImmutableMap.of()));
+
+    // promoted types are converted by the row reader
+    MessageType promoted =
+        ParquetSchemaUtil.convert(
+            new Schema(
+                Types.NestedField.required(1, "id", Types.IntegerType.get()),
+                Types.NestedField.optional(4, "added", Types.IntegerType.get())),
+            "table");
+    Assert.assertNull(
+        FlinkColumnarParquetReader.ColumnMapping.resolve(READ_SCHEMA, promoted, ImmutableMap.of()));
+
+    // required columns missing in the file can not be read as null
+    MessageType missingRequired =
+        ParquetSchemaUtil.convert(
+            new Schema(Types.NestedField.optional(2, "name", Types.StringType.get())), "table");
+    Assert.assertNull(
+        FlinkColumnarParquetReader.ColumnMapping.resolve(
+            READ_SCHEMA, missingRequired, ImmutableMap.of()));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.write;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.io.WriteResult;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestWriteResultAggregator {
+
+  private static final Schema SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.IntegerType.get()),
+          Types.NestedField.required(2, "dt", Types.StringType.get()));
+  private static final PartitionSpec SPEC =
+      PartitionSpec.builderFor(SCHEMA).identity("dt").build();
+
+  private static DataFile dataFile(String dt, int index) {
+    return DataFiles.builder(SPEC)
+        .withPath(String.format("/tmp/dt=%s/file-%d.parquet", dt, index))
+        .withFileSizeInBytes(10)
+        .withRecordCount(1)
+        .withPartitionPath("dt=" + dt)
+        .withFormat(FileFormat.PARQUET)
+        .build();
+  }
+
+  @Test
+  public void testAggregatePerCheckpoint() throws Exception {
+    try (OneInputStreamOperatorTestHarness<WriteResult, WriteResult> harness =
+        new OneInputStreamOperatorTestHarness<>(new WriteResultAggregator())) {
+      harness.open();
+      harness.processElement(
+          new StreamRecord<>(WriteResult.builder().addDataFiles(dataFile("a", 1)).build()));
+      harness.processElement(
+          new StreamRecord<>(WriteResult.builder().addDataFiles(dataFile("a", 2)).build()));
+      harness.prepareSnapshotPreBarrier(1);
+
+      List<WriteResult> results = harness.extractOutputValues();
+      Assert.assertEquals(1, results.size());
+      Assert.assertEquals(2, results.get(0).dataFiles().length);
+
+      // nothing is emitted for a checkpoint without write results
+      harness.prepareSnapshotPreBarrier(2);
+      Assert.assertEquals(1, harness.extractOutputValues().size());
+
+      harness.processElement(
+          new StreamRecord<>(WriteResult.builder().addDataFiles(dataFile("b", 3)).build()));
+      harness.endInput();
+      results = harness.extractOutputValues();
+      Assert.assertEquals(2, results.size());
+      Assert.assertEquals(1, results.get(1).dataFiles().length);
+    }
+  }
+
+  @Test
+  public void testSplitByPartitionGroup() {
+    int partitionGroups = 4;
+    WriteResult writeResult =
+        WriteResult.builder()
+            .addDataFiles(dataFile("a", 1), dataFile("b", 2), dataFile("c", 3), dataFile("a", 4))
+            .addReferencedDataFiles("/tmp/dt=a/file-0.parquet")
+            .build();
+    List<WriteResult> splits = Lists.newArrayList();
+    new WriteResultSplitter(partitionGroups).flatMap(writeResult, collector(splits));
+
+    int dataFiles = 0;
+    int referencedDataFiles = 0;
+    WriteResultSplitter.PartitionGroupSelector selector =
+        new WriteResultSplitter.PartitionGroupSelector(partitionGroups);
+    for (WriteResult split : splits) {
+      int group = selector.getKey(split);
+      Assert.assertTrue(group >= 0 && group < partitionGroups);
+      Arrays.stream(split.dataFiles())
+          .forEach(
+              file ->
+                  Assert.assertEquals(
+                      group, WriteResultSplitter.partitionGroup(file, partitionGroups)));
+      dataFiles += split.dataFiles().length;
+      referencedDataFiles += split.referencedDataFiles().length;
+    }
+    Assert.assertEquals(4, dataFiles);
+    Assert.assertEquals(1, referencedDataFiles);
+  }
+
+  @Test
+  public void testSplitEmptyResult() {
+    List<WriteResult> splits = Lists.newArrayList();
+    new WriteResultSplitter(2).flatMap(WriteResult.builder().build(), collector(splits));
+    Assert.assertEquals(1, splits.size());
+  }
+
+  private static Collector<WriteResult> collector(List<WriteResult> results) {
+    return new Collector<WriteResult>() {
+      @Override
+      public void collect(WriteResult record) {
+        results.add(record);
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.amoro.log.FormatVersion;
 import org.apache.amoro.log.LogData;
 import org.apache.amoro.log.LogDataJsonDeserialization;
 import org.apache.amoro.log.LogDataJsonSerialization;
+import org.apache.amoro.log.LogDataSerialization;
 import org.apache.amoro.utils.IdGenerator;
 import org.apache.flink.streaming.connectors.kafka.internals.FlinkKafkaInternalProducer;
 import org.apache.flink.table.data.GenericRowData;
@@ -113,14 +114,14 @@ public class TestHiddenKafkaProducer extends TestBaseLog {
     int numPartitions = 3;
     KafkaContainerTest.createTopics(numPartitions, 1, topic);
     LogData.FieldGetterFactory<RowData> fieldGetterFactory = LogRecordV1.FIELD_GETTER_FACTORY;
-    LogDataJsonSerialization<RowData> logDataJsonSerialization =
-        new LogDataJsonSerialization<>(checkNotNull(USER_SCHEMA), checkNotNull(fieldGetterFactory));
+    LogDataSerialization<RowData> logDataSerialization =
+        new LogDataSerialization<>(checkNotNull(USER_SCHEMA), checkNotNull(fieldGetterFactory));
     Properties properties = new Properties();
     properties.put(BOOTSTRAP_SERVERS_CONFIG, KAFKA_CONTAINER.getBootstrapServers());
     properties = getPropertiesWithByteArray(KafkaConfigGenerate.getStandardProperties(properties));
     LogMsgFactory.Producer<RowData> producer =
         new HiddenKafkaFactory<RowData>()
-            .createProducer(properties, topic, logDataJsonSerialization, null);
+            .createProducer(properties, topic, logDataSerialization, null);
     producer.open();
 
     int recoverNum = 3;
@@ -38,4 +38,34 @@ public class SparkSQLProperties {
   public static final String OPTIMIZE_WRITE_ENABLED =
       "spark.sql.mixed-format.optimize-write-enabled";
   public static final String OPTIMIZE_WRITE_ENABLED_DEFAULT = "true";
+
+  /**
+   * Whether to read mixed-format tables in columnar batches, overrides the vectorization properties
+   * of tables if set.
+   */
+  public static final String VECTORIZATION_ENABLED = "spark.sql.mixed-format.vectorization-enabled";
+
+  /** Whether to answer count, min and max aggregates from column stats of mixed-format tables. */
+  public static final String AGGREGATE_PUSH_DOWN_ENABLED =
+      "spark.sql.mixed-format.aggregate-push-down-enabled";
+
+  public static final String AGGREGATE_PUSH_DOWN_ENABLED_DEFAULT = "true";
+
+  /**
+   * Whether scans of keyed tables with a single primary key column report their tree node bucketing
+   * to Spark, so that joins and aggregations on the primary key could avoid shuffles. Such scans
+   * read one tree node per task, which limits the read parallelism to the node count.
+   */
+  public static final String REPORT_PARTITIONING_ENABLED =
+      "spark.sql.mixed-format.report-partitioning-enabled";
+
+  public static final String REPORT_PARTITIONING_ENABLED_DEFAULT = "false";
+
+  /**
+   * Number of tree nodes keyed tables report, tables bucketed by more nodes are coarsened to it so
+   * that tables of different node counts could be joined without shuffles. Must be a power of 2,
+   * defaults to the smallest node count of each scanned table.
+   */
+  public static final String REPORT_PARTITIONING_NODE_COUNT =
+      "spark.sql.mixed-format.report-partitioning.node-count";
 }
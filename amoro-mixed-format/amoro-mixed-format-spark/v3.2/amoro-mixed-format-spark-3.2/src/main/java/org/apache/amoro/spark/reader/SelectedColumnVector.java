@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.spark.sql.types.Decimal;
+import org.apache.spark.sql.vectorized.ColumnVector;
+import org.apache.spark.sql.vectorized.ColumnarArray;
+import org.apache.spark.sql.vectorized.ColumnarMap;
+import org.apache.spark.unsafe.types.UTF8String;
+
+/**
+ * A column vector exposing the selected rows of another column vector, the i-th row of this vector
+ * is the {@code rowIds[i]}-th row of the delegate. It is used to drop rows deleted by merge-on-read
+ * from a batch without copying the values.
+ */
+class SelectedColumnVector extends ColumnVector {
+
+  private final ColumnVector delegate;
+  private final int[] rowIds;
+  private final int numRows;
+
+  SelectedColumnVector(ColumnVector delegate, int[] rowIds, int numRows) {
+    super(delegate.dataType());
+    this.delegate = delegate;
+    this.rowIds = rowIds;
+    this.numRows = numRows;
+  }
+
+  @Override
+  public void close() {
+    // the delegate vectors are owned and reused by the batch reader
+  }
+
+  @Override
+  public boolean hasNull() {
+    return delegate.hasNull() && numNulls() > 0;
+  }
+
+  @Override
+  public int numNulls() {
+    if (!delegate.hasNull()) {
+      return 0;
+    }
+    int numNulls = 0;
+    for (int i = 0; i < numRows; i++) {
+      if (delegate.isNullAt(rowIds[i])) {
+        numNulls++;
+      }
+    }
+    return numNulls;
+  }
+
+  @Override
+  public boolean isNullAt(int rowId) {
+    return delegate.isNullAt(rowIds[rowId]);
+  }
+
+  @Override
+  public boolean getBoolean(int rowId) {
+    return delegate.getBoolean(rowIds[rowId]);
+  }
+
+  @Override
+  public byte getByte(int rowId) {
+    return delegate.getByte(rowIds[rowId]);
+  }
+
+  @Override
+  public short getShort(int rowId) {
+    return delegate.getShort(rowIds[rowId]);
+  }
+
+  @Override
+  public int getInt(int rowId) {
+    return delegate.getInt(rowIds[rowId]);
+  }
+
+  @Override
+  public long getLong(int rowId) {
+    return delegate.getLong(rowIds[rowId]);
+  }
+
+  @Override
+  public float getFloat(int rowId) {
+    return delegate.getFloat(rowIds[rowId]);
+  }
+
+  @Override
+  public double getDouble(int rowId) {
+    return delegate.getDouble(rowIds[rowId]);
+  }
+
+  @Override
+  public ColumnarArray getArray(int rowId) {
+    return delegate.getArray(rowIds[rowId]);
+  }
+
+  @Override
+  public ColumnarMap getMap(int ordinal) {
+    return delegate.getMap(rowIds[ordinal]);
+  }
+
+  @Override
+  public Decimal getDecimal(int rowId, int precision, int scale) {
+    return delegate.getDecimal(rowIds[rowId], precision, scale);
+  }
+
+  @Override
+  public UTF8String getUTF8String(int rowId) {
+    return delegate.getUTF8String(rowIds[rowId]);
+  }
+
+  @Override
+  public byte[] getBinary(int rowId) {
+    return delegate.getBinary(rowIds[rowId]);
+  }
+
+  @Override
+  public ColumnVector getChild(int ordinal) {
+    // struct fields are read by the row id of the struct, so children share the selection
+    return new SelectedColumnVector(delegate.getChild(ordinal), rowIds, numRows);
+  }
+}
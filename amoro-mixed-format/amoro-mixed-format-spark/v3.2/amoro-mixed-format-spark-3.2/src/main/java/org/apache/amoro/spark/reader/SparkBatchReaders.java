@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.amoro.hive.utils.TableTypeUtil;
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.spark.mixed.SparkSQLProperties;
+import org.apache.amoro.table.MixedTable;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.mapping.NameMappingParser;
+import org.apache.iceberg.orc.ORC;
+import org.apache.iceberg.parquet.AdaptHiveParquet;
+import org.apache.iceberg.spark.data.vectorized.VectorizedSparkOrcReaders;
+import org.apache.iceberg.spark.data.vectorized.VectorizedSparkParquetReaders;
+import org.apache.iceberg.types.TypeUtil;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.vectorized.ColumnVector;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/** Columnar reads of data files of mixed-format tables with the vectorized readers of iceberg. */
+class SparkBatchReaders {
+
+  private static final Set<FileFormat> SUPPORTED_FORMATS =
+      Sets.immutableEnumSet(FileFormat.PARQUET, FileFormat.ORC);
+
+  private SparkBatchReaders() {}
+
+  /**
+   * Whether to read a scan in columnar batches, Spark requires all partitions of a scan to be read
+   * in the same way.
+   *
+   * @param formats formats of all data files to read
+   */
+  static boolean batchReadsEnabled(
+      SparkSession spark, MixedTable table, Schema expectedSchema, Set<FileFormat> formats) {
+    if (formats.size() != 1
+        || !SUPPORTED_FORMATS.containsAll(formats)
+        || !expectedSchema.columns().stream().allMatch(field -> field.type().isPrimitiveType())) {
+      return false;
+    }
+    String enabled = spark.conf().get(SparkSQLProperties.VECTORIZATION_ENABLED, null);
+    if (enabled != null) {
+      return Boolean.parseBoolean(enabled);
+    }
+    // files of hive tables may be written by other engines like impala, which the vectorized
+    // readers could not adapt to, so they are read in rows unless enabled explicitly
+    if (TableTypeUtil.isHive(table)) {
+      return false;
+    }
+    switch (formats.iterator().next()) {
+      case PARQUET:
+        return PropertyUtil.propertyAsBoolean(
+            table.properties(),
+            TableProperties.PARQUET_VECTORIZATION_ENABLED,
+            TableProperties.PARQUET_VECTORIZATION_ENABLED_DEFAULT);
+      case ORC:
+        return PropertyUtil.propertyAsBoolean(
+            table.properties(),
+            TableProperties.ORC_VECTORIZATION_ENABLED,
+            TableProperties.ORC_VECTORIZATION_ENABLED_DEFAULT);
+      default:
+        return false;
+    }
+  }
+
+  static int batchSize(MixedTable table, Set<FileFormat> formats) {
+    if (formats.contains(FileFormat.ORC)) {
+      return PropertyUtil.propertyAsInt(
+          table.properties(),
+          TableProperties.ORC_BATCH_SIZE,
+          TableProperties.ORC_BATCH_SIZE_DEFAULT);
+    }
+    return PropertyUtil.propertyAsInt(
+        table.properties(),
+        TableProperties.PARQUET_BATCH_SIZE,
+        TableProperties.PARQUET_BATCH_SIZE_DEFAULT);
+  }
+
+  static CloseableIterable<ColumnarBatch> newBatchIterable(
+      AuthenticatedFileIO fileIO,
+      FileScanTask task,
+      Schema schema,
+      Map<Integer, ?> idToConstant,
+      String nameMapping,
+      boolean caseSensitive,
+      int batchSize) {
+    switch (task.file().format()) {
+      case PARQUET:
+        return newParquetIterable(
+            fileIO, task, schema, idToConstant, nameMapping, caseSensitive, batchSize);
+      case ORC:
+        return newOrcIterable(
+            fileIO, task, schema, idToConstant, nameMapping, caseSensitive, batchSize);
+      default:
+        throw new UnsupportedOperationException(
+            "Cannot read format in batches: " + task.file().format());
+    }
+  }
+
+  private static CloseableIterable<ColumnarBatch> newParquetIterable(
+      AuthenticatedFileIO fileIO,
+      FileScanTask task,
+      Schema schema,
+      Map<Integer, ?> idToConstant,
+      String nameMapping,
+      boolean caseSensitive,
+      int batchSize) {
+    AdaptHiveParquet.ReadBuilder builder =
+        AdaptHiveParquet.read(fileIO.newInputFile(task.file().path().toString()))
+            .split(task.start(), task.length())
+            .project(schema)
+            .createBatchedReaderFunc(
+                fileSchema ->
+                    VectorizedSparkParquetReaders.buildReader(
+                        schema, fileSchema, idToConstant, null))
+            .recordsPerBatch(batchSize)
+            .filter(task.residual())
+            .caseSensitive(caseSensitive)
+            // batches are consumed one by one, so the vectors could be reused
+            .reuseContainers();
+
+    if (nameMapping != null) {
+      builder.withNameMapping(NameMappingParser.fromJson(nameMapping));
+    }
+
+    return builder.build();
+  }
+
+  private static CloseableIterable<ColumnarBatch> newOrcIterable(
+      AuthenticatedFileIO fileIO,
+      FileScanTask task,
+      Schema schema,
+      Map<Integer, ?> idToConstant,
+      String nameMapping,
+      boolean caseSensitive,
+      int batchSize) {
+    Set<Integer> constantFieldIds = idToConstant.keySet();
+    Set<Integer> metadataFieldIds = MetadataColumns.metadataFieldIds();
+    Schema readSchemaWithoutConstantAndMetadataFields =
+        TypeUtil.selectNot(schema, Sets.union(constantFieldIds, metadataFieldIds));
+
+    ORC.ReadBuilder builder =
+        ORC.read(fileIO.newInputFile(task.file().path().toString()))
+            .project(readSchemaWithoutConstantAndMetadataFields)
+            .split(task.start(), task.length())
+            .createBatchedReaderFunc(
+                fileSchema ->
+                    VectorizedSparkOrcReaders.buildReader(schema, fileSchema, idToConstant))
+            .recordsPerBatch(batchSize)
+            .filter(task.residual())
+            .caseSensitive(caseSensitive);
+
+    if (nameMapping != null) {
+      builder.withNameMapping(NameMappingParser.fromJson(nameMapping));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Select the rows of a batch which are not deleted, the selected rows are exposed by row ids
+   * mapping to the rows of the batch instead of copying them.
+   *
+   * @param batch batch read from a data file
+   * @param numColumns number of columns to return, the leading columns of the batch
+   * @param isDeleted whether a row of the batch is deleted
+   * @return batch of the selected rows
+   */
+  static ColumnarBatch select(
+      ColumnarBatch batch, int numColumns, Predicate<InternalRow> isDeleted) {
+    int numRows = batch.numRows();
+    int[] rowIds = new int[numRows];
+    int numSelected = 0;
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      if (!isDeleted.test(batch.getRow(rowId))) {
+        rowIds[numSelected++] = rowId;
+      }
+    }
+
+    ColumnVector[] columns = new ColumnVector[numColumns];
+    for (int i = 0; i < numColumns; i++) {
+      columns[i] =
+          numSelected == numRows
+              ? batch.column(i)
+              : new SelectedColumnVector(batch.column(i), rowIds, numSelected);
+    }
+    return new ColumnarBatch(columns, numSelected);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.io.CloseableIterableWrapper;
+import org.apache.amoro.io.CloseablePredicate;
+import org.apache.amoro.io.reader.DataReaderCommon;
+import org.apache.amoro.io.reader.MixedDeleteFilter;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.table.PrimaryKeySpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+
+/** Reads {@link KeyedTableScanTask}s in columnar batches, deleted rows are dropped from batches. */
+public class SparkKeyedBatchDataReader extends SparkKeyedDataReader {
+
+  private final int batchSize;
+
+  public SparkKeyedBatchDataReader(
+      AuthenticatedFileIO fileIO,
+      Schema tableSchema,
+      Schema projectedSchema,
+      PrimaryKeySpec primaryKeySpec,
+      String nameMapping,
+      boolean caseSensitive,
+      int batchSize) {
+    super(fileIO, tableSchema, projectedSchema, primaryKeySpec, nameMapping, caseSensitive);
+    this.batchSize = batchSize;
+  }
+
+  public CloseableIterator<ColumnarBatch> readBatches(KeyedTableScanTask keyedTableScanTask) {
+    MixedDeleteFilter<InternalRow> mixedDeleteFilter =
+        createMixedDeleteFilter(
+            keyedTableScanTask,
+            tableSchema,
+            projectedSchema,
+            primaryKeySpec,
+            sourceNodes,
+            structLikeCollections);
+    Schema newProjectedSchema = mixedDeleteFilter.requiredSchema();
+    int numColumns = projectedSchema.columns().size();
+    CloseablePredicate<InternalRow> isDeleted =
+        mixedDeleteFilter.hasPosDeletes() || mixedDeleteFilter.hasEqDeletes()
+            ? mixedDeleteFilter.deletedPredicate()
+            : null;
+
+    CloseableIterable<ColumnarBatch> batches =
+        CloseableIterable.concat(
+            CloseableIterable.transform(
+                CloseableIterable.withNoopClose(keyedTableScanTask.dataTasks()),
+                fileScanTask -> {
+                  // files are read one by one, so position deletes are looked up by the file
+                  // instead of the file path column
+                  mixedDeleteFilter.setCurrentDataPath(fileScanTask.file().path().toString());
+                  CloseableIterable<ColumnarBatch> fileBatches =
+                      SparkBatchReaders.newBatchIterable(
+                          fileIO,
+                          fileScanTask,
+                          newProjectedSchema,
+                          DataReaderCommon.getIdToConstant(
+                              fileScanTask, newProjectedSchema, convertConstant),
+                          nameMapping,
+                          caseSensitive,
+                          batchSize);
+                  if (isDeleted == null) {
+                    return fileBatches;
+                  }
+                  return CloseableIterable.transform(
+                      fileBatches, batch -> SparkBatchReaders.select(batch, numColumns, isDeleted));
+                }));
+    if (isDeleted != null) {
+      batches = new CloseableIterableWrapper<>(batches, isDeleted);
+    }
+    return batches.iterator();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.spark.mixed.SparkSQLProperties;
+import org.apache.amoro.spark.test.SparkTestContext;
+import org.apache.spark.sql.SparkSession;
+
+/**
+ * Compares rows per second of scanning a keyed table with merge-on-read deletes in rows and in
+ * columnar batches on a local Spark session, run it with the test classpath.
+ */
+public class KeyedTableScanBenchmark {
+
+  private static final String TABLE =
+      SparkTestContext.SparkCatalogNames.MIXED_ICEBERG + ".scan_benchmark.keyed_table";
+  private static final long ROWS = 5_000_000L;
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) throws Exception {
+    SparkTestContext context = new SparkTestContext();
+    context.initialize();
+    try {
+      SparkSession spark =
+          context.getSparkSession(ImmutableMap.of("spark.sql.shuffle.partitions", "4"));
+      spark.sql(
+          "CREATE DATABASE IF NOT EXISTS "
+              + SparkTestContext.SparkCatalogNames.MIXED_ICEBERG
+              + ".scan_benchmark");
+      spark.sql(
+          "CREATE TABLE "
+              + TABLE
+              + " (id bigint, name string, score double, dt string, PRIMARY KEY(id))"
+              + " USING arctic PARTITIONED BY (dt)");
+      // rows of the base store, a tenth of which are deleted by the change store
+      spark.sql(
+          "INSERT OVERWRITE "
+              + TABLE
+              + " SELECT id, concat('name-', id), id * 1.5, cast(id % 4 as string)"
+              + " FROM range("
+              + ROWS
+              + ")");
+      spark.sql("DELETE FROM " + TABLE + " WHERE id % 10 = 0");
+
+      for (String vectorized : new String[] {"false", "true"}) {
+        spark.conf().set(SparkSQLProperties.VECTORIZATION_ENABLED, vectorized);
+        String query = "SELECT count(name), sum(score) FROM " + TABLE;
+        // warm up
+        spark.sql(query).collect();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+          spark.sql(query).collect();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf(
+            "%s reads: %.1f M rows/s%n",
+            Boolean.parseBoolean(vectorized) ? "Columnar" : "Row", ROWS * ROUNDS * 1e3 / nanos);
+      }
+      spark.sql("DROP TABLE " + TABLE);
+    } finally {
+      context.close();
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.Metrics;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.apache.spark.sql.sources.EqualTo;
+import org.apache.spark.sql.sources.Filter;
+import org.apache.spark.sql.sources.In;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+
+public class TestRuntimeFilterEvaluator {
+
+  private static final Schema SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.IntegerType.get()),
+          Types.NestedField.required(2, "pt", Types.StringType.get()));
+  private static final PartitionSpec SPEC = PartitionSpec.builderFor(SCHEMA).identity("pt").build();
+
+  @Test
+  public void testPruneByPartition() {
+    RuntimeFilterEvaluator evaluator =
+        new RuntimeFilterEvaluator(SCHEMA, Expressions.in("pt", "a", "b"), true);
+    Assertions.assertTrue(evaluator.eval(SPEC, dataFile("pt=a", 1, 10)));
+    Assertions.assertTrue(evaluator.eval(SPEC, dataFile("pt=b", 1, 10)));
+    Assertions.assertFalse(evaluator.eval(SPEC, dataFile("pt=c", 1, 10)));
+  }
+
+  @Test
+  public void testPruneByColumnMetrics() {
+    RuntimeFilterEvaluator evaluator =
+        new RuntimeFilterEvaluator(SCHEMA, Expressions.in("id", 5, 50), true);
+    Assertions.assertTrue(evaluator.eval(SPEC, dataFile("pt=a", 1, 10)));
+    Assertions.assertTrue(evaluator.eval(SPEC, dataFile("pt=a", 40, 60)));
+    Assertions.assertFalse(evaluator.eval(SPEC, dataFile("pt=a", 11, 39)));
+  }
+
+  @Test
+  public void testConvertIgnoresUnknownColumns() {
+    Filter[] filters =
+        new Filter[] {new In("pt", new Object[] {"a", "b"}), new EqualTo("unknown", 1)};
+    Expression expression = RuntimeFilterEvaluator.convert(filters, SCHEMA, true);
+    RuntimeFilterEvaluator evaluator = new RuntimeFilterEvaluator(SCHEMA, expression, true);
+    Assertions.assertTrue(evaluator.eval(SPEC, dataFile("pt=a", 1, 10)));
+    Assertions.assertFalse(evaluator.eval(SPEC, dataFile("pt=c", 1, 10)));
+
+    Expression unknown =
+        RuntimeFilterEvaluator.convert(new Filter[] {new EqualTo("unknown", 1)}, SCHEMA, true);
+    Assertions.assertEquals(Expression.Operation.TRUE, unknown.op());
+  }
+
+  private static DataFile dataFile(String partitionPath, int lowerId, int upperId) {
+    Map<Integer, ByteBuffer> lowerBounds =
+        Collections.singletonMap(1, Conversions.toByteBuffer(Types.IntegerType.get(), lowerId));
+    Map<Integer, ByteBuffer> upperBounds =
+        Collections.singletonMap(1, Conversions.toByteBuffer(Types.IntegerType.get(), upperId));
+    return DataFiles.builder(SPEC)
+        .withPath(String.format("/data/%s/%d-%d.parquet", partitionPath, lowerId, upperId))
+        .withFormat(FileFormat.PARQUET)
+        .withFileSizeInBytes(1024)
+        .withPartitionPath(partitionPath)
+        .withMetrics(
+            new Metrics(
+                10L,
+                null,
+                Collections.singletonMap(1, 10L),
+                Collections.singletonMap(1, 0L),
+                null,
+                lowerBounds,
+                upperBounds))
+        .build();
+  }
+}
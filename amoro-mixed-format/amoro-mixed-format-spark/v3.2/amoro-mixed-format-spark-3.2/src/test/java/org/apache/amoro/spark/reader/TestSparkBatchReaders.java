@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.execution.vectorized.OnHeapColumnVector;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.vectorized.ColumnVector;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.apache.spark.unsafe.types.UTF8String;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+public class TestSparkBatchReaders {
+
+  private static final int NUM_ROWS = 10;
+
+  @Test
+  public void testSelectNotDeletedRows() {
+    ColumnarBatch batch = batch();
+    // delete rows with odd ids and the row with the null name
+    ColumnarBatch selected =
+        SparkBatchReaders.select(batch, 3, row -> row.getLong(0) % 2 == 1 || row.isNullAt(1));
+
+    Assertions.assertEquals(3, selected.numCols());
+    Assertions.assertEquals(4, selected.numRows());
+    long[] expectedIds = {0, 2, 6, 8};
+    Iterator<InternalRow> rows = selected.rowIterator();
+    for (long expectedId : expectedIds) {
+      InternalRow row = rows.next();
+      Assertions.assertEquals(expectedId, row.getLong(0));
+      Assertions.assertEquals(UTF8String.fromString("name-" + expectedId), row.getUTF8String(1));
+      Assertions.assertEquals(expectedId * 1.5, row.getDouble(2));
+    }
+    Assertions.assertFalse(rows.hasNext());
+    Assertions.assertFalse(selected.column(1).hasNull());
+    Assertions.assertEquals(0, selected.column(1).numNulls());
+  }
+
+  @Test
+  public void testSelectProjectsLeadingColumns() {
+    ColumnarBatch batch = batch();
+    ColumnarBatch selected = SparkBatchReaders.select(batch, 2, row -> row.getLong(0) >= 5);
+
+    Assertions.assertEquals(2, selected.numCols());
+    Assertions.assertEquals(5, selected.numRows());
+    Assertions.assertTrue(selected.column(1).hasNull());
+    Assertions.assertEquals(1, selected.column(1).numNulls());
+    Assertions.assertTrue(selected.column(1).isNullAt(4));
+  }
+
+  @Test
+  public void testSelectAllRowsKeepsVectors() {
+    ColumnarBatch batch = batch();
+    ColumnarBatch selected = SparkBatchReaders.select(batch, 3, row -> false);
+
+    Assertions.assertEquals(NUM_ROWS, selected.numRows());
+    for (int i = 0; i < 3; i++) {
+      Assertions.assertSame(batch.column(i), selected.column(i));
+    }
+  }
+
+  @Test
+  public void testSelectNoRows() {
+    ColumnarBatch selected = SparkBatchReaders.select(batch(), 3, row -> true);
+    Assertions.assertEquals(0, selected.numRows());
+    Assertions.assertFalse(selected.rowIterator().hasNext());
+  }
+
+  private static ColumnarBatch batch() {
+    OnHeapColumnVector ids = new OnHeapColumnVector(NUM_ROWS, DataTypes.LongType);
+    OnHeapColumnVector names = new OnHeapColumnVector(NUM_ROWS, DataTypes.StringType);
+    OnHeapColumnVector scores = new OnHeapColumnVector(NUM_ROWS, DataTypes.DoubleType);
+    OnHeapColumnVector positions = new OnHeapColumnVector(NUM_ROWS, DataTypes.LongType);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      ids.putLong(i, i);
+      if (i == 4) {
+        names.putNull(i);
+      } else {
+        names.putByteArray(i, ("name-" + i).getBytes());
+      }
+      scores.putDouble(i, i * 1.5);
+      positions.putLong(i, 100 + i);
+    }
+    return new ColumnarBatch(new ColumnVector[] {ids, names, scores, positions}, NUM_ROWS);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.amoro.spark.test.suites.sql;
 import org.apache.amoro.TableFormat;
 import org.apache.amoro.data.ChangeAction;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.spark.mixed.SparkSQLProperties;
 import org.apache.amoro.spark.test.MixedTableTestBase;
 import org.apache.amoro.spark.test.extensions.EnableCatalogSelect;
 import org.apache.amoro.spark.test.utils.DataComparator;
@@ -30,6 +31,7 @@ import org.apache.amoro.spark.test.utils.TestTableUtil;
 import org.apache.amoro.spark.test.utils.TestTables;
 import org.apache.amoro.table.KeyedTable;
 import org.apache.amoro.table.MetadataColumns;
+import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.table.TableProperties;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.Schema;
@@ -134,4 +136,122 @@ public class TestSelectSQL extends MixedTableTestBase {
                   ((Long) r.getField(MetadataColumns.TRANSACTION_ID_FILED_NAME)) > 0);
             });
   }
+
+  public static Stream<Arguments> testKeyedTableColumnarQuery() {
+    return Stream.of(
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_PT, FileFormat.PARQUET),
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_NO_PT, FileFormat.PARQUET),
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_PT, FileFormat.ORC));
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  public void testKeyedTableColumnarQuery(
+      TableFormat format, TestTable table, FileFormat fileFormat) {
+    createTarget(
+        table.schema,
+        builder ->
+            builder
+                .withPrimaryKeySpec(table.keySpec)
+                .withProperty(TableProperties.CHANGE_FILE_FORMAT, fileFormat.name())
+                .withProperty(TableProperties.BASE_FILE_FORMAT, fileFormat.name()));
+
+    KeyedTable tbl = loadTable().asKeyedTable();
+    RecordGenerator dataGen = table.newDateGen();
+    List<Record> base = dataGen.records(10);
+    TestTableUtil.writeToBase(tbl, base);
+    TestTableUtil.writeToChange(tbl, dataGen.records(5), ChangeAction.INSERT);
+    TestTableUtil.writeToChange(tbl, base.subList(0, 3), ChangeAction.DELETE);
+
+    spark().conf().set(SparkSQLProperties.VECTORIZATION_ENABLED, "false");
+    List<Row> rows = sql("SELECT * FROM " + target() + " ORDER BY id").collectAsList();
+    Assertions.assertFalse(qe.executedPlan().toString().contains("ColumnarToRow"));
+
+    spark().conf().set(SparkSQLProperties.VECTORIZATION_ENABLED, "true");
+    List<Row> batchRows = sql("SELECT * FROM " + target() + " ORDER BY id").collectAsList();
+    Assertions.assertTrue(qe.executedPlan().toString().contains("ColumnarToRow"));
+
+    Assertions.assertEquals(12, batchRows.size());
+    Assertions.assertEquals(rows, batchRows);
+  }
+
+  public static Stream<Arguments> testAggregatePushDown() {
+    return Stream.of(
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_PT),
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_NO_PT),
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.NO_PK_PT));
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  public void testAggregatePushDown(TableFormat format, TestTable table) {
+    createTarget(table.schema, builder -> builder.withPrimaryKeySpec(table.keySpec));
+
+    MixedTable tbl = loadTable();
+    RecordGenerator dataGen = table.newDateGen();
+    List<Record> base = dataGen.records(10);
+    TestTableUtil.writeToBase(tbl, base);
+    String query = "SELECT count(*), count(id), min(id), max(id) FROM " + target();
+
+    // answered from column stats of base files
+    spark().conf().set(SparkSQLProperties.AGGREGATE_PUSH_DOWN_ENABLED, "true");
+    List<Row> rows = sql(query).collectAsList();
+    Assertions.assertTrue(qe.executedPlan().toString().contains("statsPartitions"));
+    Assertions.assertEquals(10L, rows.get(0).getLong(0));
+    Assertions.assertEquals(10L, rows.get(0).getLong(1));
+
+    if (tbl.isKeyedTable()) {
+      // partitions changed by the change store are read
+      TestTableUtil.writeToChange(tbl.asKeyedTable(), dataGen.records(5), ChangeAction.INSERT);
+      TestTableUtil.writeToChange(tbl.asKeyedTable(), base.subList(0, 3), ChangeAction.DELETE);
+    }
+    List<Row> pushedRows = sql(query).collectAsList();
+    spark().conf().set(SparkSQLProperties.AGGREGATE_PUSH_DOWN_ENABLED, "false");
+    List<Row> scannedRows = sql(query).collectAsList();
+    Assertions.assertFalse(qe.executedPlan().toString().contains("statsPartitions"));
+    Assertions.assertEquals(scannedRows, pushedRows);
+    spark().conf().unset(SparkSQLProperties.AGGREGATE_PUSH_DOWN_ENABLED);
+  }
+
+  public static Stream<Arguments> testReportPartitioning() {
+    return Stream.of(
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_PT),
+        Arguments.of(MIXED_ICEBERG, TestTables.MixedIceberg.PK_NO_PT));
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  public void testReportPartitioning(TableFormat format, TestTable table) {
+    createTarget(table.schema, builder -> builder.withPrimaryKeySpec(table.keySpec));
+
+    KeyedTable tbl = loadTable().asKeyedTable();
+    RecordGenerator dataGen = table.newDateGen();
+    List<Record> base = dataGen.records(20);
+    TestTableUtil.writeToBase(tbl, base);
+    TestTableUtil.writeToChange(tbl, dataGen.records(5), ChangeAction.INSERT);
+    TestTableUtil.writeToChange(tbl, base.subList(0, 3), ChangeAction.DELETE);
+    String query = "SELECT id, count(*) FROM " + target() + " GROUP BY id ORDER BY id";
+
+    // rows of the same primary key are read by the same partition, which needs no shuffle
+    spark().conf().set(SparkSQLProperties.REPORT_PARTITIONING_ENABLED, "true");
+    List<Row> rows = sql(query).collectAsList();
+    String plan = qe.executedPlan().toString();
+    Assertions.assertTrue(plan.contains("treeNodes=4"));
+    Assertions.assertFalse(plan.contains("Exchange hashpartitioning"));
+
+    // coarsened to fewer tree nodes
+    spark().conf().set(SparkSQLProperties.REPORT_PARTITIONING_NODE_COUNT, "2");
+    List<Row> coarsenedRows = sql(query).collectAsList();
+    plan = qe.executedPlan().toString();
+    Assertions.assertTrue(plan.contains("treeNodes=2"));
+    Assertions.assertFalse(plan.contains("Exchange hashpartitioning"));
+
+    spark().conf().set(SparkSQLProperties.REPORT_PARTITIONING_ENABLED, "false");
+    List<Row> shuffledRows = sql(query).collectAsList();
+    Assertions.assertTrue(qe.executedPlan().toString().contains("Exchange hashpartitioning"));
+    Assertions.assertEquals(shuffledRows, rows);
+    Assertions.assertEquals(shuffledRows, coarsenedRows);
+    spark().conf().unset(SparkSQLProperties.REPORT_PARTITIONING_ENABLED);
+    spark().conf().unset(SparkSQLProperties.REPORT_PARTITIONING_NODE_COUNT);
+  }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.amoro.spark;
 
+import org.apache.amoro.spark.functions.TreeNodeFunction;
 import org.apache.amoro.spark.mixed.MixedSessionCatalogBase;
 import org.apache.amoro.spark.mixed.MixedSparkCatalogBase;
 import org.apache.spark.sql.catalyst.analysis.NoSuchFunctionException;
@@ -54,6 +55,10 @@ public class MixedFormatSparkSessionCatalog<
 
   @Override
   public UnboundFunction loadFunction(Identifier ident) throws NoSuchFunctionException {
+    UnboundFunction function = TreeNodeFunction.load(ident);
+    if (function != null) {
+      return function;
+    }
     return getSessionCatalog().loadFunction(ident);
   }
 
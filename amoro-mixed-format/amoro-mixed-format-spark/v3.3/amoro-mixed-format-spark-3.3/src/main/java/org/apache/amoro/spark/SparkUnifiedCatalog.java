@@ -19,6 +19,7 @@
 package org.apache.amoro.spark;
 
 import org.apache.amoro.TableFormat;
+import org.apache.amoro.spark.functions.TreeNodeFunction;
 import org.apache.spark.sql.catalyst.analysis.NoSuchFunctionException;
 import org.apache.spark.sql.catalyst.analysis.NoSuchNamespaceException;
 import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
@@ -62,6 +63,10 @@ public class SparkUnifiedCatalog extends SparkUnifiedCatalogBase
    */
   @Override
   public UnboundFunction loadFunction(Identifier ident) throws NoSuchFunctionException {
+    UnboundFunction function = TreeNodeFunction.load(ident);
+    if (function != null) {
+      return function;
+    }
 
     TableCatalog tableCatalog = tableCatalog(TableFormat.ICEBERG);
     if (tableCatalog instanceof FunctionCatalog) {
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.functions;
+
+import org.apache.amoro.data.PrimaryKeyData;
+import org.apache.amoro.spark.SparkInternalRowWrapper;
+import org.apache.amoro.table.PrimaryKeySpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.spark.SparkSchemaUtil;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.connector.catalog.Identifier;
+import org.apache.spark.sql.connector.catalog.functions.BoundFunction;
+import org.apache.spark.sql.connector.catalog.functions.ScalarFunction;
+import org.apache.spark.sql.connector.catalog.functions.UnboundFunction;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+
+/**
+ * Function computing the {@link org.apache.amoro.data.DataTreeNode} index of a single column
+ * primary key, which is how keyed tables bucket their data files.
+ *
+ * <p>The node count is part of the function name, e.g. {@code mixed_format_tree_node_8}, so that
+ * Spark only treats scans reporting the same node count as co-partitioned.
+ */
+public class TreeNodeFunction implements UnboundFunction {
+
+  private static final String NAME_PREFIX = "mixed_format_tree_node_";
+
+  private final int nodeCount;
+
+  private TreeNodeFunction(int nodeCount) {
+    this.nodeCount = nodeCount;
+  }
+
+  /** Name of the function computing the node index among the given number of tree nodes. */
+  public static String name(int nodeCount) {
+    return NAME_PREFIX + nodeCount;
+  }
+
+  /**
+   * Load the function by identifier.
+   *
+   * @return the function, or null if the identifier is not a tree node function
+   */
+  public static UnboundFunction load(Identifier ident) {
+    if (ident.namespace().length > 0 || !ident.name().startsWith(NAME_PREFIX)) {
+      return null;
+    }
+    int nodeCount;
+    try {
+      nodeCount = Integer.parseInt(ident.name().substring(NAME_PREFIX.length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    if (nodeCount <= 0 || (nodeCount & (nodeCount - 1)) != 0) {
+      return null;
+    }
+    return new TreeNodeFunction(nodeCount);
+  }
+
+  @Override
+  public BoundFunction bind(StructType inputType) {
+    if (inputType.fields().length != 1) {
+      throw new UnsupportedOperationException(
+          "Wrong number of inputs, expected a single primary key column: " + inputType);
+    }
+    return new BoundTreeNodeFunction(nodeCount, inputType);
+  }
+
+  @Override
+  public String description() {
+    return name()
+        + "(col) - Returns the tree node index of a single column primary key among "
+        + nodeCount
+        + " nodes";
+  }
+
+  @Override
+  public String name() {
+    return name(nodeCount);
+  }
+
+  private static class BoundTreeNodeFunction implements ScalarFunction<Integer> {
+    private final int nodeCount;
+    private final StructType inputType;
+    private transient SparkInternalRowWrapper wrapper;
+    private transient PrimaryKeyData keyData;
+
+    private BoundTreeNodeFunction(int nodeCount, StructType inputType) {
+      this.nodeCount = nodeCount;
+      this.inputType = inputType;
+    }
+
+    @Override
+    public Integer produceResult(InternalRow input) {
+      if (keyData == null) {
+        // hash the key the same way as the writers do, which wrap rows to compute the tree node
+        Schema keySchema = SparkSchemaUtil.convert(inputType);
+        PrimaryKeySpec keySpec =
+            PrimaryKeySpec.builderFor(keySchema).addColumn(keySchema.columns().get(0)).build();
+        this.wrapper = new SparkInternalRowWrapper(inputType);
+        this.keyData = new PrimaryKeyData(keySpec, keySchema);
+      }
+      keyData.primaryKey(wrapper.wrap(input));
+      return (int) keyData.treeNode(nodeCount - 1).index();
+    }
+
+    @Override
+    public DataType[] inputTypes() {
+      return new DataType[] {inputType.fields()[0].dataType()};
+    }
+
+    @Override
+    public DataType resultType() {
+      return DataTypes.IntegerType;
+    }
+
+    @Override
+    public boolean isResultNullable() {
+      return false;
+    }
+
+    @Override
+    public String name() {
+      return TreeNodeFunction.name(nodeCount);
+    }
+
+    @Override
+    public String canonicalName() {
+      return String.format(
+          "mixed_format.tree_node_%d(%s)",
+          nodeCount, inputType.fields()[0].dataType().catalogString());
+    }
+  }
+}
@@ -19,14 +19,21 @@
 package org.apache.amoro.spark.reader;
 
 import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.scan.BaseCombinedScanTask;
 import org.apache.amoro.scan.CombinedScanTask;
 import org.apache.amoro.scan.KeyedTableScan;
 import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.scan.MixedFileScanTask;
+import org.apache.amoro.scan.NodeFileScanTask;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.spark.functions.TreeNodeFunction;
+import org.apache.amoro.spark.mixed.SparkSQLProperties;
 import org.apache.amoro.spark.util.Stats;
 import org.apache.amoro.table.KeyedTable;
 import org.apache.amoro.table.PrimaryKeySpec;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.PartitionField;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.TableProperties;
 import org.apache.iceberg.expressions.Expression;
@@ -34,38 +41,63 @@ import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.spark.Spark3Util;
 import org.apache.iceberg.spark.SparkSchemaUtil;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.expressions.GenericInternalRow;
+import org.apache.spark.sql.connector.expressions.Expressions;
+import org.apache.spark.sql.connector.expressions.NamedReference;
 import org.apache.spark.sql.connector.read.Batch;
+import org.apache.spark.sql.connector.read.HasPartitionKey;
 import org.apache.spark.sql.connector.read.InputPartition;
 import org.apache.spark.sql.connector.read.PartitionReader;
 import org.apache.spark.sql.connector.read.PartitionReaderFactory;
 import org.apache.spark.sql.connector.read.Scan;
 import org.apache.spark.sql.connector.read.Statistics;
+import org.apache.spark.sql.connector.read.SupportsReportPartitioning;
 import org.apache.spark.sql.connector.read.SupportsReportStatistics;
+import org.apache.spark.sql.connector.read.SupportsRuntimeFiltering;
+import org.apache.spark.sql.connector.read.partitioning.KeyGroupedPartitioning;
+import org.apache.spark.sql.connector.read.partitioning.Partitioning;
+import org.apache.spark.sql.connector.read.partitioning.UnknownPartitioning;
+import org.apache.spark.sql.sources.Filter;
 import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.util.CaseInsensitiveStringMap;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
+import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistics {
+public class KeyedSparkBatchScan
+    implements Scan,
+        Batch,
+        SupportsReportStatistics,
+        SupportsRuntimeFiltering,
+        SupportsReportPartitioning {
   private static final Logger LOG = LoggerFactory.getLogger(KeyedSparkBatchScan.class);
 
+  private final SparkSession spark;
   private final KeyedTable table;
   private final boolean caseSensitive;
   private final Schema expectedSchema;
   private final List<Expression> filterExpressions;
+  private final List<Expression> runtimeFilterExpressions = Lists.newArrayList();
   private StructType readSchema = null;
   private List<CombinedScanTask> tasks = null;
+  private Integer partitionNodeCount = null;
 
   KeyedSparkBatchScan(
+      SparkSession spark,
       KeyedTable table,
       boolean caseSensitive,
       Schema expectedSchema,
@@ -75,6 +107,7 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
     Preconditions.checkNotNull(expectedSchema, "expectedSchema must not be null");
     Preconditions.checkNotNull(filters, "filters must not be null");
 
+    this.spark = spark;
     this.table = table;
     this.caseSensitive = caseSensitive;
     this.expectedSchema = expectedSchema;
@@ -96,6 +129,10 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
 
   @Override
   public InputPartition[] planInputPartitions() {
+    int nodeCount = partitionNodeCount();
+    if (nodeCount > 0) {
+      return planNodePartitions(nodeCount);
+    }
     List<CombinedScanTask> scanTasks = tasks();
     MixedFormatInputPartition[] readTasks = new MixedFormatInputPartition[scanTasks.size()];
     for (int i = 0; i < scanTasks.size(); i++) {
@@ -105,9 +142,119 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
     return readTasks;
   }
 
+  /**
+   * Plan one input partition per tree node, including nodes without files, so that scans of
+   * co-bucketed tables report the same partition keys. Tasks of finer nodes are merged into their
+   * ancestor among the reported nodes.
+   */
+  private InputPartition[] planNodePartitions(int nodeCount) {
+    List<List<NodeFileScanTask>> nodeTasks = Lists.newArrayListWithCapacity(nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      nodeTasks.add(Lists.newArrayList());
+    }
+    for (CombinedScanTask combinedScanTask : tasks()) {
+      for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+        NodeFileScanTask nodeTask = (NodeFileScanTask) task;
+        nodeTasks.get((int) (nodeTask.treeNode().index() & (nodeCount - 1))).add(nodeTask);
+      }
+    }
+    InputPartition[] readTasks = new InputPartition[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      readTasks[i] =
+          new NodeInputPartition(
+              new BaseCombinedScanTask(nodeTasks.get(i)), table, expectedSchema, caseSensitive, i);
+    }
+    return readTasks;
+  }
+
+  @Override
+  public Partitioning outputPartitioning() {
+    int nodeCount = partitionNodeCount();
+    if (nodeCount > 0) {
+      String keyColumn = table.primaryKeySpec().fields().get(0).fieldName();
+      org.apache.spark.sql.connector.expressions.Expression[] keys = {
+        Expressions.apply(TreeNodeFunction.name(nodeCount), Expressions.column(keyColumn))
+      };
+      return new KeyGroupedPartitioning(keys, nodeCount);
+    }
+    return new UnknownPartitioning(tasks().size());
+  }
+
+  /**
+   * Number of tree nodes the scan is partitioned by, 0 if the scan does not report its
+   * partitioning. It is fixed once decided, as runtime filters must not change the partitioning.
+   */
+  private int partitionNodeCount() {
+    if (partitionNodeCount == null) {
+      this.partitionNodeCount = decidePartitionNodeCount();
+    }
+    return partitionNodeCount;
+  }
+
+  private int decidePartitionNodeCount() {
+    boolean enabled =
+        Boolean.parseBoolean(
+            spark
+                .conf()
+                .get(
+                    SparkSQLProperties.REPORT_PARTITIONING_ENABLED,
+                    SparkSQLProperties.REPORT_PARTITIONING_ENABLED_DEFAULT));
+    List<PrimaryKeySpec.PrimaryKeyField> keyFields = table.primaryKeySpec().fields();
+    // the node index is only derivable from the key column if it is the whole primary key
+    if (!enabled
+        || keyFields.size() != 1
+        || expectedSchema.findField(keyFields.get(0).fieldName()) == null) {
+      return 0;
+    }
+
+    // data of a coarser node covers all its descendants, so the smallest node count of the
+    // table is the finest partitioning all files agree on
+    long mask =
+        Math.min(
+            PropertyUtil.propertyAsInt(
+                    table.properties(),
+                    org.apache.amoro.table.TableProperties.BASE_FILE_INDEX_HASH_BUCKET,
+                    org.apache.amoro.table.TableProperties.BASE_FILE_INDEX_HASH_BUCKET_DEFAULT)
+                - 1,
+            PropertyUtil.propertyAsInt(
+                    table.properties(),
+                    org.apache.amoro.table.TableProperties.CHANGE_FILE_INDEX_HASH_BUCKET,
+                    org.apache.amoro.table.TableProperties.CHANGE_FILE_INDEX_HASH_BUCKET_DEFAULT)
+                - 1);
+    for (CombinedScanTask combinedScanTask : tasks()) {
+      for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+        mask = Math.min(mask, ((NodeFileScanTask) task).treeNode().mask());
+      }
+    }
+    long nodeCount = mask + 1;
+
+    String configuredNodeCount =
+        spark.conf().get(SparkSQLProperties.REPORT_PARTITIONING_NODE_COUNT, null);
+    if (configuredNodeCount != null) {
+      int configured = Integer.parseInt(configuredNodeCount);
+      Preconditions.checkArgument(
+          configured > 0 && (configured & (configured - 1)) == 0,
+          "%s must be a power of 2: %s",
+          SparkSQLProperties.REPORT_PARTITIONING_NODE_COUNT,
+          configured);
+      if (configured > nodeCount) {
+        LOG.info(
+            "Not report partitioning of table {}, which has {} tree nodes less than {}",
+            table.id(),
+            nodeCount,
+            configured);
+        return 0;
+      }
+      nodeCount = configured;
+    }
+    return nodeCount > 1 ? (int) nodeCount : 0;
+  }
+
   @Override
   public PartitionReaderFactory createReaderFactory() {
-    return new ReaderFactory();
+    Set<FileFormat> formats = dataFileFormats();
+    boolean batchReads = SparkBatchReaders.batchReadsEnabled(spark, table, expectedSchema, formats);
+    return new ReaderFactory(batchReads, SparkBatchReaders.batchSize(table, formats));
   }
 
   @Override
@@ -126,6 +273,72 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
     return new Stats(sizeInBytes, numRows);
   }
 
+  @Override
+  public NamedReference[] filterAttributes() {
+    Set<String> attributes = new LinkedHashSet<>();
+    for (PartitionField field : table.spec().fields()) {
+      if (expectedSchema.findField(field.sourceId()) != null) {
+        attributes.add(table.schema().findColumnName(field.sourceId()));
+      }
+    }
+    for (PrimaryKeySpec.PrimaryKeyField field : table.primaryKeySpec().fields()) {
+      if (expectedSchema.findField(field.fieldName()) != null) {
+        attributes.add(field.fieldName());
+      }
+    }
+    return attributes.stream().map(Expressions::column).toArray(NamedReference[]::new);
+  }
+
+  /**
+   * Prune the planned tasks by runtime filters on partition and primary key columns. Data files
+   * whose partition or column metrics could not match are dropped, equality deletes are kept with
+   * the remaining data files of the same node.
+   */
+  @Override
+  public void filter(Filter[] filters) {
+    Expression runtimeFilter =
+        RuntimeFilterEvaluator.convert(filters, table.schema(), caseSensitive);
+    if (runtimeFilter.op() == Expression.Operation.TRUE) {
+      return;
+    }
+
+    RuntimeFilterEvaluator evaluator =
+        new RuntimeFilterEvaluator(table.schema(), runtimeFilter, caseSensitive);
+    List<CombinedScanTask> filteredTasks = Lists.newArrayList();
+    int fileCount = 0;
+    int filteredFileCount = 0;
+    for (CombinedScanTask combinedScanTask : tasks()) {
+      List<NodeFileScanTask> nodeTasks = Lists.newArrayList();
+      for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+        List<MixedFileScanTask> dataTasks =
+            task.dataTasks().stream()
+                .filter(dataTask -> evaluator.eval(dataTask.spec(), dataTask.file()))
+                .collect(Collectors.toList());
+        fileCount += task.dataTasks().size();
+        filteredFileCount += dataTasks.size();
+        if (dataTasks.size() == task.dataTasks().size()) {
+          nodeTasks.add((NodeFileScanTask) task);
+        } else if (!dataTasks.isEmpty()) {
+          NodeFileScanTask nodeTask = new NodeFileScanTask(((NodeFileScanTask) task).treeNode());
+          nodeTask.addTasks(dataTasks);
+          nodeTask.addTasks(task.mixedEquityDeletes());
+          nodeTasks.add(nodeTask);
+        }
+      }
+      if (!nodeTasks.isEmpty()) {
+        filteredTasks.add(new BaseCombinedScanTask(nodeTasks));
+      }
+    }
+    LOG.info(
+        "{} of {} data files are left by runtime filter {} on table {}",
+        filteredFileCount,
+        fileCount,
+        runtimeFilter,
+        table.id());
+    this.tasks = filteredTasks;
+    this.runtimeFilterExpressions.add(runtimeFilter);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -140,12 +353,25 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
     return table.id().equals(that.table.id())
         && readSchema().equals(that.readSchema())
         && // compare Spark schemas to ignore field ids
-        filterExpressions.toString().equals(that.filterExpressions.toString());
+        filterExpressions.toString().equals(that.filterExpressions.toString())
+        && runtimeFilterExpressions.toString().equals(that.runtimeFilterExpressions.toString());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(table.id(), readSchema());
+    return Objects.hash(table.id(), readSchema(), runtimeFilterExpressions.toString());
+  }
+
+  private Set<FileFormat> dataFileFormats() {
+    Set<FileFormat> formats = EnumSet.noneOf(FileFormat.class);
+    for (CombinedScanTask combinedScanTask : tasks()) {
+      for (KeyedTableScanTask keyedTableScanTask : combinedScanTask.tasks()) {
+        for (MixedFileScanTask fileScanTask : keyedTableScanTask.dataTasks()) {
+          formats.add(fileScanTask.file().format());
+        }
+      }
+    }
+    return formats;
   }
 
   private List<CombinedScanTask> tasks() {
@@ -174,7 +400,13 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
   public String description() {
     String filters =
         filterExpressions.stream().map(Spark3Util::describe).collect(Collectors.joining(", "));
-    return String.format("%s [filters=%s]", table, filters);
+    String runtimeFilters =
+        runtimeFilterExpressions.stream()
+            .map(Spark3Util::describe)
+            .collect(Collectors.joining(", "));
+    String partitioning = partitionNodeCount() > 0 ? ", treeNodes=" + partitionNodeCount() : "";
+    return String.format(
+        "%s [filters=%s, runtimeFilters=%s%s]", table, filters, runtimeFilters, partitioning);
   }
 
   @Override
@@ -185,6 +417,14 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
   }
 
   private static class ReaderFactory implements PartitionReaderFactory {
+    private final boolean batchReads;
+    private final int batchSize;
+
+    ReaderFactory(boolean batchReads, int batchSize) {
+      this.batchReads = batchReads;
+      this.batchSize = batchSize;
+    }
+
     @Override
     public PartitionReader<InternalRow> createReader(InputPartition partition) {
       if (partition instanceof MixedFormatInputPartition) {
@@ -193,6 +433,20 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
         throw new UnsupportedOperationException("Incorrect input partition type: " + partition);
       }
     }
+
+    @Override
+    public PartitionReader<ColumnarBatch> createColumnarReader(InputPartition partition) {
+      if (partition instanceof MixedFormatInputPartition) {
+        return new BatchReader((MixedFormatInputPartition) partition, batchSize);
+      } else {
+        throw new UnsupportedOperationException("Incorrect input partition type: " + partition);
+      }
+    }
+
+    @Override
+    public boolean supportColumnarReads(InputPartition partition) {
+      return batchReads;
+    }
   }
 
   private static class RowReader implements PartitionReader<InternalRow> {
@@ -246,6 +500,58 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
     }
   }
 
+  private static class BatchReader implements PartitionReader<ColumnarBatch> {
+
+    SparkKeyedBatchDataReader reader;
+    Iterator<KeyedTableScanTask> scanTasks;
+    KeyedTableScanTask currentScanTask;
+    CloseableIterator<ColumnarBatch> currentIterator = CloseableIterator.empty();
+    ColumnarBatch current;
+
+    BatchReader(MixedFormatInputPartition task, int batchSize) {
+      reader =
+          new SparkKeyedBatchDataReader(
+              task.io,
+              task.tableSchema,
+              task.expectedSchema,
+              task.keySpec,
+              task.nameMapping,
+              task.caseSensitive,
+              batchSize);
+      scanTasks = task.combinedScanTask.tasks().iterator();
+    }
+
+    @Override
+    public boolean next() throws IOException {
+      while (true) {
+        if (currentIterator.hasNext()) {
+          this.current = currentIterator.next();
+          return true;
+        } else if (scanTasks.hasNext()) {
+          this.currentIterator.close();
+          this.currentScanTask = scanTasks.next();
+          this.currentIterator = reader.readBatches(this.currentScanTask);
+        } else {
+          this.currentIterator.close();
+          return false;
+        }
+      }
+    }
+
+    @Override
+    public ColumnarBatch get() {
+      return this.current;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.currentIterator.close();
+      while (scanTasks.hasNext()) {
+        scanTasks.next();
+      }
+    }
+  }
+
   private static class MixedFormatInputPartition implements InputPartition, Serializable {
     final CombinedScanTask combinedScanTask;
     final AuthenticatedFileIO io;
@@ -269,4 +575,25 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
       this.nameMapping = table.properties().get(TableProperties.DEFAULT_NAME_MAPPING);
     }
   }
+
+  /** Input partition of all tasks of a tree node, keyed by the node index. */
+  private static class NodeInputPartition extends MixedFormatInputPartition
+      implements HasPartitionKey {
+    final int nodeIndex;
+
+    NodeInputPartition(
+        CombinedScanTask combinedScanTask,
+        KeyedTable table,
+        Schema expectedSchema,
+        boolean caseSensitive,
+        int nodeIndex) {
+      super(combinedScanTask, table, expectedSchema, caseSensitive);
+      this.nodeIndex = nodeIndex;
+    }
+
+    @Override
+    public InternalRow partitionKey() {
+      return new GenericInternalRow(new Object[] {nodeIndex});
+    }
+  }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.exceptions.ValidationException;
+import org.apache.iceberg.expressions.Binder;
+import org.apache.iceberg.expressions.Evaluator;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.expressions.InclusiveMetricsEvaluator;
+import org.apache.iceberg.expressions.Projections;
+import org.apache.iceberg.spark.SparkFilters;
+import org.apache.spark.sql.sources.Filter;
+
+import java.util.Map;
+
+/**
+ * Evaluates runtime filters Spark pushes down after planning, like dynamic partition pruning
+ * filters of joins, against the partitions and the column metrics of planned files.
+ */
+class RuntimeFilterEvaluator {
+
+  private final Schema schema;
+  private final Expression expression;
+  private final boolean caseSensitive;
+  private final Map<PartitionSpec, Evaluator> partitionEvaluators = Maps.newHashMap();
+  private InclusiveMetricsEvaluator metricsEvaluator;
+
+  RuntimeFilterEvaluator(Schema schema, Expression expression, boolean caseSensitive) {
+    this.schema = schema;
+    this.expression = expression;
+    this.caseSensitive = caseSensitive;
+  }
+
+  /**
+   * Convert runtime filters to an expression, filters which could not be converted or bound to the
+   * schema are ignored as Spark evaluates them on rows anyway.
+   */
+  static Expression convert(Filter[] filters, Schema schema, boolean caseSensitive) {
+    Expression expression = Expressions.alwaysTrue();
+    for (Filter filter : filters) {
+      Expression converted = SparkFilters.convert(filter);
+      if (converted != null) {
+        try {
+          Binder.bind(schema.asStruct(), converted, caseSensitive);
+          expression = Expressions.and(expression, converted);
+        } catch (ValidationException e) {
+          // binding to the table schema failed, so this filter could not prune files
+        }
+      }
+    }
+    return expression;
+  }
+
+  /** Whether rows of the file of the partition spec might match the filters. */
+  boolean eval(PartitionSpec spec, ContentFile<?> file) {
+    Evaluator partitionEvaluator =
+        partitionEvaluators.computeIfAbsent(
+            spec,
+            key ->
+                new Evaluator(
+                    key.partitionType(),
+                    Projections.inclusive(key, caseSensitive).project(expression),
+                    caseSensitive));
+    if (!partitionEvaluator.eval(file.partition())) {
+      return false;
+    }
+    if (metricsEvaluator == null) {
+      this.metricsEvaluator = new InclusiveMetricsEvaluator(schema, expression, caseSensitive);
+    }
+    return metricsEvaluator.eval(file);
+  }
+}
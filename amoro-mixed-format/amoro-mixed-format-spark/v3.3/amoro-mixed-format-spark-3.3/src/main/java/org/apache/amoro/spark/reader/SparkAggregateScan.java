@@ -0,0 +1,555 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.scan.BaseCombinedScanTask;
+import org.apache.amoro.scan.CombinedScanTask;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.scan.MixedFileScanTask;
+import org.apache.amoro.scan.NodeFileScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.spark.SparkInternalRowWrapper;
+import org.apache.amoro.table.KeyedTable;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.table.PrimaryKeySpec;
+import org.apache.amoro.table.UnkeyedTable;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.MetricsConfig;
+import org.apache.iceberg.MetricsModes;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.expressions.AggregateEvaluator;
+import org.apache.iceberg.expressions.BoundAggregate;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.spark.SparkSchemaUtil;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.expressions.GenericInternalRow;
+import org.apache.spark.sql.connector.read.Batch;
+import org.apache.spark.sql.connector.read.InputPartition;
+import org.apache.spark.sql.connector.read.PartitionReader;
+import org.apache.spark.sql.connector.read.PartitionReaderFactory;
+import org.apache.spark.sql.connector.read.Scan;
+import org.apache.spark.sql.types.Decimal;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.unsafe.types.UTF8String;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A scan answering aggregates pushed down to a mixed-format table.
+ *
+ * <p>Aggregates of a partition are answered from the column stats of its data files in the base
+ * store manifests, if none of the files is changed by the change store or deleted by position
+ * deletes and all of them have the stats needed. Other partitions are read on executors, where
+ * every task aggregates the rows it reads. Spark merges the partial aggregates of both.
+ */
+public class SparkAggregateScan implements Scan, Batch {
+  private static final Logger LOG = LoggerFactory.getLogger(SparkAggregateScan.class);
+
+  private static final Set<Type.TypeID> BOUNDED_TYPES =
+      Sets.immutableEnumSet(
+          Type.TypeID.BOOLEAN,
+          Type.TypeID.INTEGER,
+          Type.TypeID.LONG,
+          Type.TypeID.FLOAT,
+          Type.TypeID.DOUBLE,
+          Type.TypeID.DATE,
+          Type.TypeID.TIMESTAMP,
+          Type.TypeID.STRING,
+          Type.TypeID.DECIMAL);
+
+  private final MixedTable table;
+  private final List<Expression> aggregates;
+  private final StructType readSchema;
+  private final List<InputPartition> partitions;
+  private final int statsPartitionCount;
+
+  private SparkAggregateScan(
+      MixedTable table,
+      List<Expression> aggregates,
+      StructType readSchema,
+      List<InputPartition> partitions,
+      int statsPartitionCount) {
+    this.table = table;
+    this.aggregates = aggregates;
+    this.readSchema = readSchema;
+    this.partitions = partitions;
+    this.statsPartitionCount = statsPartitionCount;
+  }
+
+  /**
+   * Plan a scan of the aggregates.
+   *
+   * @param table the table to aggregate
+   * @param inputSchema the projection of the columns aggregated, which aggregates are bound to
+   * @param aggregates count, min and max aggregates
+   * @param caseSensitive whether column names are case sensitive
+   * @return the scan, or null if no partition could be answered from column stats, so that a
+   *     regular scan would be no worse
+   */
+  static SparkAggregateScan plan(
+      MixedTable table, Schema inputSchema, List<Expression> aggregates, boolean caseSensitive) {
+    AggregateEvaluator resultEvaluator = AggregateEvaluator.create(inputSchema, aggregates);
+    UnkeyedTable statsTable =
+        table.isKeyedTable() ? table.asKeyedTable().baseTable() : table.asUnkeyedTable();
+    if (!statsSupport(statsTable, resultEvaluator.aggregates())) {
+      LOG.info("Column stats of table {} could not answer aggregates {}", table.id(), aggregates);
+      return null;
+    }
+
+    StatsCollector stats = new StatsCollector(inputSchema, aggregates);
+    List<InputPartition> partitions = Lists.newArrayList();
+    if (table.isKeyedTable()) {
+      List<CombinedScanTask> tasks = planKeyedTasks(table.asKeyedTable());
+      for (CombinedScanTask combinedScanTask : tasks) {
+        for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+          if (task.dataTasks().isEmpty()) {
+            continue;
+          }
+          String partition = partitionKey(task);
+          boolean exact =
+              task.insertTasks().isEmpty()
+                  && task.mixedEquityDeletes().isEmpty()
+                  && task.baseTasks().stream().allMatch(base -> base.deletes().isEmpty());
+          stats.add(
+              partition,
+              exact,
+              task.baseTasks().stream().map(MixedFileScanTask::file).collect(Collectors.toList()));
+        }
+      }
+      if (stats.statsPartitionCount() == 0) {
+        return null;
+      }
+      for (CombinedScanTask combinedScanTask : tasks) {
+        List<NodeFileScanTask> fallbackTasks = Lists.newArrayList();
+        for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+          if (!task.dataTasks().isEmpty() && !stats.answered(partitionKey(task))) {
+            fallbackTasks.add((NodeFileScanTask) task);
+          }
+        }
+        if (!fallbackTasks.isEmpty()) {
+          partitions.add(
+              new KeyedAggregatePartition(
+                  new BaseCombinedScanTask(fallbackTasks),
+                  table.asKeyedTable(),
+                  inputSchema,
+                  aggregates,
+                  caseSensitive));
+        }
+      }
+    } else {
+      List<org.apache.iceberg.CombinedScanTask> tasks = planUnkeyedTasks(table.asUnkeyedTable());
+      for (org.apache.iceberg.CombinedScanTask combinedScanTask : tasks) {
+        for (FileScanTask task : combinedScanTask.files()) {
+          stats.add(
+              partitionKey(task.spec(), task.file().partition()),
+              task.deletes().isEmpty(),
+              Lists.newArrayList(task.file()));
+        }
+      }
+      if (stats.statsPartitionCount() == 0) {
+        return null;
+      }
+      for (org.apache.iceberg.CombinedScanTask combinedScanTask : tasks) {
+        List<FileScanTask> fallbackTasks =
+            combinedScanTask.files().stream()
+                .filter(task -> !stats.answered(partitionKey(task.spec(), task.file().partition())))
+                .collect(Collectors.toList());
+        if (!fallbackTasks.isEmpty()) {
+          partitions.add(
+              new UnkeyedAggregatePartition(
+                  new org.apache.iceberg.BaseCombinedScanTask(fallbackTasks),
+                  table.asUnkeyedTable(),
+                  inputSchema,
+                  aggregates,
+                  caseSensitive));
+        }
+      }
+    }
+
+    Types.StructType resultType = resultEvaluator.resultType();
+    InternalRow[] statsRows =
+        stats.results().stream()
+            .map(result -> toInternalRow(resultType, result))
+            .toArray(InternalRow[]::new);
+    partitions.add(0, new StatsPartition(statsRows));
+    LOG.info(
+        "Aggregates {} of table {} are answered from stats of {} partitions, "
+            + "{} tasks are left to read",
+        aggregates,
+        table.id(),
+        stats.statsPartitionCount(),
+        partitions.size() - 1);
+    return new SparkAggregateScan(
+        table,
+        aggregates,
+        SparkSchemaUtil.convert(new Schema(resultType.fields())),
+        partitions,
+        stats.statsPartitionCount());
+  }
+
+  @Override
+  public StructType readSchema() {
+    return readSchema;
+  }
+
+  @Override
+  public Batch toBatch() {
+    return this;
+  }
+
+  @Override
+  public InputPartition[] planInputPartitions() {
+    return partitions.toArray(new InputPartition[0]);
+  }
+
+  @Override
+  public PartitionReaderFactory createReaderFactory() {
+    return new ReaderFactory();
+  }
+
+  @Override
+  public String description() {
+    return String.format(
+        "%s [aggregates=%s, statsPartitions=%d, readTasks=%d]",
+        table, aggregates, statsPartitionCount, partitions.size() - 1);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "AggregateScan(table=%s, aggregates=%s, statsPartitions=%d, readTasks=%d)",
+        table, aggregates, statsPartitionCount, partitions.size() - 1);
+  }
+
+  private static List<CombinedScanTask> planKeyedTasks(KeyedTable table) {
+    try (CloseableIterable<CombinedScanTask> tasks =
+        table.newScan().includeColumnStats().planTasks()) {
+      return Lists.newArrayList(tasks);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close table scan", e);
+    }
+  }
+
+  private static List<org.apache.iceberg.CombinedScanTask> planUnkeyedTasks(UnkeyedTable table) {
+    try (CloseableIterable<org.apache.iceberg.CombinedScanTask> tasks =
+        table.newScan().includeColumnStats().planTasks()) {
+      return Lists.newArrayList(tasks);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close table scan", e);
+    }
+  }
+
+  private static String partitionKey(KeyedTableScanTask task) {
+    MixedFileScanTask dataTask = task.dataTasks().get(0);
+    return partitionKey(dataTask.spec(), dataTask.file().partition());
+  }
+
+  private static String partitionKey(PartitionSpec spec, StructLike partition) {
+    return spec.specId() + "/" + spec.partitionToPath(partition);
+  }
+
+  /**
+   * Whether column stats could answer the aggregates. Min and max are answered only for types with
+   * exact bounds, and bounds of string columns are not exact if truncated by the metrics mode.
+   */
+  private static boolean statsSupport(UnkeyedTable table, List<BoundAggregate<?, ?>> aggregates) {
+    MetricsConfig config = MetricsConfig.forTable(table);
+    for (BoundAggregate<?, ?> aggregate : aggregates) {
+      if (aggregate.op() == Expression.Operation.COUNT_STAR) {
+        continue;
+      }
+      MetricsModes.MetricsMode mode = config.columnMode(aggregate.columnName());
+      if (mode instanceof MetricsModes.None) {
+        return false;
+      } else if (aggregate.op() != Expression.Operation.COUNT) {
+        if (!BOUNDED_TYPES.contains(aggregate.type().typeId())
+            || mode instanceof MetricsModes.Counts) {
+          return false;
+        } else if (mode instanceof MetricsModes.Truncate
+            && aggregate.type().typeId() == Type.TypeID.STRING) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static InternalRow toInternalRow(Types.StructType type, StructLike struct) {
+    Object[] values = new Object[type.fields().size()];
+    for (int i = 0; i < values.length; i++) {
+      Type fieldType = type.fields().get(i).type();
+      Object value = struct.get(i, Object.class);
+      if (value instanceof CharSequence) {
+        values[i] = UTF8String.fromString(value.toString());
+      } else if (value instanceof BigDecimal) {
+        Types.DecimalType decimalType = (Types.DecimalType) fieldType;
+        values[i] = Decimal.apply((BigDecimal) value, decimalType.precision(), decimalType.scale());
+      } else {
+        values[i] = value;
+      }
+    }
+    return new GenericInternalRow(values);
+  }
+
+  /** Collects the aggregates of partitions answered from column stats. */
+  private static class StatsCollector {
+    private final Schema inputSchema;
+    private final List<Expression> aggregates;
+    private final List<Integer> floatingFieldIds = Lists.newArrayList();
+    private final Map<String, AggregateEvaluator> evaluators = Maps.newHashMap();
+    private final Map<String, Boolean> exactPartitions = Maps.newHashMap();
+
+    private StatsCollector(Schema inputSchema, List<Expression> aggregates) {
+      this.inputSchema = inputSchema;
+      this.aggregates = aggregates;
+      for (BoundAggregate<?, ?> aggregate :
+          AggregateEvaluator.create(inputSchema, aggregates).aggregates()) {
+        Expression.Operation op = aggregate.op();
+        Type.TypeID typeId =
+            op == Expression.Operation.COUNT_STAR ? null : aggregate.type().typeId();
+        if ((op == Expression.Operation.MIN || op == Expression.Operation.MAX)
+            && (typeId == Type.TypeID.FLOAT || typeId == Type.TypeID.DOUBLE)) {
+          floatingFieldIds.add(aggregate.ref().fieldId());
+        }
+      }
+    }
+
+    /**
+     * Add data files of a partition.
+     *
+     * @param partition key of the partition
+     * @param exact whether rows of the files are not changed by other files
+     * @param files data files
+     */
+    void add(String partition, boolean exact, List<? extends DataFile> files) {
+      if (!exactPartitions.getOrDefault(partition, true)) {
+        return;
+      }
+      if (!exact || !files.stream().allMatch(this::withoutNaN)) {
+        exactPartitions.put(partition, false);
+        evaluators.remove(partition);
+        return;
+      }
+      exactPartitions.put(partition, true);
+      AggregateEvaluator evaluator =
+          evaluators.computeIfAbsent(
+              partition, key -> AggregateEvaluator.create(inputSchema, aggregates));
+      files.forEach(evaluator::update);
+      if (!evaluator.allAggregatorsValid()) {
+        // stats needed are missing
+        exactPartitions.put(partition, false);
+        evaluators.remove(partition);
+      }
+    }
+
+    /**
+     * Bounds of floating point columns ignore NaN values, which Spark takes as the max value, so
+     * they are exact only if there is no NaN.
+     */
+    private boolean withoutNaN(DataFile file) {
+      for (Integer fieldId : floatingFieldIds) {
+        Long nanCount = file.nanValueCounts() == null ? null : file.nanValueCounts().get(fieldId);
+        if (nanCount == null || nanCount > 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    boolean answered(String partition) {
+      return evaluators.containsKey(partition);
+    }
+
+    int statsPartitionCount() {
+      return evaluators.size();
+    }
+
+    List<StructLike> results() {
+      return evaluators.values().stream()
+          .map(AggregateEvaluator::result)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static class ReaderFactory implements PartitionReaderFactory {
+    @Override
+    public PartitionReader<InternalRow> createReader(InputPartition partition) {
+      if (partition instanceof AggregatePartition) {
+        return new AggregateReader((AggregatePartition) partition);
+      } else {
+        throw new UnsupportedOperationException("Incorrect input partition type: " + partition);
+      }
+    }
+  }
+
+  private static class AggregateReader implements PartitionReader<InternalRow> {
+    private final AggregatePartition partition;
+    private Iterator<InternalRow> rows;
+    private InternalRow current;
+
+    AggregateReader(AggregatePartition partition) {
+      this.partition = partition;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+      if (rows == null) {
+        this.rows = partition.aggregate().iterator();
+      }
+      if (rows.hasNext()) {
+        this.current = rows.next();
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public InternalRow get() {
+      return current;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private abstract static class AggregatePartition implements InputPartition, Serializable {
+    /** Partial aggregates of the partition. */
+    abstract List<InternalRow> aggregate() throws IOException;
+  }
+
+  private static class StatsPartition extends AggregatePartition {
+    private final InternalRow[] rows;
+
+    StatsPartition(InternalRow[] rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    List<InternalRow> aggregate() {
+      return Lists.newArrayList(rows);
+    }
+  }
+
+  /** Partition of tasks that are read and aggregated on executors. */
+  private abstract static class ReadPartition extends AggregatePartition {
+    final AuthenticatedFileIO io;
+    final Schema tableSchema;
+    final Schema inputSchema;
+    final List<Expression> aggregates;
+    final String nameMapping;
+    final boolean caseSensitive;
+
+    ReadPartition(
+        MixedTable table, Schema inputSchema, List<Expression> aggregates, boolean caseSensitive) {
+      this.io = table.io();
+      this.tableSchema = table.schema();
+      this.inputSchema = inputSchema;
+      this.aggregates = aggregates;
+      this.nameMapping = table.properties().get(TableProperties.DEFAULT_NAME_MAPPING);
+      this.caseSensitive = caseSensitive;
+    }
+
+    @Override
+    List<InternalRow> aggregate() throws IOException {
+      AggregateEvaluator evaluator = AggregateEvaluator.create(inputSchema, aggregates);
+      SparkInternalRowWrapper wrapper =
+          new SparkInternalRowWrapper(SparkSchemaUtil.convert(inputSchema));
+      read(row -> evaluator.update(wrapper.wrap(row)));
+      return Lists.newArrayList(toInternalRow(evaluator.resultType(), evaluator.result()));
+    }
+
+    /** Read rows of the input schema, deleted rows are filtered. */
+    abstract void read(Consumer<InternalRow> consumer) throws IOException;
+  }
+
+  private static class KeyedAggregatePartition extends ReadPartition {
+    private final CombinedScanTask combinedScanTask;
+    private final PrimaryKeySpec keySpec;
+
+    KeyedAggregatePartition(
+        CombinedScanTask combinedScanTask,
+        KeyedTable table,
+        Schema inputSchema,
+        List<Expression> aggregates,
+        boolean caseSensitive) {
+      super(table, inputSchema, aggregates, caseSensitive);
+      this.combinedScanTask = combinedScanTask;
+      this.keySpec = table.primaryKeySpec();
+    }
+
+    @Override
+    void read(Consumer<InternalRow> consumer) throws IOException {
+      SparkKeyedDataReader reader =
+          new SparkKeyedDataReader(
+              io, tableSchema, inputSchema, keySpec, nameMapping, caseSensitive);
+      for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+        try (CloseableIterator<InternalRow> rows = reader.readData(task)) {
+          rows.forEachRemaining(consumer);
+        }
+      }
+    }
+  }
+
+  private static class UnkeyedAggregatePartition extends ReadPartition {
+    private final org.apache.iceberg.CombinedScanTask combinedScanTask;
+
+    UnkeyedAggregatePartition(
+        org.apache.iceberg.CombinedScanTask combinedScanTask,
+        UnkeyedTable table,
+        Schema inputSchema,
+        List<Expression> aggregates,
+        boolean caseSensitive) {
+      super(table, inputSchema, aggregates, caseSensitive);
+      this.combinedScanTask = combinedScanTask;
+    }
+
+    @Override
+    void read(Consumer<InternalRow> consumer) throws IOException {
+      SparkUnkeyedDataReader reader =
+          new SparkUnkeyedDataReader(io, tableSchema, inputSchema, nameMapping, caseSensitive);
+      for (FileScanTask task : combinedScanTask.files()) {
+        try (CloseableIterable<InternalRow> rows = reader.readData(task)) {
+          rows.forEach(consumer);
+        }
+      }
+    }
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.amoro.spark.reader;
 
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.spark.mixed.SparkSQLProperties;
 import org.apache.amoro.spark.table.SupportsExtendIdentColumns;
 import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.table.UnkeyedTable;
@@ -34,8 +36,16 @@ import org.apache.iceberg.spark.SparkSchemaUtil;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
 import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.connector.expressions.NamedReference;
+import org.apache.spark.sql.connector.expressions.aggregate.AggregateFunc;
+import org.apache.spark.sql.connector.expressions.aggregate.Aggregation;
+import org.apache.spark.sql.connector.expressions.aggregate.Count;
+import org.apache.spark.sql.connector.expressions.aggregate.CountStar;
+import org.apache.spark.sql.connector.expressions.aggregate.Max;
+import org.apache.spark.sql.connector.expressions.aggregate.Min;
 import org.apache.spark.sql.connector.read.Scan;
 import org.apache.spark.sql.connector.read.ScanBuilder;
+import org.apache.spark.sql.connector.read.SupportsPushDownAggregates;
 import org.apache.spark.sql.connector.read.SupportsPushDownFilters;
 import org.apache.spark.sql.connector.read.SupportsPushDownRequiredColumns;
 import org.apache.spark.sql.sources.Filter;
@@ -43,15 +53,18 @@ import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.util.CaseInsensitiveStringMap;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class SparkScanBuilder
     implements ScanBuilder,
         SupportsExtendIdentColumns,
+        SupportsPushDownAggregates,
         SupportsPushDownFilters,
         SupportsPushDownRequiredColumns {
   private static final Filter[] NO_FILTERS = new Filter[0];
 
+  private final SparkSession spark;
   private final MixedTable table;
   private final CaseInsensitiveStringMap options;
 
@@ -62,8 +75,10 @@ public class SparkScanBuilder
   private final boolean caseSensitive;
   private List<Expression> filterExpressions = Lists.newArrayList();
   private Filter[] pushedFilters = NO_FILTERS;
+  private SparkAggregateScan aggregateScan = null;
 
   public SparkScanBuilder(SparkSession spark, MixedTable table, CaseInsensitiveStringMap options) {
+    this.spark = spark;
     this.table = table;
     this.options = options;
     this.caseSensitive = Boolean.parseBoolean(spark.conf().get("spark.sql.caseSensitive"));
@@ -71,6 +86,7 @@ public class SparkScanBuilder
 
   public SparkScanBuilder(
       SparkSession spark, MixedTable table, CaseInsensitiveStringMap options, Schema schema) {
+    this.spark = spark;
     this.table = table;
     this.options = options;
     this.schema = schema;
@@ -148,6 +164,81 @@ public class SparkScanBuilder
     return pushedFilters;
   }
 
+  @Override
+  public boolean pushAggregation(Aggregation aggregation) {
+    boolean enabled =
+        Boolean.parseBoolean(
+            spark
+                .conf()
+                .get(
+                    SparkSQLProperties.AGGREGATE_PUSH_DOWN_ENABLED,
+                    SparkSQLProperties.AGGREGATE_PUSH_DOWN_ENABLED_DEFAULT));
+    // aggregates grouped by columns are not answered by column stats of files
+    if (!enabled || aggregation.groupByExpressions().length > 0) {
+      return false;
+    }
+
+    List<Expression> aggregates = Lists.newArrayList();
+    Set<String> columns = Sets.newLinkedHashSet();
+    for (AggregateFunc aggregateFunc : aggregation.aggregateExpressions()) {
+      Expression aggregate = convertAggregate(aggregateFunc, columns);
+      if (aggregate == null) {
+        return false;
+      }
+      aggregates.add(aggregate);
+    }
+
+    Schema inputSchema;
+    try {
+      inputSchema =
+          caseSensitive
+              ? table.schema().select(columns)
+              : table.schema().caseInsensitiveSelect(columns);
+      this.aggregateScan = SparkAggregateScan.plan(table, inputSchema, aggregates, caseSensitive);
+    } catch (ValidationException e) {
+      // aggregates could not be bound to the table schema
+      return false;
+    }
+    return aggregateScan != null;
+  }
+
+  private static Expression convertAggregate(AggregateFunc aggregateFunc, Set<String> columns) {
+    if (aggregateFunc instanceof CountStar) {
+      return Expressions.countStar();
+    } else if (aggregateFunc instanceof Count) {
+      Count count = (Count) aggregateFunc;
+      String column = columnName(count.column());
+      if (count.isDistinct() || column == null) {
+        return null;
+      }
+      columns.add(column);
+      return Expressions.count(column);
+    } else if (aggregateFunc instanceof Min) {
+      String column = columnName(((Min) aggregateFunc).column());
+      if (column == null) {
+        return null;
+      }
+      columns.add(column);
+      return Expressions.min(column);
+    } else if (aggregateFunc instanceof Max) {
+      String column = columnName(((Max) aggregateFunc).column());
+      if (column == null) {
+        return null;
+      }
+      columns.add(column);
+      return Expressions.max(column);
+    }
+    return null;
+  }
+
+  /** Name of a top level column, null if the expression is not a column. */
+  private static String columnName(org.apache.spark.sql.connector.expressions.Expression expr) {
+    if (expr instanceof NamedReference && ((NamedReference) expr).fieldNames().length == 1) {
+      return ((NamedReference) expr).fieldNames()[0];
+    }
+    return null;
+  }
+
   @Override
   public void pruneColumns(StructType requestedSchema) {
     this.requestedProjection = requestedSchema;
@@ -158,8 +249,12 @@ public class SparkScanBuilder
     Preconditions.checkArgument(
         table.isKeyedTable() || table.isUnkeyedTable(),
         "Unable to build scan for table: " + table.id().toString() + ", unknown table " + "type");
+    if (aggregateScan != null) {
+      return aggregateScan;
+    }
     if (table.isKeyedTable()) {
       return new KeyedSparkBatchScan(
+          spark,
           table.asKeyedTable(),
           caseSensitive,
           lazySchemaWithRowIdent(),
@@ -167,6 +262,7 @@ public class SparkScanBuilder
           options);
     } else if (table.isUnkeyedTable()) {
       return new UnkeyedSparkBatchScan(
+          spark,
           table.asUnkeyedTable(),
           caseSensitive,
           lazySchemaWithRowIdent(),
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.reader;
+
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.io.CloseableIterableWrapper;
+import org.apache.amoro.io.CloseablePredicate;
+import org.apache.amoro.io.reader.DataReaderCommon;
+import org.apache.amoro.io.reader.DeleteFilter;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+
+/** Reads {@link FileScanTask}s in columnar batches, deleted rows are dropped from batches. */
+public class SparkUnkeyedBatchDataReader extends SparkUnkeyedDataReader {
+
+  private final int batchSize;
+
+  public SparkUnkeyedBatchDataReader(
+      AuthenticatedFileIO fileIO,
+      Schema tableSchema,
+      Schema projectedSchema,
+      String nameMapping,
+      boolean caseSensitive,
+      int batchSize) {
+    super(fileIO, tableSchema, projectedSchema, nameMapping, caseSensitive);
+    this.batchSize = batchSize;
+  }
+
+  public CloseableIterable<ColumnarBatch> readBatches(FileScanTask task) {
+    DeleteFilter<InternalRow> deleteFilter = createDeleteFilter(task);
+    Schema requiredSchema = deleteFilter.requiredSchema();
+
+    CloseableIterable<ColumnarBatch> batches =
+        SparkBatchReaders.newBatchIterable(
+            fileIO,
+            task,
+            requiredSchema,
+            DataReaderCommon.getIdToConstant(task, requiredSchema, convertConstant),
+            nameMapping,
+            caseSensitive,
+            batchSize);
+    if (!deleteFilter.hasPosDeletes() && !deleteFilter.hasEqDeletes()) {
+      return batches;
+    }
+
+    int numColumns = projectedSchema.columns().size();
+    CloseablePredicate<InternalRow> isDeleted = deleteFilter.deletedPredicate();
+    return new CloseableIterableWrapper<>(
+        CloseableIterable.transform(
+            batches, batch -> SparkBatchReaders.select(batch, numColumns, isDeleted)),
+        isDeleted);
+  }
+}
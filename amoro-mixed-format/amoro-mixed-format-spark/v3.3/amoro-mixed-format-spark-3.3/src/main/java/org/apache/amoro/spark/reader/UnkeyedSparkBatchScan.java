@@ -23,8 +23,11 @@ import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.spark.util.Stats;
 import org.apache.amoro.table.UnkeyedTable;
+import org.apache.iceberg.BaseCombinedScanTask;
 import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionField;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.SnapshotSummary;
 import org.apache.iceberg.TableProperties;
@@ -35,7 +38,10 @@ import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.spark.Spark3Util;
 import org.apache.iceberg.spark.SparkSchemaUtil;
 import org.apache.iceberg.util.PropertyUtil;
+import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.connector.expressions.Expressions;
+import org.apache.spark.sql.connector.expressions.NamedReference;
 import org.apache.spark.sql.connector.read.Batch;
 import org.apache.spark.sql.connector.read.InputPartition;
 import org.apache.spark.sql.connector.read.PartitionReader;
@@ -43,35 +49,45 @@ import org.apache.spark.sql.connector.read.PartitionReaderFactory;
 import org.apache.spark.sql.connector.read.Scan;
 import org.apache.spark.sql.connector.read.Statistics;
 import org.apache.spark.sql.connector.read.SupportsReportStatistics;
+import org.apache.spark.sql.connector.read.SupportsRuntimeFiltering;
+import org.apache.spark.sql.sources.Filter;
 import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.util.CaseInsensitiveStringMap;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
+import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistics {
+public class UnkeyedSparkBatchScan
+    implements Scan, Batch, SupportsReportStatistics, SupportsRuntimeFiltering {
   private static final Logger LOG = LoggerFactory.getLogger(UnkeyedSparkBatchScan.class);
 
   public static final String FILE_NAME_COL = "_file";
   public static final String ROW_POS_COL = "_pos";
   public static final List<String> ROW_ID_COLUMNS = Lists.newArrayList(FILE_NAME_COL, ROW_POS_COL);
 
+  private final SparkSession spark;
   private final UnkeyedTable table;
   private final boolean caseSensitive;
   private final Schema expectedSchema;
   private final List<Expression> filterExpressions;
+  private final List<Expression> runtimeFilterExpressions = Lists.newArrayList();
 
   private StructType readSchema = null;
   private List<CombinedScanTask> tasks = null;
 
   UnkeyedSparkBatchScan(
+      SparkSession spark,
       UnkeyedTable table,
       boolean caseSensitive,
       Schema expectedSchema,
@@ -81,6 +97,7 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     Preconditions.checkNotNull(expectedSchema, "expectedSchema must not be null");
     Preconditions.checkNotNull(filters, "filters must not be null");
 
+    this.spark = spark;
     this.table = table;
     this.caseSensitive = caseSensitive;
     this.expectedSchema = expectedSchema;
@@ -100,7 +117,9 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
 
   @Override
   public PartitionReaderFactory createReaderFactory() {
-    return new ReaderFactory();
+    Set<FileFormat> formats = dataFileFormats();
+    boolean batchReads = SparkBatchReaders.batchReadsEnabled(spark, table, expectedSchema, formats);
+    return new ReaderFactory(batchReads, SparkBatchReaders.batchSize(table, formats));
   }
 
   @Override
@@ -108,7 +127,9 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     if (table.currentSnapshot() == null) {
       return new Stats(0L, 0L);
     }
-    if (!table.spec().isUnpartitioned() && filterExpressions.isEmpty()) {
+    if (!table.spec().isUnpartitioned()
+        && filterExpressions.isEmpty()
+        && runtimeFilterExpressions.isEmpty()) {
       LOG.debug("using table metadata to estimate table statistics");
       long totalRecords =
           PropertyUtil.propertyAsLong(
@@ -143,6 +164,67 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     return this;
   }
 
+  @Override
+  public NamedReference[] filterAttributes() {
+    Set<String> attributes = new LinkedHashSet<>();
+    for (PartitionField field : table.spec().fields()) {
+      if (expectedSchema.findField(field.sourceId()) != null) {
+        attributes.add(table.schema().findColumnName(field.sourceId()));
+      }
+    }
+    return attributes.stream().map(Expressions::column).toArray(NamedReference[]::new);
+  }
+
+  /**
+   * Prune the planned tasks by runtime filters on partition columns, data files whose partition or
+   * column metrics could not match are dropped.
+   */
+  @Override
+  public void filter(Filter[] filters) {
+    Expression runtimeFilter =
+        RuntimeFilterEvaluator.convert(filters, table.schema(), caseSensitive);
+    if (runtimeFilter.op() == Expression.Operation.TRUE) {
+      return;
+    }
+
+    RuntimeFilterEvaluator evaluator =
+        new RuntimeFilterEvaluator(table.schema(), runtimeFilter, caseSensitive);
+    List<CombinedScanTask> filteredTasks = Lists.newArrayList();
+    int fileCount = 0;
+    int filteredFileCount = 0;
+    for (CombinedScanTask combinedScanTask : tasks()) {
+      List<FileScanTask> files =
+          combinedScanTask.files().stream()
+              .filter(file -> evaluator.eval(file.spec(), file.file()))
+              .collect(Collectors.toList());
+      fileCount += combinedScanTask.files().size();
+      filteredFileCount += files.size();
+      if (files.size() == combinedScanTask.files().size()) {
+        filteredTasks.add(combinedScanTask);
+      } else if (!files.isEmpty()) {
+        filteredTasks.add(new BaseCombinedScanTask(files));
+      }
+    }
+    LOG.info(
+        "{} of {} data files are left by runtime filter {} on table {}",
+        filteredFileCount,
+        fileCount,
+        runtimeFilter,
+        table.id());
+    this.tasks = filteredTasks;
+    this.runtimeFilterExpressions.add(runtimeFilter);
+  }
+
+  private Set<FileFormat> dataFileFormats() {
+    Set<FileFormat> formats = EnumSet.noneOf(FileFormat.class);
+    for (CombinedScanTask combinedScanTask : tasks()) {
+      for (FileScanTask fileScanTask : combinedScanTask.files()) {
+        formats.add(fileScanTask.file().format());
+      }
+    }
+    return formats;
+  }
+
   private List<CombinedScanTask> tasks() {
     if (tasks == null) {
       TableScan scan = table.newScan();
@@ -166,6 +248,14 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
   }
 
   private static class ReaderFactory implements PartitionReaderFactory {
+    private final boolean batchReads;
+    private final int batchSize;
+
+    ReaderFactory(boolean batchReads, int batchSize) {
+      this.batchReads = batchReads;
+      this.batchSize = batchSize;
+    }
+
     @Override
     public PartitionReader<InternalRow> createReader(InputPartition partition) {
       if (partition instanceof MixedFormatInputPartition) {
@@ -174,6 +264,20 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
         throw new UnsupportedOperationException("Incorrect input partition type: " + partition);
       }
     }
+
+    @Override
+    public PartitionReader<ColumnarBatch> createColumnarReader(InputPartition partition) {
+      if (partition instanceof MixedFormatInputPartition) {
+        return new BatchReader((MixedFormatInputPartition) partition, batchSize);
+      } else {
+        throw new UnsupportedOperationException("Incorrect input partition type: " + partition);
+      }
+    }
+
+    @Override
+    public boolean supportColumnarReads(InputPartition partition) {
+      return batchReads;
+    }
   }
 
   private static class RowReader implements PartitionReader<InternalRow> {
@@ -222,6 +326,57 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     }
   }
 
+  private static class BatchReader implements PartitionReader<ColumnarBatch> {
+
+    SparkUnkeyedBatchDataReader reader;
+    Iterator<FileScanTask> scanTasks;
+    FileScanTask currentScanTask;
+    CloseableIterator<ColumnarBatch> currentIterator = CloseableIterator.empty();
+    ColumnarBatch current;
+
+    BatchReader(MixedFormatInputPartition task, int batchSize) {
+      reader =
+          new SparkUnkeyedBatchDataReader(
+              task.io,
+              task.tableSchema,
+              task.expectedSchema,
+              task.nameMapping,
+              task.caseSensitive,
+              batchSize);
+      scanTasks = task.combinedScanTask.files().iterator();
+    }
+
+    @Override
+    public boolean next() throws IOException {
+      while (true) {
+        if (currentIterator.hasNext()) {
+          this.current = currentIterator.next();
+          return true;
+        } else if (scanTasks.hasNext()) {
+          this.currentIterator.close();
+          this.currentScanTask = scanTasks.next();
+          this.currentIterator = reader.readBatches(this.currentScanTask).iterator();
+        } else {
+          this.currentIterator.close();
+          return false;
+        }
+      }
+    }
+
+    @Override
+    public ColumnarBatch get() {
+      return this.current;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.currentIterator.close();
+      while (scanTasks.hasNext()) {
+        scanTasks.next();
+      }
+    }
+  }
+
   private static class MixedFormatInputPartition implements InputPartition, Serializable {
     final CombinedScanTask combinedScanTask;
     final AuthenticatedFileIO io;
@@ -256,19 +411,24 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     UnkeyedSparkBatchScan that = (UnkeyedSparkBatchScan) o;
     return table.id().equals(that.table.id())
         && readSchema().equals(that.readSchema())
-        && filterExpressions.toString().equals(that.filterExpressions.toString());
+        && filterExpressions.toString().equals(that.filterExpressions.toString())
+        && runtimeFilterExpressions.toString().equals(that.runtimeFilterExpressions.toString());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(table.id(), readSchema());
+    return Objects.hash(table.id(), readSchema(), runtimeFilterExpressions.toString());
   }
 
   @Override
   public String description() {
     String filters =
         filterExpressions.stream().map(Spark3Util::describe).collect(Collectors.joining(", "));
-    return String.format("%s [filters=%s]", table, filters);
+    String runtimeFilters =
+        runtimeFilterExpressions.stream()
+            .map(Spark3Util::describe)
+            .collect(Collectors.joining(", "));
+    return String.format("%s [filters=%s, runtimeFilters=%s]", table, filters, runtimeFilters);
   }
 
   @Override
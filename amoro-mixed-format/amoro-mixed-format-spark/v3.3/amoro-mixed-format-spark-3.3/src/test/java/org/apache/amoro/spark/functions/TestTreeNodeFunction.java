@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.spark.functions;
+
+import org.apache.amoro.data.PrimaryKeyData;
+import org.apache.amoro.table.PrimaryKeySpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.types.Types;
+import org.apache.spark.sql.catalyst.expressions.GenericInternalRow;
+import org.apache.spark.sql.connector.catalog.Identifier;
+import org.apache.spark.sql.connector.catalog.functions.BoundFunction;
+import org.apache.spark.sql.connector.catalog.functions.ScalarFunction;
+import org.apache.spark.sql.connector.catalog.functions.UnboundFunction;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.unsafe.types.UTF8String;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestTreeNodeFunction {
+
+  @Test
+  public void testLoad() {
+    Assertions.assertNotNull(load(TreeNodeFunction.name(8)));
+    Assertions.assertNull(load("mixed_format_tree_node_6"));
+    Assertions.assertNull(load("mixed_format_tree_node_x"));
+    Assertions.assertNull(load("bucket"));
+    Assertions.assertNull(
+        TreeNodeFunction.load(Identifier.of(new String[] {"db"}, TreeNodeFunction.name(8))));
+  }
+
+  @Test
+  public void testNodeIndexMatchesWriters() {
+    Schema schema = new Schema(Types.NestedField.required(1, "id", Types.StringType.get()));
+    PrimaryKeyData keyData =
+        new PrimaryKeyData(PrimaryKeySpec.builderFor(schema).addColumn("id").build(), schema);
+    GenericRecord record = GenericRecord.create(schema);
+
+    ScalarFunction<Integer> function =
+        bind(TreeNodeFunction.name(8), new StructType().add("id", DataTypes.StringType));
+    for (int i = 0; i < 100; i++) {
+      record.set(0, "key-" + i);
+      keyData.primaryKey(record);
+      int index =
+          function.produceResult(
+              new GenericInternalRow(new Object[] {UTF8String.fromString("key-" + i)}));
+      Assertions.assertEquals(keyData.treeNode(7).index(), index);
+    }
+  }
+
+  @Test
+  public void testCanonicalName() {
+    StructType intKey = new StructType().add("id", DataTypes.IntegerType);
+    StructType longKey = new StructType().add("id", DataTypes.LongType);
+    Assertions.assertEquals(
+        bind(TreeNodeFunction.name(4), intKey).canonicalName(),
+        bind(TreeNodeFunction.name(4), intKey).canonicalName());
+    Assertions.assertNotEquals(
+        bind(TreeNodeFunction.name(4), intKey).canonicalName(),
+        bind(TreeNodeFunction.name(8), intKey).canonicalName());
+    Assertions.assertNotEquals(
+        bind(TreeNodeFunction.name(4), intKey).canonicalName(),
+        bind(TreeNodeFunction.name(4), longKey).canonicalName());
+  }
+
+  private static UnboundFunction load(String name) {
+    return TreeNodeFunction.load(Identifier.of(new String[0], name));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ScalarFunction<Integer> bind(String name, StructType inputType) {
+    BoundFunction function = load(name).bind(inputType);
+    return (ScalarFunction<Integer>) function;
+  }
+}
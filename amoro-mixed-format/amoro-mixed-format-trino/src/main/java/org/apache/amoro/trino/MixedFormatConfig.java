@@ -20,6 +20,10 @@ package org.apache.amoro.trino;
 
 import io.airlift.configuration.Config;
 import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+
+import java.util.concurrent.TimeUnit;
 
 /** Mixed-format configurations */
 public class MixedFormatConfig {
@@ -31,6 +35,14 @@ public class MixedFormatConfig {
 
   private boolean enableSplitTaskByDeleteRatio = true;
 
+  private DataSize eqDeleteCacheSize = DataSize.of(128, DataSize.Unit.MEGABYTE);
+
+  private long planCacheMaxFileCount = 100_000;
+
+  private Duration planCacheTtl = new Duration(10, TimeUnit.MINUTES);
+
+  private boolean planCacheEnabled = true;
+
   public String getCatalogUrl() {
     return catalogUrl;
   }
@@ -51,6 +63,22 @@ public class MixedFormatConfig {
     return enableSplitTaskByDeleteRatio;
   }
 
+  public DataSize getEqDeleteCacheSize() {
+    return eqDeleteCacheSize;
+  }
+
+  public long getPlanCacheMaxFileCount() {
+    return planCacheMaxFileCount;
+  }
+
+  public Duration getPlanCacheTtl() {
+    return planCacheTtl;
+  }
+
+  public boolean isPlanCacheEnabled() {
+    return planCacheEnabled;
+  }
+
   @Config("amoro.url")
   public void setCatalogUrl(String catalogUrl) {
     this.catalogUrl = catalogUrl;
@@ -76,4 +104,31 @@ public class MixedFormatConfig {
   public void setSplitTaskByDeleteRatio(double splitTaskByDeleteRatio) {
     this.splitTaskByDeleteRatio = splitTaskByDeleteRatio;
   }
+
+  @Config("mixed-format.eq-delete-cache-size")
+  @ConfigDescription(
+      "Max estimated heap size of equality delete files cached by a worker, 0 to disable the cache."
+          + " The cache is shared by all catalogs, the size of the first catalog is used")
+  public void setEqDeleteCacheSize(DataSize eqDeleteCacheSize) {
+    this.eqDeleteCacheSize = eqDeleteCacheSize;
+  }
+
+  @Config("mixed-format.plan-cache.max-file-count")
+  @ConfigDescription(
+      "Max number of files in keyed table tasks cached by the coordinator, 0 to disable the cache")
+  public void setPlanCacheMaxFileCount(long planCacheMaxFileCount) {
+    this.planCacheMaxFileCount = planCacheMaxFileCount;
+  }
+
+  @Config("mixed-format.plan-cache.ttl")
+  @ConfigDescription("Time after which the cached tasks of keyed tables expire")
+  public void setPlanCacheTtl(Duration planCacheTtl) {
+    this.planCacheTtl = planCacheTtl;
+  }
+
+  @Config("mixed-format.plan-cache.enabled")
+  @ConfigDescription("Reuse the cached tasks of keyed tables, could be overridden by the session")
+  public void setPlanCacheEnabled(boolean planCacheEnabled) {
+    this.planCacheEnabled = planCacheEnabled;
+  }
 }
@@ -60,8 +60,10 @@ import io.trino.spi.connector.ConnectorSplitManager;
 import io.trino.spi.connector.TableProcedureMetadata;
 import io.trino.spi.procedure.Procedure;
 import io.trino.spi.type.TypeManager;
+import org.apache.amoro.trino.keyed.EqualityDeleteCacheStats;
 import org.apache.amoro.trino.keyed.KeyedConnectorSplitManager;
 import org.apache.amoro.trino.keyed.KeyedPageSourceProvider;
+import org.apache.amoro.trino.keyed.KeyedTableScanPlanCache;
 import org.apache.amoro.trino.unkeyed.IcebergPageSourceProvider;
 import org.apache.amoro.trino.unkeyed.IcebergSplitManager;
 import org.weakref.jmx.guice.ExportBinder;
@@ -83,6 +85,10 @@ public class MixedFormatModule implements Module {
     binder.bind(IcebergSessionProperties.class).in(Scopes.SINGLETON);
     binder.bind(KeyedConnectorSplitManager.class).in(Scopes.SINGLETON);
     binder.bind(KeyedPageSourceProvider.class).in(Scopes.SINGLETON);
+    binder.bind(EqualityDeleteCacheStats.class).in(Scopes.SINGLETON);
+    newExporter(binder).export(EqualityDeleteCacheStats.class).withGeneratedName();
+    binder.bind(KeyedTableScanPlanCache.class).in(Scopes.SINGLETON);
+    newExporter(binder).export(KeyedTableScanPlanCache.class).withGeneratedName();
     binder
         .bind(MixedFormatCatalogFactory.class)
         .to(DefaultMixedFormatCatalogFactory.class)
@@ -39,6 +39,7 @@ public final class MixedFormatSessionProperties implements SessionPropertiesProv
   private static final String MIXED_SPLIT_TASK_BY_DELETE_RATIO = "mixed_split_task_by_delete_ratio";
   private static final String MIXED_ENABLE_SPLIT_TASK_BY_DELETE_RATIO =
       "mixed_enable_split_task_by_delete_ratio";
+  private static final String MIXED_PLAN_CACHE_ENABLED = "mixed_plan_cache_enabled";
   private final List<PropertyMetadata<?>> sessionProperties;
 
   @Inject
@@ -65,6 +66,12 @@ public final class MixedFormatSessionProperties implements SessionPropertiesProv
                     "Enable task split by ratio",
                     mixedFormatConfig.isEnableSplitTaskByDeleteRatio(),
                     false))
+            .add(
+                booleanProperty(
+                    MIXED_PLAN_CACHE_ENABLED,
+                    "Reuse tasks planned for the same snapshots of keyed tables by other queries",
+                    mixedFormatConfig.isPlanCacheEnabled(),
+                    false))
             .build();
   }
 
@@ -84,4 +91,8 @@ public final class MixedFormatSessionProperties implements SessionPropertiesProv
   public static double splitTaskByDeleteRatio(ConnectorSession session) {
     return session.getProperty(MIXED_SPLIT_TASK_BY_DELETE_RATIO, Double.class);
   }
+
+  public static boolean isPlanCacheEnabled(ConnectorSession session) {
+    return session.getProperty(MIXED_PLAN_CACHE_ENABLED, Boolean.class);
+  }
 }
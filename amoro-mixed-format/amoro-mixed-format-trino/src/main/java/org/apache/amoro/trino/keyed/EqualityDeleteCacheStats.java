@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import org.apache.amoro.io.reader.EqualityDeleteCache;
+import org.weakref.jmx.Managed;
+
+/** Exports the statistics of the equality delete cache shared by the worker. */
+public class EqualityDeleteCacheStats {
+
+  @Managed
+  public long getMaxSizeInBytes() {
+    return EqualityDeleteCache.shared().maxSizeInBytes();
+  }
+
+  @Managed
+  public long getSizeInBytes() {
+    return EqualityDeleteCache.shared().sizeInBytes();
+  }
+
+  @Managed
+  public long getEntryCount() {
+    return EqualityDeleteCache.shared().entryCount();
+  }
+
+  @Managed
+  public long getHitCount() {
+    return EqualityDeleteCache.shared().hitCount();
+  }
+
+  @Managed
+  public long getMissCount() {
+    return EqualityDeleteCache.shared().missCount();
+  }
+
+  @Managed
+  public double getHitRate() {
+    EqualityDeleteCache cache = EqualityDeleteCache.shared();
+    long requestCount = cache.hitCount() + cache.missCount();
+    return requestCount == 0 ? 1.0 : (double) cache.hitCount() / requestCount;
+  }
+
+  @Managed
+  public long getEvictionCount() {
+    return EqualityDeleteCache.shared().evictionCount();
+  }
+}
@@ -18,7 +18,6 @@
 
 package org.apache.amoro.trino.keyed;
 
-import static io.trino.plugin.iceberg.IcebergErrorCode.ICEBERG_BAD_DATA;
 import static java.util.Objects.requireNonNull;
 import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkArgument;
 import static org.apache.amoro.shade.guava32.com.google.common.base.Throwables.throwIfInstanceOf;
@@ -34,6 +33,7 @@ import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeManager;
+import org.apache.amoro.data.ChangedLsn;
 import org.apache.amoro.data.DataFileType;
 import org.apache.amoro.data.PrimaryKeyedFile;
 import org.apache.amoro.hive.io.reader.AdaptHiveMixedDeleteFilter;
@@ -45,10 +45,12 @@ import org.apache.amoro.trino.delete.TrinoDeleteFile;
 import org.apache.amoro.trino.delete.TrinoRow;
 import org.apache.amoro.trino.unkeyed.IcebergPageSourceProvider;
 import org.apache.amoro.trino.unkeyed.IcebergSplit;
-import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.SchemaParser;
+import org.apache.iceberg.StructLike;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -56,6 +58,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.TimeZone;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /** ConnectorPageSource for Keyed Table */
@@ -71,6 +74,7 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
   private final DynamicFilter dynamicFilter;
   private final TypeManager typeManager;
   private final AdaptHiveMixedDeleteFilter<TrinoRow> mixedDeleteFilter;
+  private final KeyedPageDeleteSelector deleteSelector;
 
   private final List<ColumnHandle> requireColumnsDummy;
   private final Type[] requireColumnTypes;
@@ -116,8 +120,14 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
 
     this.requireColumnTypes =
         requiredColumns.stream().map(IcebergColumnHandle::getType).toArray(Type[]::new);
+    this.deleteSelector = mixedDeleteFilter == null ? null : createDeleteSelector();
 
-    this.dataTasksIt = split.getKeyedTableScanTask().dataTasks().iterator();
+    this.dataTasksIt =
+        split
+            .getKeyedTableScanTask(
+                SchemaParser.fromJson(table.getIcebergTableHandle().getTableSchemaJson()))
+            .dataTasks()
+            .iterator();
   }
 
   @Override
@@ -164,24 +174,17 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
         return null;
       }
 
-      if (mixedDeleteFilter != null) {
+      if (deleteSelector != null) {
         int positionCount = page.getPositionCount();
-        int[] positionsToKeep = new int[positionCount];
-        try (CloseableIterable<TrinoRow> filteredRows =
-            mixedDeleteFilter.filter(
-                CloseableIterable.withNoopClose(
-                    TrinoRow.fromPage(requireColumnTypes, page, positionCount)))) {
-          int positionsToKeepCount = 0;
-          for (TrinoRow rowToKeep : filteredRows) {
-            positionsToKeep[positionsToKeepCount] = rowToKeep.getPosition();
-            positionsToKeepCount++;
+        if (deleteSelector.selectsAll()) {
+          page = page.getColumns(expectedColumnIndexes);
+        } else {
+          int[] positionsToKeep = new int[positionCount];
+          int positionsToKeepCount = deleteSelector.selectPositions(page, positionsToKeep);
+          page = page.getColumns(expectedColumnIndexes);
+          if (positionsToKeepCount < positionCount) {
+            page = page.getPositions(positionsToKeep, 0, positionsToKeepCount);
           }
-          page =
-              page.getPositions(positionsToKeep, 0, positionsToKeepCount)
-                  .getColumns(expectedColumnIndexes);
-        } catch (IOException e) {
-          throw new TrinoException(
-              ICEBERG_BAD_DATA, "Failed to filter rows during merge-on-read operation", e);
         }
       }
 
@@ -248,6 +251,31 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
     return page;
   }
 
+  private KeyedPageDeleteSelector createDeleteSelector() {
+    Map<Integer, Integer> channels = new HashMap<>();
+    for (int i = 0; i < requiredColumns.size(); i++) {
+      channels.put(requiredColumns.get(i).getId(), i);
+    }
+    Function<StructLike, ChangedLsn> eqDeleteLsn = null;
+    int[] keyChannels = new int[0];
+    if (mixedDeleteFilter.hasEqDeletes()) {
+      eqDeleteLsn = mixedDeleteFilter::eqDeleteLsn;
+      keyChannels =
+          mixedDeleteFilter.eqDeleteKeySchema().columns().stream()
+              .mapToInt(field -> channels.get(field.fieldId()))
+              .toArray();
+    }
+    Type[] keyTypes =
+        Arrays.stream(keyChannels).mapToObj(i -> requireColumnTypes[i]).toArray(Type[]::new);
+    return new KeyedPageDeleteSelector(
+        channels.getOrDefault(org.apache.iceberg.MetadataColumns.ROW_POSITION.fieldId(), -1),
+        channels.getOrDefault(MetadataColumns.TRANSACTION_ID_FILED_ID, -1),
+        channels.getOrDefault(MetadataColumns.FILE_OFFSET_FILED_ID, -1),
+        keyChannels,
+        keyTypes,
+        eqDeleteLsn);
+  }
+
   private ConnectorPageSource open(MixedFileScanTask mixedFileScanTask) {
     PrimaryKeyedFile primaryKeyedFile = mixedFileScanTask.file();
     Map<Integer, Optional<String>> idToConstant = new HashMap<>();
@@ -259,6 +287,7 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
     }
 
     mixedDeleteFilter.setCurrentDataPath(mixedFileScanTask.file().path().toString());
+    deleteSelector.setDeletedPositions(mixedDeleteFilter.currentDeletedPositions());
 
     return icebergPageSourceProvider.createPageSource(
         transaction,
@@ -20,11 +20,16 @@ package org.apache.amoro.trino.keyed;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.trino.plugin.iceberg.PartitionData;
 import io.trino.spi.HostAddress;
 import io.trino.spi.connector.ConnectorSplit;
 import org.apache.amoro.scan.KeyedTableScanTask;
 import org.apache.amoro.scan.NodeFileScanTask;
 import org.apache.amoro.trino.util.ObjectSerializerUtil;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.PartitionSpecParser;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Type;
 
 import java.util.Collections;
 import java.util.List;
@@ -55,8 +60,27 @@ public class KeyedConnectorSplit implements ConnectorSplit {
     return keyedTableScanTaskBytes;
   }
 
-  public synchronized KeyedTableScanTask getKeyedTableScanTask() {
-    return ObjectSerializerUtil.read(keyedTableScanTaskBytes, NodeFileScanTask.class);
+  public synchronized KeyedTableScanTask getKeyedTableScanTask(Schema tableSchema) {
+    if (keyedTableScanTask == null) {
+      if (KeyedTableScanTaskCodec.isEncoded(keyedTableScanTaskBytes)) {
+        PartitionSpec partitionSpec = PartitionSpecParser.fromJson(tableSchema, partitionSpecJson);
+        Type[] partitionColumnTypes =
+            partitionSpec.fields().stream()
+                .map(
+                    field ->
+                        field.transform().getResultType(tableSchema.findType(field.sourceId())))
+                .toArray(Type[]::new);
+        keyedTableScanTask =
+            KeyedTableScanTaskCodec.decode(
+                keyedTableScanTaskBytes,
+                partitionSpec,
+                PartitionData.fromJson(partitionDataJson, partitionColumnTypes));
+      } else {
+        keyedTableScanTask =
+            ObjectSerializerUtil.read(keyedTableScanTaskBytes, NodeFileScanTask.class);
+      }
+    }
+    return keyedTableScanTask;
   }
 
   @JsonProperty
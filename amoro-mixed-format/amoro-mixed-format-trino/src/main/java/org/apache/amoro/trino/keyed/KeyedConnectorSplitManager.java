@@ -18,11 +18,12 @@
 
 package org.apache.amoro.trino.keyed;
 
-import static io.trino.plugin.iceberg.ExpressionConverter.toIcebergExpression;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.plugin.iceberg.IcebergSessionProperties.getDynamicFilteringWaitTimeout;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
+import io.trino.plugin.base.classloader.ClassLoaderSafeConnectorSplitSource;
 import io.trino.plugin.iceberg.IcebergTableHandle;
-import io.trino.plugin.iceberg.PartitionData;
-import io.trino.spi.classloader.ThreadContextClassLoader;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorSplitManager;
 import io.trino.spi.connector.ConnectorSplitSource;
@@ -30,34 +31,41 @@ import io.trino.spi.connector.ConnectorTableHandle;
 import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.Constraint;
 import io.trino.spi.connector.DynamicFilter;
-import io.trino.spi.connector.FixedSplitSource;
 import io.trino.spi.connector.SchemaTableName;
 import io.trino.spi.connector.TableNotFoundException;
-import org.apache.amoro.scan.CombinedScanTask;
-import org.apache.amoro.scan.KeyedTableScan;
-import org.apache.amoro.scan.KeyedTableScanTask;
-import org.apache.amoro.scan.MixedFileScanTask;
+import io.trino.spi.type.TypeManager;
 import org.apache.amoro.table.KeyedTable;
 import org.apache.amoro.trino.MixedFormatSessionProperties;
 import org.apache.amoro.trino.MixedFormatTransactionManager;
-import org.apache.amoro.trino.util.MetricUtil;
-import org.apache.amoro.trino.util.ObjectSerializerUtil;
-import org.apache.iceberg.PartitionSpecParser;
-import org.apache.iceberg.io.CloseableIterable;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /** ConnectorSplitManager for Keyed Table */
 public class KeyedConnectorSplitManager implements ConnectorSplitManager {
   private final MixedFormatTransactionManager mixedFormatTransactionManager;
+  private final TypeManager typeManager;
+  private final KeyedTableScanPlanCache planCache;
+  private final ExecutorService planningExecutor =
+      newCachedThreadPool(daemonThreadsNamed("mixed-format-split-planning-%s"));
 
   @Inject
-  public KeyedConnectorSplitManager(MixedFormatTransactionManager mixedFormatTransactionManager) {
+  public KeyedConnectorSplitManager(
+      MixedFormatTransactionManager mixedFormatTransactionManager,
+      TypeManager typeManager,
+      KeyedTableScanPlanCache planCache) {
     this.mixedFormatTransactionManager = mixedFormatTransactionManager;
+    this.typeManager = typeManager;
+    this.planCache = planCache;
+  }
+
+  /** Stops the planning threads when the connector is shut down. */
+  @PreDestroy
+  public void shutdown() {
+    planningExecutor.shutdownNow();
   }
 
   @Override
@@ -81,47 +89,24 @@ public class KeyedConnectorSplitManager implements ConnectorSplitManager {
               icebergTableHandle.getSchemaName(), icebergTableHandle.getTableName()));
     }
 
-    KeyedTableScan tableScan =
-        keyedTable
-            .newScan()
-            .filter(
-                toIcebergExpression(
-                    icebergTableHandle
-                        .getEnforcedPredicate()
-                        .intersect(icebergTableHandle.getUnenforcedPredicate())));
-
-    if (MixedFormatSessionProperties.enableSplitTaskByDeleteRatio(session)) {
-      tableScan.enableSplitTaskByDeleteRatio(
-          MixedFormatSessionProperties.splitTaskByDeleteRatio(session));
-    }
-
-    ClassLoader pluginClassloader = keyedTable.getClass().getClassLoader();
+    Optional<Double> splitTaskByDeleteRatio =
+        MixedFormatSessionProperties.enableSplitTaskByDeleteRatio(session)
+            ? Optional.of(MixedFormatSessionProperties.splitTaskByDeleteRatio(session))
+            : Optional.empty();
+    KeyedConnectorSplitSource splitSource =
+        new KeyedConnectorSplitSource(
+            keyedTableHandle,
+            keyedTable,
+            splitTaskByDeleteRatio,
+            dynamicFilter,
+            getDynamicFilteringWaitTimeout(session),
+            constraint,
+            typeManager,
+            planningExecutor,
+            planCache,
+            MixedFormatSessionProperties.isPlanCacheEnabled(session));
 
-    try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(pluginClassloader)) {
-      // Optimization
-      CloseableIterable<CombinedScanTask> combinedScanTasks =
-          MetricUtil.duration(tableScan::planTasks, "plan tasks");
-
-      List<KeyedTableScanTask> fileScanTaskList = new ArrayList<>();
-      for (CombinedScanTask combinedScanTask : combinedScanTasks) {
-        fileScanTaskList.addAll(combinedScanTask.tasks());
-      }
-
-      List<KeyedConnectorSplit> keyedConnectorSplits =
-          fileScanTaskList.stream()
-              .map(
-                  s -> {
-                    MixedFileScanTask mixedFileScanTask = s.dataTasks().get(0);
-                    KeyedConnectorSplit keyedConnectorSplit =
-                        new KeyedConnectorSplit(
-                            ObjectSerializerUtil.write(s),
-                            PartitionSpecParser.toJson(mixedFileScanTask.spec()),
-                            PartitionData.toJson(mixedFileScanTask.file().partition()));
-                    return keyedConnectorSplit;
-                  })
-              .collect(Collectors.toList());
-
-      return new FixedSplitSource(keyedConnectorSplits);
-    }
+    return new ClassLoaderSafeConnectorSplitSource(
+        splitSource, Thread.currentThread().getContextClassLoader());
   }
 }
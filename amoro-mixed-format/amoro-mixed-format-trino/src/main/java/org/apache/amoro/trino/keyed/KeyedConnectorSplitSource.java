@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static io.trino.plugin.iceberg.ExpressionConverter.toIcebergExpression;
+import static io.trino.plugin.iceberg.IcebergSplitManager.ICEBERG_DOMAIN_COMPACTION_THRESHOLD;
+import static io.trino.plugin.iceberg.IcebergUtil.deserializePartitionValue;
+import static io.trino.plugin.iceberg.IcebergUtil.getColumnHandle;
+import static io.trino.plugin.iceberg.IcebergUtil.getPartitionKeys;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.amoro.shade.guava32.com.google.common.base.Suppliers.memoize;
+import static org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableSet.toImmutableSet;
+import static org.apache.amoro.trino.unkeyed.IcebergSplitSource.partitionMatchesConstraint;
+import static org.apache.amoro.trino.unkeyed.IcebergSplitSource.partitionMatchesPredicate;
+
+import io.airlift.units.Duration;
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.plugin.iceberg.IcebergTableHandle;
+import io.trino.plugin.iceberg.PartitionData;
+import io.trino.spi.classloader.ThreadContextClassLoader;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorSplit;
+import io.trino.spi.connector.ConnectorSplitSource;
+import io.trino.spi.connector.Constraint;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.predicate.NullableValue;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.type.TypeManager;
+import org.apache.amoro.scan.CombinedScanTask;
+import org.apache.amoro.scan.KeyedTableScan;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.scan.MixedFileScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.base.Stopwatch;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Iterators;
+import org.apache.amoro.table.KeyedTable;
+import org.apache.iceberg.PartitionSpecParser;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.io.CloseableIterable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * ConnectorSplitSource for Keyed Table. It waits a while for dynamic filters before planning and
+ * pushes them down to the scan, the planning runs in background so the scheduler is not blocked,
+ * and the planned tasks are converted to splits batch by batch, tasks of partitions filtered by the
+ * dynamic filters collected later are pruned before they are scheduled. Tasks planned for the same
+ * snapshots and filter are reused from the {@link KeyedTableScanPlanCache}.
+ */
+public class KeyedConnectorSplitSource implements ConnectorSplitSource {
+  private static final ConnectorSplitBatch EMPTY_BATCH =
+      new ConnectorSplitBatch(ImmutableList.of(), false);
+  private static final ConnectorSplitBatch NO_MORE_SPLITS_BATCH =
+      new ConnectorSplitBatch(ImmutableList.of(), true);
+
+  private final KeyedTableHandle tableHandle;
+  private final KeyedTable keyedTable;
+  private final Optional<Double> splitTaskByDeleteRatio;
+  private final DynamicFilter dynamicFilter;
+  private final long dynamicFilteringWaitTimeoutMillis;
+  private final Stopwatch dynamicFilterWaitStopwatch;
+  private final Constraint constraint;
+  private final TypeManager typeManager;
+  private final Executor planningExecutor;
+  private final KeyedTableScanPlanCache planCache;
+  private final boolean usePlanCache;
+
+  private CompletableFuture<Void> planningFuture;
+  // written by the planning thread, read by the scheduler
+  private volatile CloseableIterable<CombinedScanTask> combinedScanTasks;
+  private volatile Iterator<KeyedTableScanTask> scanTaskIterator;
+  private volatile boolean closed;
+  private TupleDomain<IcebergColumnHandle> pushedDownDynamicFilterPredicate;
+
+  public KeyedConnectorSplitSource(
+      KeyedTableHandle tableHandle,
+      KeyedTable keyedTable,
+      Optional<Double> splitTaskByDeleteRatio,
+      DynamicFilter dynamicFilter,
+      Duration dynamicFilteringWaitTimeout,
+      Constraint constraint,
+      TypeManager typeManager,
+      Executor planningExecutor,
+      KeyedTableScanPlanCache planCache,
+      boolean usePlanCache) {
+    this.tableHandle = requireNonNull(tableHandle, "tableHandle is null");
+    this.keyedTable = requireNonNull(keyedTable, "keyedTable is null");
+    this.splitTaskByDeleteRatio = splitTaskByDeleteRatio;
+    this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+    this.dynamicFilteringWaitTimeoutMillis = dynamicFilteringWaitTimeout.toMillis();
+    this.dynamicFilterWaitStopwatch = Stopwatch.createStarted();
+    this.constraint = requireNonNull(constraint, "constraint is null");
+    this.typeManager = requireNonNull(typeManager, "typeManager is null");
+    this.planningExecutor = requireNonNull(planningExecutor, "planningExecutor is null");
+    this.planCache = requireNonNull(planCache, "planCache is null");
+    this.usePlanCache = usePlanCache;
+  }
+
+  @Override
+  public CompletableFuture<ConnectorSplitBatch> getNextBatch(int maxSize) {
+    long timeLeft =
+        dynamicFilteringWaitTimeoutMillis - dynamicFilterWaitStopwatch.elapsed(MILLISECONDS);
+    if (dynamicFilter.isAwaitable() && timeLeft > 0) {
+      return dynamicFilter
+          .isBlocked()
+          .thenApply(ignored -> EMPTY_BATCH)
+          .completeOnTimeout(EMPTY_BATCH, timeLeft, MILLISECONDS);
+    }
+
+    if (planningFuture == null) {
+      IcebergTableHandle icebergTableHandle = tableHandle.getIcebergTableHandle();
+      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate =
+          dynamicFilter.getCurrentPredicate().transformKeys(IcebergColumnHandle.class::cast);
+      TupleDomain<IcebergColumnHandle> fullPredicate =
+          icebergTableHandle
+              .getEnforcedPredicate()
+              .intersect(icebergTableHandle.getUnenforcedPredicate())
+              .intersect(dynamicFilterPredicate);
+      TupleDomain<IcebergColumnHandle> simplifiedPredicate =
+          fullPredicate.simplify(ICEBERG_DOMAIN_COMPACTION_THRESHOLD);
+      // the simplified predicate is wider, evaluate the dynamic filter against each task again
+      this.pushedDownDynamicFilterPredicate =
+          simplifiedPredicate.equals(fullPredicate) ? dynamicFilterPredicate : TupleDomain.all();
+      if (simplifiedPredicate.isNone()) {
+        this.planningFuture = completedFuture(null);
+        this.scanTaskIterator = ImmutableList.<KeyedTableScanTask>of().iterator();
+        return completedFuture(NO_MORE_SPLITS_BATCH);
+      }
+
+      Expression filter = toIcebergExpression(simplifiedPredicate);
+      KeyedTableScan tableScan = keyedTable.newScan().filter(filter);
+      splitTaskByDeleteRatio.ifPresent(tableScan::enableSplitTaskByDeleteRatio);
+      ClassLoader pluginClassloader = keyedTable.getClass().getClassLoader();
+      this.planningFuture =
+          CompletableFuture.runAsync(
+              () -> {
+                try (ThreadContextClassLoader ignored =
+                    new ThreadContextClassLoader(pluginClassloader)) {
+                  CloseableIterable<CombinedScanTask> plannedTasks =
+                      planCache.planTasks(
+                          KeyedTableScanPlanCache.PlanKey.of(
+                              keyedTable, filter, splitTaskByDeleteRatio),
+                          usePlanCache,
+                          tableScan::planTasks);
+                  setPlannedTasks(plannedTasks);
+                }
+              },
+              planningExecutor);
+    }
+
+    if (!planningFuture.isDone()) {
+      return planningFuture.thenApply(ignored -> EMPTY_BATCH);
+    }
+    // rethrow the failure of planning
+    planningFuture.join();
+
+    TupleDomain<IcebergColumnHandle> dynamicFilterPredicate =
+        dynamicFilter.getCurrentPredicate().transformKeys(IcebergColumnHandle.class::cast);
+    if (dynamicFilterPredicate.isNone()) {
+      close();
+      this.scanTaskIterator = ImmutableList.<KeyedTableScanTask>of().iterator();
+      return completedFuture(NO_MORE_SPLITS_BATCH);
+    }
+    boolean pruneByDynamicFilter =
+        !dynamicFilterPredicate.isAll()
+            && !dynamicFilterPredicate.equals(pushedDownDynamicFilterPredicate);
+
+    Iterator<KeyedTableScanTask> scanTasks = Iterators.limit(scanTaskIterator, maxSize);
+    ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+    while (scanTasks.hasNext()) {
+      KeyedTableScanTask scanTask = scanTasks.next();
+      MixedFileScanTask mixedFileScanTask = scanTask.dataTasks().get(0);
+
+      Schema fileSchema = mixedFileScanTask.spec().schema();
+      Map<Integer, Optional<String>> partitionKeys = getPartitionKeys(mixedFileScanTask);
+      Set<IcebergColumnHandle> identityPartitionColumns =
+          partitionKeys.keySet().stream()
+              .map(fieldId -> getColumnHandle(fileSchema.findField(fieldId), typeManager))
+              .collect(toImmutableSet());
+      Supplier<Map<ColumnHandle, NullableValue>> partitionValues =
+          memoize(
+              () -> {
+                Map<ColumnHandle, NullableValue> bindings = new HashMap<>();
+                for (IcebergColumnHandle partitionColumn : identityPartitionColumns) {
+                  Object partitionValue =
+                      deserializePartitionValue(
+                          partitionColumn.getType(),
+                          partitionKeys.get(partitionColumn.getId()).orElse(null),
+                          partitionColumn.getName());
+                  bindings.put(
+                      partitionColumn,
+                      new NullableValue(partitionColumn.getType(), partitionValue));
+                }
+                return bindings;
+              });
+
+      if (pruneByDynamicFilter
+          && !partitionMatchesPredicate(
+              identityPartitionColumns, partitionValues, dynamicFilterPredicate)) {
+        continue;
+      }
+      if (!partitionMatchesConstraint(identityPartitionColumns, partitionValues, constraint)) {
+        continue;
+      }
+      splits.add(
+          new KeyedConnectorSplit(
+              KeyedTableScanTaskCodec.encode(scanTask),
+              PartitionSpecParser.toJson(mixedFileScanTask.spec()),
+              PartitionData.toJson(mixedFileScanTask.file().partition())));
+    }
+    return completedFuture(new ConnectorSplitBatch(splits.build(), isFinished()));
+  }
+
+  private synchronized void setPlannedTasks(CloseableIterable<CombinedScanTask> plannedTasks) {
+    this.combinedScanTasks = plannedTasks;
+    if (closed) {
+      // the source is closed while planning, the planned tasks are not read any more
+      this.scanTaskIterator = ImmutableList.<KeyedTableScanTask>of().iterator();
+      closeScanTasks();
+    } else {
+      this.scanTaskIterator =
+          Iterators.concat(
+              Iterators.transform(plannedTasks.iterator(), task -> task.tasks().iterator()));
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    Iterator<KeyedTableScanTask> scanTasks = scanTaskIterator;
+    return closed || (scanTasks != null && !scanTasks.hasNext());
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    closeScanTasks();
+  }
+
+  private synchronized void closeScanTasks() {
+    CloseableIterable<CombinedScanTask> plannedTasks = combinedScanTasks;
+    if (plannedTasks != null) {
+      this.combinedScanTasks = null;
+      try {
+        plannedTasks.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
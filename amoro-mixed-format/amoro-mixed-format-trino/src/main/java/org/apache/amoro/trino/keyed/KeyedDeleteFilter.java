@@ -39,19 +39,22 @@ import java.util.Optional;
 public class KeyedDeleteFilter extends AdaptHiveMixedDeleteFilter<TrinoRow> {
 
   private final FileIO fileIO;
+  private final Object deleteCacheIdentity;
 
   protected KeyedDeleteFilter(
       KeyedTableScanTask keyedTableScanTask,
       Schema tableSchema,
       List<IcebergColumnHandle> requestedSchema,
       PrimaryKeySpec primaryKeySpec,
-      FileIO fileIO) {
+      FileIO fileIO,
+      Object deleteCacheIdentity) {
     super(
         keyedTableScanTask,
         tableSchema,
         filterSchema(tableSchema, requestedSchema),
         primaryKeySpec);
     this.fileIO = fileIO;
+    this.deleteCacheIdentity = deleteCacheIdentity;
   }
 
   @Override
@@ -64,6 +67,11 @@ public class KeyedDeleteFilter extends AdaptHiveMixedDeleteFilter<TrinoRow> {
     return fileIO.newInputFile(location);
   }
 
+  @Override
+  protected Object deleteCacheIdentity() {
+    return deleteCacheIdentity;
+  }
+
   private static Schema filterSchema(
       Schema tableSchema, List<IcebergColumnHandle> requestedColumns) {
     return new Schema(filterFieldList(tableSchema.columns(), requestedColumns));
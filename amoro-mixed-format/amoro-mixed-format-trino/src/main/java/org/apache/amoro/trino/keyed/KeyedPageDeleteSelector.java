@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static io.trino.plugin.iceberg.IcebergPageSink.getIcebergValue;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static java.util.Objects.requireNonNull;
+import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkArgument;
+
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.amoro.data.ChangedLsn;
+import org.apache.iceberg.StructLike;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.function.Function;
+
+/**
+ * Selects the positions of a page which are not deleted by equality or position deletes.
+ *
+ * <p>Deletes are applied on the blocks of the page directly: row positions are checked against the
+ * deleted positions bitmap of the current data file with a cursor moving along it, and primary keys
+ * are read from the key blocks only when there are equality deletes, instead of wrapping every row
+ * of the page as a {@link org.apache.amoro.trino.delete.TrinoRow}.
+ */
+public class KeyedPageDeleteSelector {
+
+  private final int rowPositionChannel;
+  private final int transactionIdChannel;
+  private final int fileOffsetChannel;
+  private final Function<StructLike, ChangedLsn> eqDeleteLsn;
+  private final KeyStruct key;
+
+  private Roaring64Bitmap deletedPositions;
+  private PeekableLongIterator deletedPositionCursor;
+  private long nextDeletedPosition;
+  private long lastRowPosition = -1;
+
+  /**
+   * @param rowPositionChannel channel of the row position column, -1 if there are no position
+   *     deletes
+   * @param transactionIdChannel channel of the transaction id column
+   * @param fileOffsetChannel channel of the file offset column
+   * @param keyChannels channels of the primary key columns in the order of the keys looked up
+   * @param keyTypes types of the primary key columns
+   * @param eqDeleteLsn finds the lsn of the latest delete of a primary key, null if there are no
+   *     equality deletes
+   */
+  public KeyedPageDeleteSelector(
+      int rowPositionChannel,
+      int transactionIdChannel,
+      int fileOffsetChannel,
+      int[] keyChannels,
+      Type[] keyTypes,
+      Function<StructLike, ChangedLsn> eqDeleteLsn) {
+    checkArgument(keyChannels.length == keyTypes.length, "Key channels and types do not match");
+    this.rowPositionChannel = rowPositionChannel;
+    this.transactionIdChannel = transactionIdChannel;
+    this.fileOffsetChannel = fileOffsetChannel;
+    this.eqDeleteLsn = eqDeleteLsn;
+    this.key = eqDeleteLsn == null ? null : new KeyStruct(keyChannels, keyTypes);
+  }
+
+  /** Reset the positions deleted in the data file to read next, null if none is deleted. */
+  public void setDeletedPositions(Roaring64Bitmap positions) {
+    if (positions == null || positions.isEmpty()) {
+      this.deletedPositions = null;
+      this.deletedPositionCursor = null;
+    } else {
+      checkArgument(rowPositionChannel >= 0, "Row position column is not read");
+      this.deletedPositions = positions;
+      this.deletedPositionCursor = positions.getLongIterator();
+      this.nextDeletedPosition = nextDeletedPosition();
+    }
+    this.lastRowPosition = -1;
+  }
+
+  /** Whether no row could be deleted, so that pages need no filtering. */
+  public boolean selectsAll() {
+    return deletedPositions == null && eqDeleteLsn == null;
+  }
+
+  /**
+   * Select the positions of the page which are not deleted.
+   *
+   * @param page page read from the current data file
+   * @param selectedPositions array to put the selected positions in, at least as long as the page
+   * @return number of the selected positions
+   */
+  public int selectPositions(Page page, int[] selectedPositions) {
+    int positionCount = page.getPositionCount();
+    Block rowPositions = deletedPositions != null ? page.getBlock(rowPositionChannel) : null;
+    Block transactionIds = null;
+    Block fileOffsets = null;
+    if (key != null) {
+      key.page = page;
+      transactionIds = page.getBlock(transactionIdChannel);
+      fileOffsets = page.getBlock(fileOffsetChannel);
+    }
+
+    int selectedCount = 0;
+    for (int position = 0; position < positionCount; position++) {
+      if (rowPositions != null && isPositionDeleted(BIGINT.getLong(rowPositions, position))) {
+        continue;
+      }
+      if (key != null) {
+        key.position = position;
+        ChangedLsn deleteLsn = eqDeleteLsn.apply(key);
+        if (deleteLsn != null
+            && isDeletedBy(
+                deleteLsn,
+                BIGINT.getLong(transactionIds, position),
+                BIGINT.getLong(fileOffsets, position))) {
+          continue;
+        }
+      }
+      selectedPositions[selectedCount++] = position;
+    }
+    return selectedCount;
+  }
+
+  private boolean isPositionDeleted(long rowPosition) {
+    if (rowPosition < lastRowPosition) {
+      // rows are not read in order, locate the position again
+      deletedPositionCursor = deletedPositions.getLongIteratorFrom(rowPosition);
+      nextDeletedPosition = nextDeletedPosition();
+    } else {
+      // deleted positions passed by are skipped one by one, which is cheaper than seeking the
+      // bitmap as rows are mostly read in order
+      while (rowPosition > nextDeletedPosition) {
+        deletedPositionCursor.next();
+        nextDeletedPosition = nextDeletedPosition();
+      }
+    }
+    lastRowPosition = rowPosition;
+    return rowPosition == nextDeletedPosition;
+  }
+
+  private long nextDeletedPosition() {
+    return deletedPositionCursor.hasNext() ? deletedPositionCursor.peekNext() : Long.MAX_VALUE;
+  }
+
+  private static boolean isDeletedBy(ChangedLsn deleteLsn, long transactionId, long fileOffset) {
+    return deleteLsn.transactionId() > transactionId
+        || (deleteLsn.transactionId() == transactionId && deleteLsn.fileOffset() > fileOffset);
+  }
+
+  /** Primary key of a page position, moved along the page instead of copying rows. */
+  private static class KeyStruct implements StructLike {
+    private final int[] channels;
+    private final Type[] types;
+    private Page page;
+    private int position;
+
+    private KeyStruct(int[] channels, Type[] types) {
+      this.channels = requireNonNull(channels, "channels is null");
+      this.types = requireNonNull(types, "types is null");
+    }
+
+    @Override
+    public int size() {
+      return channels.length;
+    }
+
+    @Override
+    public <T> T get(int pos, Class<T> javaClass) {
+      return javaClass.cast(getIcebergValue(page.getBlock(channels[pos]), position, types[pos]));
+    }
+
+    @Override
+    public <T> void set(int pos, T value) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
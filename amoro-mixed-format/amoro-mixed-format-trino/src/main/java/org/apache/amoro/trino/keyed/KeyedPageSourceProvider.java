@@ -33,9 +33,11 @@ import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.type.TypeManager;
 import org.apache.amoro.data.PrimaryKeyedFile;
 import org.apache.amoro.hive.io.reader.AdaptHiveMixedDeleteFilter;
+import org.apache.amoro.io.reader.EqualityDeleteCache;
 import org.apache.amoro.scan.KeyedTableScanTask;
 import org.apache.amoro.scan.MixedFileScanTask;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.amoro.trino.MixedFormatConfig;
 import org.apache.amoro.trino.delete.TrinoRow;
 import org.apache.amoro.trino.unkeyed.IcebergPageSourceProvider;
 import org.apache.iceberg.Schema;
@@ -55,7 +57,10 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
   public KeyedPageSourceProvider(
       IcebergPageSourceProvider icebergPageSourceProvider,
       TypeManager typeManager,
-      TrinoFileSystemFactory fileSystemFactory) {
+      TrinoFileSystemFactory fileSystemFactory,
+      MixedFormatConfig mixedFormatConfig) {
+    // the cache is shared by all catalogs of the worker, the first catalog sizes it
+    EqualityDeleteCache.initialize(mixedFormatConfig.getEqDeleteCacheSize().toBytes());
     this.icebergPageSourceProvider = icebergPageSourceProvider;
     this.typeManager = typeManager;
     this.fileSystemFactory = fileSystemFactory;
@@ -73,13 +78,17 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
     KeyedTableHandle keyedTableHandle = (KeyedTableHandle) table;
     List<IcebergColumnHandle> icebergColumnHandles =
         columns.stream().map(IcebergColumnHandle.class::cast).collect(Collectors.toList());
-    KeyedTableScanTask keyedTableScanTask = keyedConnectorSplit.getKeyedTableScanTask();
+    Schema tableSchema =
+        SchemaParser.fromJson(keyedTableHandle.getIcebergTableHandle().getTableSchemaJson());
+    KeyedTableScanTask keyedTableScanTask = keyedConnectorSplit.getKeyedTableScanTask(tableSchema);
     List<PrimaryKeyedFile> equDeleteFiles =
         keyedTableScanTask.mixedEquityDeletes().stream()
             .map(MixedFileScanTask::file)
             .collect(Collectors.toList());
-    Schema tableSchema =
-        SchemaParser.fromJson(keyedTableHandle.getIcebergTableHandle().getTableSchemaJson());
+    // delete files decoded for a user of this catalog are not shared with other users or catalogs
+    List<Object> deleteCacheIdentity =
+        ImmutableList.of(
+            fileSystemFactory, session.getUser(), session.getIdentity().getExtraCredentials());
     List<IcebergColumnHandle> deleteFilterRequiredSchema =
         IcebergUtil.getColumns(
             new KeyedDeleteFilter(
@@ -87,7 +96,8 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
                     tableSchema,
                     ImmutableList.of(),
                     keyedTableHandle.getPrimaryKeySpec(),
-                    fileSystemFactory.create(session).toFileIo())
+                    fileSystemFactory.create(session).toFileIo(),
+                    deleteCacheIdentity)
                 .requiredSchema(),
             typeManager);
     ImmutableList.Builder<IcebergColumnHandle> requiredColumnsBuilder = ImmutableList.builder();
@@ -102,7 +112,8 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
             tableSchema,
             requiredColumns,
             keyedTableHandle.getPrimaryKeySpec(),
-            fileSystemFactory.create(session).toFileIo());
+            fileSystemFactory.create(session).toFileIo(),
+            deleteCacheIdentity);
 
     return new KeyedConnectorPageSource(
         icebergColumnHandles,
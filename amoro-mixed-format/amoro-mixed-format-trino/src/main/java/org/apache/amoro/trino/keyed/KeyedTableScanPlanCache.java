@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkArgument;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.inject.Inject;
+import org.apache.amoro.scan.CombinedScanTask;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.amoro.table.KeyedTable;
+import org.apache.amoro.trino.MixedFormatConfig;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.io.CloseableIterable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.weakref.jmx.Managed;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A coordinator side cache of the tasks planned for keyed tables.
+ *
+ * <p>Planning a keyed table reads the manifests of both the base and the change store, which is
+ * repeated for every query even if dashboards query the same snapshots again and again. Planned
+ * tasks are cached by the table, the current snapshots of both stores and the fingerprint of the
+ * pushed down filter, so a cached plan is never stale. The cache is bounded by the number of files
+ * in the cached tasks and entries expire after a while.
+ */
+public class KeyedTableScanPlanCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KeyedTableScanPlanCache.class);
+
+  private final long maxFileCount;
+  private final Cache<PlanKey, Plan> cache;
+  private final AtomicLong planningMillis = new AtomicLong();
+  private final AtomicLong savedPlanningMillis = new AtomicLong();
+
+  @Inject
+  public KeyedTableScanPlanCache(MixedFormatConfig mixedFormatConfig) {
+    this(
+        mixedFormatConfig.getPlanCacheMaxFileCount(),
+        mixedFormatConfig.getPlanCacheTtl().toMillis());
+  }
+
+  KeyedTableScanPlanCache(long maxFileCount, long ttlMillis) {
+    checkArgument(maxFileCount >= 0, "Max file count must not be negative");
+    this.maxFileCount = maxFileCount;
+    if (maxFileCount > 0) {
+      this.cache =
+          Caffeine.newBuilder()
+              .maximumWeight(maxFileCount)
+              .weigher((PlanKey key, Plan plan) -> plan.fileCount)
+              .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+              .executor(Runnable::run)
+              .recordStats()
+              .build();
+    } else {
+      this.cache = null;
+    }
+  }
+
+  /**
+   * Plan tasks of a table scan, reuse the tasks planned for the same snapshots and filter if
+   * possible.
+   *
+   * @param key key of the plan, built by {@link PlanKey#of(KeyedTable, Expression, Optional)}
+   * @param useCache false to bypass the cache, e.g. if it is disabled by the session
+   * @param planner plans the tasks on cache miss
+   */
+  public CloseableIterable<CombinedScanTask> planTasks(
+      PlanKey key, boolean useCache, Supplier<CloseableIterable<CombinedScanTask>> planner) {
+    if (cache == null || !useCache) {
+      long start = System.currentTimeMillis();
+      CloseableIterable<CombinedScanTask> tasks = planner.get();
+      LOG.info("Plan tasks of table {} in {}ms", key.table, System.currentTimeMillis() - start);
+      return tasks;
+    }
+
+    boolean[] loaded = {false};
+    Plan plan =
+        cache.get(
+            key,
+            k -> {
+              loaded[0] = true;
+              return plan(k, planner);
+            });
+    if (!loaded[0]) {
+      savedPlanningMillis.addAndGet(plan.planningMillis);
+      LOG.info(
+          "Reuse tasks of table {} planned for base snapshot {} and change snapshot {}, saved {}ms",
+          key.table,
+          key.baseSnapshotId,
+          key.changeSnapshotId,
+          plan.planningMillis);
+    }
+    return CloseableIterable.withNoopClose(plan.tasks);
+  }
+
+  private Plan plan(PlanKey key, Supplier<CloseableIterable<CombinedScanTask>> planner) {
+    long start = System.currentTimeMillis();
+    List<CombinedScanTask> tasks;
+    try (CloseableIterable<CombinedScanTask> iterable = planner.get()) {
+      tasks = ImmutableList.copyOf(iterable);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close planned tasks of table " + key.table, e);
+    }
+    long duration = System.currentTimeMillis() - start;
+    planningMillis.addAndGet(duration);
+    LOG.info("Plan tasks of table {} in {}ms", key.table, duration);
+    return new Plan(tasks, duration);
+  }
+
+  public boolean enabled() {
+    return cache != null;
+  }
+
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  @Managed
+  public long getMaxFileCount() {
+    return maxFileCount;
+  }
+
+  /** Number of files in the cached tasks. */
+  @Managed
+  public long getFileCount() {
+    if (cache == null) {
+      return 0;
+    }
+    return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+  }
+
+  @Managed
+  public long getEntryCount() {
+    return cache == null ? 0 : cache.estimatedSize();
+  }
+
+  @Managed
+  public long getHitCount() {
+    return cache == null ? 0 : cache.stats().hitCount();
+  }
+
+  @Managed
+  public long getMissCount() {
+    return cache == null ? 0 : cache.stats().missCount();
+  }
+
+  @Managed
+  public double getHitRate() {
+    return cache == null ? 0.0 : cache.stats().hitRate();
+  }
+
+  @Managed
+  public long getEvictionCount() {
+    return cache == null ? 0 : cache.stats().evictionCount();
+  }
+
+  /** Total time spent planning the cached tasks on cache miss. */
+  @Managed
+  public long getPlanningTimeMillis() {
+    return planningMillis.get();
+  }
+
+  /** Total planning time saved by cache hits. */
+  @Managed
+  public long getSavedPlanningTimeMillis() {
+    return savedPlanningMillis.get();
+  }
+
+  private static class Plan {
+    private final List<CombinedScanTask> tasks;
+    private final long planningMillis;
+    private final int fileCount;
+
+    private Plan(List<CombinedScanTask> tasks, long planningMillis) {
+      this.tasks = tasks;
+      this.planningMillis = planningMillis;
+      long files = 0;
+      for (CombinedScanTask combinedScanTask : tasks) {
+        for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+          files += task.dataTasks().size() + task.mixedEquityDeletes().size();
+        }
+      }
+      // empty plans still take a slot
+      this.fileCount = (int) Math.min(Math.max(files, 1), Integer.MAX_VALUE);
+    }
+  }
+
+  /** Identifies the tasks planned for a snapshot of a keyed table and a filter. */
+  public static class PlanKey {
+    private final String table;
+    private final long baseSnapshotId;
+    private final long changeSnapshotId;
+    private final String fingerprint;
+
+    PlanKey(String table, long baseSnapshotId, long changeSnapshotId, String fingerprint) {
+      this.table = requireNonNull(table, "table is null");
+      this.baseSnapshotId = baseSnapshotId;
+      this.changeSnapshotId = changeSnapshotId;
+      this.fingerprint = requireNonNull(fingerprint, "fingerprint is null");
+    }
+
+    /**
+     * Key of the tasks planned for the current snapshots of the table.
+     *
+     * @param table keyed table to plan
+     * @param filter filter pushed down to the scan
+     * @param splitTaskByDeleteRatio delete ratio to split tasks by, which changes the planned tasks
+     */
+    public static PlanKey of(
+        KeyedTable table, Expression filter, Optional<Double> splitTaskByDeleteRatio) {
+      // properties like the split size change the planned tasks without a new snapshot
+      String fingerprint =
+          String.format(
+              "%s|%s|%d",
+              filter, splitTaskByDeleteRatio.orElse(null), table.properties().hashCode());
+      return new PlanKey(
+          table.id().toString(),
+          snapshotId(table.baseTable().currentSnapshot()),
+          snapshotId(table.changeTable().currentSnapshot()),
+          fingerprint);
+    }
+
+    private static long snapshotId(Snapshot snapshot) {
+      return snapshot == null ? -1 : snapshot.snapshotId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PlanKey that = (PlanKey) o;
+      return baseSnapshotId == that.baseSnapshotId
+          && changeSnapshotId == that.changeSnapshotId
+          && table.equals(that.table)
+          && fingerprint.equals(that.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(table, baseSnapshotId, changeSnapshotId, fingerprint);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s@%d/%d[%s]", table, baseSnapshotId, changeSnapshotId, fingerprint);
+    }
+  }
+}
@@ -0,0 +1,555 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.apache.amoro.data.DataTreeNode;
+import org.apache.amoro.data.DefaultKeyedFile;
+import org.apache.amoro.data.PrimaryKeyedFile;
+import org.apache.amoro.scan.BasicMixedFileScanTask;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.scan.MixedFileScanTask;
+import org.apache.amoro.scan.NodeFileScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.amoro.trino.delete.TrinoDeleteFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.StructLike;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the {@link KeyedTableScanTask} carried by {@link KeyedConnectorSplit}.
+ *
+ * <p>All files of a keyed scan task belong to one partition, so the partition spec and the
+ * partition data are not written for every file but shared with the split, which carries them as
+ * json already. Directories and position delete files are written once into dictionaries and
+ * referenced by index, numbers are written as var-length integers, and file statistics which are
+ * not used by the readers are dropped.
+ *
+ * <p>Encoded bytes start with {@link #MAGIC} followed by the format version, which java
+ * serialization streams never start with, see {@link #isEncoded(byte[])}.
+ */
+public class KeyedTableScanTaskCodec {
+
+  static final byte[] MAGIC = new byte[] {'M', 'K'};
+  static final byte VERSION_1 = 1;
+
+  private static final FileFormat[] FILE_FORMATS = FileFormat.values();
+  private static final FileContent[] FILE_CONTENTS = FileContent.values();
+
+  private KeyedTableScanTaskCodec() {}
+
+  /** Whether the bytes are written by {@link #encode(KeyedTableScanTask)}. */
+  public static boolean isEncoded(byte[] bytes) {
+    return bytes != null
+        && bytes.length > MAGIC.length
+        && bytes[0] == MAGIC[0]
+        && bytes[1] == MAGIC[1];
+  }
+
+  /** Encode the task, all files of the task must belong to the same partition. */
+  public static byte[] encode(KeyedTableScanTask task) {
+    List<List<MixedFileScanTask>> groups =
+        Arrays.asList(task.baseTasks(), task.insertTasks(), task.mixedEquityDeletes());
+    Map<String, Integer> directories = new LinkedHashMap<>();
+    Map<String, Integer> posDeleteIndexes = new HashMap<>();
+    List<DeleteFile> posDeletes = new ArrayList<>();
+    int specId = -1;
+    for (List<MixedFileScanTask> group : groups) {
+      for (MixedFileScanTask fileTask : group) {
+        PrimaryKeyedFile file = fileTask.file();
+        Preconditions.checkArgument(
+            specId == -1 || specId == file.specId(),
+            "Files of a keyed scan task must share the same spec");
+        specId = file.specId();
+        directories.putIfAbsent(directory(file.path().toString()), directories.size());
+        for (DeleteFile deleteFile : fileTask.deletes()) {
+          String path = deleteFile.path().toString();
+          if (!posDeleteIndexes.containsKey(path)) {
+            posDeleteIndexes.put(path, posDeletes.size());
+            posDeletes.add(deleteFile);
+            directories.putIfAbsent(directory(path), directories.size());
+          }
+        }
+      }
+    }
+
+    Output out = new Output();
+    out.writeBytes(MAGIC);
+    out.writeByte(VERSION_1);
+    DataTreeNode treeNode =
+        task instanceof NodeFileScanTask ? ((NodeFileScanTask) task).treeNode() : null;
+    out.writeBoolean(treeNode != null);
+    if (treeNode != null) {
+      out.writeVarLong(treeNode.mask());
+      out.writeVarLong(treeNode.index());
+    }
+    out.writeVarInt(Math.max(specId, 0));
+
+    out.writeVarInt(directories.size());
+    directories.keySet().forEach(out::writeString);
+
+    out.writeVarInt(posDeletes.size());
+    for (DeleteFile deleteFile : posDeletes) {
+      writeDeleteFile(out, deleteFile, directories);
+    }
+
+    for (List<MixedFileScanTask> group : groups) {
+      out.writeVarInt(group.size());
+      for (MixedFileScanTask fileTask : group) {
+        writeDataFile(out, fileTask.file(), directories);
+        out.writeVarInt(fileTask.deletes().size());
+        for (DeleteFile deleteFile : fileTask.deletes()) {
+          out.writeVarInt(posDeleteIndexes.get(deleteFile.path().toString()));
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Decode the task written by {@link #encode(KeyedTableScanTask)}.
+   *
+   * @param bytes encoded bytes
+   * @param spec partition spec of the files in the task
+   * @param partition partition data of the files in the task
+   */
+  public static KeyedTableScanTask decode(byte[] bytes, PartitionSpec spec, StructLike partition) {
+    Preconditions.checkArgument(isEncoded(bytes), "Bytes are not an encoded keyed scan task");
+    ByteBuffer in = ByteBuffer.wrap(bytes);
+    in.position(MAGIC.length);
+    byte version = in.get();
+    Preconditions.checkArgument(
+        version == VERSION_1, "Unsupported keyed scan task encoding version: %s", version);
+
+    NodeFileScanTask task = new NodeFileScanTask();
+    if (readBoolean(in)) {
+      long mask = readVarLong(in);
+      long index = readVarLong(in);
+      task.setTreeNode(DataTreeNode.of(mask, index));
+    }
+    int specId = readVarInt(in);
+
+    String[] directories = new String[readVarInt(in)];
+    for (int i = 0; i < directories.length; i++) {
+      directories[i] = readString(in);
+    }
+
+    DeleteFile[] posDeletes = new DeleteFile[readVarInt(in)];
+    for (int i = 0; i < posDeletes.length; i++) {
+      posDeletes[i] = readDeleteFile(in, directories);
+    }
+
+    // base tasks, insert tasks and equality delete tasks in order
+    for (int group = 0; group < 3; group++) {
+      int size = readVarInt(in);
+      for (int i = 0; i < size; i++) {
+        DataFile dataFile = readDataFile(in, directories, specId, partition);
+        PrimaryKeyedFile keyedFile =
+            group == 0
+                ? DefaultKeyedFile.parseBase(dataFile)
+                : DefaultKeyedFile.parseChange(dataFile);
+        List<DeleteFile> deletes = new ArrayList<>();
+        int deleteSize = readVarInt(in);
+        for (int j = 0; j < deleteSize; j++) {
+          deletes.add(posDeletes[readVarInt(in)]);
+        }
+        task.addFile(new BasicMixedFileScanTask(keyedFile, deletes, spec));
+      }
+    }
+    return task;
+  }
+
+  private static void writeDataFile(
+      Output out, PrimaryKeyedFile file, Map<String, Integer> directories) {
+    writePath(out, file.path().toString(), directories);
+    out.writeVarInt(file.format().ordinal());
+    out.writeVarLong(file.recordCount());
+    out.writeVarLong(file.fileSizeInBytes());
+    out.writeNullableVarLong(file.dataSequenceNumber());
+    out.writeNullableBytes(file.keyMetadata());
+  }
+
+  private static DataFile readDataFile(
+      ByteBuffer in, String[] directories, int specId, StructLike partition) {
+    String path = readPath(in, directories);
+    FileFormat format = FILE_FORMATS[readVarInt(in)];
+    long recordCount = readVarLong(in);
+    long fileSizeInBytes = readVarLong(in);
+    Long dataSequenceNumber = readNullableVarLong(in);
+    ByteBuffer keyMetadata = readNullableBytes(in);
+    return new SplitDataFile(
+        path,
+        format,
+        specId,
+        partition,
+        recordCount,
+        fileSizeInBytes,
+        dataSequenceNumber,
+        keyMetadata);
+  }
+
+  private static void writeDeleteFile(
+      Output out, DeleteFile file, Map<String, Integer> directories) {
+    out.writeVarInt(file.content().ordinal());
+    writePath(out, file.path().toString(), directories);
+    out.writeVarInt(file.format().ordinal());
+    out.writeVarInt(file.specId());
+    out.writeVarLong(file.recordCount());
+    out.writeVarLong(file.fileSizeInBytes());
+    // bounds of position delete files are used to check whether the data file is referenced
+    writeBounds(out, file.lowerBounds());
+    writeBounds(out, file.upperBounds());
+    out.writeNullableBytes(file.keyMetadata());
+    List<Integer> equalityFieldIds = file.equalityFieldIds();
+    out.writeVarInt(equalityFieldIds == null ? 0 : equalityFieldIds.size() + 1);
+    if (equalityFieldIds != null) {
+      equalityFieldIds.forEach(out::writeVarInt);
+    }
+    Integer sortOrderId = file.sortOrderId();
+    out.writeNullableVarLong(sortOrderId == null ? null : sortOrderId.longValue());
+  }
+
+  private static DeleteFile readDeleteFile(ByteBuffer in, String[] directories) {
+    FileContent content = FILE_CONTENTS[readVarInt(in)];
+    String path = readPath(in, directories);
+    FileFormat format = FILE_FORMATS[readVarInt(in)];
+    int specId = readVarInt(in);
+    long recordCount = readVarLong(in);
+    long fileSizeInBytes = readVarLong(in);
+    Map<Integer, byte[]> lowerBounds = readBounds(in);
+    Map<Integer, byte[]> upperBounds = readBounds(in);
+    ByteBuffer keyMetadata = readNullableBytes(in);
+    List<Integer> equalityFieldIds = null;
+    int equalityFieldSize = readVarInt(in);
+    if (equalityFieldSize > 0) {
+      equalityFieldIds = new ArrayList<>(equalityFieldSize - 1);
+      for (int i = 0; i < equalityFieldSize - 1; i++) {
+        equalityFieldIds.add(readVarInt(in));
+      }
+    }
+    Long sortOrderId = readNullableVarLong(in);
+    return new TrinoDeleteFile(
+        null,
+        specId,
+        content,
+        path,
+        format,
+        recordCount,
+        fileSizeInBytes,
+        null,
+        null,
+        null,
+        null,
+        lowerBounds,
+        upperBounds,
+        keyMetadata == null ? null : keyMetadata.array(),
+        equalityFieldIds,
+        sortOrderId == null ? null : sortOrderId.intValue(),
+        null);
+  }
+
+  private static void writeBounds(Output out, Map<Integer, ByteBuffer> bounds) {
+    out.writeVarInt(bounds == null ? 0 : bounds.size() + 1);
+    if (bounds != null) {
+      for (Map.Entry<Integer, ByteBuffer> bound : bounds.entrySet()) {
+        out.writeVarInt(bound.getKey());
+        out.writeNullableBytes(bound.getValue());
+      }
+    }
+  }
+
+  private static Map<Integer, byte[]> readBounds(ByteBuffer in) {
+    int size = readVarInt(in);
+    if (size == 0) {
+      return null;
+    }
+    Map<Integer, byte[]> bounds = new HashMap<>(size - 1);
+    for (int i = 0; i < size - 1; i++) {
+      int fieldId = readVarInt(in);
+      ByteBuffer value = readNullableBytes(in);
+      bounds.put(fieldId, value == null ? null : value.array());
+    }
+    return bounds;
+  }
+
+  private static String directory(String path) {
+    return path.substring(0, path.lastIndexOf('/') + 1);
+  }
+
+  private static void writePath(Output out, String path, Map<String, Integer> directories) {
+    int separator = path.lastIndexOf('/') + 1;
+    out.writeVarInt(directories.get(path.substring(0, separator)));
+    out.writeString(path.substring(separator));
+  }
+
+  private static String readPath(ByteBuffer in, String[] directories) {
+    String directory = directories[readVarInt(in)];
+    return directory + readString(in);
+  }
+
+  private static boolean readBoolean(ByteBuffer in) {
+    return in.get() != 0;
+  }
+
+  private static int readVarInt(ByteBuffer in) {
+    return (int) readVarLong(in);
+  }
+
+  private static long readVarLong(ByteBuffer in) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static Long readNullableVarLong(ByteBuffer in) {
+    return readBoolean(in) ? readVarLong(in) : null;
+  }
+
+  private static ByteBuffer readNullableBytes(ByteBuffer in) {
+    int length = readVarInt(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length - 1];
+    in.get(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = readVarInt(in);
+    String value = new String(in.array(), in.position(), length, UTF_8);
+    in.position(in.position() + length);
+    return value;
+  }
+
+  /** Growable output buffer with var-length zigzag encoded numbers. */
+  private static class Output {
+    private byte[] buffer = new byte[256];
+    private int position = 0;
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+      }
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes) {
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    void writeBoolean(boolean value) {
+      writeByte(value ? 1 : 0);
+    }
+
+    void writeVarInt(int value) {
+      writeVarLong(value);
+    }
+
+    void writeVarLong(long value) {
+      long zigzag = (value << 1) ^ (value >> 63);
+      ensureCapacity(10);
+      while ((zigzag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+        zigzag >>>= 7;
+      }
+      buffer[position++] = (byte) zigzag;
+    }
+
+    void writeNullableVarLong(Long value) {
+      writeBoolean(value != null);
+      if (value != null) {
+        writeVarLong(value);
+      }
+    }
+
+    void writeNullableBytes(ByteBuffer value) {
+      if (value == null) {
+        writeVarInt(0);
+        return;
+      }
+      ByteBuffer bytes = value.duplicate();
+      writeVarInt(bytes.remaining() + 1);
+      ensureCapacity(bytes.remaining());
+      int length = bytes.remaining();
+      bytes.get(buffer, position, length);
+      position += length;
+    }
+
+    void writeString(String value) {
+      byte[] bytes = value.getBytes(UTF_8);
+      writeVarInt(bytes.length);
+      writeBytes(bytes);
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+  }
+
+  /** Data file rebuilt from the encoded bytes, statistics are not kept. */
+  private static class SplitDataFile implements DataFile {
+    private final String path;
+    private final FileFormat format;
+    private final int specId;
+    private final StructLike partition;
+    private final long recordCount;
+    private final long fileSizeInBytes;
+    private final Long dataSequenceNumber;
+    private final ByteBuffer keyMetadata;
+
+    private SplitDataFile(
+        String path,
+        FileFormat format,
+        int specId,
+        StructLike partition,
+        long recordCount,
+        long fileSizeInBytes,
+        Long dataSequenceNumber,
+        ByteBuffer keyMetadata) {
+      this.path = path;
+      this.format = format;
+      this.specId = specId;
+      this.partition = partition;
+      this.recordCount = recordCount;
+      this.fileSizeInBytes = fileSizeInBytes;
+      this.dataSequenceNumber = dataSequenceNumber;
+      this.keyMetadata = keyMetadata;
+    }
+
+    @Override
+    public Long pos() {
+      return null;
+    }
+
+    @Override
+    public int specId() {
+      return specId;
+    }
+
+    @Override
+    public CharSequence path() {
+      return path;
+    }
+
+    @Override
+    public FileFormat format() {
+      return format;
+    }
+
+    @Override
+    public StructLike partition() {
+      return partition;
+    }
+
+    @Override
+    public long recordCount() {
+      return recordCount;
+    }
+
+    @Override
+    public long fileSizeInBytes() {
+      return fileSizeInBytes;
+    }
+
+    @Override
+    public Map<Integer, Long> columnSizes() {
+      return null;
+    }
+
+    @Override
+    public Map<Integer, Long> valueCounts() {
+      return null;
+    }
+
+    @Override
+    public Map<Integer, Long> nullValueCounts() {
+      return null;
+    }
+
+    @Override
+    public Map<Integer, Long> nanValueCounts() {
+      return null;
+    }
+
+    @Override
+    public Map<Integer, ByteBuffer> lowerBounds() {
+      return null;
+    }
+
+    @Override
+    public Map<Integer, ByteBuffer> upperBounds() {
+      return null;
+    }
+
+    @Override
+    public ByteBuffer keyMetadata() {
+      return keyMetadata == null ? null : keyMetadata.duplicate();
+    }
+
+    @Override
+    public List<Long> splitOffsets() {
+      return null;
+    }
+
+    @Override
+    public Long dataSequenceNumber() {
+      return dataSequenceNumber;
+    }
+
+    @Override
+    public Long fileSequenceNumber() {
+      return dataSequenceNumber;
+    }
+
+    @Override
+    public DataFile copy() {
+      return this;
+    }
+
+    @Override
+    public DataFile copyWithoutStats() {
+      return this;
+    }
+  }
+}
@@ -423,7 +423,7 @@ public class IcebergSplitSource implements ConnectorSplitSource {
     return Domain.create(ValueSet.ofRanges(statisticsRange), mayContainNulls);
   }
 
-  static boolean partitionMatchesConstraint(
+  public static boolean partitionMatchesConstraint(
       Set<IcebergColumnHandle> identityPartitionColumns,
       Supplier<Map<ColumnHandle, NullableValue>> partitionValues,
       Constraint constraint) {
@@ -439,7 +439,7 @@ public class IcebergSplitSource implements ConnectorSplitSource {
   }
 
   @VisibleForTesting
-  static boolean partitionMatchesPredicate(
+  public static boolean partitionMatchesPredicate(
       Set<IcebergColumnHandle> identityPartitionColumns,
       Supplier<Map<ColumnHandle, NullableValue>> partitionValues,
       TupleDomain<IcebergColumnHandle> dynamicFilterPredicate) {
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+
+import io.trino.spi.Page;
+import io.trino.spi.type.Type;
+import org.apache.amoro.data.ChangedLsn;
+import org.apache.amoro.trino.delete.TrinoRow;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.StructLikeMap;
+import org.apache.iceberg.util.StructProjection;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compares rows per second of applying deletes to pages read from keyed tables, run it with the
+ * test classpath.
+ */
+public class KeyedPageDeleteBenchmark {
+
+  private static final int PAGE_SIZE = 8192;
+  private static final int PAGES = 100;
+  private static final int ROUNDS = 10;
+
+  public static void main(String[] args) {
+    Page[] pages = new Page[PAGES];
+    Roaring64Bitmap deletedPositions = new Roaring64Bitmap();
+    // the boxed set the row by row way used before
+    Set<Long> deletedPositionSet = new HashSet<>();
+    StructLikeMap<ChangedLsn> eqDeletes =
+        StructLikeMap.create(
+            Types.StructType.of(Types.NestedField.required(1, "id", Types.LongType.get())));
+    for (int i = 0; i < PAGES; i++) {
+      long[] positions = new long[PAGE_SIZE];
+      for (int j = 0; j < PAGE_SIZE; j++) {
+        long position = (long) i * PAGE_SIZE + j;
+        positions[j] = position;
+        // delete one tenth of the rows by positions and another tenth by keys
+        if (position % 10 == 0) {
+          deletedPositions.add(position);
+          deletedPositionSet.add(position);
+        } else if (position % 10 == 5) {
+          eqDeletes.put(TestKeyedPageDeleteSelector.key(position), ChangedLsn.of(2, 0));
+        }
+      }
+      pages[i] = TestKeyedPageDeleteSelector.page(positions, positions, 1);
+    }
+
+    KeyedPageDeleteSelector noDeletes = TestKeyedPageDeleteSelector.createSelector(null);
+    noDeletes.setDeletedPositions(null);
+    KeyedPageDeleteSelector posDeletes = TestKeyedPageDeleteSelector.createSelector(null);
+    posDeletes.setDeletedPositions(deletedPositions);
+    KeyedPageDeleteSelector allDeletes = TestKeyedPageDeleteSelector.createSelector(eqDeletes::get);
+    allDeletes.setDeletedPositions(deletedPositions);
+
+    for (int round = 0; round < ROUNDS; round++) {
+      boolean print = round == ROUNDS - 1;
+      run("without deletes", pages, noDeletes, print);
+      run("with position deletes", pages, posDeletes, print);
+      run("with position and equality deletes", pages, allDeletes, print);
+      runRowByRow(pages, deletedPositionSet, eqDeletes, print);
+    }
+  }
+
+  private static void run(
+      String name, Page[] pages, KeyedPageDeleteSelector selector, boolean print) {
+    long rows = 0;
+    long start = System.nanoTime();
+    for (Page page : pages) {
+      if (selector.selectsAll()) {
+        rows += page.getPositionCount();
+      } else {
+        int[] positions = new int[page.getPositionCount()];
+        int count = selector.selectPositions(page, positions);
+        rows += page.getPositions(positions, 0, count).getPositionCount();
+      }
+    }
+    report("Block level " + name, rows, pages, System.nanoTime() - start, print);
+  }
+
+  /** The row by row way used before, which wraps every position as a {@link TrinoRow}. */
+  private static void runRowByRow(
+      Page[] pages,
+      Set<Long> deletedPositions,
+      StructLikeMap<ChangedLsn> eqDeletes,
+      boolean print) {
+    Type[] types = new Type[] {BIGINT, BIGINT, BIGINT, BIGINT};
+    Schema schema =
+        new Schema(
+            Types.NestedField.required(1, "id", Types.LongType.get()),
+            Types.NestedField.required(2, "transaction_id", Types.LongType.get()),
+            Types.NestedField.required(3, "file_offset", Types.LongType.get()),
+            Types.NestedField.required(4, "pos", Types.LongType.get()));
+    StructProjection keyProjection = StructProjection.create(schema, schema.select("id"));
+    long rows = 0;
+    long start = System.nanoTime();
+    for (Page page : pages) {
+      int positionCount = page.getPositionCount();
+      int[] positions = new int[positionCount];
+      int count = 0;
+      for (TrinoRow row : TrinoRow.fromPage(types, page, positionCount)) {
+        if (deletedPositions.contains(row.get(3, Long.class))) {
+          continue;
+        }
+        ChangedLsn deleteLsn = eqDeletes.get(keyProjection.copyFor(row));
+        if (deleteLsn != null
+            && deleteLsn.compareTo(ChangedLsn.of(row.get(1, Long.class), row.get(2, Long.class)))
+                > 0) {
+          continue;
+        }
+        positions[count++] = row.getPosition();
+      }
+      rows += page.getPositions(positions, 0, count).getPositionCount();
+    }
+    report(
+        "Row by row with position and equality deletes",
+        rows,
+        pages,
+        System.nanoTime() - start,
+        print);
+  }
+
+  private static void report(String name, long rows, Page[] pages, long nanos, boolean print) {
+    if (print) {
+      long inputRows = (long) pages.length * PAGE_SIZE;
+      System.out.printf(
+          "%s: %.1f M rows/s, %d of %d rows kept%n",
+          name, inputRows * 1000.0 / nanos, rows, inputRows);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import org.apache.amoro.scan.NodeFileScanTask;
+import org.apache.amoro.trino.util.ObjectSerializerUtil;
+
+/**
+ * Compares the serialized size and the round trips per second of the binary encoding of keyed scan
+ * tasks against java serialization, run it with the test classpath.
+ */
+public class KeyedTableScanTaskCodecBenchmark {
+
+  private static final int ITERATIONS = 200;
+  private static final int ROUNDS = 10;
+
+  public static void main(String[] args) {
+    // many small change files, which is the case the java serialization is expensive for
+    NodeFileScanTask task = TestKeyedTableScanTaskCodec.createTask(10, 200, 200, 4);
+    byte[] javaBytes = ObjectSerializerUtil.write(task);
+    byte[] encodedBytes = KeyedTableScanTaskCodec.encode(task);
+    System.out.printf(
+        "Serialized size of a task with %d files, java: %d bytes, encoded: %d bytes%n",
+        task.baseTasks().size() + task.insertTasks().size() + task.mixedEquityDeletes().size(),
+        javaBytes.length,
+        encodedBytes.length);
+
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        ObjectSerializerUtil.read(ObjectSerializerUtil.write(task), NodeFileScanTask.class);
+      }
+      long javaNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        TestKeyedTableScanTaskCodec.decode(KeyedTableScanTaskCodec.encode(task), task);
+      }
+      long encodedNanos = System.nanoTime() - start;
+      if (round == ROUNDS - 1) {
+        System.out.printf(
+            "Round trips per second, java: %.1f, encoded: %.1f%n",
+            ITERATIONS * 1e9 / javaNanos, ITERATIONS * 1e9 / encodedNanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static org.apache.amoro.MockAmoroManagementServer.TEST_CATALOG_NAME;
+import static org.apache.amoro.MockAmoroManagementServer.TEST_DB_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.airlift.units.Duration;
+import io.trino.spi.connector.ConnectorSplit;
+import io.trino.spi.connector.ConnectorSplitSource.ConnectorSplitBatch;
+import io.trino.spi.connector.Constraint;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.connector.SchemaTableName;
+import io.trino.testing.QueryRunner;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.TestedCatalogs;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.scan.CombinedScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.trino.mixed.MixedFormatQueryRunner;
+import org.apache.amoro.trino.mixed.TableTestBaseWithInitDataForTrino;
+import org.apache.iceberg.io.CloseableIterable;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class TestKeyedConnectorSplitSource extends TableTestBaseWithInitDataForTrino {
+
+  @Override
+  protected QueryRunner createQueryRunner() throws Exception {
+    CatalogTestHelper testCatalog = TestedCatalogs.hadoopCatalog(TableFormat.MIXED_ICEBERG);
+    setupCatalog(testCatalog);
+
+    setupTables();
+    initData();
+    return MixedFormatQueryRunner.builder()
+        .setIcebergProperties(
+            ImmutableMap.of(
+                "amoro.url",
+                String.format("thrift://localhost:%s/%s", AMS.port(), TEST_CATALOG_NAME)))
+        .build();
+  }
+
+  @Test
+  public void testSplitBatching() throws Exception {
+    int scanTaskCount = scanTaskCount();
+    assertThat(scanTaskCount).isGreaterThan(1);
+
+    // plan in the calling thread
+    KeyedConnectorSplitSource splitSource = createSplitSource(Runnable::run);
+    List<ConnectorSplit> splits = new ArrayList<>();
+    ConnectorSplitBatch batch = null;
+    while (!splitSource.isFinished()) {
+      batch = splitSource.getNextBatch(1).get();
+      assertThat(batch.getSplits().size()).isLessThanOrEqualTo(1);
+      splits.addAll(batch.getSplits());
+    }
+    assertThat(batch).isNotNull();
+    assertThat(batch.isNoMoreSplits()).isTrue();
+    assertThat(splits).hasSize(scanTaskCount);
+    splitSource.close();
+  }
+
+  @Test
+  public void testAsyncPlanning() throws Exception {
+    QueuedExecutor planningExecutor = new QueuedExecutor();
+    KeyedConnectorSplitSource splitSource = createSplitSource(planningExecutor);
+
+    // the scheduler is not blocked by planning
+    CompletableFuture<ConnectorSplitBatch> planning = splitSource.getNextBatch(100);
+    assertThat(planning).isNotDone();
+    assertThat(splitSource.isFinished()).isFalse();
+
+    planningExecutor.runAll();
+    assertThat(planning.get().getSplits()).isEmpty();
+    assertThat(planning.get().isNoMoreSplits()).isFalse();
+
+    ConnectorSplitBatch batch = splitSource.getNextBatch(100).get();
+    assertThat(batch.getSplits()).hasSize(scanTaskCount());
+    assertThat(batch.isNoMoreSplits()).isTrue();
+    assertThat(splitSource.isFinished()).isTrue();
+    splitSource.close();
+  }
+
+  @Test
+  public void testCloseWhilePlanning() throws Exception {
+    QueuedExecutor planningExecutor = new QueuedExecutor();
+    KeyedConnectorSplitSource splitSource = createSplitSource(planningExecutor);
+    CompletableFuture<ConnectorSplitBatch> planning = splitSource.getNextBatch(100);
+
+    splitSource.close();
+    assertThat(splitSource.isFinished()).isTrue();
+
+    // tasks planned after closing are released instead of being scheduled
+    planningExecutor.runAll();
+    assertThat(planning.get().getSplits()).isEmpty();
+    assertThat(splitSource.isFinished()).isTrue();
+    // closing again is a no-op
+    splitSource.close();
+  }
+
+  @Test
+  public void testCloseAfterPlanning() throws Exception {
+    KeyedConnectorSplitSource splitSource = createSplitSource(Runnable::run);
+    ConnectorSplitBatch batch = splitSource.getNextBatch(1).get();
+    assertThat(batch.getSplits()).hasSize(1);
+    assertThat(splitSource.isFinished()).isFalse();
+
+    splitSource.close();
+    assertThat(splitSource.isFinished()).isTrue();
+  }
+
+  @AfterClass(alwaysRun = true)
+  public void clear() {
+    clearTable();
+  }
+
+  private KeyedConnectorSplitSource createSplitSource(Executor planningExecutor) {
+    KeyedConnectorMetadata metadata =
+        new KeyedConnectorMetadata(testCatalog, getQueryRunner().getTypeManager());
+    KeyedTableHandle tableHandle =
+        (KeyedTableHandle)
+            metadata.getTableHandle(
+                null, new SchemaTableName(TEST_DB_NAME, PK_TABLE_ID.getTableName()));
+    return new KeyedConnectorSplitSource(
+        tableHandle,
+        testKeyedTable,
+        Optional.empty(),
+        DynamicFilter.EMPTY,
+        new Duration(0, TimeUnit.SECONDS),
+        Constraint.alwaysTrue(),
+        getQueryRunner().getTypeManager(),
+        planningExecutor,
+        new KeyedTableScanPlanCache(0, TimeUnit.MINUTES.toMillis(10)),
+        false);
+  }
+
+  private int scanTaskCount() throws IOException {
+    int count = 0;
+    try (CloseableIterable<CombinedScanTask> tasks = testKeyedTable.newScan().planTasks()) {
+      for (CombinedScanTask task : tasks) {
+        count += task.tasks().size();
+      }
+    }
+    return count;
+  }
+
+  /** Runs the submitted planning only when it is asked to. */
+  private static class QueuedExecutor implements Executor {
+    private final List<Runnable> commands = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      commands.add(command);
+    }
+
+    private void runAll() {
+      commands.forEach(Runnable::run);
+      commands.clear();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import org.apache.amoro.data.ChangedLsn;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.StructLikeMap;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+public class TestKeyedPageDeleteSelector {
+
+  private static final Types.StructType KEY_TYPE =
+      Types.StructType.of(Types.NestedField.required(1, "id", Types.LongType.get()));
+
+  @Test
+  public void testSelectsAllWithoutDeletes() {
+    KeyedPageDeleteSelector selector = createSelector(null);
+    selector.setDeletedPositions(null);
+    assertThat(selector.selectsAll()).isTrue();
+  }
+
+  @Test
+  public void testPositionDeletes() {
+    KeyedPageDeleteSelector selector = createSelector(null);
+    selector.setDeletedPositions(Roaring64Bitmap.bitmapOf(1L, 3L, 6L));
+    assertThat(selector.selectsAll()).isFalse();
+
+    Page first = page(new long[] {0, 1, 2, 3}, new long[] {1, 2, 3, 4}, 1);
+    assertThat(select(selector, first)).containsExactly(0, 2);
+    Page second = page(new long[] {4, 5, 6, 7}, new long[] {5, 6, 7, 8}, 1);
+    assertThat(select(selector, second)).containsExactly(0, 1, 3);
+    // rows read again from the start of the file
+    assertThat(select(selector, first)).containsExactly(0, 2);
+  }
+
+  @Test
+  public void testEqualityDeletes() {
+    StructLikeMap<ChangedLsn> deletes = StructLikeMap.create(KEY_TYPE);
+    deletes.put(key(2), ChangedLsn.of(5, 0));
+    deletes.put(key(3), ChangedLsn.of(5, 0));
+    KeyedPageDeleteSelector selector = createSelector(deletes::get);
+    selector.setDeletedPositions(null);
+    assertThat(selector.selectsAll()).isFalse();
+
+    // rows written before the delete are deleted, rows written after it are kept
+    Page before = page(new long[] {0, 1, 2, 3}, new long[] {1, 2, 3, 4}, 4);
+    assertThat(select(selector, before)).containsExactly(0, 3);
+    Page after = page(new long[] {0, 1, 2, 3}, new long[] {1, 2, 3, 4}, 6);
+    assertThat(select(selector, after)).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  public void testPositionAndEqualityDeletes() {
+    StructLikeMap<ChangedLsn> deletes = StructLikeMap.create(KEY_TYPE);
+    deletes.put(key(4), ChangedLsn.of(5, 0));
+    KeyedPageDeleteSelector selector = createSelector(deletes::get);
+    selector.setDeletedPositions(Roaring64Bitmap.bitmapOf(0L));
+
+    Page page = page(new long[] {0, 1, 2, 3}, new long[] {1, 2, 3, 4}, 4);
+    assertThat(select(selector, page)).containsExactly(1, 2);
+  }
+
+  private static int[] select(KeyedPageDeleteSelector selector, Page page) {
+    int[] positions = new int[page.getPositionCount()];
+    int count = selector.selectPositions(page, positions);
+    return Arrays.copyOf(positions, count);
+  }
+
+  /** Channels of the page: id, transaction id, file offset, row position. */
+  static KeyedPageDeleteSelector createSelector(Function<StructLike, ChangedLsn> eqDeleteLsn) {
+    return new KeyedPageDeleteSelector(3, 1, 2, new int[] {0}, new Type[] {BIGINT}, eqDeleteLsn);
+  }
+
+  static Page page(long[] rowPositions, long[] ids, long transactionId) {
+    int positionCount = rowPositions.length;
+    BlockBuilder idBuilder = BIGINT.createBlockBuilder(null, positionCount);
+    BlockBuilder transactionIdBuilder = BIGINT.createBlockBuilder(null, positionCount);
+    BlockBuilder fileOffsetBuilder = BIGINT.createBlockBuilder(null, positionCount);
+    BlockBuilder rowPositionBuilder = BIGINT.createBlockBuilder(null, positionCount);
+    for (int i = 0; i < positionCount; i++) {
+      BIGINT.writeLong(idBuilder, ids[i]);
+      BIGINT.writeLong(transactionIdBuilder, transactionId);
+      BIGINT.writeLong(fileOffsetBuilder, rowPositions[i]);
+      BIGINT.writeLong(rowPositionBuilder, rowPositions[i]);
+    }
+    return new Page(
+        new Block[] {
+          idBuilder.build(),
+          transactionIdBuilder.build(),
+          fileOffsetBuilder.build(),
+          rowPositionBuilder.build()
+        });
+  }
+
+  static StructLike key(long id) {
+    return new StructLike() {
+      @Override
+      public int size() {
+        return 1;
+      }
+
+      @Override
+      public <T> T get(int pos, Class<T> javaClass) {
+        return javaClass.cast(id);
+      }
+
+      @Override
+      public <T> void set(int pos, T value) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.amoro.data.DataTreeNode;
+import org.apache.amoro.data.DefaultKeyedFile;
+import org.apache.amoro.scan.BaseCombinedScanTask;
+import org.apache.amoro.scan.BasicMixedFileScanTask;
+import org.apache.amoro.scan.CombinedScanTask;
+import org.apache.amoro.scan.NodeFileScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.io.CloseableIterable;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class TestKeyedTableScanPlanCache {
+
+  private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  @Test
+  public void testReusePlannedTasks() {
+    KeyedTableScanPlanCache cache = new KeyedTableScanPlanCache(100, TTL_MILLIS);
+    AtomicInteger plannings = new AtomicInteger();
+    Supplier<CloseableIterable<CombinedScanTask>> planner = planner(plannings, 2);
+    KeyedTableScanPlanCache.PlanKey key = key(1, 1, "id = 1");
+
+    List<CombinedScanTask> planned = ImmutableList.copyOf(cache.planTasks(key, true, planner));
+    List<CombinedScanTask> reused = ImmutableList.copyOf(cache.planTasks(key, true, planner));
+    assertThat(plannings.get()).isEqualTo(1);
+    assertThat(reused).isEqualTo(planned);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getFileCount()).isEqualTo(2);
+    assertThat(cache.getSavedPlanningTimeMillis()).isEqualTo(cache.getPlanningTimeMillis());
+  }
+
+  @Test
+  public void testPlanNewSnapshotsAndFilters() {
+    KeyedTableScanPlanCache cache = new KeyedTableScanPlanCache(100, TTL_MILLIS);
+    AtomicInteger plannings = new AtomicInteger();
+    Supplier<CloseableIterable<CombinedScanTask>> planner = planner(plannings, 1);
+
+    cache.planTasks(key(1, 1, "id = 1"), true, planner);
+    cache.planTasks(key(2, 1, "id = 1"), true, planner);
+    cache.planTasks(key(2, 2, "id = 1"), true, planner);
+    cache.planTasks(key(2, 2, "id = 2"), true, planner);
+    assertThat(plannings.get()).isEqualTo(4);
+    assertThat(cache.getHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testBypassCache() {
+    KeyedTableScanPlanCache cache = new KeyedTableScanPlanCache(100, TTL_MILLIS);
+    AtomicInteger plannings = new AtomicInteger();
+    Supplier<CloseableIterable<CombinedScanTask>> planner = planner(plannings, 1);
+    KeyedTableScanPlanCache.PlanKey key = key(1, 1, "true");
+
+    cache.planTasks(key, false, planner);
+    cache.planTasks(key, false, planner);
+    assertThat(plannings.get()).isEqualTo(2);
+    assertThat(cache.getEntryCount()).isEqualTo(0);
+
+    KeyedTableScanPlanCache disabled = new KeyedTableScanPlanCache(0, TTL_MILLIS);
+    disabled.planTasks(key, true, planner);
+    disabled.planTasks(key, true, planner);
+    assertThat(plannings.get()).isEqualTo(4);
+    assertThat(disabled.enabled()).isFalse();
+  }
+
+  @Test
+  public void testBoundedByFileCount() {
+    KeyedTableScanPlanCache cache = new KeyedTableScanPlanCache(5, TTL_MILLIS);
+    AtomicInteger plannings = new AtomicInteger();
+    Supplier<CloseableIterable<CombinedScanTask>> planner = planner(plannings, 2);
+
+    for (int i = 0; i < 10; i++) {
+      cache.planTasks(key(i, i, "true"), true, planner);
+    }
+    assertThat(cache.getFileCount()).isLessThanOrEqualTo(5);
+    assertThat(cache.getEvictionCount()).isGreaterThan(0);
+  }
+
+  private static KeyedTableScanPlanCache.PlanKey key(
+      long baseSnapshotId, long changeSnapshotId, String filter) {
+    return new KeyedTableScanPlanCache.PlanKey(
+        "catalog.db.table", baseSnapshotId, changeSnapshotId, filter);
+  }
+
+  private static Supplier<CloseableIterable<CombinedScanTask>> planner(
+      AtomicInteger plannings, int fileCount) {
+    return () -> {
+      plannings.incrementAndGet();
+      NodeFileScanTask task = new NodeFileScanTask(DataTreeNode.ofId(1));
+      for (int i = 0; i < fileCount; i++) {
+        task.addFile(
+            new BasicMixedFileScanTask(
+                DefaultKeyedFile.parseBase(
+                    DataFiles.builder(PartitionSpec.unpartitioned())
+                        .withPath(String.format("/table/base/1-B-1-00000-0-0-%05d.parquet", i))
+                        .withFormat(FileFormat.PARQUET)
+                        .withFileSizeInBytes(1024)
+                        .withRecordCount(10)
+                        .build()),
+                null,
+                PartitionSpec.unpartitioned()));
+      }
+      return CloseableIterable.withNoopClose(ImmutableList.of(new BaseCombinedScanTask(task)));
+    };
+  }
+}
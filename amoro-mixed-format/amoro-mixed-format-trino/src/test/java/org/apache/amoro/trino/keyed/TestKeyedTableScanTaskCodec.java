@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.amoro.data.DataTreeNode;
+import org.apache.amoro.data.DefaultKeyedFile;
+import org.apache.amoro.scan.BasicMixedFileScanTask;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.scan.MixedFileScanTask;
+import org.apache.amoro.scan.NodeFileScanTask;
+import org.apache.amoro.trino.util.ObjectSerializerUtil;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileMetadata;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Metrics;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TestKeyedTableScanTaskCodec {
+
+  private static final Schema SCHEMA =
+      new Schema(
+          Types.NestedField.required(1, "id", Types.IntegerType.get()),
+          Types.NestedField.required(2, "dt", Types.StringType.get()));
+  private static final PartitionSpec SPEC = PartitionSpec.builderFor(SCHEMA).identity("dt").build();
+  private static final String PARTITION_PATH = "dt=2022-01-01";
+  private static final String LOCATION = "hdfs://nameservice/warehouse/test_db.db/test_pk_table";
+
+  @Test
+  public void testRoundTrip() {
+    NodeFileScanTask task = createTask(3, 5, 5, 2);
+    byte[] bytes = KeyedTableScanTaskCodec.encode(task);
+    assertThat(KeyedTableScanTaskCodec.isEncoded(bytes)).isTrue();
+
+    KeyedTableScanTask decoded = decode(bytes, task);
+    assertThat(((NodeFileScanTask) decoded).treeNode()).isEqualTo(task.treeNode());
+    assertThat(((NodeFileScanTask) decoded).cost()).isEqualTo(task.cost());
+    assertThat(((NodeFileScanTask) decoded).recordCount()).isEqualTo(task.recordCount());
+    assertSameTasks(decoded.baseTasks(), task.baseTasks());
+    assertSameTasks(decoded.insertTasks(), task.insertTasks());
+    assertSameTasks(decoded.mixedEquityDeletes(), task.mixedEquityDeletes());
+  }
+
+  @Test
+  public void testJavaSerializedBytesNotEncoded() {
+    NodeFileScanTask task = createTask(1, 1, 1, 1);
+    assertThat(KeyedTableScanTaskCodec.isEncoded(ObjectSerializerUtil.write(task))).isFalse();
+    assertThat(KeyedTableScanTaskCodec.isEncoded(null)).isFalse();
+  }
+
+  @Test
+  public void testEncodedSize() {
+    // many small change files, which is the case the java serialization is expensive for
+    NodeFileScanTask task = createTask(10, 200, 200, 4);
+    byte[] javaBytes = ObjectSerializerUtil.write(task);
+    byte[] encodedBytes = KeyedTableScanTaskCodec.encode(task);
+    assertThat(encodedBytes.length).isLessThan(javaBytes.length / 4);
+    assertSameTasks(decode(encodedBytes, task).dataTasks(), task.dataTasks());
+  }
+
+  static KeyedTableScanTask decode(byte[] bytes, NodeFileScanTask task) {
+    return KeyedTableScanTaskCodec.decode(bytes, SPEC, partition(task));
+  }
+
+  private static StructLike partition(NodeFileScanTask task) {
+    return task.dataTasks().get(0).file().partition();
+  }
+
+  private static void assertSameTasks(
+      List<MixedFileScanTask> actual, List<MixedFileScanTask> expected) {
+    assertThat(actual).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      MixedFileScanTask actualTask = actual.get(i);
+      MixedFileScanTask expectedTask = expected.get(i);
+      assertThat(actualTask.file()).isEqualTo(expectedTask.file());
+      assertThat(actualTask.file().type()).isEqualTo(expectedTask.file().type());
+      assertThat(actualTask.file().node()).isEqualTo(expectedTask.file().node());
+      assertThat(actualTask.file().transactionId()).isEqualTo(expectedTask.file().transactionId());
+      assertThat(actualTask.file().format()).isEqualTo(expectedTask.file().format());
+      assertThat(actualTask.file().recordCount()).isEqualTo(expectedTask.file().recordCount());
+      assertThat(actualTask.file().fileSizeInBytes())
+          .isEqualTo(expectedTask.file().fileSizeInBytes());
+      assertThat(actualTask.file().specId()).isEqualTo(expectedTask.file().specId());
+      assertThat(actualTask.spec()).isEqualTo(expectedTask.spec());
+      assertThat(actualTask.deletes()).hasSameSizeAs(expectedTask.deletes());
+      for (int j = 0; j < expectedTask.deletes().size(); j++) {
+        DeleteFile actualDelete = actualTask.deletes().get(j);
+        DeleteFile expectedDelete = expectedTask.deletes().get(j);
+        assertThat(actualDelete.path().toString()).isEqualTo(expectedDelete.path().toString());
+        assertThat(actualDelete.content()).isEqualTo(expectedDelete.content());
+        assertThat(actualDelete.format()).isEqualTo(expectedDelete.format());
+        assertThat(actualDelete.recordCount()).isEqualTo(expectedDelete.recordCount());
+        assertThat(actualDelete.fileSizeInBytes()).isEqualTo(expectedDelete.fileSizeInBytes());
+        assertThat(actualDelete.lowerBounds()).isEqualTo(expectedDelete.lowerBounds());
+        assertThat(actualDelete.upperBounds()).isEqualTo(expectedDelete.upperBounds());
+      }
+    }
+  }
+
+  static NodeFileScanTask createTask(
+      int baseFiles, int insertFiles, int eqDeleteFiles, int posDeleteFiles) {
+    long nodeId = 4;
+    NodeFileScanTask task = new NodeFileScanTask(DataTreeNode.ofId(nodeId));
+
+    List<DeleteFile> posDeletes = new ArrayList<>();
+    for (int i = 0; i < posDeleteFiles; i++) {
+      String path = filePath("base", nodeId, "PD", 2, i);
+      ByteBuffer bound = Conversions.toByteBuffer(Types.StringType.get(), path);
+      Map<Integer, ByteBuffer> bounds =
+          Collections.singletonMap(MetadataColumns.DELETE_FILE_PATH.fieldId(), bound);
+      posDeletes.add(
+          FileMetadata.deleteFileBuilder(SPEC)
+              .ofPositionDeletes()
+              .withPath(path)
+              .withFormat(FileFormat.PARQUET)
+              .withFileSizeInBytes(1024L + i)
+              .withPartitionPath(PARTITION_PATH)
+              .withMetrics(new Metrics(10L, null, null, null, null, bounds, bounds))
+              .build());
+    }
+    for (int i = 0; i < baseFiles; i++) {
+      DataFile dataFile = dataFile(filePath("base", nodeId, "B", 1, i), 100L + i);
+      task.addFile(
+          new BasicMixedFileScanTask(DefaultKeyedFile.parseBase(dataFile), posDeletes, SPEC));
+    }
+    for (int i = 0; i < insertFiles; i++) {
+      DataFile dataFile = dataFile(filePath("change", nodeId, "I", 3 + i, i), 10L + i);
+      task.addFile(new BasicMixedFileScanTask(DefaultKeyedFile.parseChange(dataFile), null, SPEC));
+    }
+    for (int i = 0; i < eqDeleteFiles; i++) {
+      DataFile dataFile = dataFile(filePath("change", nodeId, "ED", 3 + i, i), 5L + i);
+      task.addFile(new BasicMixedFileScanTask(DefaultKeyedFile.parseChange(dataFile), null, SPEC));
+    }
+    return task;
+  }
+
+  private static DataFile dataFile(String path, long recordCount) {
+    return DataFiles.builder(SPEC)
+        .withPath(path)
+        .withFormat(FileFormat.PARQUET)
+        .withFileSizeInBytes(recordCount * 64)
+        .withRecordCount(recordCount)
+        .withPartitionPath(PARTITION_PATH)
+        .build();
+  }
+
+  private static String filePath(
+      String store, long nodeId, String type, long transactionId, int count) {
+    return String.format(
+        "%s/%s/%s/%d-%s-%d-00000-0-9009257362994691056-%05d.parquet",
+        LOCATION, store, PARTITION_PATH, nodeId, type, transactionId, count);
+  }
+}